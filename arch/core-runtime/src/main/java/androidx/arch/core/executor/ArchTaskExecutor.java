@@ -36,7 +36,7 @@ public class ArchTaskExecutor extends TaskExecutor {
     private TaskExecutor mDelegate;
 
     @NonNull
-    private TaskExecutor mDefaultTaskExecutor;
+    private DefaultTaskExecutor mDefaultTaskExecutor;
 
     @NonNull
     private static final Executor sMainThreadExecutor = new Executor() {
@@ -91,6 +91,19 @@ public class ArchTaskExecutor extends TaskExecutor {
         mDelegate = taskExecutor == null ? mDefaultTaskExecutor : taskExecutor;
     }
 
+    /**
+     * Sets the executor the default TaskExecutor runs disk IO tasks on, without replacing the
+     * rest of the default TaskExecutor. It is not used while a delegate is set with
+     * {@link #setDelegate(TaskExecutor)}.
+     * <p>
+     * Calling this method with {@code null} restores the default {@link DiskIOExecutor}.
+     *
+     * @param diskIO The executor of disk IO tasks.
+     */
+    public void setDiskIOExecutor(@Nullable Executor diskIO) {
+        mDefaultTaskExecutor.setDiskIOExecutor(diskIO);
+    }
+
     @Override
     public void executeOnDiskIO(Runnable runnable) {
         mDelegate.executeOnDiskIO(runnable);
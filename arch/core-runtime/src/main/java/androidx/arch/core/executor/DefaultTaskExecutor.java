@@ -25,10 +25,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executor;
 
 /**
  * @hide
@@ -38,22 +35,52 @@ public class DefaultTaskExecutor extends TaskExecutor {
 
     private final Object mLock = new Object();
 
-    private final ExecutorService mDiskIO = Executors.newFixedThreadPool(4, new ThreadFactory() {
-        private static final String THREAD_NAME_STEM = "arch_disk_io_%d";
+    private final Executor mDefaultDiskIO;
 
-        private final AtomicInteger mThreadId = new AtomicInteger(0);
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r);
-            t.setName(String.format(THREAD_NAME_STEM, mThreadId.getAndIncrement()));
-            return t;
-        }
-    });
+    @NonNull
+    private volatile Executor mDiskIO;
 
     @Nullable
     private volatile Handler mMainHandler;
 
+    /**
+     * Creates a task executor that runs disk IO tasks on a {@link DiskIOExecutor} with the
+     * default number of threads.
+     */
+    public DefaultTaskExecutor() {
+        this(new DiskIOExecutor());
+    }
+
+    /**
+     * Creates a task executor that runs disk IO tasks on the given executor.
+     *
+     * @param diskIO The executor of disk IO tasks.
+     */
+    public DefaultTaskExecutor(@NonNull Executor diskIO) {
+        mDefaultDiskIO = diskIO;
+        mDiskIO = diskIO;
+    }
+
+    /**
+     * Sets the executor of disk IO tasks.
+     * <p>
+     * Calling this method with {@code null} restores the executor this task executor was
+     * created with.
+     *
+     * @param diskIO The executor of disk IO tasks.
+     */
+    public void setDiskIOExecutor(@Nullable Executor diskIO) {
+        mDiskIO = diskIO == null ? mDefaultDiskIO : diskIO;
+    }
+
+    /**
+     * Returns the executor of disk IO tasks.
+     */
+    @NonNull
+    public Executor getDiskIOExecutor() {
+        return mDiskIO;
+    }
+
     @Override
     public void executeOnDiskIO(Runnable runnable) {
         mDiskIO.execute(runnable);
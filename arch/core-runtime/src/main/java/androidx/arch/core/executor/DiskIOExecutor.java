@@ -0,0 +1,380 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.arch.core.executor;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An {@link Executor} for disk IO that runs its tasks on a fixed number of threads, with an
+ * optionally bounded queue, and records how long each task waited in the queue and how long it
+ * ran.
+ * <p>
+ * When the queue is full, new tasks are handled according to the {@link BackpressurePolicy} of
+ * the executor.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+public class DiskIOExecutor implements Executor {
+
+    /**
+     * Runs the task on the thread that submitted it when the queue is full.
+     */
+    public static final int POLICY_CALLER_RUNS = 0;
+
+    /**
+     * Blocks the thread that submitted the task until there is space in the queue.
+     */
+    public static final int POLICY_BLOCK = 1;
+
+    /**
+     * Throws a {@link RejectedExecutionException} when the queue is full.
+     */
+    public static final int POLICY_REJECT = 2;
+
+    /**
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    @IntDef({POLICY_CALLER_RUNS, POLICY_BLOCK, POLICY_REJECT})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface BackpressurePolicy {
+    }
+
+    /**
+     * The queue capacity of an unbounded executor.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    // The number of threads of the previous fixed thread pool
+    private static final int MIN_THREAD_COUNT = 4;
+
+    private static final String THREAD_NAME_STEM = "arch_disk_io_%d";
+
+    private final ThreadPoolExecutor mExecutor;
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    final Histogram mQueueLatency = new Histogram();
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    final Histogram mExecutionTime = new Histogram();
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    final AtomicLong mSaturationCount = new AtomicLong();
+
+    /**
+     * Creates an executor with {@link #getDefaultThreadCount()} threads and an unbounded queue.
+     */
+    public DiskIOExecutor() {
+        this(getDefaultThreadCount(), UNBOUNDED, POLICY_CALLER_RUNS);
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param threadCount   The number of threads that run the tasks.
+     * @param queueCapacity The maximum number of tasks waiting for a thread, or
+     *                      {@link #UNBOUNDED}.
+     * @param policy        How to handle tasks submitted while the queue is full.
+     */
+    public DiskIOExecutor(@IntRange(from = 1) int threadCount,
+            @IntRange(from = 1) int queueCapacity, @BackpressurePolicy int policy) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        mExecutor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+                    private final AtomicInteger mThreadId = new AtomicInteger(0);
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r);
+                        t.setName(String.format(THREAD_NAME_STEM, mThreadId.getAndIncrement()));
+                        return t;
+                    }
+                }, createRejectedExecutionHandler(policy));
+    }
+
+    /**
+     * Returns the number of threads of an executor created with the default constructor: the
+     * number of available processors, and at least 4, as disk IO tasks spend most of their time
+     * waiting rather than computing.
+     */
+    public static int getDefaultThreadCount() {
+        return Math.max(MIN_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+    }
+
+    private RejectedExecutionHandler createRejectedExecutionHandler(
+            @BackpressurePolicy int policy) {
+        switch (policy) {
+            case POLICY_CALLER_RUNS:
+                return new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        if (executor.isShutdown()) {
+                            throw new RejectedExecutionException("Executor is shut down");
+                        }
+                        mSaturationCount.incrementAndGet();
+                        r.run();
+                    }
+                };
+            case POLICY_BLOCK:
+                return new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        if (executor.isShutdown()) {
+                            throw new RejectedExecutionException("Executor is shut down");
+                        }
+                        mSaturationCount.incrementAndGet();
+                        try {
+                            executor.getQueue().put(r);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException(
+                                    "Interrupted while waiting for space in the queue", e);
+                        }
+                    }
+                };
+            case POLICY_REJECT:
+                return new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        if (!executor.isShutdown()) {
+                            mSaturationCount.incrementAndGet();
+                        }
+                        throw new RejectedExecutionException("Disk IO queue is full");
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown backpressure policy " + policy);
+        }
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        mExecutor.execute(new InstrumentedRunnable(command));
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     */
+    public int getQueueSize() {
+        return mExecutor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of tasks that were submitted while the queue was full, and handled
+     * according to the {@link BackpressurePolicy} of this executor.
+     */
+    public long getSaturationCount() {
+        return mSaturationCount.get();
+    }
+
+    /**
+     * Returns the histogram of the time between submitting each task and starting to run it.
+     */
+    @NonNull
+    public Histogram getQueueLatency() {
+        return mQueueLatency;
+    }
+
+    /**
+     * Returns the histogram of the time each task ran.
+     */
+    @NonNull
+    public Histogram getExecutionTime() {
+        return mExecutionTime;
+    }
+
+    /**
+     * Starts an orderly shutdown: previously submitted tasks run, but no new tasks are accepted.
+     */
+    public void shutdown() {
+        mExecutor.shutdown();
+    }
+
+    /**
+     * Blocks until all tasks have run after {@link #shutdown()}, or the timeout elapses.
+     *
+     * @return {@code true} if all tasks have run, {@code false} if the timeout elapsed
+     */
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException {
+        return mExecutor.awaitTermination(timeout, unit);
+    }
+
+    private class InstrumentedRunnable implements Runnable {
+        private final Runnable mRunnable;
+        private final long mSubmitTimeNanos;
+
+        InstrumentedRunnable(Runnable runnable) {
+            mRunnable = runnable;
+            mSubmitTimeNanos = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            long startTimeNanos = System.nanoTime();
+            mQueueLatency.record(startTimeNanos - mSubmitTimeNanos);
+            try {
+                mRunnable.run();
+            } finally {
+                mExecutionTime.record(System.nanoTime() - startTimeNanos);
+            }
+        }
+    }
+
+    /**
+     * A histogram of durations, in buckets whose bounds double from one microsecond.
+     * <p>
+     * Bucket {@code 0} counts the durations shorter than one microsecond, bucket {@code i} the
+     * durations from {@code 2^(i-1)} up to {@code 2^i} microseconds, and the last bucket all the
+     * longer durations.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public static final class Histogram {
+        private static final int BUCKET_COUNT = 32;
+
+        private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong mMaxNanos = new AtomicLong();
+
+        Histogram() {
+        }
+
+        void record(long durationNanos) {
+            mCounts.incrementAndGet(getBucket(durationNanos));
+            long max = mMaxNanos.get();
+            while (durationNanos > max && !mMaxNanos.compareAndSet(max, durationNanos)) {
+                max = mMaxNanos.get();
+            }
+        }
+
+        private static int getBucket(long durationNanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+            if (micros <= 0) {
+                return 0;
+            }
+            return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        }
+
+        /**
+         * Returns the number of buckets.
+         */
+        public int getBucketCount() {
+            return BUCKET_COUNT;
+        }
+
+        /**
+         * Returns the exclusive upper bound of the given bucket in nanoseconds, or
+         * {@link Long#MAX_VALUE} for the last bucket.
+         */
+        public long getBucketUpperBoundNanos(int bucket) {
+            if (bucket == BUCKET_COUNT - 1) {
+                return Long.MAX_VALUE;
+            }
+            return TimeUnit.MICROSECONDS.toNanos(1L << bucket);
+        }
+
+        /**
+         * Returns the number of durations recorded in the given bucket.
+         */
+        public long getCount(int bucket) {
+            return mCounts.get(bucket);
+        }
+
+        /**
+         * Returns the number of durations recorded in all buckets.
+         */
+        public long getTotalCount() {
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                total += mCounts.get(i);
+            }
+            return total;
+        }
+
+        /**
+         * Returns the longest recorded duration in nanoseconds, or {@code 0} if none was
+         * recorded.
+         */
+        public long getMaxNanos() {
+            return mMaxNanos.get();
+        }
+
+        /**
+         * Returns the upper bound of the bucket that contains the given percentile of the
+         * recorded durations, capped to the longest recorded duration, or {@code 0} if none was
+         * recorded.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         */
+        public long getPercentileNanos(float percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = mCounts.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(getBucketUpperBoundNanos(i), getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        /**
+         * Clears all the recorded durations.
+         */
+        public void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mCounts.set(i, 0);
+            }
+            mMaxNanos.set(0);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.arch.core.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(JUnit4.class)
+public class DiskIOExecutorTest {
+    private static final long TASK_DURATION_MS = 20;
+
+    private DiskIOExecutor mExecutor;
+
+    @After
+    public void shutdown() throws InterruptedException {
+        if (mExecutor != null) {
+            mExecutor.shutdown();
+            assertTrue(mExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void recordsExecutionTime() throws InterruptedException {
+        mExecutor = new DiskIOExecutor(2, DiskIOExecutor.UNBOUNDED,
+                DiskIOExecutor.POLICY_CALLER_RUNS);
+        for (int i = 0; i < 4; i++) {
+            mExecutor.execute(new SleepRunnable(TASK_DURATION_MS));
+        }
+        mExecutor.shutdown();
+        assertTrue(mExecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+        DiskIOExecutor.Histogram executionTime = mExecutor.getExecutionTime();
+        assertEquals(4, executionTime.getTotalCount());
+        assertTrue(executionTime.getMaxNanos()
+                >= TimeUnit.MILLISECONDS.toNanos(TASK_DURATION_MS));
+        assertTrue(executionTime.getPercentileNanos(50)
+                >= TimeUnit.MILLISECONDS.toNanos(TASK_DURATION_MS));
+        assertEquals(4, mExecutor.getQueueLatency().getTotalCount());
+    }
+
+    @Test
+    public void recordsQueueLatency() throws InterruptedException {
+        mExecutor = new DiskIOExecutor(1, DiskIOExecutor.UNBOUNDED,
+                DiskIOExecutor.POLICY_CALLER_RUNS);
+        // With a single thread, the second task waits for the first one to run
+        mExecutor.execute(new SleepRunnable(TASK_DURATION_MS));
+        mExecutor.execute(new SleepRunnable(0));
+        mExecutor.shutdown();
+        assertTrue(mExecutor.awaitTermination(10, TimeUnit.SECONDS));
+
+        DiskIOExecutor.Histogram queueLatency = mExecutor.getQueueLatency();
+        assertEquals(2, queueLatency.getTotalCount());
+        assertTrue(queueLatency.getMaxNanos()
+                >= TimeUnit.MILLISECONDS.toNanos(TASK_DURATION_MS));
+        assertTrue(queueLatency.getPercentileNanos(100)
+                >= TimeUnit.MILLISECONDS.toNanos(TASK_DURATION_MS));
+    }
+
+    @Test
+    public void callerRunsWhenQueueIsFull() throws InterruptedException {
+        mExecutor = new DiskIOExecutor(1, 1, DiskIOExecutor.POLICY_CALLER_RUNS);
+        CountDownLatch release = new CountDownLatch(1);
+        mExecutor.execute(new AwaitRunnable(release));
+        mExecutor.execute(new AwaitRunnable(release));
+
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                thread.set(Thread.currentThread());
+            }
+        });
+
+        assertSame(Thread.currentThread(), thread.get());
+        assertEquals(1, mExecutor.getSaturationCount());
+        release.countDown();
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() throws InterruptedException {
+        mExecutor = new DiskIOExecutor(1, 1, DiskIOExecutor.POLICY_REJECT);
+        CountDownLatch release = new CountDownLatch(1);
+        mExecutor.execute(new AwaitRunnable(release));
+        mExecutor.execute(new AwaitRunnable(release));
+
+        try {
+            mExecutor.execute(new SleepRunnable(0));
+            fail("Expected a RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(1, mExecutor.getSaturationCount());
+        assertEquals(1, mExecutor.getQueueSize());
+        release.countDown();
+    }
+
+    @Test
+    public void blocksWhenQueueIsFull() throws InterruptedException {
+        mExecutor = new DiskIOExecutor(1, 1, DiskIOExecutor.POLICY_BLOCK);
+        mExecutor.execute(new SleepRunnable(TASK_DURATION_MS));
+        mExecutor.execute(new SleepRunnable(TASK_DURATION_MS));
+
+        // Waits for the first task to complete before it is queued
+        mExecutor.execute(new SleepRunnable(0));
+        assertEquals(1, mExecutor.getSaturationCount());
+
+        mExecutor.shutdown();
+        assertTrue(mExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(3, mExecutor.getExecutionTime().getTotalCount());
+    }
+
+    @Test
+    public void histogramBuckets() {
+        DiskIOExecutor.Histogram histogram = new DiskIOExecutor.Histogram();
+        histogram.record(500);
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(2));
+        assertEquals(1, histogram.getCount(10));
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1), histogram.getPercentileNanos(0));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(4), histogram.getPercentileNanos(50));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), histogram.getPercentileNanos(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    public void defaultTaskExecutorUsesDiskIOExecutor() throws InterruptedException {
+        DefaultTaskExecutor taskExecutor = new DefaultTaskExecutor();
+        assertTrue(taskExecutor.getDiskIOExecutor() instanceof DiskIOExecutor);
+
+        mExecutor = new DiskIOExecutor(1, DiskIOExecutor.UNBOUNDED,
+                DiskIOExecutor.POLICY_CALLER_RUNS);
+        taskExecutor.setDiskIOExecutor(mExecutor);
+        CountDownLatch latch = new CountDownLatch(1);
+        taskExecutor.executeOnDiskIO(new AwaitRunnable(latch));
+        latch.countDown();
+        mExecutor.shutdown();
+        assertTrue(mExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, mExecutor.getExecutionTime().getTotalCount());
+
+        taskExecutor.setDiskIOExecutor(null);
+        assertTrue(taskExecutor.getDiskIOExecutor() instanceof DiskIOExecutor);
+        assertTrue(taskExecutor.getDiskIOExecutor() != mExecutor);
+    }
+
+    private static class SleepRunnable implements Runnable {
+        private final long mDurationMs;
+
+        SleepRunnable(long durationMs) {
+            mDurationMs = durationMs;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(mDurationMs);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static class AwaitRunnable implements Runnable {
+        private final CountDownLatch mLatch;
+
+        AwaitRunnable(CountDownLatch latch) {
+            mLatch = latch;
+        }
+
+        @Override
+        public void run() {
+            try {
+                mLatch.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.filters.FlakyTest
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.JUnit4
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Measures initializing a graph of [Initializer]s, where independent initializers wait on IO,
+ * serially with [AppInitializer.initializeComponent] and in parallel with
+ * [AppInitializer.initializeComponents].
+ *
+ * Note that the flaky label is intentional opt-out of presubmit for these tests, since
+ * presubmit is only configured for dryRunMode, and dryRunMode is incompatible with startupMode.
+ */
+@RunWith(JUnit4::class)
+@LargeTest
+class AppInitializerBenchmark {
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val context: Context = InstrumentationRegistry.getInstrumentation().targetContext
+    private val executor: ExecutorService = Executors.newFixedThreadPool(THREAD_COUNT)
+
+    @After
+    fun tearDown() {
+        executor.shutdown()
+    }
+
+    @FlakyTest // NOTE: intentional! Test can't run in presubmit!
+    @Test
+    fun initializeComponent() {
+        benchmarkRule.measureRepeated {
+            AppInitializer(context).initializeComponent(DependentInitializer::class.java)
+        }
+    }
+
+    @FlakyTest // NOTE: intentional! Test can't run in presubmit!
+    @Test
+    fun initializeComponents() {
+        benchmarkRule.measureRepeated {
+            AppInitializer(context).initializeComponents(
+                listOf<Class<out Initializer<*>>>(DependentInitializer::class.java),
+                executor
+            )
+        }
+    }
+
+    /**
+     * Waits on IO for [IO_MILLIS].
+     */
+    abstract class IoInitializer : BackgroundInitializer<Unit> {
+        override fun create(context: Context) {
+            Thread.sleep(IO_MILLIS)
+        }
+
+        override fun dependencies(): List<Class<out Initializer<*>>> = emptyList()
+    }
+
+    class IoInitializer1 : IoInitializer()
+    class IoInitializer2 : IoInitializer()
+    class IoInitializer3 : IoInitializer()
+    class IoInitializer4 : IoInitializer()
+
+    /**
+     * Must be initialized on the main thread, after all the [IoInitializer]s.
+     */
+    class DependentInitializer : Initializer<Unit> {
+        override fun create(context: Context) {
+            Thread.sleep(IO_MILLIS)
+        }
+
+        override fun dependencies(): List<Class<out Initializer<*>>> {
+            return listOf(
+                IoInitializer1::class.java,
+                IoInitializer2::class.java,
+                IoInitializer3::class.java,
+                IoInitializer4::class.java
+            )
+        }
+    }
+
+    companion object {
+        private const val IO_MILLIS = 5L
+        private const val THREAD_COUNT = 4
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import org.junit.runners.Parameterized.Parameters
+import kotlin.random.Random
+
+/**
+ * Compares [IntIntMap] and [IntObjectMap] against [SparseArrayCompat], [SimpleArrayMap] and
+ * [HashMap] for lookups, insertions and removals at increasing sizes.
+ */
+@RunWith(Parameterized::class)
+class IntMapBenchmarkTest(private val size: Int) {
+    // Despite the fixed seed, the algorithm which produces random values may vary across
+    // OS versions. Since we're not doing cross-device comparison this is acceptable.
+    private val keys = Random(0).let { random -> IntArray(size) { random.nextInt() } }
+    private val lastKey = keys.last()
+
+    @get:Rule
+    val benchmark = BenchmarkRule()
+
+    @Test fun intIntMap_get() {
+        val map = IntIntMap().apply { keys.forEach { put(it, it) } }
+        benchmark.measureRepeated {
+            map.get(lastKey)
+        }
+    }
+
+    @Test fun intObjectMap_get() {
+        val map = IntObjectMap<String>().apply { keys.forEach { put(it, "value") } }
+        benchmark.measureRepeated {
+            map.get(lastKey)
+        }
+    }
+
+    @Test fun sparseArray_get() {
+        val map = SparseArrayCompat<String>().apply { keys.forEach { put(it, "value") } }
+        benchmark.measureRepeated {
+            map.get(lastKey)
+        }
+    }
+
+    @Test fun simpleArrayMap_get() {
+        val map = SimpleArrayMap<Int, String>().apply { keys.forEach { put(it, "value") } }
+        benchmark.measureRepeated {
+            map.get(lastKey)
+        }
+    }
+
+    @Test fun hashMap_get() {
+        val map = HashMap<Int, String>().apply { keys.forEach { put(it, "value") } }
+        benchmark.measureRepeated {
+            map.get(lastKey)
+        }
+    }
+
+    @Test fun intIntMap_fill() {
+        benchmark.measureRepeated {
+            val map = IntIntMap()
+            for (key in keys) {
+                map.put(key, key)
+            }
+        }
+    }
+
+    @Test fun intObjectMap_fill() {
+        benchmark.measureRepeated {
+            val map = IntObjectMap<String>()
+            for (key in keys) {
+                map.put(key, "value")
+            }
+        }
+    }
+
+    @Test fun sparseArray_fill() {
+        benchmark.measureRepeated {
+            val map = SparseArrayCompat<String>()
+            for (key in keys) {
+                map.put(key, "value")
+            }
+        }
+    }
+
+    @Test fun simpleArrayMap_fill() {
+        benchmark.measureRepeated {
+            val map = SimpleArrayMap<Int, String>()
+            for (key in keys) {
+                map.put(key, "value")
+            }
+        }
+    }
+
+    @Test fun hashMap_fill() {
+        benchmark.measureRepeated {
+            val map = HashMap<Int, String>()
+            for (key in keys) {
+                map.put(key, "value")
+            }
+        }
+    }
+
+    @Test fun intIntMap_removeAndReinsert() {
+        val map = IntIntMap().apply { keys.forEach { put(it, it) } }
+        benchmark.measureRepeated {
+            map.remove(lastKey)
+            map.put(lastKey, lastKey)
+        }
+    }
+
+    @Test fun sparseArray_removeAndReinsert() {
+        val map = SparseArrayCompat<String>().apply { keys.forEach { put(it, "value") } }
+        benchmark.measureRepeated {
+            map.remove(lastKey)
+            // Force the deferred compaction so the removal cost is actually paid.
+            map.size()
+            map.put(lastKey, "value")
+        }
+    }
+
+    @Test fun hashMap_removeAndReinsert() {
+        val map = HashMap<Int, String>().apply { keys.forEach { put(it, "value") } }
+        benchmark.measureRepeated {
+            map.remove(lastKey)
+            map.put(lastKey, "value")
+        }
+    }
+
+    companion object {
+        @JvmStatic
+        @Parameters(name = "size={0}")
+        fun parameters() = listOf(10, 100, 1_000, 10_000, 50_000)
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import org.junit.runners.Parameterized.Parameters
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+/**
+ * Measures the time for [threads] threads to each perform a fixed number of mostly-hit lookups
+ * against [LruCache] and [ConcurrentLruCache].
+ */
+@RunWith(Parameterized::class)
+class LruCacheContentionBenchmarkTest(private val threads: Int) {
+    private val executor = Executors.newFixedThreadPool(threads)
+
+    @get:Rule
+    val benchmark = BenchmarkRule()
+
+    @After fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test fun lruCache() {
+        val cache = object : LruCache<Int, String>(CACHE_SIZE) {
+            override fun create(key: Int) = "value$key"
+        }
+        measureLookups { cache.get(it) }
+    }
+
+    @Test fun concurrentLruCache() {
+        val cache = object : ConcurrentLruCache<Int, String>(CACHE_SIZE) {
+            override fun create(key: Int) = "value$key"
+        }
+        measureLookups { cache.get(it) }
+    }
+
+    private inline fun measureLookups(crossinline lookup: (Int) -> Unit) {
+        // Slightly more keys than fit so that a small fraction of lookups miss and evict.
+        val tasks = List(threads) { thread ->
+            Callable {
+                for (i in 0 until LOOKUPS_PER_THREAD) {
+                    lookup((i * 7 + thread) % (CACHE_SIZE + CACHE_SIZE / 10))
+                }
+            }
+        }
+        benchmark.measureRepeated {
+            executor.invokeAll(tasks)
+        }
+    }
+
+    companion object {
+        private const val CACHE_SIZE = 500
+        private const val LOOKUPS_PER_THREAD = 10_000
+
+        @JvmStatic
+        @Parameters(name = "threads={0}")
+        fun parameters() = listOf(1, 2, 4, 8)
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A variant of {@link LruCache} for caches shared by many threads.
+ *
+ * <p>{@link LruCache} guards every operation with a single monitor, and since a cache hit
+ * reorders its access-ordered map, even concurrent reads serialize on each other. This class
+ * keeps its entries in a {@link ConcurrentHashMap} so that {@link #get} never blocks on a hit.
+ * Hits are recorded in striped, lossy read buffers and applied to the recency order in batches
+ * by whichever thread next holds the eviction lock. Writes and evictions still take that lock.
+ *
+ * <p>As a consequence the eviction order is an approximation of least-recently-used: under heavy
+ * contention some reads may not be recorded before an eviction happens. The
+ * {@link #create}, {@link #entryRemoved} and {@link #sizeOf} hooks behave exactly as they do for
+ * {@link LruCache}, and like there they are called without holding any lock.
+ */
+public class ConcurrentLruCache<K, V> {
+    // Number of reads each stripe can buffer before they must be drained. Must be a power of two.
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private final ConcurrentHashMap<K, Node<K, V>> mMap;
+
+    private final ReentrantLock mEvictionLock = new ReentrantLock();
+    // Sentinel of the circular recency list; mHead.mNext is the eldest entry. Guarded by
+    // mEvictionLock, as are mSize and mMaxSize writes.
+    private final Node<K, V> mHead = new Node<>(null, null, 0);
+    private volatile int mSize;
+    private volatile int mMaxSize;
+
+    private final int mReadBufferStripeMask;
+    private final AtomicReferenceArray<Node<K, V>> mReadBuffers;
+    // Per-stripe count of reads ever recorded, stored at the same offset as the stripe's buffer
+    // so that stripes do not share a cache line.
+    private final AtomicLongArray mReadBufferWriteCounts;
+    // Per-stripe count of reads already drained. Guarded by mEvictionLock.
+    private final long[] mReadBufferDrainCounts;
+
+    private final StripedCounter mPutCount = new StripedCounter();
+    private final StripedCounter mCreateCount = new StripedCounter();
+    private final StripedCounter mEvictionCount = new StripedCounter();
+    private final StripedCounter mHitCount = new StripedCounter();
+    private final StripedCounter mMissCount = new StripedCounter();
+
+    /**
+     * @param maxSize for caches that do not override {@link #sizeOf}, this is
+     *     the maximum number of entries in the cache. For all other caches,
+     *     this is the maximum sum of the sizes of the entries in this cache.
+     */
+    public ConcurrentLruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        mMaxSize = maxSize;
+        mMap = new ConcurrentHashMap<>();
+        mHead.mPrev = mHead;
+        mHead.mNext = mHead;
+
+        int stripes = StripedCounter.stripeCount();
+        mReadBufferStripeMask = stripes - 1;
+        mReadBuffers = new AtomicReferenceArray<>(stripes * READ_BUFFER_SIZE);
+        mReadBufferWriteCounts = new AtomicLongArray(stripes * READ_BUFFER_SIZE);
+        mReadBufferDrainCounts = new long[stripes];
+    }
+
+    /**
+     * Sets the size of the cache.
+     *
+     * @param maxSize The new maximum size.
+     */
+    public void resize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+
+        mEvictionLock.lock();
+        try {
+            mMaxSize = maxSize;
+        } finally {
+            mEvictionLock.unlock();
+        }
+        trimToSize(maxSize);
+    }
+
+    /**
+     * Returns the value for {@code key} if it exists in the cache or can be
+     * created by {@code #create}. If a value was returned, it is moved to the
+     * head of the queue. This returns null if a value is not cached and cannot
+     * be created.
+     *
+     * <p>A hit never blocks: the access is buffered and applied to the queue later.
+     */
+    @Nullable
+    public final V get(@NonNull K key) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+
+        Node<K, V> node = mMap.get(key);
+        if (node != null) {
+            mHitCount.increment();
+            recordRead(node);
+            return node.mValue;
+        }
+        mMissCount.increment();
+
+        /*
+         * Attempt to create a value. This may take a long time, and the map
+         * may be different when create() returns. If a conflicting value was
+         * added to the map while create() was working, we leave that value in
+         * the map and release the created value.
+         */
+
+        V createdValue = create(key);
+        if (createdValue == null) {
+            return null;
+        }
+
+        Node<K, V> created = new Node<>(key, createdValue, safeSizeOf(key, createdValue));
+        Node<K, V> existing;
+        mEvictionLock.lock();
+        try {
+            drainReadBuffers();
+            mCreateCount.increment();
+            existing = mMap.putIfAbsent(key, created);
+            if (existing == null) {
+                linkLast(created);
+                mSize += created.mSize;
+            }
+        } finally {
+            mEvictionLock.unlock();
+        }
+
+        if (existing != null) {
+            entryRemoved(false, key, createdValue, existing.mValue);
+            return existing.mValue;
+        } else {
+            trimToSize(mMaxSize);
+            return createdValue;
+        }
+    }
+
+    /**
+     * Caches {@code value} for {@code key}. The value is moved to the head of
+     * the queue.
+     *
+     * @return the previous value mapped by {@code key}.
+     */
+    @Nullable
+    public final V put(@NonNull K key, @NonNull V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("key == null || value == null");
+        }
+
+        Node<K, V> node = new Node<>(key, value, safeSizeOf(key, value));
+        Node<K, V> previous;
+        mEvictionLock.lock();
+        try {
+            // Apply buffered reads first so that they are ordered before this write.
+            drainReadBuffers();
+            mPutCount.increment();
+            previous = mMap.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+                mSize -= previous.mSize;
+            }
+            linkLast(node);
+            mSize += node.mSize;
+        } finally {
+            mEvictionLock.unlock();
+        }
+
+        if (previous != null) {
+            entryRemoved(false, key, previous.mValue, value);
+        }
+
+        trimToSize(mMaxSize);
+        return previous != null ? previous.mValue : null;
+    }
+
+    /**
+     * Remove the eldest entries until the total of remaining entries is at or
+     * below the requested size.
+     *
+     * @param maxSize the maximum size of the cache before returning. May be -1
+     *            to evict even 0-sized elements.
+     */
+    public void trimToSize(int maxSize) {
+        while (true) {
+            Node<K, V> toEvict;
+            mEvictionLock.lock();
+            try {
+                drainReadBuffers();
+
+                int size = mSize;
+                boolean empty = mHead.mNext == mHead;
+                if (size < 0 || (empty && size != 0)) {
+                    throw new IllegalStateException(getClass().getName()
+                            + ".sizeOf() is reporting inconsistent results!");
+                }
+
+                if (size <= maxSize || empty) {
+                    break;
+                }
+
+                toEvict = mHead.mNext;
+                mMap.remove(toEvict.mKey, toEvict);
+                unlink(toEvict);
+                mSize = size - toEvict.mSize;
+                mEvictionCount.increment();
+            } finally {
+                mEvictionLock.unlock();
+            }
+
+            entryRemoved(true, toEvict.mKey, toEvict.mValue, null);
+        }
+    }
+
+    /**
+     * Removes the entry for {@code key} if it exists.
+     *
+     * @return the previous value mapped by {@code key}.
+     */
+    @Nullable
+    public final V remove(@NonNull K key) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+
+        Node<K, V> previous;
+        mEvictionLock.lock();
+        try {
+            previous = mMap.remove(key);
+            if (previous != null) {
+                unlink(previous);
+                mSize -= previous.mSize;
+            }
+        } finally {
+            mEvictionLock.unlock();
+        }
+
+        if (previous == null) {
+            return null;
+        }
+        entryRemoved(false, key, previous.mValue, null);
+        return previous.mValue;
+    }
+
+    /**
+     * Called for entries that have been evicted or removed. This method is
+     * invoked when a value is evicted to make space, removed by a call to
+     * {@link #remove}, or replaced by a call to {@link #put}. The default
+     * implementation does nothing.
+     *
+     * <p>The method is called without synchronization: other threads may
+     * access the cache while this method is executing.
+     *
+     * @param evicted true if the entry is being removed to make space, false
+     *     if the removal was caused by a {@link #put} or {@link #remove}.
+     * @param newValue the new value for {@code key}, if it exists. If non-null,
+     *     this removal was caused by a {@link #put}. Otherwise it was caused by
+     *     an eviction or a {@link #remove}.
+     */
+    protected void entryRemoved(boolean evicted, @NonNull K key, @NonNull V oldValue,
+            @Nullable V newValue) {
+    }
+
+    /**
+     * Called after a cache miss to compute a value for the corresponding key.
+     * Returns the computed value or null if no value can be computed. The
+     * default implementation returns null.
+     *
+     * <p>The method is called without synchronization: other threads may
+     * access the cache while this method is executing.
+     *
+     * <p>If a value for {@code key} exists in the cache when this method
+     * returns, the created value will be released with {@link #entryRemoved}
+     * and discarded. This can occur when multiple threads request the same key
+     * at the same time (causing multiple values to be created), or when one
+     * thread calls {@link #put} while another is creating a value for the same
+     * key.
+     */
+    @Nullable
+    protected V create(@NonNull K key) {
+        return null;
+    }
+
+    private int safeSizeOf(K key, V value) {
+        int result = sizeOf(key, value);
+        if (result < 0) {
+            throw new IllegalStateException("Negative size: " + key + "=" + value);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the size of the entry for {@code key} and {@code value} in
+     * user-defined units.  The default implementation returns 1 so that size
+     * is the number of entries and max size is the maximum number of entries.
+     *
+     * <p>An entry's size must not change while it is in the cache.
+     */
+    protected int sizeOf(@NonNull K key, @NonNull V value) {
+        return 1;
+    }
+
+    /**
+     * Clear the cache, calling {@link #entryRemoved} on each removed entry.
+     */
+    public final void evictAll() {
+        trimToSize(-1); // -1 will evict 0-sized elements
+    }
+
+    /**
+     * For caches that do not override {@link #sizeOf}, this returns the number
+     * of entries in the cache. For all other caches, this returns the sum of
+     * the sizes of the entries in this cache.
+     */
+    public final int size() {
+        return mSize;
+    }
+
+    /**
+     * For caches that do not override {@link #sizeOf}, this returns the maximum
+     * number of entries in the cache. For all other caches, this returns the
+     * maximum sum of the sizes of the entries in this cache.
+     */
+    public final int maxSize() {
+        return mMaxSize;
+    }
+
+    /**
+     * Returns the number of times {@link #get} returned a value that was
+     * already present in the cache.
+     */
+    public final int hitCount() {
+        return (int) mHitCount.sum();
+    }
+
+    /**
+     * Returns the number of times {@link #get} returned null or required a new
+     * value to be created.
+     */
+    public final int missCount() {
+        return (int) mMissCount.sum();
+    }
+
+    /**
+     * Returns the number of times {@link #create(Object)} returned a value.
+     */
+    public final int createCount() {
+        return (int) mCreateCount.sum();
+    }
+
+    /**
+     * Returns the number of times {@link #put} was called.
+     */
+    public final int putCount() {
+        return (int) mPutCount.sum();
+    }
+
+    /**
+     * Returns the number of values that have been evicted.
+     */
+    public final int evictionCount() {
+        return (int) mEvictionCount.sum();
+    }
+
+    /**
+     * Returns a copy of the current contents of the cache, ordered from least
+     * recently accessed to most recently accessed.
+     */
+    @NonNull
+    public final Map<K, V> snapshot() {
+        mEvictionLock.lock();
+        try {
+            drainReadBuffers();
+            LinkedHashMap<K, V> snapshot = new LinkedHashMap<>(mMap.size());
+            for (Node<K, V> node = mHead.mNext; node != mHead; node = node.mNext) {
+                snapshot.put(node.mKey, node.mValue);
+            }
+            return snapshot;
+        } finally {
+            mEvictionLock.unlock();
+        }
+    }
+
+    @Override
+    @NonNull
+    public final String toString() {
+        int hitCount = hitCount();
+        int missCount = missCount();
+        int accesses = hitCount + missCount;
+        int hitPercent = accesses != 0 ? (100 * hitCount / accesses) : 0;
+        return String.format(Locale.US,
+                "ConcurrentLruCache[maxSize=%d,hits=%d,misses=%d,hitRate=%d%%]",
+                mMaxSize, hitCount, missCount, hitPercent);
+    }
+
+    private void recordRead(Node<K, V> node) {
+        int stripe = StripedCounter.currentStripe() & mReadBufferStripeMask;
+        int offset = stripe * READ_BUFFER_SIZE;
+        long count = mReadBufferWriteCounts.getAndIncrement(offset);
+        mReadBuffers.lazySet(offset + (int) (count & READ_BUFFER_MASK), node);
+
+        // Once a stripe fills, try to apply its reads. If another thread holds the lock it will
+        // drain on our behalf, or the oldest buffered reads are simply overwritten.
+        if ((count & READ_BUFFER_MASK) == READ_BUFFER_MASK && mEvictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                mEvictionLock.unlock();
+            }
+        }
+    }
+
+    // Must be called with mEvictionLock held.
+    private void drainReadBuffers() {
+        for (int stripe = 0; stripe <= mReadBufferStripeMask; stripe++) {
+            int offset = stripe * READ_BUFFER_SIZE;
+            long end = mReadBufferWriteCounts.get(offset);
+            long start = Math.max(mReadBufferDrainCounts[stripe], end - READ_BUFFER_SIZE);
+            for (long i = start; i < end; i++) {
+                Node<K, V> node = mReadBuffers.getAndSet(offset + (int) (i & READ_BUFFER_MASK),
+                        null);
+                if (node != null && node.mPrev != null) {
+                    unlink(node);
+                    linkLast(node);
+                }
+            }
+            mReadBufferDrainCounts[stripe] = end;
+        }
+    }
+
+    // Must be called with mEvictionLock held.
+    private void linkLast(Node<K, V> node) {
+        Node<K, V> last = mHead.mPrev;
+        node.mPrev = last;
+        node.mNext = mHead;
+        last.mNext = node;
+        mHead.mPrev = node;
+    }
+
+    // Must be called with mEvictionLock held. Unlinked nodes have null links, which lets
+    // drainReadBuffers() skip reads of entries that have since been removed.
+    private void unlink(Node<K, V> node) {
+        node.mPrev.mNext = node.mNext;
+        node.mNext.mPrev = node.mPrev;
+        node.mPrev = null;
+        node.mNext = null;
+    }
+
+    private static final class Node<K, V> {
+        final K mKey;
+        final V mValue;
+        final int mSize;
+        // Recency list links. Guarded by mEvictionLock.
+        Node<K, V> mPrev;
+        Node<K, V> mNext;
+
+        Node(K key, V value, int size) {
+            mKey = key;
+            mValue = value;
+            mSize = size;
+        }
+    }
+}
@@ -80,6 +80,35 @@ class ContainerHelpers {
         return ~lo;  // value not present
     }
 
+    // Spreads the bits of a key so that sequential keys do not cluster when masked into a
+    // power-of-two sized open-addressing table.
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int hash(Object key) {
+        return key == null ? 0 : hash(key.hashCode());
+    }
+
+    // Returns the size of the slot table needed to hold capacity entries at a load factor of at
+    // most one half. Always a power of two.
+    static int hashTableSize(int capacity) {
+        int need = Math.max(capacity, 2) * 2;
+        return Integer.highestOneBit(need - 1) << 1;
+    }
+
+    // Returns the capacity an open-addressing container should grow to in order to hold need
+    // entries.
+    static int growHashCapacity(int currentCapacity, int need) {
+        return Math.max(need, currentCapacity < 4 ? 8 : currentCapacity * 2);
+    }
+
     private ContainerHelpers() {
     }
 }
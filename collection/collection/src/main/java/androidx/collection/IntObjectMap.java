@@ -0,0 +1,368 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * IntObjectMap maps integers to Objects using an open-addressing hash table. Unlike
+ * {@link SparseArrayCompat}, lookups, insertions and removals take constant time on average
+ * regardless of the number of mappings, so it is appropriate for containers holding tens of
+ * thousands of items. Keys are not boxed and no object is allocated per mapping.
+ *
+ * <p>Mappings are stored densely in parallel key and value arrays, and a separate table of
+ * slots indexes into them. It is possible to iterate over the items in this container using
+ * {@link #keyAt(int)} and {@link #valueAt(int)} with indices in the range
+ * <code>0...size()-1</code>. Unlike SparseArrayCompat the iteration order is not sorted by
+ * key: it is insertion order until a mapping is removed, at which point the last mapping is
+ * moved into the removed index.</p>
+ */
+public class IntObjectMap<E> implements Cloneable {
+    private int[] mKeys;
+    private Object[] mValues;
+    // Open-addressing table with linear probing. Each slot holds the index of a mapping in
+    // mKeys/mValues plus one, so that zero marks a free slot.
+    private int[] mSlots;
+    private int mSize;
+
+    /**
+     * Creates a new IntObjectMap containing no mappings.
+     */
+    public IntObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates a new IntObjectMap containing no mappings that will not require any additional
+     * memory allocation to store the specified number of mappings. If you supply an initial
+     * capacity of 0, the map will be initialized with a light-weight representation not
+     * requiring any additional array allocations.
+     */
+    public IntObjectMap(int initialCapacity) {
+        if (initialCapacity == 0) {
+            mKeys = ContainerHelpers.EMPTY_INTS;
+            mValues = ContainerHelpers.EMPTY_OBJECTS;
+            mSlots = ContainerHelpers.EMPTY_INTS;
+        } else {
+            mKeys = new int[initialCapacity];
+            mValues = new Object[initialCapacity];
+            mSlots = new int[ContainerHelpers.hashTableSize(initialCapacity)];
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public IntObjectMap<E> clone() {
+        IntObjectMap<E> clone;
+        try {
+            clone = (IntObjectMap<E>) super.clone();
+            clone.mKeys = mKeys.clone();
+            clone.mValues = mValues.clone();
+            clone.mSlots = mSlots.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e); // Cannot happen as we implement Cloneable.
+        }
+        return clone;
+    }
+
+    /**
+     * Gets the Object mapped from the specified key, or <code>null</code>
+     * if no such mapping has been made.
+     */
+    @Nullable
+    @SuppressWarnings("NullAway") // See SparseArrayCompat.get(int).
+    public E get(int key) {
+        return get(key, null);
+    }
+
+    /**
+     * Gets the Object mapped from the specified key, or the specified Object
+     * if no such mapping has been made.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int key, E valueIfKeyNotFound) {
+        int index = indexOfKey(key);
+        return index >= 0 ? (E) mValues[index] : valueIfKeyNotFound;
+    }
+
+    /**
+     * Adds a mapping from the specified key to the specified value, replacing the previous
+     * mapping from the specified key if there was one.
+     */
+    public void put(int key, E value) {
+        int index = indexOfKey(key);
+        if (index >= 0) {
+            mValues[index] = value;
+            return;
+        }
+
+        if (mSize >= mKeys.length) {
+            ensureCapacity(ContainerHelpers.growHashCapacity(mKeys.length, mSize + 1));
+        }
+
+        index = mSize;
+        mKeys[index] = key;
+        mValues[index] = value;
+        mSize = index + 1;
+        insertSlot(key, index);
+    }
+
+    /**
+     * Copies all of the mappings from the {@code other} to this map. The effect of this call is
+     * equivalent to that of calling {@link #put(int, Object)} on this map once for each mapping
+     * from key to value in {@code other}.
+     */
+    public void putAll(@NonNull IntObjectMap<? extends E> other) {
+        ensureCapacity(mSize + other.mSize);
+        for (int i = 0, size = other.mSize; i < size; i++) {
+            put(other.mKeys[i], other.valueAt(i));
+        }
+    }
+
+    /**
+     * Removes the mapping from the specified key, if there was any.
+     *
+     * @return Returns true if a mapping was removed.
+     */
+    public boolean remove(int key) {
+        int index = indexOfKey(key);
+        if (index >= 0) {
+            removeAt(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the mapping at the given index. The last mapping is moved into
+     * <code>index</code>, so when removing while iterating, visit indices in descending order.
+     */
+    public void removeAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        deleteSlot(findSlot(mKeys[index]));
+
+        int last = mSize - 1;
+        if (index != last) {
+            int lastKey = mKeys[last];
+            mSlots[findSlot(lastKey)] = index + 1;
+            mKeys[index] = lastKey;
+            mValues[index] = mValues[last];
+        }
+        mValues[last] = null;
+        mSize = last;
+    }
+
+    /**
+     * Ensures the map can hold at least {@code minimumCapacity} mappings without growing.
+     */
+    public void ensureCapacity(int minimumCapacity) {
+        if (minimumCapacity <= mKeys.length) {
+            return;
+        }
+        mKeys = Arrays.copyOf(mKeys, minimumCapacity);
+        mValues = Arrays.copyOf(mValues, minimumCapacity);
+        mSlots = new int[ContainerHelpers.hashTableSize(minimumCapacity)];
+        for (int i = 0; i < mSize; i++) {
+            insertSlot(mKeys[i], i);
+        }
+    }
+
+    /**
+     * Returns the number of key-value mappings that this map currently stores.
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Return true if size() is 0.
+     * @return true if size() is 0.
+     */
+    public boolean isEmpty() {
+        return mSize == 0;
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns the key from the
+     * <code>index</code>th key-value mapping that this map stores.
+     */
+    public int keyAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return mKeys[index];
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, returns the value from the
+     * <code>index</code>th key-value mapping that this map stores.
+     */
+    @SuppressWarnings("unchecked")
+    public E valueAt(int index) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return (E) mValues[index];
+    }
+
+    /**
+     * Given an index in the range <code>0...size()-1</code>, sets a new value for the
+     * <code>index</code>th key-value mapping that this map stores.
+     */
+    public void setValueAt(int index, E value) {
+        if (index >= mSize) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        mValues[index] = value;
+    }
+
+    /**
+     * Returns the index for which {@link #keyAt} would return the specified key, or a negative
+     * number if the specified key is not mapped.
+     */
+    public int indexOfKey(int key) {
+        if (mSize == 0) {
+            return -1;
+        }
+        int[] slots = mSlots;
+        int mask = slots.length - 1;
+        int slot = ContainerHelpers.hash(key) & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (mKeys[entry - 1] == key) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns an index for which {@link #valueAt} would return the specified value, or a
+     * negative number if no keys map to the specified value.
+     * <p>Beware that this is a linear search, unlike lookups by key, and that multiple keys can
+     * map to the same value and this will find only one of them.
+     * <p>Note also that unlike most collections' {@code indexOf} methods,
+     * this method compares values using {@code ==} rather than {@code equals}.
+     */
+    public int indexOfValue(E value) {
+        for (int i = 0; i < mSize; i++) {
+            if (mValues[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns true if the specified key is mapped. */
+    public boolean containsKey(int key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /** Returns true if the specified value is mapped from any key. */
+    public boolean containsValue(E value) {
+        return indexOfValue(value) >= 0;
+    }
+
+    /**
+     * Removes all key-value mappings from this map.
+     */
+    public void clear() {
+        if (mSize != 0) {
+            Arrays.fill(mSlots, 0);
+            Arrays.fill(mValues, 0, mSize, null);
+            mSize = 0;
+        }
+    }
+
+    private int findSlot(int key) {
+        int[] slots = mSlots;
+        int mask = slots.length - 1;
+        int slot = ContainerHelpers.hash(key) & mask;
+        while (mKeys[slots[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertSlot(int key, int index) {
+        int[] slots = mSlots;
+        int mask = slots.length - 1;
+        int slot = ContainerHelpers.hash(key) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    // Frees the given slot, shifting back any later entries of the probe sequence so that
+    // lookups never need tombstones.
+    private void deleteSlot(int hole) {
+        int[] slots = mSlots;
+        int mask = slots.length - 1;
+        int next = (hole + 1) & mask;
+        int entry;
+        while ((entry = slots[next]) != 0) {
+            int ideal = ContainerHelpers.hash(mKeys[entry - 1]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = entry;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation composes a string by iterating over its mappings. If
+     * this map contains itself as a value, the string "(this Map)"
+     * will appear in its place.
+     */
+    @Override
+    public String toString() {
+        if (mSize <= 0) {
+            return "{}";
+        }
+
+        StringBuilder buffer = new StringBuilder(mSize * 28);
+        buffer.append('{');
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(mKeys[i]);
+            buffer.append('=');
+            Object value = mValues[i];
+            if (value != this) {
+                buffer.append(value);
+            } else {
+                buffer.append("(this Map)");
+            }
+        }
+        buffer.append('}');
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter which spreads increments from different threads over several cells so that
+ * concurrent writers rarely contend on the same memory location. Reading the total is
+ * comparatively expensive and only weakly consistent with concurrent increments.
+ */
+final class StripedCounter {
+    // Cells are spaced this many longs apart so that neighbouring stripes do not share a cache
+    // line.
+    private static final int CELL_SPACING = 8;
+
+    private final AtomicLongArray mCells;
+    private final int mMask;
+
+    StripedCounter() {
+        int stripes = stripeCount();
+        mCells = new AtomicLongArray(stripes * CELL_SPACING);
+        mMask = stripes - 1;
+    }
+
+    void increment() {
+        mCells.getAndIncrement((currentStripe() & mMask) * CELL_SPACING);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0, length = mCells.length(); i < length; i += CELL_SPACING) {
+            sum += mCells.get(i);
+        }
+        return sum;
+    }
+
+    /** Returns the number of stripes to use, a power of two no smaller than the CPU count. */
+    static int stripeCount() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(cpus, 1) * 2 - 1);
+    }
+
+    /** Returns a well-distributed value derived from the calling thread's identity. */
+    static int currentStripe() {
+        return ContainerHelpers.hash((int) Thread.currentThread().getId());
+    }
+}
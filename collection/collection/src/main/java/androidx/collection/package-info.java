@@ -37,6 +37,12 @@
  *         A map-like cache which keeps frequently-used entries and automatically evicts others.
  *     </li>
  *     <li>
+ *         <b>{@link androidx.collection.ConcurrentLruCache}</b>
+ *         <p>
+ *         A variant of {@code LruCache} whose cache hits do not block, for caches shared by
+ *         many threads.
+ *     </li>
+ *     <li>
  *         <b>{@link androidx.collection.CircularArray} /
  *         {@link androidx.collection.CircularIntArray}</b>
  *         <p>
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnit4.class)
+public class ConcurrentLruCacheTest {
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(3);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.get("a");
+        cache.put("d", "D");
+        assertEquals(Arrays.asList("c", "a", "d"), new ArrayList<>(cache.snapshot().keySet()));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void manyReadsKeepRecencyOrder() {
+        ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "v" + i);
+        }
+        // Read more than a read buffer's worth so that reads are drained while recording.
+        for (int round = 0; round < 5; round++) {
+            for (int i = 9; i >= 0; i--) {
+                cache.get(i);
+            }
+        }
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5, 4, 3, 2, 1, 0),
+                new ArrayList<>(cache.snapshot().keySet()));
+        assertEquals(50, cache.hitCount());
+    }
+
+    @Test
+    public void createAndCounters() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2) {
+            @Override
+            protected String create(String key) {
+                return key.length() > 1 ? null : key.toUpperCase();
+            }
+        };
+        assertEquals("A", cache.get("a"));
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("aa"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+        assertEquals(1, cache.createCount());
+        assertEquals(0, cache.putCount());
+        assertEquals("ConcurrentLruCache[maxSize=2,hits=1,misses=2,hitRate=33%]",
+                cache.toString());
+    }
+
+    @Test
+    public void entryRemovedCallbacks() {
+        final List<String> log = new ArrayList<>();
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2) {
+            @Override
+            protected void entryRemoved(boolean evicted, String key, String oldValue,
+                    String newValue) {
+                log.add(key + "=" + oldValue + "/" + newValue + (evicted ? " evicted" : ""));
+            }
+        };
+        cache.put("a", "A");
+        cache.put("a", "A2");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.remove("b");
+        cache.evictAll();
+        assertEquals(Arrays.asList("a=A/A2", "a=A2/null evicted", "b=B/null", "c=C/null evicted"),
+                log);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void sizeOfAndResize() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(10) {
+            @Override
+            protected int sizeOf(String key, String value) {
+                return value.length();
+            }
+        };
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        assertEquals(8, cache.size());
+        cache.resize(5);
+        assertEquals(4, cache.size());
+        assertEquals(5, cache.maxSize());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void concurrentAccessStaysWithinBounds() throws InterruptedException {
+        final ConcurrentLruCache<Integer, Integer> cache =
+                new ConcurrentLruCache<Integer, Integer>(100) {
+                    @Override
+                    protected Integer create(Integer key) {
+                        return key;
+                    }
+                };
+        final int threadCount = 8;
+        final int iterations = 10_000;
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        final AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < threadCount; t++) {
+            final int seed = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < iterations; i++) {
+                        int key = (i * 31 + seed) % 150;
+                        Integer value = cache.get(key);
+                        if (value == null || value != key) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+        assertEquals(0, failures.get());
+        assertTrue(cache.size() <= 100);
+        assertEquals(cache.size(), cache.snapshot().size());
+        assertEquals(threadCount * iterations, cache.hitCount() + cache.missCount());
+    }
+}
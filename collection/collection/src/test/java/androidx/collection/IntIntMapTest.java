@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class IntIntMapTest {
+    @Test
+    public void getReturnsZeroWhenAbsent() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(0, map.get(1));
+        assertEquals(-1, map.get(1, -1));
+    }
+
+    @Test
+    public void putReplacesExistingValue() {
+        IntIntMap map = new IntIntMap();
+        map.put(1, 10);
+        map.put(1, 11);
+        assertEquals(1, map.size());
+        assertEquals(11, map.get(1));
+    }
+
+    @Test
+    public void removeReturnsWhetherMapped() {
+        IntIntMap map = new IntIntMap();
+        map.put(1, 10);
+        assertFalse(map.remove(2));
+        assertTrue(map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void removeAtMovesLastMappingIntoIndex() {
+        IntIntMap map = new IntIntMap();
+        map.put(1, 10);
+        map.put(2, 20);
+        map.put(3, 30);
+        map.removeAt(0);
+        assertEquals(2, map.size());
+        assertEquals(3, map.keyAt(0));
+        assertEquals(30, map.valueAt(0));
+        assertEquals(0, map.indexOfKey(3));
+        assertEquals(1, map.indexOfKey(2));
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void keyAtOutOfBoundsThrows() {
+        IntIntMap map = new IntIntMap(10);
+        map.put(1, 10);
+        map.keyAt(1);
+    }
+
+    @Test
+    public void clearRemovesAllMappings() {
+        IntIntMap map = new IntIntMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(50));
+        map.put(50, 1);
+        assertEquals(1, map.get(50));
+    }
+
+    @Test
+    public void cloneIsIndependent() {
+        IntIntMap source = new IntIntMap();
+        source.put(1, 10);
+        IntIntMap clone = source.clone();
+        clone.put(2, 20);
+        source.remove(1);
+        assertEquals(10, clone.get(1));
+        assertFalse(source.containsKey(2));
+    }
+
+    @Test
+    public void putAll() {
+        IntIntMap dest = new IntIntMap();
+        dest.put(1, 1);
+        dest.put(3, 3);
+        IntIntMap source = new IntIntMap();
+        source.put(1, 11);
+        source.put(2, 2);
+        dest.putAll(source);
+        assertEquals(3, dest.size());
+        assertEquals(11, dest.get(1));
+        assertEquals(2, dest.get(2));
+        assertEquals(3, dest.get(3));
+    }
+
+    @Test
+    public void toStringContainsMappings() {
+        IntIntMap map = new IntIntMap();
+        assertEquals("{}", map.toString());
+        map.put(1, 10);
+        map.put(2, 20);
+        assertEquals("{1=10, 2=20}", map.toString());
+    }
+
+    @Test
+    public void randomOperationsMatchHashMap() {
+        Random random = new Random(0);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            // A small key range forces frequent collisions, replacements and removals.
+            int key = random.nextInt(2_000) * 1024;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey(), -1));
+        }
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals((int) expected.get(map.keyAt(i)), map.valueAt(i));
+        }
+    }
+}
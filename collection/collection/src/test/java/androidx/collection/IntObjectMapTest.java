@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class IntObjectMapTest {
+    @Test
+    public void putGetRemove() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.get(1));
+        assertEquals("default", map.get(1, "default"));
+        map.put(1, "one");
+        map.put(2, "two");
+        map.put(1, "uno");
+        assertEquals(2, map.size());
+        assertEquals("uno", map.get(1));
+        assertEquals("two", map.get(2));
+        assertFalse(map.remove(3));
+        assertTrue(map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertNull(map.get(1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removeAtMovesLastMappingIntoIndex() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "one");
+        map.put(2, "two");
+        map.put(3, "three");
+        map.removeAt(0);
+        assertEquals(2, map.size());
+        assertEquals(3, map.keyAt(0));
+        assertEquals("three", map.valueAt(0));
+        assertEquals(0, map.indexOfKey(3));
+        assertEquals(1, map.indexOfKey(2));
+    }
+
+    @Test
+    public void collidingKeysAcrossResize() {
+        // Starts with the smallest table, so that the colliding keys force several resizes.
+        IntObjectMap<Integer> map = new IntObjectMap<>(1);
+        int[] keys = collidingKeys(40);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+            for (int j = 0; j <= i; j++) {
+                assertEquals(Integer.valueOf(j), map.get(keys[j]));
+            }
+        }
+        assertEquals(keys.length, map.size());
+    }
+
+    @Test
+    public void removeFromProbeSequenceKeepsLaterKeys() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(16);
+        int[] keys = collidingKeys(8);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        // Removing from the start and the middle of the probe sequence frees slots that later
+        // keys of the sequence must still be found past.
+        assertTrue(map.remove(keys[0]));
+        assertTrue(map.remove(keys[4]));
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || i == 4) {
+                assertFalse(map.containsKey(keys[i]));
+            } else {
+                assertEquals(Integer.valueOf(i), map.get(keys[i]));
+            }
+        }
+        map.put(keys[4], 40);
+        assertEquals(Integer.valueOf(40), map.get(keys[4]));
+        assertEquals(7, map.size());
+    }
+
+    @Test
+    public void clearRemovesAllMappings() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "value");
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(50));
+        map.put(50, "fifty");
+        assertEquals("fifty", map.get(50));
+    }
+
+    @Test
+    public void cloneIsIndependent() {
+        IntObjectMap<String> source = new IntObjectMap<>();
+        source.put(1, "one");
+        IntObjectMap<String> clone = source.clone();
+        clone.put(2, "two");
+        source.remove(1);
+        assertEquals("one", clone.get(1));
+        assertFalse(source.containsKey(2));
+    }
+
+    @Test
+    public void randomOperationsMatchHashMap() {
+        Random random = new Random(0);
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000) * 1024;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    // Returns keys that all hash to the first slot of a table of up to 64 slots.
+    private static int[] collidingKeys(int count) {
+        int[] keys = new int[count];
+        int found = 0;
+        for (int key = 0; found < count; key++) {
+            if ((ContainerHelpers.hash(key) & 63) == 0) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class LongLongMapTest {
+    @Test
+    public void putGetRemove() {
+        LongLongMap map = new LongLongMap();
+        assertEquals(0, map.get(1L));
+        assertEquals(-1, map.get(1L, -1L));
+        map.put(1L, 10L);
+        map.put(Long.MAX_VALUE, 20L);
+        map.put(1L, 11L);
+        assertEquals(2, map.size());
+        assertEquals(11, map.get(1L));
+        assertEquals(20, map.get(Long.MAX_VALUE));
+        assertFalse(map.remove(3L));
+        assertTrue(map.remove(1L));
+        assertFalse(map.containsKey(1L));
+        assertEquals(-1, map.get(1L, -1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removeAtMovesLastMappingIntoIndex() {
+        LongLongMap map = new LongLongMap();
+        map.put(1L, 10L);
+        map.put(2L, 20L);
+        map.put(3L, 30L);
+        map.removeAt(0);
+        assertEquals(2, map.size());
+        assertEquals(3, map.keyAt(0));
+        assertEquals(30, map.valueAt(0));
+        assertEquals(0, map.indexOfKey(3));
+        assertEquals(1, map.indexOfKey(2));
+    }
+
+    @Test
+    public void collidingKeysAcrossResize() {
+        // Starts with the smallest table, so that the colliding keys force several resizes.
+        LongLongMap map = new LongLongMap(1);
+        long[] keys = collidingKeys(40);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+            for (int j = 0; j <= i; j++) {
+                assertEquals(j, map.get(keys[j], -1L));
+            }
+        }
+        assertEquals(keys.length, map.size());
+    }
+
+    @Test
+    public void removeFromProbeSequenceKeepsLaterKeys() {
+        LongLongMap map = new LongLongMap(16);
+        long[] keys = collidingKeys(8);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        // Removing from the start and the middle of the probe sequence frees slots that later
+        // keys of the sequence must still be found past.
+        assertTrue(map.remove(keys[0]));
+        assertTrue(map.remove(keys[4]));
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || i == 4) {
+                assertFalse(map.containsKey(keys[i]));
+            } else {
+                assertEquals(i, map.get(keys[i], -1L));
+            }
+        }
+        map.put(keys[4], 40);
+        assertEquals(40, map.get(keys[4]));
+        assertEquals(7, map.size());
+    }
+
+    @Test
+    public void clearRemovesAllMappings() {
+        LongLongMap map = new LongLongMap();
+        for (long i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(50L));
+        map.put(50L, 1L);
+        assertEquals(1, map.get(50L));
+    }
+
+    @Test
+    public void cloneIsIndependent() {
+        LongLongMap source = new LongLongMap();
+        source.put(1L, 10L);
+        LongLongMap clone = source.clone();
+        clone.put(2L, 20L);
+        source.remove(1L);
+        assertEquals(10, clone.get(1L));
+        assertFalse(source.containsKey(2L));
+    }
+
+    @Test
+    public void randomOperationsMatchHashMap() {
+        Random random = new Random(0);
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        for (long i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000) * (1L << 32);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals((long) entry.getValue(), map.get(entry.getKey(), -1L));
+        }
+    }
+
+    // Returns keys that all hash to the first slot of a table of up to 64 slots.
+    private static long[] collidingKeys(int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 0; found < count; key++) {
+            if ((ContainerHelpers.hash(key) & 63) == 0) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
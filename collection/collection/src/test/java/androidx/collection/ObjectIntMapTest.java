@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ObjectIntMapTest {
+    @Test
+    public void keysComparedByEquals() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        map.put(new String("key"), 1);
+        assertEquals(1, map.get(new String("key")));
+        assertTrue(map.containsKey("key"));
+    }
+
+    @Test
+    public void nullKeySupported() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        map.put(null, 1);
+        map.put("a", 2);
+        assertEquals(1, map.get(null));
+        assertTrue(map.remove(null));
+        assertFalse(map.containsKey(null));
+        assertEquals(2, map.get("a"));
+    }
+
+    @Test
+    public void removeClearsKeyReference() {
+        ObjectIntMap<String> map = new ObjectIntMap<>(4);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.remove("a");
+        assertEquals("b", map.keyAt(0));
+        assertEquals(2, map.valueAt(0));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.indexOfKey("b"));
+    }
+
+    @Test
+    public void collidingHashCodes() {
+        ObjectIntMap<Collider> map = new ObjectIntMap<>();
+        for (int i = 0; i < 50; i++) {
+            map.put(new Collider(i), i);
+        }
+        for (int i = 0; i < 50; i += 2) {
+            assertTrue(map.remove(new Collider(i)));
+        }
+        assertEquals(25, map.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i, map.get(new Collider(i), -1));
+        }
+    }
+
+    @Test
+    public void getOnEmptyMap() {
+        ObjectIntMap<String> map = new ObjectIntMap<>(0);
+        assertEquals(0, map.get("a"));
+        assertFalse(map.remove("a"));
+        assertTrue(map.isEmpty());
+    }
+
+    private static final class Collider {
+        private final int mId;
+
+        Collider(int id) {
+            mId = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).mId == mId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
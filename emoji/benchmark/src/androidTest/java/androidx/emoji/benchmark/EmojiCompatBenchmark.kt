@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.emoji.benchmark
+
+import android.content.Context
+import android.graphics.Typeface
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.emoji.bundled.BundledEmojiCompatConfig
+import androidx.emoji.text.EmojiCompat
+import androidx.emoji.text.MetadataRepo
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.nio.ByteBuffer
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures building the [MetadataRepo] of the bundled emoji font, and processing long text with
+ * and without emojis. The allocations reported by the benchmark cover the heap used by the
+ * metadata index.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class EmojiCompatBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    @Before
+    fun setUp() {
+        val latch = CountDownLatch(1)
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        EmojiCompat.init(BundledEmojiCompatConfig(context))
+        EmojiCompat.get().registerInitCallback(object : EmojiCompat.InitCallback() {
+            override fun onInitialized() = latch.countDown()
+        })
+        latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        assertEquals(EmojiCompat.LOAD_STATE_SUCCEEDED, EmojiCompat.get().loadState)
+    }
+
+    @Test
+    fun createMetadataRepo() {
+        val assets = ApplicationProvider.getApplicationContext<Context>().assets
+        val typeface = Typeface.createFromAsset(assets, FONT_NAME)
+        val font = assets.open(FONT_NAME).use { input ->
+            ByteBuffer.wrap(input.readBytes())
+        }
+        benchmarkRule.measureRepeated {
+            MetadataRepo.create(typeface, font.duplicate())
+        }
+    }
+
+    @Test
+    fun processTextWithEmojis() {
+        val text = buildText(TEXT_WITH_EMOJIS)
+        val emojiCompat = EmojiCompat.get()
+        benchmarkRule.measureRepeated {
+            emojiCompat.process(text)
+        }
+    }
+
+    @Test
+    fun processTextWithoutEmojis() {
+        val text = buildText(TEXT_WITHOUT_EMOJIS)
+        val emojiCompat = EmojiCompat.get()
+        benchmarkRule.measureRepeated {
+            emojiCompat.process(text)
+        }
+    }
+
+    private fun buildText(sentence: String): String {
+        val builder = StringBuilder()
+        while (builder.length < TEXT_LENGTH) {
+            builder.append(sentence)
+        }
+        return builder.toString()
+    }
+
+    companion object {
+        private const val FONT_NAME = "NotoColorEmojiCompat.ttf"
+        private const val TIMEOUT_SECONDS = 10L
+        private const val TEXT_LENGTH = 10_000
+        // Single, modified, ZWJ sequence and flag emojis, and a digit that is not an emoji
+        private const val TEXT_WITH_EMOJIS = "Lorem ipsum 😀 dolor " +
+            "👍🏽 sit 👨‍💻 amet " +
+            "🇫🇷 1 ❤️. "
+        private const val TEXT_WITHOUT_EMOJIS = "Lorem ipsum dolor sit amet, consectetur " +
+            "adipiscing elit 1. "
+    }
+}
@@ -19,7 +19,6 @@ import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP_PREFIX;
 
 import android.content.res.AssetManager;
 import android.graphics.Typeface;
-import android.util.SparseArray;
 
 import androidx.annotation.AnyThread;
 import androidx.annotation.NonNull;
@@ -32,6 +31,7 @@ import androidx.text.emoji.flatbuffer.MetadataList;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Class to hold the emoji metadata required to process and draw emojis.
@@ -39,11 +39,6 @@ import java.nio.ByteBuffer;
 @AnyThread
 @RequiresApi(19)
 public final class MetadataRepo {
-    /**
-     * The default children size of the root node.
-     */
-    private static final int DEFAULT_ROOT_SIZE = 1024;
-
     /**
      * MetadataList that contains the emoji metadata.
      */
@@ -56,9 +51,9 @@ public final class MetadataRepo {
     private final char[] mEmojiCharArray;
 
     /**
-     * Empty root node of the trie.
+     * Trie that maps emoji codepoint(s) to EmojiMetadata.
      */
-    private final Node mRootNode;
+    private volatile Trie mTrie;
 
     /**
      * Typeface to be used to render emojis.
@@ -74,7 +69,7 @@ public final class MetadataRepo {
     MetadataRepo() {
         mTypeface = null;
         mMetadataList = null;
-        mRootNode = new Node(DEFAULT_ROOT_SIZE);
+        mTrie = Trie.EMPTY;
         mEmojiCharArray = new char[0];
     }
 
@@ -88,7 +83,6 @@ public final class MetadataRepo {
             @NonNull final MetadataList metadataList) {
         mTypeface = typeface;
         mMetadataList = metadataList;
-        mRootNode = new Node(DEFAULT_ROOT_SIZE);
         mEmojiCharArray = new char[mMetadataList.listLength() * 2];
         constructIndex(mMetadataList);
     }
@@ -135,14 +129,15 @@ public final class MetadataRepo {
      */
     private void constructIndex(final MetadataList metadataList) {
         int length = metadataList.listLength();
+        final EmojiMetadata[] metadata = new EmojiMetadata[length];
         for (int i = 0; i < length; i++) {
-            final EmojiMetadata metadata = new EmojiMetadata(this, i);
+            metadata[i] = new EmojiMetadata(this, i);
             //since all emojis are mapped to a single codepoint in Private Use Area A they are 2
             //chars wide
             //noinspection ResultOfMethodCallIgnored
-            Character.toChars(metadata.getId(), mEmojiCharArray, i * 2);
-            put(metadata);
+            Character.toChars(metadata[i].getId(), mEmojiCharArray, i * 2);
         }
+        mTrie = Trie.create(metadata, length);
     }
 
     /**
@@ -165,8 +160,8 @@ public final class MetadataRepo {
      * @hide
      */
     @RestrictTo(LIBRARY_GROUP_PREFIX)
-    Node getRootNode() {
-        return mRootNode;
+    Trie getTrie() {
+        return mTrie;
     }
 
     /**
@@ -197,50 +192,206 @@ public final class MetadataRepo {
         Preconditions.checkArgument(data.getCodepointsLength() > 0,
                 "invalid metadata codepoint length");
 
-        mRootNode.put(data, 0, data.getCodepointsLength() - 1);
+        synchronized (this) {
+            // Only used to build the metadata of tests, so the trie is built again every time
+            final Trie trie = mTrie;
+            final EmojiMetadata[] metadata = new EmojiMetadata[trie.mMetadataCount + 1];
+            int count = 0;
+            for (EmojiMetadata nodeData : trie.mData) {
+                if (nodeData != null) {
+                    metadata[count++] = nodeData;
+                }
+            }
+            metadata[count++] = data;
+            mTrie = Trie.create(metadata, count);
+        }
     }
 
     /**
-     * Trie node that holds mapping from emoji codepoint(s) to EmojiMetadata. A single codepoint
-     * emoji is represented by a child of the root node.
+     * Immutable trie that holds mapping from emoji codepoint(s) to EmojiMetadata, flattened into
+     * arrays so that it takes a few objects and can be walked without allocations. A single
+     * codepoint emoji is represented by a child of the root node.
+     * <p>
+     * Nodes are numbered in breadth-first order, starting from the {@link #ROOT}. The codepoints
+     * of the children of a node are sorted in {@link #mKeys}, from {@code mChildStart[node]} to
+     * {@code mChildStart[node + 1]}. Since every node but the root is the child of a single node,
+     * the child for the codepoint at index {@code i} of {@link #mKeys} is node {@code i + 1}.
      *
      * @hide
      */
     @RestrictTo(LIBRARY_GROUP_PREFIX)
-    static class Node {
-        private final SparseArray<Node> mChildren;
-        private EmojiMetadata mData;
+    static final class Trie {
+        /**
+         * The root node of the trie.
+         */
+        static final int ROOT = 0;
 
-        private Node() {
-            this(1);
-        }
+        /**
+         * Returned by {@link #getChild(int, int)} when the node has no child for the codepoint.
+         */
+        static final int NO_NODE = -1;
+
+        @SuppressWarnings("WeakerAccess") /* synthetic access */
+        static final Trie EMPTY = new Trie(new int[]{0, 0}, new int[0], new EmojiMetadata[1], 0);
+
+        /**
+         * For each node, the index of its first child in {@link #mKeys}, followed by the number of
+         * codepoints in {@link #mKeys}.
+         */
+        private final int[] mChildStart;
+
+        /**
+         * Codepoints of the children of all nodes.
+         */
+        private final int[] mKeys;
+
+        /**
+         * For each node, the EmojiMetadata for the codepoints from the root to the node, or
+         * {@code null}.
+         */
+        @SuppressWarnings("WeakerAccess") /* synthetic access */
+        final EmojiMetadata[] mData;
 
+        /**
+         * Number of nodes with EmojiMetadata.
+         */
         @SuppressWarnings("WeakerAccess") /* synthetic access */
-        Node(final int defaultChildrenSize) {
-            mChildren = new SparseArray<>(defaultChildrenSize);
+        final int mMetadataCount;
+
+        private Trie(final int[] childStart, final int[] keys, final EmojiMetadata[] data,
+                final int metadataCount) {
+            mChildStart = childStart;
+            mKeys = keys;
+            mData = data;
+            mMetadataCount = metadataCount;
         }
 
-        Node get(final int key) {
-            return mChildren == null ? null : mChildren.get(key);
+        /**
+         * @return the child of the node for the codepoint, or {@link #NO_NODE}
+         */
+        int getChild(final int node, final int codepoint) {
+            final int index = Arrays.binarySearch(mKeys, mChildStart[node],
+                    mChildStart[node + 1], codepoint);
+            return index < 0 ? NO_NODE : index + 1;
         }
 
-        final EmojiMetadata getData() {
-            return mData;
+        /**
+         * @return the EmojiMetadata of the node, or {@code null}
+         */
+        EmojiMetadata getData(final int node) {
+            return mData[node];
         }
 
+        /**
+         * Creates the trie of the given metadata. When several of them have the same codepoints,
+         * the last one is used.
+         */
         @SuppressWarnings("WeakerAccess") /* synthetic access */
-        void put(@NonNull final EmojiMetadata data, final int start, final int end) {
-            Node node = get(data.getCodepointAt(start));
-            if (node == null) {
-                node = new Node();
-                mChildren.put(data.getCodepointAt(start), node);
+        static Trie create(final EmojiMetadata[] metadata, final int count) {
+            // Copy the codepoints once, rather than reading the flatbuffer for every comparison
+            final int[] offsets = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[i + 1] = offsets[i] + metadata[i].getCodepointsLength();
+            }
+            final int[] codepoints = new int[offsets[count]];
+            for (int i = 0; i < count; i++) {
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    codepoints[j] = metadata[i].getCodepointAt(j - offsets[i]);
+                }
+            }
+            final int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            sort(order, order.clone(), 0, count, codepoints, offsets);
+
+            // Every codepoint adds at most one node. The range of sorted metadata under each node
+            // and its depth are only needed until its children are added.
+            final int maxNodes = codepoints.length + 1;
+            final int[] childStart = new int[maxNodes + 1];
+            final int[] keys = new int[maxNodes - 1];
+            final EmojiMetadata[] data = new EmojiMetadata[maxNodes];
+            final int[] rangeStart = new int[maxNodes];
+            final int[] rangeEnd = new int[maxNodes];
+            final int[] depths = new int[maxNodes];
+            rangeEnd[ROOT] = count;
+            int nodeCount = 1;
+            int metadataCount = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                final int depth = depths[node];
+                final int end = rangeEnd[node];
+                int start = rangeStart[node];
+                // The metadata that ends at this node are sorted before the longer ones
+                if (start < end && length(order[start], offsets) == depth) {
+                    while (start < end && length(order[start], offsets) == depth) {
+                        data[node] = metadata[order[start++]];
+                    }
+                    metadataCount++;
+                }
+                childStart[node] = nodeCount - 1;
+                while (start < end) {
+                    final int codepoint = codepoints[offsets[order[start]] + depth];
+                    int childEnd = start + 1;
+                    while (childEnd < end
+                            && codepoints[offsets[order[childEnd]] + depth] == codepoint) {
+                        childEnd++;
+                    }
+                    keys[nodeCount - 1] = codepoint;
+                    rangeStart[nodeCount] = start;
+                    rangeEnd[nodeCount] = childEnd;
+                    depths[nodeCount] = depth + 1;
+                    nodeCount++;
+                    start = childEnd;
+                }
+            }
+            childStart[nodeCount] = nodeCount - 1;
+            return new Trie(Arrays.copyOf(childStart, nodeCount + 1),
+                    Arrays.copyOf(keys, nodeCount - 1), Arrays.copyOf(data, nodeCount),
+                    metadataCount);
+        }
+
+        private static int length(final int metadata, final int[] offsets) {
+            return offsets[metadata + 1] - offsets[metadata];
+        }
+
+        /**
+         * Stable merge sort of the metadata indices in {@code order}, from {@code start} to
+         * {@code end}, by their codepoints. {@code buffer} holds the same indices on entry.
+         */
+        private static void sort(final int[] order, final int[] buffer, final int start,
+                final int end, final int[] codepoints, final int[] offsets) {
+            if (end - start < 2) {
+                return;
+            }
+            final int middle = (start + end) >>> 1;
+            // Sort both halves into the buffer, and merge them back into order
+            sort(buffer, order, start, middle, codepoints, offsets);
+            sort(buffer, order, middle, end, codepoints, offsets);
+            int left = start;
+            int right = middle;
+            for (int i = start; i < end; i++) {
+                if (right >= end || (left < middle
+                        && compare(buffer[left], buffer[right], codepoints, offsets) <= 0)) {
+                    order[i] = buffer[left++];
+                } else {
+                    order[i] = buffer[right++];
+                }
             }
+        }
 
-            if (end > start) {
-                node.put(data, start + 1, end);
-            } else {
-                node.mData = data;
+        private static int compare(final int lhs, final int rhs, final int[] codepoints,
+                final int[] offsets) {
+            final int lhsLength = length(lhs, offsets);
+            final int rhsLength = length(rhs, offsets);
+            final int length = Math.min(lhsLength, rhsLength);
+            for (int i = 0; i < length; i++) {
+                final int lhsCodepoint = codepoints[offsets[lhs] + i];
+                final int rhsCodepoint = codepoints[offsets[rhs] + i];
+                if (lhsCodepoint != rhsCodepoint) {
+                    return lhsCodepoint < rhsCodepoint ? -1 : 1;
+                }
             }
+            return lhsLength - rhsLength;
         }
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.exifinterface.benchmark
+
+import android.content.Context
+import android.graphics.Bitmap
+import android.os.Build
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.exifinterface.media.ExifInterface
+import androidx.heifwriter.HeifWriter
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import org.junit.Assert.assertEquals
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.io.File
+import java.util.Random
+
+/**
+ * Measures reading the orientation, date and location of a corpus of generated images with all
+ * the tags read versus only these tags, and saving a changed value by rewriting the file versus
+ * overwriting it in place.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class ExifInterfaceBenchmark(private val format: String, private val selective: Boolean) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val context = ApplicationProvider.getApplicationContext<Context>()
+    private lateinit var files: List<File>
+
+    @Before
+    fun setup() {
+        if (format == HEIF) {
+            assumeTrue(Build.VERSION.SDK_INT >= 28)
+        }
+        val dir = File(context.cacheDir, "exif-benchmark-$format").apply {
+            deleteRecursively()
+            mkdirs()
+        }
+        val random = Random(0)
+        files = List(CORPUS_SIZE) { index ->
+            File(dir, "image$index.$format").also { file -> writeImage(file, random) }
+        }
+    }
+
+    @Test
+    fun read() {
+        var index = 0
+        benchmarkRule.measureRepeated {
+            val file = files[index++ % files.size]
+            val exif = if (selective) ExifInterface(file, TAGS) else ExifInterface(file)
+            assertEquals(
+                ExifInterface.ORIENTATION_ROTATE_90,
+                exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, 0)
+            )
+            exif.getAttribute(ExifInterface.TAG_DATETIME)
+            exif.latLong
+        }
+    }
+
+    @Test
+    fun save() {
+        assumeTrue(format == JPEG || format == WEBP)
+        var index = 0
+        benchmarkRule.measureRepeated {
+            val file = files[index % files.size]
+            val flip = index++ / files.size % 2 == 0
+            if (selective) {
+                // orientation values are always the same size, so they are overwritten in place
+                val exif = ExifInterface(file, TAGS)
+                exif.setAttribute(
+                    ExifInterface.TAG_ORIENTATION,
+                    (if (flip) ExifInterface.ORIENTATION_ROTATE_270
+                    else ExifInterface.ORIENTATION_ROTATE_90).toString()
+                )
+                check(exif.saveAttributesInPlace())
+            } else {
+                // changing the size of a value needs the file to be rewritten
+                val exif = ExifInterface(file)
+                exif.setAttribute(ExifInterface.TAG_SOFTWARE, if (flip) "benchmark" else "bench")
+                exif.saveAttributes()
+            }
+        }
+    }
+
+    private fun writeImage(file: File, random: Random) {
+        // noise does not compress well, so the files are about as large as camera pictures
+        val pixels = IntArray(WIDTH * HEIGHT) { random.nextInt() or 0xff000000.toInt() }
+        val bitmap = Bitmap.createBitmap(pixels, WIDTH, HEIGHT, Bitmap.Config.ARGB_8888)
+        if (format == HEIF) {
+            // ExifInterface cannot write HEIF files, the orientation is stored by the encoder
+            HeifWriter.Builder(file.path, WIDTH, HEIGHT, HeifWriter.INPUT_MODE_BITMAP)
+                .setRotation(90)
+                .build()
+                .apply {
+                    start()
+                    addBitmap(bitmap)
+                    stop(HEIF_TIMEOUT_MS)
+                    close()
+                }
+        } else {
+            file.outputStream().use { out ->
+                val compressFormat = when (format) {
+                    JPEG -> Bitmap.CompressFormat.JPEG
+                    PNG -> Bitmap.CompressFormat.PNG
+                    else -> @Suppress("DEPRECATION") Bitmap.CompressFormat.WEBP
+                }
+                bitmap.compress(compressFormat, 90, out)
+            }
+            ExifInterface(file).apply {
+                setAttribute(ExifInterface.TAG_MAKE, "androidx")
+                setAttribute(ExifInterface.TAG_MODEL, "benchmark")
+                setAttribute(ExifInterface.TAG_SOFTWARE, "bench")
+                setAttribute(
+                    ExifInterface.TAG_ORIENTATION,
+                    ExifInterface.ORIENTATION_ROTATE_90.toString()
+                )
+                setAttribute(ExifInterface.TAG_DATETIME, "2020:01:01 12:00:00")
+                setAttribute(ExifInterface.TAG_DATETIME_ORIGINAL, "2020:01:01 12:00:00")
+                setLatLong(37.42, -122.08)
+                saveAttributes()
+            }
+        }
+        bitmap.recycle()
+    }
+
+    companion object {
+        private const val JPEG = "jpg"
+        private const val PNG = "png"
+        private const val WEBP = "webp"
+        private const val HEIF = "heic"
+        private const val CORPUS_SIZE = 10
+        private const val WIDTH = 2048
+        private const val HEIGHT = 1536
+        private const val HEIF_TIMEOUT_MS = 10_000L
+
+        private val TAGS = listOf(
+            ExifInterface.TAG_ORIENTATION,
+            ExifInterface.TAG_DATETIME,
+            ExifInterface.TAG_GPS_LATITUDE,
+            ExifInterface.TAG_GPS_LATITUDE_REF,
+            ExifInterface.TAG_GPS_LONGITUDE,
+            ExifInterface.TAG_GPS_LONGITUDE_REF
+        )
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "format={0}, selective={1}")
+        fun data(): List<Array<Any>> {
+            return mutableListOf<Array<Any>>().apply {
+                arrayOf(JPEG, PNG, WEBP, HEIF).forEach { format ->
+                    arrayOf(false, true).forEach { selective ->
+                        add(arrayOf(format, selective))
+                    }
+                }
+            }
+        }
+    }
+}
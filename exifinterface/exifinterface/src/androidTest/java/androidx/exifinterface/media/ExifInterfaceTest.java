@@ -18,6 +18,7 @@ package androidx.exifinterface.media;
 
 import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -63,7 +64,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
@@ -759,6 +762,83 @@ public class ExifInterfaceTest {
         assertEquals(isoValue, exif.getAttribute(newTag));
     }
 
+    @Test
+    @LargeTest
+    public void testReadSelectedTags() throws IOException {
+        final List<String> tags = Arrays.asList(ExifInterface.TAG_ORIENTATION,
+                ExifInterface.TAG_DATETIME, ExifInterface.TAG_GPS_LATITUDE,
+                ExifInterface.TAG_GPS_LATITUDE_REF);
+        for (String fileName : new String[] {JPEG_WITH_EXIF_BYTE_ORDER_II,
+                JPEG_WITH_EXIF_BYTE_ORDER_MM, PNG_WITH_EXIF_BYTE_ORDER_II, WEBP_WITH_EXIF}) {
+            File imageFile = getFileFromExternalDir(fileName);
+            ExifInterface exif = new ExifInterface(imageFile.getAbsolutePath());
+            ExifInterface selectedExif = new ExifInterface(imageFile, tags);
+            for (String tag : tags) {
+                assertEquals(exif.getAttribute(tag), selectedExif.getAttribute(tag));
+                assertArrayEquals(exif.getAttributeRange(tag),
+                        selectedExif.getAttributeRange(tag));
+            }
+            // Other tags and the thumbnail are not read.
+            assertNotNull(exif.getAttribute(ExifInterface.TAG_MAKE));
+            assertNull(selectedExif.getAttribute(ExifInterface.TAG_MAKE));
+            assertFalse(selectedExif.hasThumbnail());
+        }
+    }
+
+    @Test
+    @LargeTest
+    public void testSaveAttributesInPlace() throws IOException {
+        File imageFile = getFileFromExternalDir(JPEG_WITH_EXIF_BYTE_ORDER_II);
+        final long length = imageFile.length();
+        ExifInterface exif = new ExifInterface(imageFile,
+                Arrays.asList(ExifInterface.TAG_ORIENTATION, ExifInterface.TAG_DATETIME_ORIGINAL));
+        final long[] orientationRange = exif.getAttributeRange(ExifInterface.TAG_ORIENTATION);
+        exif.setAttribute(ExifInterface.TAG_ORIENTATION,
+                Integer.toString(ExifInterface.ORIENTATION_ROTATE_270));
+        exif.setAttribute(ExifInterface.TAG_DATETIME_ORIGINAL, "2020:02:02 22:22:22");
+        assertTrue(exif.saveAttributesInPlace());
+
+        // The values are overwritten without moving anything in the file.
+        assertEquals(length, imageFile.length());
+        assertArrayEquals(orientationRange, exif.getAttributeRange(ExifInterface.TAG_ORIENTATION));
+        ExifInterface savedExif = new ExifInterface(imageFile.getAbsolutePath());
+        assertIntTag(savedExif, ExifInterface.TAG_ORIENTATION,
+                ExifInterface.ORIENTATION_ROTATE_270);
+        assertStringTag(savedExif, ExifInterface.TAG_DATETIME_ORIGINAL, "2020:02:02 22:22:22");
+        assertArrayEquals(orientationRange,
+                savedExif.getAttributeRange(ExifInterface.TAG_ORIENTATION));
+
+        // Values of a different size cannot be written when only some tags were read.
+        exif.setAttribute(ExifInterface.TAG_DATETIME_ORIGINAL, "invalid");
+        assertFalse(exif.saveAttributesInPlace());
+        try {
+            exif.saveAttributes();
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    @LargeTest
+    public void testSaveAttributesRewritesFile() throws IOException {
+        File imageFile = getFileFromExternalDir(JPEG_WITH_EXIF_BYTE_ORDER_II);
+        ExifInterface exif = new ExifInterface(imageFile.getAbsolutePath());
+        exif.setAttribute(ExifInterface.TAG_ORIENTATION,
+                Integer.toString(ExifInterface.ORIENTATION_ROTATE_270));
+        exif.saveAttributes();
+
+        // The file is rewritten even if the value could have been overwritten in place.
+        try {
+            exif.getAttributeRange(ExifInterface.TAG_ORIENTATION);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertIntTag(new ExifInterface(imageFile.getAbsolutePath()),
+                ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_ROTATE_270);
+    }
+
     private void printExifTagsAndValues(String fileName, ExifInterface exifInterface) {
         // Prints thumbnail information.
         if (exifInterface.hasThumbnail()) {
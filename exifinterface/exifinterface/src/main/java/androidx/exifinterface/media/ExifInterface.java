@@ -51,14 +51,18 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -3883,6 +3887,14 @@ public class ExifInterface {
     private int mOrfThumbnailOffset;
     private int mOrfThumbnailLength;
     private boolean mModified;
+    // Attributes as they were read, for each tag that has been changed since. Used to overwrite
+    // the changed values in place when saving.
+    @SuppressWarnings("unchecked")
+    private final HashMap<String, ExifAttribute>[] mOriginalAttributes =
+            new HashMap[EXIF_TAGS.length];
+    // The tags to read and the IFDs that contain them, or null if all the tags are read.
+    private Set<String> mRequestedTags;
+    private boolean[] mRequestedIfdTypes;
     // XMP data can be contained as either part of the EXIF data (tag number 700), or as a
     // separate data marker (a separate MARKER_APP1).
     private boolean mXmpIsFromSeparateMarker;
@@ -3923,6 +3935,58 @@ public class ExifInterface {
         initForFilename(filename);
     }
 
+    /**
+     * Reads only the given Exif tags from the specified image file.
+     * <p>
+     * This is faster than reading all the tags when only a few of them are needed from many
+     * images, such as the orientation, the date or the location. The values of other tags are
+     * not read, the image file directories that cannot contain any of the given tags are not
+     * parsed, and the file is accessed through its channel so that skipped data is never read.
+     * Other tags are reported as missing, and the thumbnail is not read.
+     * <p>
+     * Only JPEG, PNG, WebP and HEIF files are read selectively, all the tags are read from files
+     * of other formats. Attributes can only be saved with {@link #saveAttributesInPlace()} when
+     * a subset of the tags has been read.
+     *
+     * @param file the file of the image data
+     * @param tags the names of the tags to read
+     * @throws NullPointerException if file or tags is null
+     * @throws IOException if an I/O error occurs while retrieving file descriptor via
+     *         {@link FileInputStream#getFD()}.
+     */
+    @SuppressWarnings("deprecation")
+    public ExifInterface(@NonNull File file, @NonNull Collection<String> tags) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file cannot be null");
+        }
+        if (tags == null) {
+            throw new NullPointerException("tags cannot be null");
+        }
+        mRequestedTags = new HashSet<>(tags);
+        // Maintain compatibility.
+        if (mRequestedTags.contains(TAG_ISO_SPEED_RATINGS)) {
+            mRequestedTags.add(TAG_PHOTOGRAPHIC_SENSITIVITY);
+        }
+        // TAG_DATETIME defaults to the value of TAG_DATETIME_ORIGINAL.
+        if (mRequestedTags.contains(TAG_DATETIME)) {
+            mRequestedTags.add(TAG_DATETIME_ORIGINAL);
+        }
+        mRequestedIfdTypes = new boolean[EXIF_TAGS.length];
+        mRequestedIfdTypes[IFD_TYPE_PRIMARY] = true;
+        for (String tag : mRequestedTags) {
+            for (int i = 0; i < EXIF_TAGS.length; ++i) {
+                if (sExifTagMapsForWriting[i].containsKey(tag)) {
+                    mRequestedIfdTypes[i] = true;
+                }
+            }
+        }
+        // The interoperability IFD is only pointed to from the Exif IFD.
+        if (mRequestedIfdTypes[IFD_TYPE_INTEROPERABILITY]) {
+            mRequestedIfdTypes[IFD_TYPE_EXIF] = true;
+        }
+        initForFilename(file.getAbsolutePath());
+    }
+
     /**
      * Reads Exif tags from the specified image file descriptor. Attribute mutation is supported
      * for writable and seekable file descriptors only. This constructor will not rewind the offset
@@ -4229,6 +4293,7 @@ public class ExifInterface {
             }
             final ExifTag exifTag = sExifTagMapsForWriting[i].get(tag);
             if (exifTag != null) {
+                saveOriginalAttribute(i, tag);
                 if (value == null) {
                     mAttributes[i].remove(tag);
                     continue;
@@ -4512,10 +4577,18 @@ public class ExifInterface {
      */
     private void removeAttribute(String tag) {
         for (int i = 0 ; i < EXIF_TAGS.length; ++i) {
+            saveOriginalAttribute(i, tag);
             mAttributes[i].remove(tag);
         }
     }
 
+    // Keeps the attribute of the tag as it was read before it is changed for the first time.
+    private void saveOriginalAttribute(@IfdType int ifdType, String tag) {
+        if (!mOriginalAttributes[ifdType].containsKey(tag)) {
+            mOriginalAttributes[ifdType].put(tag, mAttributes[ifdType].get(tag));
+        }
+    }
+
     /**
      * This function decides which parser to read the image data according to the given input stream
      * type and the content of the input stream.
@@ -4528,16 +4601,32 @@ public class ExifInterface {
             // Initialize mAttributes.
             for (int i = 0; i < EXIF_TAGS.length; ++i) {
                 mAttributes[i] = new HashMap<>();
+                mOriginalAttributes[i] = new HashMap<>();
             }
 
             // Check file type
+            final InputStream source = in;
             if (!mIsExifDataOnly) {
                 in = new BufferedInputStream(in, SIGNATURE_CHECK_SIZE);
                 mMimeType = getMimeType((BufferedInputStream) in);
             }
 
             // Create byte-ordered input stream
-            ByteOrderedDataInputStream inputStream = new ByteOrderedDataInputStream(in);
+            ByteOrderedDataInputStream inputStream;
+            if (mRequestedTags != null && source instanceof FileInputStream
+                    && (mMimeType == IMAGE_TYPE_JPEG || mMimeType == IMAGE_TYPE_PNG
+                    || mMimeType == IMAGE_TYPE_WEBP || mMimeType == IMAGE_TYPE_HEIF)) {
+                // Read the file from its start again, bypassing the bytes buffered for checking
+                // the file type.
+                final FileInputStream fileInputStream = (FileInputStream) source;
+                fileInputStream.getChannel().position(0);
+                inputStream = new SeekableByteOrderedDataInputStream(fileInputStream);
+            } else {
+                // Other formats rely on tags that may not be requested to be parsed correctly.
+                mRequestedTags = null;
+                mRequestedIfdTypes = null;
+                inputStream = new ByteOrderedDataInputStream(in);
+            }
 
             if (!mIsExifDataOnly) {
                 switch (mMimeType) {
@@ -4641,7 +4730,9 @@ public class ExifInterface {
      * other. It's best to use {@link #setAttribute(String,String)} to set all attributes to write
      * and make a single call rather than multiple calls for each attribute.
      * <p>
-     * This method is supported for JPEG, PNG and WebP files.
+     * This method is supported for JPEG, PNG and WebP files. It is not supported when only some
+     * tags have been read with {@link #ExifInterface(File, Collection)}, use
+     * {@link #saveAttributesInPlace()} instead.
      * <p class="note">
      * Note: after calling this method, any attempts to obtain range information
      * from {@link #getAttributeRange(String)} or {@link #getThumbnailRange()}
@@ -4662,6 +4753,11 @@ public class ExifInterface {
                     "ExifInterface does not support saving attributes for the current input.");
         }
 
+        if (mRequestedTags != null) {
+            throw new IOException("ExifInterface only supports saving attributes in place when a "
+                    + "subset of tags has been read.");
+        }
+
         // Remember the fact that we've changed the file on disk from what was
         // originally parsed, meaning we can't answer range questions
         mModified = true;
@@ -4740,6 +4836,109 @@ public class ExifInterface {
         mThumbnailBytes = null;
     }
 
+    /**
+     * Overwrites the values of the changed attributes in the original image file, without copying
+     * the file. This is much faster than {@link #saveAttributes()} for large images.
+     * <p>
+     * This is only possible if only the values of tags that are in the file have been changed,
+     * and every new value takes as many bytes as the old one, such as when changing
+     * {@link #TAG_ORIENTATION} or {@link #TAG_DATETIME}. It is supported for JPEG and WebP files.
+     * Otherwise, nothing is written and {@code false} is returned, in which case
+     * {@link #saveAttributes()} can be used instead, unless only some tags have been read with
+     * {@link #ExifInterface(File, Collection)}.
+     * <p class="note">
+     * Note: unlike {@link #saveAttributes()}, this modifies the original file directly instead of
+     * replacing it with a new one. If the process dies or an I/O error occurs while the values are
+     * written, the file may be left with some of the new values and some of the old ones, and
+     * other readers of the file may observe partially written values.
+     * <p>
+     * The ranges returned by {@link #getAttributeRange(String)} stay valid after calling this
+     * method.
+     *
+     * @return {@code true} if the values were overwritten, {@code false} if the file needs to be
+     *         rewritten to save them
+     * @throws IOException if the values cannot be written to the file
+     */
+    public boolean saveAttributesInPlace() throws IOException {
+        if (mSeekableFileDescriptor == null && mFilename == null) {
+            throw new IOException(
+                    "ExifInterface does not support saving attributes for the current input.");
+        }
+        // The values of PNG files are covered by the CRC of their chunk.
+        if (mModified || (mMimeType != IMAGE_TYPE_JPEG && mMimeType != IMAGE_TYPE_WEBP)) {
+            return false;
+        }
+        final List<Pair<Integer, String>> changedTags = new ArrayList<>();
+        final List<Pair<Integer, String>> ignoredTags = new ArrayList<>();
+        for (int i = 0; i < EXIF_TAGS.length; ++i) {
+            for (Map.Entry<String, ExifAttribute> entry : mOriginalAttributes[i].entrySet()) {
+                final String tag = entry.getKey();
+                final ExifAttribute original = entry.getValue();
+                final ExifAttribute attribute = mAttributes[i].get(tag);
+                if (attribute == original) {
+                    continue;
+                }
+                if (original == null && attribute != null && i != IFD_TYPE_PRIMARY
+                        && mAttributes[IFD_TYPE_PRIMARY].containsKey(tag)) {
+                    // setAttribute() also adds the tag to the other IFDs that can contain it,
+                    // such as the one of the thumbnail. The value of the primary image is the
+                    // one that is read back, so the copy does not need to be written.
+                    ignoredTags.add(new Pair<>(i, tag));
+                    continue;
+                }
+                if (original == null || attribute == null
+                        || original.bytesOffset == ExifAttribute.BYTES_OFFSET_UNKNOWN
+                        || original.format != attribute.format
+                        || original.numberOfComponents != attribute.numberOfComponents
+                        || original.bytes.length != attribute.bytes.length) {
+                    return false;
+                }
+                changedTags.add(new Pair<>(i, tag));
+            }
+        }
+
+        RandomAccessFile file = null;
+        try {
+            if (mFilename != null) {
+                file = new RandomAccessFile(mFilename, "rw");
+            }
+            for (Pair<Integer, String> changedTag : changedTags) {
+                final ExifAttribute original =
+                        mOriginalAttributes[changedTag.first].get(changedTag.second);
+                final byte[] bytes = mAttributes[changedTag.first].get(changedTag.second).bytes;
+                if (file != null) {
+                    file.seek(original.bytesOffset);
+                    file.write(bytes);
+                } else if (Build.VERSION.SDK_INT >= 21) {
+                    int written = 0;
+                    while (written < bytes.length) {
+                        written += Os.pwrite(mSeekableFileDescriptor, bytes, written,
+                                bytes.length - written, original.bytesOffset + written);
+                    }
+                } else {
+                    // Nothing can be written in place. This is the same for every tag, so it
+                    // happens before anything was written and the file can still be rewritten.
+                    return false;
+                }
+                // Keep the attribute range valid.
+                mAttributes[changedTag.first].put(changedTag.second, new ExifAttribute(
+                        original.format, original.numberOfComponents, original.bytesOffset,
+                        bytes));
+            }
+        } catch (Exception e) {
+            throw new IOException("Failed to overwrite attributes", e);
+        } finally {
+            closeQuietly(file);
+        }
+        for (Pair<Integer, String> ignoredTag : ignoredTags) {
+            mAttributes[ignoredTag.first].remove(ignoredTag.second);
+        }
+        for (int i = 0; i < EXIF_TAGS.length; ++i) {
+            mOriginalAttributes[i].clear();
+        }
+        return true;
+    }
+
     /**
      * Returns true if the image file has a thumbnail.
      */
@@ -6808,6 +7007,17 @@ public class ExifInterface {
                 continue;
             }
 
+            // Skip the tags that are not requested, and the IFDs that cannot contain any of them.
+            Integer nextIfdType = sExifPointerTagMap.get(tagNumber);
+            if (mRequestedTags != null && (nextIfdType != null
+                    ? !mRequestedIfdTypes[nextIfdType] : !mRequestedTags.contains(tag.name))) {
+                if (DEBUG) {
+                    Log.d(TAG, "Skip the tag entry since it is not requested: " + tag.name);
+                }
+                dataInputStream.seek(nextEntryOffset);
+                continue;
+            }
+
             // Read a value from data field or seek to the value offset which is stored in data
             // field if the size of the entry value is bigger than 4.
             if (byteCount > 4) {
@@ -6852,7 +7062,6 @@ public class ExifInterface {
             }
 
             // Recursively parse IFD when a IFD pointer tag appears.
-            Integer nextIfdType = sExifPointerTagMap.get(tagNumber);
             if (DEBUG) {
                 Log.d(TAG, "nextIfdType: " + nextIfdType + " byteCount: " + byteCount);
             }
@@ -6940,7 +7149,8 @@ public class ExifInterface {
             }
         }
 
-        if (dataInputStream.peek() + 4 <= dataInputStream.mLength) {
+        if (dataInputStream.peek() + 4 <= dataInputStream.mLength
+                && (mRequestedIfdTypes == null || mRequestedIfdTypes[IFD_TYPE_THUMBNAIL])) {
             int nextIfdOffset = dataInputStream.readInt();
             if (DEBUG) {
                 Log.d(TAG, String.format("nextIfdOffset: %d", nextIfdOffset));
@@ -7638,6 +7848,11 @@ public class ExifInterface {
             mByteOrder = byteOrder;
         }
 
+        // Continues reading from the given stream, which must be at the current position.
+        void setInputStream(InputStream in) {
+            mDataInputStream = new DataInputStream(in);
+        }
+
         public void seek(long byteCount) throws IOException {
             if (mPosition > byteCount) {
                 mPosition = 0;
@@ -7863,6 +8078,38 @@ public class ExifInterface {
         }
     }
 
+    // A ByteOrderedDataInputStream that reads a file without buffering it, and seeks by moving the
+    // position of its channel so that backward seeks do not need the skipped bytes to be kept.
+    private static class SeekableByteOrderedDataInputStream extends ByteOrderedDataInputStream {
+        private final FileInputStream mFileInputStream;
+        private final FileChannel mChannel;
+
+        SeekableByteOrderedDataInputStream(FileInputStream in) throws IOException {
+            // Marking the file stream does nothing, so the buffer below never holds more than
+            // what is about to be read.
+            super(in);
+            mFileInputStream = in;
+            mChannel = in.getChannel();
+            setInputStream(new BufferedInputStream(in));
+        }
+
+        @Override
+        public void seek(long byteCount) throws IOException {
+            if (byteCount < 0 || byteCount > mLength) {
+                throw new IOException("Couldn't seek up to the byteCount");
+            }
+            if (byteCount >= mPosition) {
+                // Skips within the buffer, or past it with the file stream.
+                super.seek(byteCount);
+                return;
+            }
+            // Drop the buffered bytes, which follow the current position.
+            mChannel.position(byteCount);
+            setInputStream(new BufferedInputStream(mFileInputStream));
+            mPosition = (int) byteCount;
+        }
+    }
+
     // An output stream to write EXIF data area, which can be written in either little or big endian
     // order.
     private static class ByteOrderedDataOutputStream extends FilterOutputStream {
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.lifecycle.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.lifecycle.MutableLiveData
+import androidx.lifecycle.Observer
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.test.platform.app.InstrumentationRegistry
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the latency of dispatching values posted to many LiveData from concurrent background
+ * threads, from the first [MutableLiveData.postValue] until every observer received its value on
+ * the main thread.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class LiveDataPostValueBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val posters: ExecutorService = Executors.newFixedThreadPool(POSTER_THREADS)
+    private val liveDatas = List(LIVE_DATA_COUNT) { MutableLiveData<Int>() }
+
+    @Volatile
+    private var latch = CountDownLatch(0)
+
+    private val observer = Observer<Int> { latch.countDown() }
+
+    @Before
+    fun setUp() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync {
+            liveDatas.forEach { it.observeForever(observer) }
+        }
+    }
+
+    @After
+    fun tearDown() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync {
+            liveDatas.forEach { it.removeObserver(observer) }
+        }
+        posters.shutdown()
+    }
+
+    @Test
+    fun postValue() {
+        benchmarkRule.measureRepeated {
+            latch = CountDownLatch(LIVE_DATA_COUNT)
+            liveDatas.forEachIndexed { index, liveData ->
+                posters.execute { liveData.postValue(index) }
+            }
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        }
+    }
+
+    companion object {
+        private const val LIVE_DATA_COUNT = 1000
+        private const val POSTER_THREADS = 8
+        private const val TIMEOUT_SECONDS = 10L
+    }
+}
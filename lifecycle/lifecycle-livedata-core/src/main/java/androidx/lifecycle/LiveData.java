@@ -27,6 +27,7 @@ import androidx.arch.core.internal.SafeIterableMap;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * LiveData is a data holder class that can be observed within a given lifecycle.
@@ -57,8 +58,9 @@ import java.util.Map;
  * @see ViewModel
  */
 public abstract class LiveData<T> {
-    @SuppressWarnings("WeakerAccess") /* synthetic access */
-    final Object mDataLock = new Object();
+    @SuppressWarnings({"rawtypes", "WeakerAccess"}) /* synthetic access */
+    static final AtomicReferenceFieldUpdater<LiveData, Object> PENDING_DATA_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(LiveData.class, Object.class, "mPendingData");
     static final int START_VERSION = -1;
     @SuppressWarnings("WeakerAccess") /* synthetic access */
     static final Object NOT_SET = new Object();
@@ -74,8 +76,7 @@ public abstract class LiveData<T> {
     private volatile Object mData;
     // when setData is called, we set the pending data and actual data swap happens on the main
     // thread
-    @SuppressWarnings("WeakerAccess") /* synthetic access */
-    volatile Object mPendingData = NOT_SET;
+    private volatile Object mPendingData = NOT_SET;
     private int mVersion;
 
     private boolean mDispatchingValue;
@@ -85,12 +86,7 @@ public abstract class LiveData<T> {
         @SuppressWarnings("unchecked")
         @Override
         public void run() {
-            Object newValue;
-            synchronized (mDataLock) {
-                newValue = mPendingData;
-                mPendingData = NOT_SET;
-            }
-            setValue((T) newValue);
+            setValue((T) PENDING_DATA_UPDATER.getAndSet(LiveData.this, NOT_SET));
         }
     };
 
@@ -282,12 +278,8 @@ public abstract class LiveData<T> {
      * @param value The new value
      */
     protected void postValue(T value) {
-        boolean postTask;
-        synchronized (mDataLock) {
-            postTask = mPendingData == NOT_SET;
-            mPendingData = value;
-        }
-        if (!postTask) {
+        if (PENDING_DATA_UPDATER.getAndSet(this, value) != NOT_SET) {
+            // Already posted, the main thread will pick up the new value
             return;
         }
         ArchTaskExecutor.getInstance().postToMainThread(mPostValueRunnable);
@@ -39,6 +39,7 @@ import static org.mockito.Mockito.when;
 
 import androidx.annotation.Nullable;
 import androidx.arch.core.executor.ArchTaskExecutor;
+import androidx.arch.core.executor.TaskExecutor;
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.lifecycle.testing.TestLifecycleOwner;
 
@@ -900,6 +901,82 @@ public class LiveDataTest {
         assertThat(activeCalls, is(Arrays.asList(true, false)));
     }
 
+    @Test
+    public void postValue_coalescesPostsToTheSameLiveData() {
+        RecordingTaskExecutor taskExecutor = new RecordingTaskExecutor();
+        ArchTaskExecutor.getInstance().setDelegate(taskExecutor);
+        final List<String> values = new ArrayList<>();
+        Observer<String> observer = new Observer<String>() {
+            @Override
+            public void onChanged(String s) {
+                values.add(s);
+            }
+        };
+        MutableLiveData<String> liveData1 = new MutableLiveData<>();
+        MutableLiveData<String> liveData2 = new MutableLiveData<>();
+        liveData1.observeForever(observer);
+        liveData2.observeForever(observer);
+
+        liveData1.postValue("a");
+        liveData2.postValue("b");
+        liveData1.postValue("c");
+
+        assertThat(taskExecutor.mMainThreadTasks.size(), is(2));
+        taskExecutor.runMainThreadTasks();
+        assertThat(values, is(Arrays.asList("c", "b")));
+
+        liveData2.postValue("d");
+        assertThat(taskExecutor.mMainThreadTasks.size(), is(1));
+        taskExecutor.runMainThreadTasks();
+        assertThat(values, is(Arrays.asList("c", "b", "d")));
+    }
+
+    @Test
+    public void postValue_droppedTaskDoesNotBlockOtherLiveData() {
+        ArchTaskExecutor.getInstance().setDelegate(new RecordingTaskExecutor());
+        MutableLiveData<String> liveData1 = new MutableLiveData<>();
+        MutableLiveData<String> liveData2 = new MutableLiveData<>();
+        liveData1.postValue("a");
+
+        // The task posted for liveData1 is never run
+        RecordingTaskExecutor taskExecutor = new RecordingTaskExecutor();
+        ArchTaskExecutor.getInstance().setDelegate(taskExecutor);
+        liveData2.postValue("b");
+
+        assertThat(taskExecutor.mMainThreadTasks.size(), is(1));
+        taskExecutor.runMainThreadTasks();
+        assertThat(liveData2.getValue(), is("b"));
+    }
+
+    @Test
+    public void postValue_observerThrows() {
+        RecordingTaskExecutor taskExecutor = new RecordingTaskExecutor();
+        ArchTaskExecutor.getInstance().setDelegate(taskExecutor);
+        final List<String> values = new ArrayList<>();
+        MutableLiveData<String> liveData = new MutableLiveData<>();
+        liveData.observeForever(new Observer<String>() {
+            @Override
+            public void onChanged(String s) {
+                values.add(s);
+                if (s.equals("a")) {
+                    throw new IllegalStateException(s);
+                }
+            }
+        });
+        liveData.postValue("a");
+
+        try {
+            taskExecutor.runMainThreadTasks();
+        } catch (IllegalStateException expected) {
+        }
+
+        // The pending value was taken before the observer threw, so the next post is dispatched
+        liveData.postValue("b");
+        assertThat(taskExecutor.mMainThreadTasks.size(), is(1));
+        taskExecutor.runMainThreadTasks();
+        assertThat(values, is(Arrays.asList("a", "b")));
+    }
+
     private LifecycleEventObserver getLiveDataInternalObserver(Lifecycle lifecycle) {
         ArgumentCaptor<LifecycleEventObserver> captor =
                 ArgumentCaptor.forClass(LifecycleEventObserver.class);
@@ -934,6 +1011,33 @@ public class LiveDataTest {
         }
     }
 
+    static class RecordingTaskExecutor extends TaskExecutor {
+        final List<Runnable> mMainThreadTasks = new ArrayList<>();
+
+        @Override
+        public void executeOnDiskIO(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        public void postToMainThread(Runnable runnable) {
+            mMainThreadTasks.add(runnable);
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return true;
+        }
+
+        void runMainThreadTasks() {
+            List<Runnable> tasks = new ArrayList<>(mMainThreadTasks);
+            mMainThreadTasks.clear();
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+    }
+
     interface MethodExec {
         void onCall(boolean value);
     }
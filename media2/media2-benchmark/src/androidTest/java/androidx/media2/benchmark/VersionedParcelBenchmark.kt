@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.media2.benchmark
+
+import android.os.Parcel
+import android.os.Parcelable
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.media2.common.MediaItem
+import androidx.media2.common.MediaMetadata
+import androidx.media2.session.SessionCommand
+import androidx.media2.session.SessionCommandGroup
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.versionedparcelable.ParcelUtils
+import androidx.versionedparcelable.VersionedParcelable
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures writing media2 types to a [Parcel] and reading them back, as they are when sent
+ * between a session and its controllers.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class VersionedParcelBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val mediaItem = MediaItem.Builder()
+        .setMetadata(
+            MediaMetadata.Builder()
+                .putString(MediaMetadata.METADATA_KEY_MEDIA_ID, "media_id")
+                .putString(MediaMetadata.METADATA_KEY_TITLE, "Title")
+                .putString(MediaMetadata.METADATA_KEY_ARTIST, "Artist")
+                .putLong(MediaMetadata.METADATA_KEY_DURATION, 180_000)
+                .build()
+        )
+        .setStartPosition(1_000)
+        .build()
+
+    private val sessionCommandGroup = SessionCommandGroup.Builder()
+        .addAllPredefinedCommands(SessionCommand.COMMAND_VERSION_CURRENT)
+        .build()
+
+    @Test
+    fun parcelSessionCommand() {
+        val command = SessionCommand(SessionCommand.COMMAND_CODE_PLAYER_PLAY)
+        benchmarkRule.measureRepeated {
+            parcelCopy(command)
+        }
+    }
+
+    @Test
+    fun parcelSessionCommandGroup() {
+        benchmarkRule.measureRepeated {
+            parcelCopy(sessionCommandGroup)
+        }
+    }
+
+    @Test
+    fun parcelMediaItem() {
+        benchmarkRule.measureRepeated {
+            parcelCopy(mediaItem)
+        }
+    }
+
+    private fun <T : VersionedParcelable> parcelCopy(obj: T): T {
+        val parcel = Parcel.obtain()
+        try {
+            parcel.writeParcelable(ParcelUtils.toParcelable(obj), 0)
+            parcel.setDataPosition(0)
+            return ParcelUtils.fromParcelable(
+                parcel.readParcelable<Parcelable>(javaClass.classLoader)
+            )
+        } finally {
+            parcel.recycle()
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.navigation
+
+import android.net.Uri
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.testutils.TestNavigator
+import androidx.testutils.TestNavigatorProvider
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures matching a deep link against a graph of many destinations, each with its own deep
+ * links, with the index of the graph and with a linear search through its destinations.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class NavDeepLinkBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val graph = createGraph()
+
+    // The last destination, so that the linear search goes through all of them
+    private val request = NavDeepLinkRequest(
+        Uri.parse("https://www.example.com/section$DESTINATION_COUNT/items/43"), null, null
+    )
+
+    @Test
+    fun matchDeepLink() {
+        // Builds the index outside of the measured loop
+        graph.matchDeepLink(request)
+        benchmarkRule.measureRepeated {
+            graph.matchDeepLink(request)
+        }
+    }
+
+    @Test
+    fun matchDeepLinkLinear() {
+        benchmarkRule.measureRepeated {
+            var bestMatch: NavDestination.DeepLinkMatch? = null
+            for (destination in graph) {
+                val match = destination.matchDeepLink(request)
+                if (match != null && (bestMatch == null || match > bestMatch)) {
+                    bestMatch = match
+                }
+            }
+        }
+    }
+
+    private fun createGraph(): NavGraph {
+        val navigatorProvider = TestNavigatorProvider()
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        val navigator = navigatorProvider.getNavigator(TestNavigator::class.java)
+        for (i in 1..DESTINATION_COUNT) {
+            val destination = navigator.createDestination()
+            destination.id = i
+            destination.addDeepLink("www.example.com/section$i/items/{id}")
+            destination.addDeepLink("www.example.com/section$i/items/{id}/details")
+            destination.addDeepLink("www.example.com/section$i/index.html")
+            graph.addDestination(destination)
+        }
+        graph.startDestination = 1
+        return graph
+    }
+
+    companion object {
+        private const val DESTINATION_COUNT = 1000
+    }
+}
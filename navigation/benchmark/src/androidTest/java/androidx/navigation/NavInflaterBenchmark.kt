@@ -50,4 +50,24 @@ class NavInflaterBenchmark {
             navInflater.inflate(androidx.navigation.benchmark.test.R.navigation.nav_deep_link)
         }
     }
+
+    @Test
+    fun inflateInclude() {
+        // The destinations of the included graph are only inflated once they are needed
+        benchmarkRule.measureRepeated {
+            navInflater.inflate(androidx.navigation.benchmark.test.R.navigation.nav_include)
+        }
+    }
+
+    @Test
+    fun inflateIncludeDestinations() {
+        benchmarkRule.measureRepeated {
+            val graph = navInflater.inflate(
+                androidx.navigation.benchmark.test.R.navigation.nav_include
+            )
+            val includedGraph =
+                graph.findNode(androidx.navigation.benchmark.test.R.id.included_graph) as NavGraph
+            includedGraph.findNode(androidx.navigation.benchmark.test.R.id.included_start_test)
+        }
+    }
 }
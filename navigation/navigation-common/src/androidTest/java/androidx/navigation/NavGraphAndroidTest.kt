@@ -190,6 +190,174 @@ class NavGraphAndroidTest {
             .isEqualTo(99)
     }
 
+    @Test
+    fun matchDeepLinkNestedGraph() {
+        val navigatorProvider = NavigatorProvider().apply {
+            addNavigator(NavGraphNavigator(this))
+            addNavigator(NoOpNavigator())
+        }
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        val nestedGraph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        nestedGraph.id = GRAPH_ID
+        val userDestination = navigatorProvider.getNavigator(NoOpNavigator::class.java)
+            .createDestination()
+        userDestination.id = DESTINATION_ID
+        userDestination.addDeepLink("www.example.com/users/{id}")
+        nestedGraph.addDestination(userDestination)
+        graph.addDestination(nestedGraph)
+
+        val match = graph.matchDeepLink(
+            Uri.parse("https://www.example.com/users/43"))
+
+        assertWithMessage("Deep link should point to the destination of the nested graph")
+            .that(match?.destination)
+            .isSameInstanceAs(userDestination)
+    }
+
+    @Test
+    fun matchDeepLinkQuery() {
+        val navigatorProvider = NavigatorProvider().apply {
+            addNavigator(NavGraphNavigator(this))
+        }
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+
+        graph.addDeepLink("www.example.com/users/index.html")
+
+        val match = graph.matchDeepLink(
+            Uri.parse("https://www.example.com/users/index.html?name=foo"))
+
+        assertWithMessage("Deep link should match a Uri with a query")
+            .that(match)
+            .isNotNull()
+    }
+
+    @Test
+    fun matchDeepLinkNoMatch() {
+        val navigatorProvider = NavigatorProvider().apply {
+            addNavigator(NavGraphNavigator(this))
+        }
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+
+        graph.addDeepLink("www.example.com/users/index.html")
+        graph.addDeepLink("www.example.com/users/{id}/posts")
+
+        val match = graph.matchDeepLink(
+            Uri.parse("https://www.example.com/posts/index.html"))
+
+        assertWithMessage("Deep link should not match")
+            .that(match)
+            .isNull()
+    }
+
+    @Test
+    fun matchDeepLinkActionAndMimeType() {
+        val navigatorProvider = NavigatorProvider().apply {
+            addNavigator(NavGraphNavigator(this))
+            addNavigator(NoOpNavigator())
+        }
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        graph.addDeepLink("www.example.com/users/{id}")
+        val actionDestination = navigatorProvider.getNavigator(NoOpNavigator::class.java)
+            .createDestination()
+        actionDestination.id = 1
+        actionDestination.addDeepLink(NavDeepLink.Builder.fromAction("test.action").build())
+        graph.addDestination(actionDestination)
+        val mimeTypeDestination = navigatorProvider.getNavigator(NoOpNavigator::class.java)
+            .createDestination()
+        mimeTypeDestination.id = 2
+        mimeTypeDestination.addDeepLink(NavDeepLink.Builder.fromMimeType("image/*").build())
+        graph.addDestination(mimeTypeDestination)
+
+        val actionMatch = graph.matchDeepLink(NavDeepLinkRequest(
+            Uri.parse("https://www.example.com/posts/43"), "test.action", null))
+        val mimeTypeMatch = graph.matchDeepLink(NavDeepLinkRequest(null, null, "image/png"))
+        val wildcardMatch = graph.matchDeepLink(NavDeepLinkRequest(null, null, "*/*"))
+
+        assertWithMessage("Deep link should match the action")
+            .that(actionMatch?.destination)
+            .isSameInstanceAs(actionDestination)
+        assertWithMessage("Deep link should match the mimeType")
+            .that(mimeTypeMatch?.destination)
+            .isSameInstanceAs(mimeTypeDestination)
+        assertWithMessage("Deep link should match the mimeType with a wildcard")
+            .that(wildcardMatch?.destination)
+            .isSameInstanceAs(mimeTypeDestination)
+    }
+
+    @Test
+    fun matchDeepLinkSameMatchPicksFirst() {
+        val navigatorProvider = NavigatorProvider().apply {
+            addNavigator(NavGraphNavigator(this))
+            addNavigator(NoOpNavigator())
+        }
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        val firstDestination = navigatorProvider.getNavigator(NoOpNavigator::class.java)
+            .createDestination()
+        firstDestination.id = 1
+        firstDestination.addDeepLink("www.example.com/{name}/posts")
+        graph.addDestination(firstDestination)
+        val secondDestination = navigatorProvider.getNavigator(NoOpNavigator::class.java)
+            .createDestination()
+        secondDestination.id = 2
+        secondDestination.addDeepLink("www.example.com/users/{name}")
+        graph.addDestination(secondDestination)
+
+        val match = graph.matchDeepLink(
+            Uri.parse("https://www.example.com/users/posts"))
+
+        assertWithMessage("Deep link should pick the first of equal matches")
+            .that(match?.destination)
+            .isSameInstanceAs(firstDestination)
+    }
+
+    @Test
+    fun matchDeepLinkAfterChange() {
+        val navigatorProvider = NavigatorProvider().apply {
+            addNavigator(NavGraphNavigator(this))
+            addNavigator(NoOpNavigator())
+        }
+        val graph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        val nestedGraph = navigatorProvider.getNavigator(NavGraphNavigator::class.java)
+            .createDestination()
+        nestedGraph.id = GRAPH_ID
+        graph.addDestination(nestedGraph)
+        val uri = Uri.parse("https://www.example.com/users/43")
+        assertWithMessage("Deep link should not match before it is added")
+            .that(graph.matchDeepLink(uri))
+            .isNull()
+
+        nestedGraph.addDeepLink("www.example.com/users/{id}")
+        assertWithMessage("Deep link should match once added to a nested graph")
+            .that(graph.matchDeepLink(uri)?.destination)
+            .isSameInstanceAs(nestedGraph)
+
+        val userDestination = navigatorProvider.getNavigator(NoOpNavigator::class.java)
+            .createDestination()
+        userDestination.id = DESTINATION_ID
+        userDestination.addDeepLink("www.example.com/users/43")
+        nestedGraph.addDestination(userDestination)
+        assertWithMessage("Deep link should match the destination once added")
+            .that(graph.matchDeepLink(uri)?.destination)
+            .isSameInstanceAs(userDestination)
+
+        nestedGraph.remove(userDestination)
+        assertWithMessage("Deep link should not match the destination once removed")
+            .that(graph.matchDeepLink(uri)?.destination)
+            .isSameInstanceAs(nestedGraph)
+
+        graph.clear()
+        assertWithMessage("Deep link should not match once the nested graph is removed")
+            .that(graph.matchDeepLink(uri))
+            .isNull()
+    }
+
     @Test
     fun toStringStartDestIdOnly() {
         val navigatorProvider = NavigatorProvider().apply {
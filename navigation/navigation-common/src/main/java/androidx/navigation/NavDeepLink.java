@@ -35,7 +35,7 @@ import java.util.regex.Pattern;
  * {@link NavDestination#addDeepLink(NavDeepLink)}.
  */
 public final class NavDeepLink {
-    private static final Pattern SCHEME_PATTERN = Pattern.compile("^[a-zA-Z]+[+\\w\\-.]*:");
+    static final Pattern SCHEME_PATTERN = Pattern.compile("^[a-zA-Z]+[+\\w\\-.]*:");
 
     private final ArrayList<String> mArguments = new ArrayList<>();
     private final Map<String, ParamQuery> mParamArgMap = new HashMap<>();
@@ -203,6 +203,10 @@ public final class NavDeepLink {
         return mExactDeepLink;
     }
 
+    boolean isParameterizedQuery() {
+        return mIsParameterizedQuery;
+    }
+
     /**
      * Get the uri pattern from the NavDeepLink.
      *
@@ -247,6 +251,10 @@ public final class NavDeepLink {
     @Nullable
     Bundle getMatchingArguments(@NonNull Uri deepLink,
             @NonNull Map<String, NavArgument> arguments) {
+        if (mPattern == null) {
+            // Only matches by action or mimeType
+            return null;
+        }
         Matcher matcher = mPattern.matcher(deepLink.toString());
         if (!matcher.matches()) {
             return null;
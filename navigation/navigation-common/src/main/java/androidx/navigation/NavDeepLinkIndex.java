@@ -0,0 +1,292 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.navigation;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the deep links of all the destinations of a {@link NavGraph}, including the graph
+ * itself and its nested graphs, that narrows down the deep links that can match a
+ * {@link NavDeepLinkRequest} before they are matched one by one.
+ * <p>
+ * Uri patterns are indexed in a trie of the segments of their literal prefix, that is the part
+ * before their first placeholder or wildcard. A request Uri is only matched against the deep
+ * links whose literal prefix it starts with, and, for deep links without placeholders or
+ * wildcards, whose literal path it is equal to. Actions are indexed by their value, and
+ * mimeTypes by their type.
+ * <p>
+ * Deep links are matched in the order {@link NavGraph#matchDeepLink(NavDeepLinkRequest)} visits
+ * them, so the best match is the same.
+ */
+final class NavDeepLinkIndex {
+    private static final Pattern FILL_IN_PATTERN = Pattern.compile("\\{(.+?)\\}");
+    private static final Pattern MIME_TYPE_TYPE_PATTERN = Pattern.compile("[\\w-]+");
+    private static final Pattern MIME_TYPE_WILDCARD_PATTERN = Pattern.compile("[*]+");
+    private static final String WILDCARD = ".*";
+
+    private final Node mRoot = new Node();
+    private final Map<String, List<Entry>> mActions = new HashMap<>();
+    private final Map<String, List<Entry>> mMimeTypes = new HashMap<>();
+    /**
+     * Deep links whose mimeType may match any request type.
+     */
+    private final List<Entry> mAnyMimeTypes = new ArrayList<>();
+    private final List<Entry> mAllMimeTypes = new ArrayList<>();
+    private int mSize;
+
+    NavDeepLinkIndex(@NonNull NavGraph graph) {
+        add(graph);
+    }
+
+    private void add(@NonNull NavDestination destination) {
+        List<NavDeepLink> deepLinks = destination.getDeepLinks();
+        if (deepLinks != null) {
+            for (NavDeepLink deepLink : deepLinks) {
+                add(new Entry(destination, deepLink, mSize++));
+            }
+        }
+        if (destination instanceof NavGraph) {
+            for (NavDestination child : (NavGraph) destination) {
+                add(child);
+            }
+        }
+    }
+
+    private void add(@NonNull Entry entry) {
+        NavDeepLink deepLink = entry.mDeepLink;
+        String uriPattern = deepLink.getUriPattern();
+        if (uriPattern != null) {
+            if (deepLink.isParameterizedQuery()) {
+                uriPattern = uriPattern.substring(0, uriPattern.indexOf('?'));
+            }
+            if (NavDeepLink.SCHEME_PATTERN.matcher(uriPattern).find()) {
+                addUriPattern(uriPattern, entry);
+            } else {
+                addUriPattern("http://" + uriPattern, entry);
+                addUriPattern("https://" + uriPattern, entry);
+            }
+        }
+        String action = deepLink.getAction();
+        if (action != null) {
+            getOrCreate(mActions, action).add(entry);
+        }
+        String mimeType = deepLink.getMimeType();
+        if (mimeType != null) {
+            String type = mimeType.substring(0, mimeType.indexOf('/'));
+            if (MIME_TYPE_TYPE_PATTERN.matcher(type).matches()) {
+                getOrCreate(mMimeTypes, type).add(entry);
+            } else {
+                // Wildcards, or characters with a meaning in the pattern of the deep link
+                mAnyMimeTypes.add(entry);
+            }
+            mAllMimeTypes.add(entry);
+        }
+    }
+
+    private void addUriPattern(@NonNull String uriPattern, @NonNull Entry entry) {
+        int literalEnd = uriPattern.length();
+        Matcher fillIn = FILL_IN_PATTERN.matcher(uriPattern);
+        if (fillIn.find()) {
+            literalEnd = fillIn.start();
+        }
+        int wildcard = uriPattern.indexOf(WILDCARD);
+        if (wildcard >= 0 && wildcard < literalEnd) {
+            literalEnd = wildcard;
+        }
+        int queryStart = uriPattern.indexOf('?');
+        if (queryStart >= 0 && queryStart < literalEnd) {
+            // Request Uris are looked up without their query
+            literalEnd = queryStart;
+        }
+        boolean isLiteral = literalEnd == uriPattern.length();
+        if (!isLiteral) {
+            // Only index the segments that are complete before the placeholder or wildcard
+            literalEnd = uriPattern.lastIndexOf('/', literalEnd - 1);
+        }
+        Node node = mRoot;
+        if (literalEnd >= 0) {
+            for (String segment : uriPattern.substring(0, literalEnd).split("/", -1)) {
+                node = node.getOrCreateChild(segment);
+            }
+        }
+        if (isLiteral) {
+            node.mLiteralEntries = add(node.mLiteralEntries, entry);
+        } else {
+            node.mPrefixEntries = add(node.mPrefixEntries, entry);
+        }
+    }
+
+    /**
+     * Finds the best match for the given request among the deep links of the graph.
+     *
+     * @return the same match as {@link NavGraph#matchDeepLink(NavDeepLinkRequest)}
+     */
+    @Nullable
+    NavDestination.DeepLinkMatch match(@NonNull NavDeepLinkRequest request) {
+        ArrayList<Entry> candidates = new ArrayList<>();
+        Uri uri = request.getUri();
+        if (uri != null) {
+            addUriCandidates(uri.toString(), candidates);
+        }
+        String action = request.getAction();
+        if (action != null) {
+            addAll(candidates, mActions.get(action));
+        }
+        String mimeType = request.getMimeType();
+        if (mimeType != null) {
+            int separator = mimeType.indexOf('/');
+            String type = separator >= 0 ? mimeType.substring(0, separator) : mimeType;
+            if (MIME_TYPE_WILDCARD_PATTERN.matcher(type).matches()) {
+                // Matches the type of every deep link
+                candidates.addAll(mAllMimeTypes);
+            } else {
+                addAll(candidates, mMimeTypes.get(type));
+                candidates.addAll(mAnyMimeTypes);
+            }
+        }
+        Collections.sort(candidates, ORDER);
+
+        NavDestination.DeepLinkMatch bestMatch = null;
+        Entry previous = null;
+        for (Entry entry : candidates) {
+            if (entry == previous) {
+                // Found through both its Uri pattern and its action or mimeType
+                continue;
+            }
+            previous = entry;
+            NavDestination.DeepLinkMatch match =
+                    entry.mDestination.matchDeepLink(request, entry.mDeepLink);
+            if (match != null && (bestMatch == null || match.compareTo(bestMatch) > 0)) {
+                bestMatch = match;
+            }
+        }
+        return bestMatch;
+    }
+
+    private void addUriCandidates(@NonNull String uri, @NonNull List<Entry> candidates) {
+        // Placeholders and wildcards may match the query, but literal segments never do
+        int queryStart = uri.indexOf('?');
+        String[] segments = (queryStart >= 0 ? uri.substring(0, queryStart) : uri)
+                .split("/", -1);
+        Node node = mRoot;
+        int depth = 0;
+        while (node != null) {
+            if (depth < segments.length) {
+                addAll(candidates, node.mPrefixEntries);
+                node = node.getChild(segments[depth++]);
+            } else {
+                addAll(candidates, node.mLiteralEntries);
+                node = null;
+            }
+        }
+    }
+
+    private static List<Entry> getOrCreate(Map<String, List<Entry>> map, String key) {
+        List<Entry> entries = map.get(key);
+        if (entries == null) {
+            entries = new ArrayList<>();
+            map.put(key, entries);
+        }
+        return entries;
+    }
+
+    private static List<Entry> add(@Nullable List<Entry> entries, @NonNull Entry entry) {
+        if (entries == null) {
+            entries = new ArrayList<>();
+        }
+        entries.add(entry);
+        return entries;
+    }
+
+    private static void addAll(@NonNull List<Entry> candidates, @Nullable List<Entry> entries) {
+        if (entries != null) {
+            candidates.addAll(entries);
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+            return lhs.mOrder - rhs.mOrder;
+        }
+    };
+
+    /**
+     * A deep link and the destination it was added to, with the position of the deep link in
+     * the order of {@link NavGraph#matchDeepLink(NavDeepLinkRequest)}.
+     */
+    private static class Entry {
+        final NavDestination mDestination;
+        final NavDeepLink mDeepLink;
+        final int mOrder;
+
+        Entry(NavDestination destination, NavDeepLink deepLink, int order) {
+            mDestination = destination;
+            mDeepLink = deepLink;
+            mOrder = order;
+        }
+    }
+
+    /**
+     * A node of the trie, for a Uri prefix that ends with a complete segment.
+     */
+    private static class Node {
+        @Nullable
+        private Map<String, Node> mChildren;
+        /**
+         * Deep links whose literal Uri pattern ends with this node.
+         */
+        @Nullable
+        List<Entry> mLiteralEntries;
+        /**
+         * Deep links whose Uri pattern continues with a segment that has a placeholder or a
+         * wildcard after this node.
+         */
+        @Nullable
+        List<Entry> mPrefixEntries;
+
+        @Nullable
+        Node getChild(@NonNull String segment) {
+            return mChildren == null ? null : mChildren.get(segment);
+        }
+
+        @NonNull
+        Node getOrCreateChild(@NonNull String segment) {
+            if (mChildren == null) {
+                mChildren = new HashMap<>();
+            }
+            Node child = mChildren.get(segment);
+            if (child == null) {
+                child = new Node();
+                mChildren.put(segment, child);
+            }
+            return child;
+        }
+    }
+}
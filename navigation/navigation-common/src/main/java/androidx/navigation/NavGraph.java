@@ -43,6 +43,10 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
     final SparseArrayCompat<NavDestination> mNodes = new SparseArrayCompat<>();
     private int mStartDestId;
     private String mStartDestIdName;
+    // Built on the first deep link match, and discarded when the deep links of the graph change
+    private NavDeepLinkIndex mDeepLinkIndex;
+    // Adds the destinations of this graph when they are first needed, if they were deferred
+    private Runnable mDeferredDestinations;
 
     /**
      * Construct a new NavGraph. This NavGraph is not valid until you
@@ -72,17 +76,36 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
     @Override
     @Nullable
     DeepLinkMatch matchDeepLink(@NonNull NavDeepLinkRequest request) {
-        // First search through any deep links directly added to this NavGraph
-        DeepLinkMatch bestMatch = super.matchDeepLink(request);
-        // Then search through all child destinations for a matching deep link
-        for (NavDestination child : this) {
-            DeepLinkMatch childBestMatch = child.matchDeepLink(request);
-            if (childBestMatch != null && (bestMatch == null
-                    || childBestMatch.compareTo(bestMatch) > 0)) {
-                bestMatch = childBestMatch;
-            }
+        // Search through any deep links directly added to this NavGraph, then through all child
+        // destinations, only trying the deep links the index finds for the request
+        if (mDeepLinkIndex == null) {
+            mDeepLinkIndex = new NavDeepLinkIndex(this);
+        }
+        return mDeepLinkIndex.match(request);
+    }
+
+    /**
+     * Defers adding the destinations of this NavGraph until they are first needed, i.e. until
+     * a destination is looked up, added or removed, or the destinations are iterated over.
+     *
+     * @param addDestinations Adds the destinations to this NavGraph when run.
+     */
+    void setDeferredDestinations(@NonNull Runnable addDestinations) {
+        mDeferredDestinations = addDestinations;
+    }
+
+    private void addDeferredDestinations() {
+        if (mDeferredDestinations != null) {
+            Runnable addDestinations = mDeferredDestinations;
+            mDeferredDestinations = null;
+            addDestinations.run();
         }
-        return bestMatch;
+    }
+
+    @Override
+    void onDeepLinksChanged() {
+        mDeepLinkIndex = null;
+        super.onDeepLinksChanged();
     }
 
     /**
@@ -105,6 +128,7 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
             throw new IllegalArgumentException("Destination " + node + " cannot have the same id "
                     + "as graph " + this);
         }
+        addDeferredDestinations();
         NavDestination existingDestination = mNodes.get(id);
         if (existingDestination == node) {
             return;
@@ -118,6 +142,7 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
         }
         node.setParent(this);
         mNodes.put(node.getId(), node);
+        onDeepLinksChanged();
     }
 
     /**
@@ -173,6 +198,7 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
 
     @Nullable
     final NavDestination findNode(@IdRes int resid, boolean searchParents) {
+        addDeferredDestinations();
         NavDestination destination = mNodes.get(resid);
         // Search the parent for the NavDestination if it is not a child of this navigation graph
         // and searchParents is true
@@ -184,6 +210,7 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
     @NonNull
     @Override
     public final Iterator<NavDestination> iterator() {
+        addDeferredDestinations();
         return new Iterator<NavDestination>() {
             private int mIndex = -1;
             private boolean mWentToNext = false;
@@ -212,6 +239,7 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
                 mNodes.removeAt(mIndex);
                 mIndex--;
                 mWentToNext = false;
+                onDeepLinksChanged();
             }
         };
     }
@@ -238,10 +266,12 @@ public class NavGraph extends NavDestination implements Iterable<NavDestination>
      * @param node the destination to remove.
      */
     public final void remove(@NonNull NavDestination node) {
+        addDeferredDestinations();
         int index = mNodes.indexOfKey(node.getId());
         if (index >= 0) {
             mNodes.valueAt(index).setParent(null);
             mNodes.removeAt(index);
+            onDeepLinksChanged();
         }
     }
 
@@ -252,6 +252,42 @@ class NavInflaterTest {
             .isEqualTo(123L)
     }
 
+    @Test
+    fun testInflateIncludeDefersDestinations() {
+        val context = ApplicationProvider.getApplicationContext() as Context
+        val navInflater = NavInflater(context, TestNavigatorProvider())
+        val graph = navInflater.inflate(R.navigation.nav_include)
+
+        val includedGraph = graph.mNodes.get(R.id.included_graph) as NavGraph
+        assertThat(includedGraph.startDestination).isEqualTo(R.id.included_start_test)
+        assertThat(includedGraph.arguments["test_included_arg"]?.defaultValue)
+            .isEqualTo(123)
+        assertThat(includedGraph.mNodes.size()).isEqualTo(0)
+
+        assertThat(includedGraph.findNode(R.id.included_start_test)).isNotNull()
+        assertThat(includedGraph.mNodes.size()).isEqualTo(2)
+        val nestedGraph = includedGraph.findNode(R.id.included_nested) as NavGraph
+        assertThat(nestedGraph.findNode(R.id.included_nested_test)).isNotNull()
+    }
+
+    @Test
+    fun testInflateIncludeDeepLink() {
+        val context = ApplicationProvider.getApplicationContext() as Context
+        val navInflater = NavInflater(context, TestNavigatorProvider())
+        val graph = navInflater.inflate(R.navigation.nav_include)
+
+        val graphMatch = graph.matchDeepLink(
+            NavDeepLinkRequest.Builder.fromUri(Uri.parse("https://www.example.com/included"))
+                .build()
+        )
+        assertThat(graphMatch?.destination?.id).isEqualTo(R.id.included_graph)
+        val destinationMatch = graph.matchDeepLink(
+            NavDeepLinkRequest.Builder.fromUri(Uri.parse("https://www.example.com/included/1"))
+                .build()
+        )
+        assertThat(destinationMatch?.destination?.id).isEqualTo(R.id.included_start_test)
+    }
+
     private fun inflateDefaultArgumentsFromGraph(): Map<String, NavArgument> {
         val context = ApplicationProvider.getApplicationContext() as Context
         val navInflater = NavInflater(context, TestNavigatorProvider())
@@ -29,6 +29,7 @@ import android.util.Xml;
 
 import androidx.annotation.NavigationRes;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.navigation.common.R;
 
@@ -68,9 +69,24 @@ public final class NavInflater {
      * @param graphResId
      * @return
      */
-    @SuppressLint("ResourceType")
     @NonNull
     public NavGraph inflate(@NavigationRes int graphResId) {
+        return inflate(graphResId, null, false);
+    }
+
+    /**
+     * Inflate a NavGraph from the given XML resource id, or the destinations of a NavGraph
+     * previously inflated from it with deferred destinations.
+     *
+     * @param graphResId The XML resource id of the graph
+     * @param deferredGraph The graph to add the destinations to, or null to inflate a new graph
+     * @param deferDestinations Whether to defer inflating the destinations of the new graph
+     *                          until they are first needed
+     */
+    @SuppressLint("ResourceType")
+    @NonNull
+    private NavGraph inflate(@NavigationRes final int graphResId,
+            @Nullable NavGraph deferredGraph, boolean deferDestinations) {
         Resources res = mContext.getResources();
         XmlResourceParser parser = res.getXml(graphResId);
         final AttributeSet attrs = Xml.asAttributeSet(parser);
@@ -84,13 +100,36 @@ public final class NavInflater {
                 throw new XmlPullParserException("No start tag found");
             }
 
+            if (deferredGraph != null) {
+                inflateChildren(res, parser, attrs, graphResId, deferredGraph, false, true);
+                return deferredGraph;
+            }
+
             String rootElement = parser.getName();
-            NavDestination destination = inflate(res, parser, attrs, graphResId);
+            NavDestination destination;
+            if (deferDestinations) {
+                destination = mNavigatorProvider.getNavigator(rootElement).createDestination();
+                destination.onInflate(mContext, attrs);
+                // The arguments, deep links and actions of the graph itself are needed without
+                // navigating into it
+                inflateChildren(res, parser, attrs, graphResId, destination, true, false);
+            } else {
+                destination = inflate(res, parser, attrs, graphResId);
+            }
             if (!(destination instanceof NavGraph)) {
                 throw new IllegalArgumentException("Root element <" + rootElement + ">"
                         + " did not inflate into a NavGraph");
             }
-            return (NavGraph) destination;
+            final NavGraph graph = (NavGraph) destination;
+            if (deferDestinations) {
+                graph.setDeferredDestinations(new Runnable() {
+                    @Override
+                    public void run() {
+                        inflate(graphResId, graph, false);
+                    }
+                });
+            }
+            return graph;
         } catch (Exception e) {
             throw new RuntimeException("Exception inflating "
                     + res.getResourceName(graphResId) + " line "
@@ -108,7 +147,20 @@ public final class NavInflater {
         final NavDestination dest = navigator.createDestination();
 
         dest.onInflate(mContext, attrs);
+        inflateChildren(res, parser, attrs, graphResId, dest, true, true);
+        return dest;
+    }
 
+    /**
+     * Inflate the children of the current element of the parser into the given destination.
+     *
+     * @param inflateProperties Whether to inflate the arguments, deep links and actions
+     * @param inflateDestinations Whether to inflate the destinations, if dest is a NavGraph
+     */
+    private void inflateChildren(@NonNull Resources res, @NonNull XmlResourceParser parser,
+            @NonNull AttributeSet attrs, int graphResId, @NonNull NavDestination dest,
+            boolean inflateProperties, boolean inflateDestinations)
+            throws XmlPullParserException, IOException {
         final int innerDepth = parser.getDepth() + 1;
         int type;
         int depth;
@@ -125,24 +177,33 @@ public final class NavInflater {
 
             final String name = parser.getName();
             if (TAG_ARGUMENT.equals(name)) {
-                inflateArgumentForDestination(res, dest, attrs, graphResId);
+                if (inflateProperties) {
+                    inflateArgumentForDestination(res, dest, attrs, graphResId);
+                }
             } else if (TAG_DEEP_LINK.equals(name)) {
-                inflateDeepLink(res, dest, attrs);
+                if (inflateProperties) {
+                    inflateDeepLink(res, dest, attrs);
+                }
             } else if (TAG_ACTION.equals(name)) {
-                inflateAction(res, dest, attrs, parser, graphResId);
+                if (inflateProperties) {
+                    inflateAction(res, dest, attrs, parser, graphResId);
+                }
+            } else if (!inflateDestinations) {
+                // Skipped along with its children, which are deeper than innerDepth
+                continue;
             } else if (TAG_INCLUDE.equals(name) && dest instanceof NavGraph) {
                 final TypedArray a = res.obtainAttributes(
                         attrs, androidx.navigation.R.styleable.NavInclude);
                 final int id = a.getResourceId(
                         androidx.navigation.R.styleable.NavInclude_graph, 0);
-                ((NavGraph) dest).addDestination(inflate(id));
+                // Included graphs only inflate their destinations once they are navigated into
+                // or their destinations are looked up
+                ((NavGraph) dest).addDestination(inflate(id, null, true));
                 a.recycle();
             } else if (dest instanceof NavGraph) {
                 ((NavGraph) dest).addDestination(inflate(res, parser, attrs, graphResId));
             }
         }
-
-        return dest;
     }
 
     private void inflateArgumentForDestination(@NonNull Resources res, @NonNull NavDestination dest,
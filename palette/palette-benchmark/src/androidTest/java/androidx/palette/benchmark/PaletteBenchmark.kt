@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.palette.benchmark
+
+import android.graphics.Bitmap
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.palette.graphics.Palette
+import androidx.test.filters.LargeTest
+import org.junit.After
+import org.junit.Assume.assumeTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.Random
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Measures generating the palette of a bitmap with [Palette.Builder.generate] versus a reused
+ * [Palette.Generator], on the calling thread or in parallel, for a range of bitmap sizes.
+ *
+ * Resizing is disabled so that the histogram covers every pixel of the bitmap.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class PaletteBenchmark(private val size: Int, private val mode: String) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val bitmap = createBitmap(size)
+    private val executor: ExecutorService = Executors.newFixedThreadPool(PARALLELISM - 1)
+
+    @After
+    fun tearDown() {
+        executor.shutdown()
+    }
+
+    @Test
+    fun generate() {
+        val generator = when (mode) {
+            GENERATOR -> Palette.Generator(null, 1, 0)
+            PARALLEL_GENERATOR -> Palette.Generator(executor, PARALLELISM, 0)
+            else -> null
+        }
+        benchmarkRule.measureRepeated {
+            val builder = Palette.from(bitmap).resizeBitmapArea(0)
+            if (generator != null) {
+                generator.generate(builder)
+            } else {
+                builder.generate()
+            }
+        }
+    }
+
+    @Test
+    fun generateCached() {
+        // Does not depend on the mode
+        assumeTrue(mode == GENERATOR)
+        val generator = Palette.Generator()
+        benchmarkRule.measureRepeated {
+            generator.generate(Palette.from(bitmap).resizeBitmapArea(0))
+        }
+    }
+
+    companion object {
+        private const val BUILDER = "builder"
+        private const val GENERATOR = "generator"
+        private const val PARALLEL_GENERATOR = "parallelGenerator"
+        private const val PARALLELISM = 4
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "size={0},mode={1}")
+        fun data(): List<Array<Any>> {
+            return listOf(112, 512, 1024, 2048).flatMap { size ->
+                listOf(BUILDER, GENERATOR, PARALLEL_GENERATOR).map { mode ->
+                    arrayOf<Any>(size, mode)
+                }
+            }
+        }
+
+        /**
+         * Creates a bitmap of gradients with noise, so that it has many distinct colors.
+         */
+        private fun createBitmap(size: Int): Bitmap {
+            val random = Random(size.toLong())
+            val pixels = IntArray(size * size) { i ->
+                val x = i % size * 255 / size
+                val y = i / size * 255 / size
+                val noise = random.nextInt(32)
+                (0xFF shl 24) or ((x + noise and 0xFF) shl 16) or
+                    ((y + noise and 0xFF) shl 8) or (x + y shr 1)
+            }
+            return Bitmap.createBitmap(pixels, size, size, Bitmap.Config.ARGB_8888)
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.palette.graphics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SmallTest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@RunWith(AndroidJUnit4.class)
+public class GeneratorTest {
+
+    @Test
+    @SmallTest
+    public void testSameSwatchesAsBuilder() {
+        final Bitmap bitmap = TestUtils.loadSampleBitmap();
+        final Palette expected = Palette.from(bitmap).generate();
+
+        final Palette palette = new Palette.Generator().generate(Palette.from(bitmap));
+
+        assertEquals(expected.getSwatches(), palette.getSwatches());
+    }
+
+    @Test
+    @SmallTest
+    public void testSameSwatchesAsBuilderInParallel() {
+        final Bitmap bitmap = TestUtils.loadSampleBitmap();
+        final Palette expected = Palette.from(bitmap).setRegion(10, 10, 200, 150).generate();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final Palette palette = new Palette.Generator(executor, 4, 0)
+                    .generate(Palette.from(bitmap).setRegion(10, 10, 200, 150));
+
+            assertEquals(expected.getSwatches(), palette.getSwatches());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SmallTest
+    public void testCachedByGenerationId() {
+        final Bitmap bitmap = TestUtils.loadSampleBitmap().copy(Bitmap.Config.ARGB_8888, true);
+        final Palette.Generator generator = new Palette.Generator();
+        final Palette palette = generator.generate(Palette.from(bitmap));
+
+        assertSame(palette, generator.generate(Palette.from(bitmap)));
+        assertNotSame(palette, generator.generate(Palette.from(bitmap).maximumColorCount(8)));
+
+        bitmap.eraseColor(Color.RED);
+        assertNotSame(palette, generator.generate(Palette.from(bitmap)));
+    }
+
+    @Test
+    @SmallTest
+    public void testClearCache() {
+        final Bitmap bitmap = TestUtils.loadSampleBitmap();
+        final Palette.Generator generator = new Palette.Generator();
+        final Palette palette = generator.generate(Palette.from(bitmap));
+
+        generator.clearCache();
+
+        assertNotSame(palette, generator.generate(Palette.from(bitmap)));
+    }
+}
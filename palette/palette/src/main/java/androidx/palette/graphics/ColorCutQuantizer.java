@@ -49,6 +49,9 @@ final class ColorCutQuantizer {
     private static final int QUANTIZE_WORD_WIDTH = 5;
     private static final int QUANTIZE_WORD_MASK = (1 << QUANTIZE_WORD_WIDTH) - 1;
 
+    /** The size of a histogram of quantized colors. */
+    static final int HISTOGRAM_SIZE = 1 << (QUANTIZE_WORD_WIDTH * 3);
+
     final int[] mColors;
     final int[] mHistogram;
     final List<Palette.Swatch> mQuantizedColors;
@@ -64,16 +67,23 @@ final class ColorCutQuantizer {
      * @param filters Set of filters to use in the quantization stage
      */
     ColorCutQuantizer(int[] pixels, int maxColors, @Nullable Palette.Filter[] filters) {
+        this(maxColors, filters, addToHistogram(pixels, 0, pixels.length,
+                new int[HISTOGRAM_SIZE]));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxColors The maximum number of colors that should be in the result palette.
+     * @param filters Set of filters to use in the quantization stage
+     * @param histogram histogram of an image's quantized pixel data, built with
+     *                  {@link #addToHistogram(int[], int, int, int[])}. It is modified by the
+     *                  quantizer.
+     */
+    ColorCutQuantizer(int maxColors, @Nullable Palette.Filter[] filters, int[] histogram) {
         mFilters = filters;
 
-        final int[] hist = mHistogram = new int[1 << (QUANTIZE_WORD_WIDTH * 3)];
-        for (int i = 0; i < pixels.length; i++) {
-            final int quantizedColor = quantizeFromRgb888(pixels[i]);
-            // Now update the pixel value to the quantized value
-            pixels[i] = quantizedColor;
-            // And update the histogram
-            hist[quantizedColor]++;
-        }
+        final int[] hist = mHistogram = histogram;
 
         // Now let's count the number of distinct colors
         int distinctColorCount = 0;
@@ -109,6 +119,22 @@ final class ColorCutQuantizer {
         }
     }
 
+    /**
+     * Adds the quantized colors of the given range of pixels to the given histogram.
+     *
+     * @param pixels an image's pixel data
+     * @param from the index of the first pixel to add, inclusive
+     * @param to the index of the last pixel to add, exclusive
+     * @param histogram the histogram to add to, of size {@link #HISTOGRAM_SIZE}
+     * @return the given histogram
+     */
+    static int[] addToHistogram(int[] pixels, int from, int to, int[] histogram) {
+        for (int i = from; i < to; i++) {
+            histogram[quantizeFromRgb888(pixels[i])]++;
+        }
+        return histogram;
+    }
+
     /**
      * @return the list of quantized colors
      */
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.recyclerview.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.recyclerview.widget.DiffUtil
+import androidx.test.filters.LargeTest
+import org.junit.AfterClass
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.Random
+import java.util.concurrent.Executors
+
+/**
+ * Compares [DiffUtil.calculateDiff] with its parallel variant on large lists of items with ids.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class LargeDiffBenchmark(
+    private val size: Int,
+    private val editCount: Int,
+    private val parallel: Boolean
+) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val before = (0 until size).map { it.toLong() }
+    private val after = edit(before, editCount)
+    private val callback = object : DiffUtil.Callback() {
+        override fun getOldListSize() = before.size
+
+        override fun getNewListSize() = after.size
+
+        override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int) =
+            before[oldItemPosition] == after[newItemPosition]
+
+        override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int) = true
+
+        override fun getOldItemId(oldItemPosition: Int) = before[oldItemPosition]
+
+        override fun getNewItemId(newItemPosition: Int) = after[newItemPosition]
+    }
+
+    @Test
+    fun calculateDiff() {
+        benchmarkRule.measureRepeated {
+            if (parallel) {
+                DiffUtil.calculateDiff(callback, true, executor)
+            } else {
+                DiffUtil.calculateDiff(callback, true)
+            }
+        }
+    }
+
+    companion object {
+        private val executor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors()
+        )
+
+        @JvmStatic
+        @AfterClass
+        fun shutdownExecutor() {
+            executor.shutdown()
+        }
+
+        /**
+         * Inserts, removes and moves [editCount] items at random positions.
+         */
+        private fun edit(items: List<Long>, editCount: Int): List<Long> {
+            val random = Random(editCount.toLong())
+            val edited = items.toMutableList()
+            var nextId = items.size.toLong()
+            repeat(editCount) {
+                when (random.nextInt(3)) {
+                    0 -> edited.add(random.nextInt(edited.size + 1), nextId++)
+                    1 -> edited.removeAt(random.nextInt(edited.size))
+                    else -> edited.add(
+                        random.nextInt(edited.size),
+                        edited.removeAt(random.nextInt(edited.size))
+                    )
+                }
+            }
+            return edited
+        }
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "size={0},editCount={1},parallel={2}")
+        fun params(): List<Array<Any>> {
+            return mutableListOf<Array<Any>>().apply {
+                listOf(1_000, 10_000, 100_000).forEach { size ->
+                    listOf(10, size / 10).forEach { editCount ->
+                        add(arrayOf(size, editCount, true))
+                        // Myers's algorithm takes O(size * editCount) time, which is seconds for
+                        // this one.
+                        if (size < 100_000 || editCount == 10) {
+                            add(arrayOf(size, editCount, false))
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.recyclerview.widget
+
+import android.graphics.Color
+import android.os.SystemClock
+import android.view.LayoutInflater
+import android.view.View
+import android.view.ViewGroup
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.recyclerview.benchmark.RecyclerViewActivity
+import androidx.recyclerview.benchmark.test.R
+import androidx.test.annotation.UiThreadTest
+import androidx.test.filters.LargeTest
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the time spent on the UI thread per frame to scroll to a new item, then to prefetch
+ * the next one in the idle time of the frame, with ViewHolders created on the UI thread or on a
+ * background thread.
+ *
+ * This is in the package of RecyclerView to drive prefetch directly, since frames are not
+ * produced while measuring on the UI thread.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class PrefetchBenchmark(private val background: Boolean) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    @Suppress("DEPRECATION")
+    @get:Rule
+    val activityRule = androidx.test.rule.ActivityTestRule(RecyclerViewActivity::class.java)
+
+    @Before
+    fun setup() {
+        activityRule.runOnUiThread {
+            val rv = activityRule.activity.recyclerView
+            rv.setRecycledViewPool(UnboundOnlyPool())
+            rv.adapter = InflatingAdapter().apply {
+                setBackgroundViewHolderCreationEnabled(background)
+            }
+
+            // offset by 50 to ensure we are 50% through the first item, so that the next item is
+            // not needed immediately
+            rv.scrollBy(0, 50)
+        }
+    }
+
+    @UiThreadTest
+    @Test
+    fun scrollAndPrefetch() {
+        val rv = activityRule.activity.recyclerView
+        benchmarkRule.measureRepeated {
+            // each scroll should reveal the item prefetched in the previous frame
+            rv.scrollBy(0, 100)
+            rv.mPrefetchRegistry.setPrefetchVector(0, 1)
+            rv.mGapWorker.prefetch(System.nanoTime() + FRAME_INTERVAL_NS)
+
+            runWithTimingDisabled {
+                awaitBackgroundCreation(rv)
+            }
+        }
+    }
+
+    /**
+     * Waits for the ViewHolder requested by prefetch, as it would be created on the background
+     * thread while the UI thread waits for the next frame.
+     */
+    private fun awaitBackgroundCreation(rv: RecyclerView) {
+        val creator = rv.mRecycler.mAsyncViewHolderCreator ?: return
+        val pool = rv.recycledViewPool
+        val deadline = SystemClock.uptimeMillis() + 1000
+        do {
+            creator.collect()
+        } while (pool.size() == 0 && SystemClock.uptimeMillis() < deadline)
+    }
+
+    companion object {
+        private val FRAME_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(16)
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "background={0}")
+        fun data(): List<Array<Any>> {
+            return listOf(arrayOf<Any>(false), arrayOf<Any>(true))
+        }
+    }
+}
+
+/**
+ * Keeps the ViewHolders created ahead of need, and drops the recycled ones, so that every new
+ * item needs a ViewHolder to be created.
+ */
+private class UnboundOnlyPool : RecyclerView.RecycledViewPool() {
+    override fun putRecycledView(scrap: RecyclerView.ViewHolder) {
+        if (!scrap.isBound) {
+            super.putRecycledView(scrap)
+        }
+    }
+}
+
+private class InflatingViewHolder(view: View) : RecyclerView.ViewHolder(view)
+
+/**
+ * Displays *many* items, each 100px tall, that are inflated from a layout.
+ */
+private class InflatingAdapter : RecyclerView.Adapter<InflatingViewHolder>() {
+    override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): InflatingViewHolder {
+        return InflatingViewHolder(
+            LayoutInflater.from(parent.context).inflate(R.layout.item_view, parent, false)
+        )
+    }
+
+    override fun onBindViewHolder(holder: InflatingViewHolder, position: Int) {
+        val color = position % 256
+        holder.itemView.setBackgroundColor(Color.rgb(color, color, color))
+    }
+
+    override fun getItemCount() = Integer.MAX_VALUE
+}
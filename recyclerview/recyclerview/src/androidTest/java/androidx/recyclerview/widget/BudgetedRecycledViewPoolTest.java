@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.recyclerview.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SmallTest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@SmallTest
+@RunWith(AndroidJUnit4.class)
+public class BudgetedRecycledViewPoolTest {
+
+    private Context getContext() {
+        return ApplicationProvider.getApplicationContext();
+    }
+
+    private RecyclerView.ViewHolder makeHolder(int viewType) {
+        RecyclerView.ViewHolder holder = new MockViewHolder(getContext());
+        holder.mItemViewType = viewType;
+        return holder;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_zeroBudget() {
+        new BudgetedRecycledViewPool(0);
+    }
+
+    @Test
+    public void put_full_replacesCheaperType() {
+        BudgetedRecycledViewPool pool = new BudgetedRecycledViewPool(2);
+        pool.factorInCreateTime(1, 100);
+        pool.factorInCreateTime(2, 500);
+        pool.putRecycledView(makeHolder(1));
+        pool.putRecycledView(makeHolder(1));
+
+        pool.putRecycledView(makeHolder(2));
+
+        assertEquals(2, pool.size());
+        assertEquals(1, pool.getRecycledViewCount(1));
+        assertEquals(1, pool.getRecycledViewCount(2));
+    }
+
+    @Test
+    public void put_full_discardsCheaperView() {
+        BudgetedRecycledViewPool pool = new BudgetedRecycledViewPool(2);
+        pool.factorInCreateTime(1, 100);
+        pool.factorInCreateTime(2, 500);
+        pool.putRecycledView(makeHolder(2));
+        pool.putRecycledView(makeHolder(2));
+
+        pool.putRecycledView(makeHolder(1));
+        pool.putRecycledView(makeHolder(2));
+
+        assertEquals(0, pool.getRecycledViewCount(1));
+        assertEquals(2, pool.getRecycledViewCount(2));
+    }
+
+    @Test
+    public void put_full_keepsPrewarmedViews() {
+        BudgetedRecycledViewPool pool = new BudgetedRecycledViewPool(2);
+        pool.factorInCreateTime(1, 100);
+        pool.factorInCreateTime(2, 500);
+        pool.setPrewarmCount(1, 2);
+        pool.putRecycledView(makeHolder(1));
+        pool.putRecycledView(makeHolder(1));
+
+        pool.putRecycledView(makeHolder(2));
+
+        assertEquals(2, pool.getRecycledViewCount(1));
+        assertEquals(0, pool.getRecycledViewCount(2));
+    }
+
+    @Test
+    public void prewarm() {
+        BudgetedRecycledViewPool pool = new BudgetedRecycledViewPool(10);
+        pool.setPrewarmCount(1, 3);
+        RecyclerView recyclerView = new RecyclerView(getContext());
+        recyclerView.setRecycledViewPool(pool);
+        TestAdapter adapter = new TestAdapter();
+        recyclerView.setAdapter(adapter);
+
+        pool.prewarm(recyclerView, RecyclerView.FOREVER_NS);
+        assertEquals(0, pool.getRecycledViewCount(1));
+
+        recyclerView.mRecycler.createViewHolder(1, recyclerView.getNanoTime());
+        pool.prewarm(recyclerView, RecyclerView.FOREVER_NS);
+
+        assertEquals(3, pool.getRecycledViewCount(1));
+        assertEquals(4, adapter.mCreateCount);
+    }
+
+    @Test
+    public void prewarm_cappedByBudget() {
+        BudgetedRecycledViewPool pool = new BudgetedRecycledViewPool(2);
+        pool.setPrewarmCount(1, 3);
+        RecyclerView recyclerView = new RecyclerView(getContext());
+        recyclerView.setRecycledViewPool(pool);
+        recyclerView.setAdapter(new TestAdapter());
+
+        recyclerView.mRecycler.createViewHolder(1, recyclerView.getNanoTime());
+        pool.prewarm(recyclerView, RecyclerView.FOREVER_NS);
+
+        assertEquals(2, pool.getRecycledViewCount(1));
+    }
+
+    @Test
+    public void prewarm_adapterChanged_doesNotCreate() {
+        BudgetedRecycledViewPool pool = new BudgetedRecycledViewPool(10);
+        pool.setPrewarmCount(1, 3);
+        RecyclerView recyclerView = new RecyclerView(getContext());
+        recyclerView.setRecycledViewPool(pool);
+        recyclerView.setAdapter(new TestAdapter());
+        recyclerView.mRecycler.createViewHolder(1, recyclerView.getNanoTime());
+
+        recyclerView.swapAdapter(new TestAdapter(), false);
+        pool.prewarm(recyclerView, RecyclerView.FOREVER_NS);
+
+        assertEquals(0, pool.getRecycledViewCount(1));
+    }
+
+    private static class MockViewHolder extends RecyclerView.ViewHolder {
+        MockViewHolder(Context context) {
+            super(new View(context));
+        }
+    }
+
+    private class TestAdapter extends RecyclerView.Adapter<MockViewHolder> {
+        int mCreateCount;
+
+        @NonNull
+        @Override
+        public MockViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            mCreateCount++;
+            return new MockViewHolder(parent.getContext());
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull MockViewHolder holder, int position) {
+
+        }
+
+        @Override
+        public int getItemCount() {
+            return 0;
+        }
+    }
+}
@@ -58,6 +58,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -176,6 +177,77 @@ public class RecyclerViewCacheTest {
         }
     }
 
+    @Test
+    public void prefetchCreatesViewHoldersInBackground() {
+        RecyclerView.LayoutManager prefetchingLayoutManager = new RecyclerView.LayoutManager() {
+            @Override
+            public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+                return new RecyclerView.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                        ViewGroup.LayoutParams.WRAP_CONTENT);
+            }
+
+            @Override
+            public void collectAdjacentPrefetchPositions(int dx, int dy, RecyclerView.State state,
+                    LayoutPrefetchRegistry prefetchManager) {
+                // not immediate, since not within the distance scrolled in a frame
+                prefetchManager.addPosition(0, 10);
+                prefetchManager.addPosition(1, 10);
+                prefetchManager.addPosition(2, 10);
+            }
+
+            @Override
+            public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+            }
+        };
+        mRecyclerView.setLayoutManager(prefetchingLayoutManager);
+
+        final List<Thread> createThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        RecyclerView.Adapter<RecyclerView.ViewHolder> adapter =
+                new RecyclerView.Adapter<RecyclerView.ViewHolder>() {
+                    @NonNull
+                    @Override
+                    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent,
+                            int viewType) {
+                        createThreads.add(Thread.currentThread());
+                        return new RecyclerView.ViewHolder(new View(parent.getContext())) {};
+                    }
+
+                    @Override
+                    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder,
+                            int position) {
+                    }
+
+                    @Override
+                    public int getItemCount() {
+                        return 10;
+                    }
+                };
+        adapter.setBackgroundViewHolderCreationEnabled(true);
+        mRecyclerView.setAdapter(adapter);
+
+        layout(320, 320);
+
+        // The first prefetch only requests the ViewHolders...
+        mRecyclerView.mGapWorker.prefetch(TimeUnit.MILLISECONDS.toNanos(16));
+        assertTrue(mRecycler.mCachedViews.isEmpty());
+        RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        long timeout = SystemClock.uptimeMillis() + 5000;
+        while (pool.size() < 3 && SystemClock.uptimeMillis() < timeout) {
+            mRecycler.mAsyncViewHolderCreator.collect();
+        }
+        assertEquals(3, pool.size());
+        assertEquals(3, createThreads.size());
+        for (Thread thread : createThreads) {
+            assertNotEquals(Thread.currentThread(), thread);
+        }
+
+        // ...which the next one binds, without creating more.
+        mRecyclerView.mGapWorker.prefetch(TimeUnit.MILLISECONDS.toNanos(16));
+        assertEquals(3, createThreads.size());
+        assertEquals(3, mRecycler.mCachedViews.size());
+        CacheUtils.verifyCacheContainsPrefetchedPositions(mRecyclerView, 0, 1, 2);
+    }
+
     @Test
     public void prefetchItemsNotEvictedWithInserts() {
         mRecyclerView.setLayoutManager(new GridLayoutManager(getContext(), 3));
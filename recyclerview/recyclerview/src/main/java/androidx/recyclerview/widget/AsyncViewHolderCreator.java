@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.recyclerview.widget;
+
+import android.os.Process;
+import android.util.Log;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates ViewHolders on a background thread for the Adapter of a RecyclerView, when the Adapter
+ * {@link RecyclerView.Adapter#isBackgroundViewHolderCreationEnabled() allows it}.
+ * <p>
+ * Creations are requested by prefetch on the UI thread, instead of creating ViewHolders there.
+ * Finished ViewHolders are collected into the {@link RecyclerView.RecycledViewPool} on the UI
+ * thread, before the Recycler looks for a ViewHolder in the pool, so that a later prefetch or
+ * layout only has to bind them.
+ * <p>
+ * Like AsyncLayoutInflater, all RecyclerViews share a single background thread.
+ */
+final class AsyncViewHolderCreator {
+
+    private static ExecutorService sExecutor;
+
+    private final RecyclerView mRecyclerView;
+
+    // Only accessed on the UI thread.
+    private final SparseIntArray mPendingCounts = new SparseIntArray();
+    // Only accessed on the UI thread.
+    private final SparseBooleanArray mFailedTypes = new SparseBooleanArray();
+    // Only accessed on the UI thread.
+    private int mGeneration;
+
+    // Guarded by mResults.
+    private final ArrayList<Result> mResults = new ArrayList<>();
+
+    AsyncViewHolderCreator(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+    }
+
+    /**
+     * Requests a ViewHolder of the given type, unless the pool and the pending creations already
+     * fill the pool for that type.
+     *
+     * @return True if a ViewHolder of the given type is being created in the background.
+     */
+    boolean request(@NonNull final RecyclerView.Adapter adapter, final int viewType) {
+        if (mFailedTypes.get(viewType)) {
+            return false;
+        }
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        final int pendingCount = mPendingCounts.get(viewType);
+        if (pendingCount > 0 && pendingCount + pool.getRecycledViewCount(viewType)
+                >= pool.getScrapDataForType(viewType).mMaxScrap) {
+            return true;
+        }
+        mPendingCounts.put(viewType, pendingCount + 1);
+        final int generation = mGeneration;
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                RecyclerView.ViewHolder holder = null;
+                try {
+                    holder = adapter.createViewHolder(mRecyclerView, viewType);
+                } catch (RuntimeException e) {
+                    Log.w(RecyclerView.TAG, "Failed to create a ViewHolder in the background, "
+                            + "falling back to the UI thread", e);
+                }
+                synchronized (mResults) {
+                    mResults.add(new Result(generation, adapter, viewType, holder));
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Moves the ViewHolders created since the last call into the pool.
+     */
+    void collect() {
+        final ArrayList<Result> results;
+        synchronized (mResults) {
+            if (mResults.isEmpty()) {
+                return;
+            }
+            results = new ArrayList<>(mResults);
+            mResults.clear();
+        }
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        for (int i = 0; i < results.size(); i++) {
+            final Result result = results.get(i);
+            if (result.mGeneration != mGeneration) {
+                // Requested for a previous adapter.
+                continue;
+            }
+            mPendingCounts.put(result.mViewType, mPendingCounts.get(result.mViewType) - 1);
+            final RecyclerView.ViewHolder holder = result.mViewHolder;
+            if (holder == null) {
+                mFailedTypes.put(result.mViewType, true);
+                continue;
+            }
+            if (result.mAdapter != mRecyclerView.mAdapter) {
+                continue;
+            }
+            if (RecyclerView.ALLOW_THREAD_GAP_WORK) {
+                // only bother finding nested RV if prefetching
+                RecyclerView innerView = RecyclerView.findNestedRecyclerView(holder.itemView);
+                if (innerView != null) {
+                    holder.mNestedRecyclerView = new WeakReference<>(innerView);
+                }
+            }
+            pool.putRecycledView(holder);
+        }
+    }
+
+    /**
+     * Discards the pending creations, when the Adapter changes.
+     */
+    void cancel() {
+        mGeneration++;
+        mPendingCounts.clear();
+        mFailedTypes.clear();
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable r) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            r.run();
+                        }
+                    }, "RecyclerView-CreateViewHolder");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sExecutor;
+    }
+
+    private static class Result {
+        final int mGeneration;
+        final RecyclerView.Adapter mAdapter;
+        final int mViewType;
+        @Nullable
+        final RecyclerView.ViewHolder mViewHolder;
+
+        Result(int generation, RecyclerView.Adapter adapter, int viewType,
+                @Nullable RecyclerView.ViewHolder viewHolder) {
+            mGeneration = generation;
+            mAdapter = adapter;
+            mViewType = viewType;
+            mViewHolder = viewHolder;
+        }
+    }
+}
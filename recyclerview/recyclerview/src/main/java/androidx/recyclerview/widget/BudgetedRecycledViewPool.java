@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.recyclerview.widget;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * A {@link RecyclerView.RecycledViewPool} that holds at most a given number of Views across all
+ * view types, and that can create Views ahead of need.
+ * <p>
+ * When the pool is full, a recycled View replaces a View of the type that is the cheapest to
+ * create, if its own type is more expensive to create. Only the creation of a View is saved by
+ * pooling it since it is bound again when reused, so binding times are not taken into account.
+ * <p>
+ * Use {@link #setPrewarmCount(int, int)} to keep a number of Views of a given type ready, for
+ * example for RecyclerViews that are nested in the items of another RecyclerView and that share
+ * this pool. Missing Views are created during the idle time of frames, after item prefetch,
+ * while a RecyclerView that uses the pool and that already created a View of the type is visible.
+ * The creation of a View is skipped if it is not expected to complete before the next frame.
+ * Views of a type are never replaced to make room for Views of another type while the pool holds
+ * no more than the prewarm count for their type.
+ * <p>
+ * Like {@link RecyclerView.RecycledViewPool}, this class must only be used from the UI thread.
+ */
+public class BudgetedRecycledViewPool extends RecyclerView.RecycledViewPool {
+
+    private final int mMaxRecycledViews;
+
+    private final SparseIntArray mPrewarmCounts = new SparseIntArray();
+
+    /**
+     * The RecyclerView and Adapter that last created a ViewHolder of each type, which are used to
+     * prewarm that type.
+     */
+    private final SparseArray<Creator> mCreators = new SparseArray<>();
+
+    /**
+     * Creates a pool that holds at most the given number of Views.
+     *
+     * @param maxRecycledViews Maximum number of Views held across all view types.
+     */
+    public BudgetedRecycledViewPool(@IntRange(from = 1) int maxRecycledViews) {
+        if (maxRecycledViews < 1) {
+            throw new IllegalArgumentException("maxRecycledViews must be positive");
+        }
+        mMaxRecycledViews = maxRecycledViews;
+    }
+
+    /**
+     * Returns the maximum number of Views held across all view types.
+     *
+     * @return The maximum number of Views held by the pool.
+     */
+    public int getMaxRecycledViews() {
+        return mMaxRecycledViews;
+    }
+
+    /**
+     * Sets the number of Views of the given type to keep ready in the pool.
+     * <p>
+     * The count is capped by the maximum set with {@link #setMaxRecycledViews(int, int)} for the
+     * type.
+     *
+     * @param viewType ViewHolder type
+     * @param count    Number of Views to keep ready, {@code 0} to stop prewarming the type.
+     */
+    public void setPrewarmCount(int viewType, @IntRange(from = 0) int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if (count == 0) {
+            mPrewarmCounts.delete(viewType);
+        } else {
+            mPrewarmCounts.put(viewType, count);
+        }
+    }
+
+    /**
+     * Returns the number of Views of the given type to keep ready in the pool.
+     */
+    public int getPrewarmCount(int viewType) {
+        return mPrewarmCounts.get(viewType);
+    }
+
+    /**
+     * Add a scrap ViewHolder to the pool.
+     * <p>
+     * If the pool is already full for that ViewHolder's type, or if it holds the maximum number
+     * of Views and all of their types are at least as expensive to create, the ViewHolder will
+     * be immediately discarded.
+     *
+     * @param scrap ViewHolder to be added to the pool.
+     */
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        final ScrapData scrapData = getScrapDataForType(scrap.getItemViewType());
+        if (scrapData.mMaxScrap <= scrapData.mScrapHeap.size()) {
+            return;
+        }
+        if (size() >= mMaxRecycledViews
+                && !evictCheaperThan(scrapData.mCreateRunningAverageNs)) {
+            return;
+        }
+        super.putRecycledView(scrap);
+    }
+
+    /**
+     * Discards a View of the type that is the cheapest to create, if it is cheaper than the given
+     * creation time.
+     *
+     * @return True if a View was discarded.
+     */
+    private boolean evictCheaperThan(long createTimeNs) {
+        ArrayList<RecyclerView.ViewHolder> cheapestHeap = null;
+        long cheapestTimeNs = createTimeNs;
+        for (int i = 0; i < mScrap.size(); i++) {
+            final ScrapData scrapData = mScrap.valueAt(i);
+            final ArrayList<RecyclerView.ViewHolder> scrapHeap = scrapData.mScrapHeap;
+            if (scrapHeap.size() > mPrewarmCounts.get(mScrap.keyAt(i))
+                    && scrapData.mCreateRunningAverageNs < cheapestTimeNs) {
+                cheapestHeap = scrapHeap;
+                cheapestTimeNs = scrapData.mCreateRunningAverageNs;
+            }
+        }
+        if (cheapestHeap == null) {
+            return false;
+        }
+        cheapestHeap.remove(cheapestHeap.size() - 1);
+        return true;
+    }
+
+    @Override
+    void onViewHolderCreated(@NonNull RecyclerView parent, int viewType) {
+        final Creator creator = mCreators.get(viewType);
+        if (creator == null || creator.mRecyclerView.get() != parent
+                || creator.mAdapter.get() != parent.mAdapter) {
+            mCreators.put(viewType, new Creator(parent));
+        }
+    }
+
+    @Override
+    void prewarm(@NonNull RecyclerView parent, long deadlineNs) {
+        for (int i = 0; i < mPrewarmCounts.size(); i++) {
+            final int viewType = mPrewarmCounts.keyAt(i);
+            final Creator creator = mCreators.get(viewType);
+            if (creator == null || creator.mRecyclerView.get() != parent
+                    || creator.mAdapter.get() != parent.mAdapter) {
+                // Only the adapter that created a type is known to support it.
+                continue;
+            }
+            final ScrapData scrapData = getScrapDataForType(viewType);
+            final int count = Math.min(mPrewarmCounts.valueAt(i), scrapData.mMaxScrap);
+            while (scrapData.mScrapHeap.size() < count && size() < mMaxRecycledViews) {
+                final long start = parent.getNanoTime();
+                if (!willCreateInTime(viewType, start, deadlineNs)) {
+                    // Other types may be quicker to create.
+                    break;
+                }
+                putRecycledView(parent.mRecycler.createViewHolder(viewType, start));
+            }
+        }
+    }
+
+    private static class Creator {
+        final WeakReference<RecyclerView> mRecyclerView;
+        final WeakReference<RecyclerView.Adapter> mAdapter;
+
+        Creator(RecyclerView recyclerView) {
+            mRecyclerView = new WeakReference<>(recyclerView);
+            mAdapter = new WeakReference<RecyclerView.Adapter>(recyclerView.mAdapter);
+        }
+    }
+}
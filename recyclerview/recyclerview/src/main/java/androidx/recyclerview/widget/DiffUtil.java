@@ -26,8 +26,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * DiffUtil is a utility class that calculates the difference between two lists and outputs a
@@ -74,6 +77,10 @@ import java.util.List;
  *     <li>1000 items and 200 modifications without moves: 13.54 ms, median: 13.36 ms
  * </ul>
  * <p>
+ * For lists of tens of thousands of items, see
+ * {@link #calculateDiff(Callback, boolean, Executor)}, which uses the ids of the items and several
+ * threads to calculate the diff faster.
+ * <p>
  * Due to implementation constraints, the max size of the list can be 2^26.
  *
  * @see ListAdapter
@@ -91,6 +98,13 @@ public class DiffUtil {
         }
     };
 
+    // the position of an id that is found more than once in a list
+    private static final int DUPLICATE_ID = -1;
+
+    // the number of steps after which calculateDiff(Callback, boolean, Executor) stops looking
+    // for the middle snake of the whole lists, and matches the items by id instead
+    private static final int MAX_QUICK_EDIT_DISTANCE = 32;
+
     // Myers' algorithm uses two lists as axis labels. In DiffUtil's implementation, `x` axis is
     // used for old list and `y` axis is used for new list.
 
@@ -179,6 +193,205 @@ public class DiffUtil {
                 detectMoves);
     }
 
+    /**
+     * Calculates the list of update operations that can covert one list into the other one,
+     * sharing the work with the threads of the given {@link Executor}.
+     * <p>
+     * This is meant for very large lists. The items at the start and at the end of the lists that
+     * are the same are matched first. Then, if the {@link Callback} provides ids with
+     * {@link Callback#getOldItemId(int)} and {@link Callback#getNewItemId(int)}, the items whose
+     * id is unique in both lists are matched in linear time, which splits the rest of the lists
+     * into independent ranges. The ranges are solved with Myers's algorithm, on the calling
+     * thread and on the threads of the {@code executor}, each thread only allocating memory for
+     * the ranges it solves.
+     * <p>
+     * The result is a valid edit sequence but, unlike {@link #calculateDiff(Callback, boolean)},
+     * it is not guaranteed to be the shortest one when the lists have many changes.
+     * <p>
+     * The calling thread does not wait for the {@code executor} to start running, so it is fine
+     * to call this method from one of the threads of the {@code executor}.
+     * <p class="note">
+     * Note: the methods of the {@link Callback} are called concurrently from the calling thread
+     * and from the threads of the {@code executor}, so the callback must be thread-safe. Reading
+     * from lists that are not modified while the diff is calculated is fine, but a callback
+     * that caches or updates any state while comparing items must synchronize it.
+     *
+     * @param cb The callback that acts as a gateway to the backing list data. Must be thread-safe.
+     * @param detectMoves True if DiffUtil should try to detect moved items, false otherwise.
+     * @param executor The Executor running the threads that help calculating the diff
+     *
+     * @return A DiffResult that contains the information about the edit sequence to convert the
+     * old list into the new list.
+     */
+    @NonNull
+    public static DiffResult calculateDiff(@NonNull Callback cb, boolean detectMoves,
+            @NonNull Executor executor) {
+        final int oldSize = cb.getOldListSize();
+        final int newSize = cb.getNewListSize();
+        final List<Diagonal> diagonals = new ArrayList<>();
+
+        // match the common prefix and suffix, which covers items that were only added or
+        // removed at the ends of the list
+        final int minSize = Math.min(oldSize, newSize);
+        int prefix = 0;
+        while (prefix < minSize && cb.areItemsTheSame(prefix, prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix
+                && cb.areItemsTheSame(oldSize - suffix - 1, newSize - suffix - 1)) {
+            suffix++;
+        }
+        if (prefix > 0) {
+            diagonals.add(new Diagonal(0, 0, prefix));
+        }
+        if (suffix > 0) {
+            diagonals.add(new Diagonal(oldSize - suffix, newSize - suffix, suffix));
+        }
+
+        final List<Range> ranges = new ArrayList<>();
+        final Range middle = new Range(prefix, oldSize - suffix, prefix, newSize - suffix);
+        if (middle.oldSize() > 0 && middle.newSize() > 0) {
+            // Myers's algorithm is fast when there are few changes, which it finds out quickly
+            final int size = middle.oldSize() + middle.newSize() + 1;
+            final Snake snake = midPoint(middle, cb,
+                    new CenteredArray(size), new CenteredArray(size), MAX_QUICK_EDIT_DISTANCE);
+            if (snake == null) {
+                matchUniqueIds(middle, cb, diagonals, ranges);
+            } else {
+                ranges.add(middle);
+            }
+        }
+        if (!ranges.isEmpty()) {
+            new ParallelMyers(cb, ranges).run(executor, diagonals);
+        }
+        Collections.sort(diagonals, DIAGONAL_COMPARATOR);
+
+        return new DiffResult(cb, diagonals, new int[oldSize], new int[newSize], detectMoves);
+    }
+
+    /**
+     * Matches the items of the range whose id is unique in both lists, keeping the longest
+     * sequence of matches that are in the same order in both lists, like patience diff does.
+     * The matches are added as diagonals, and the ranges between them that are left to solve are
+     * added to {@code ranges}.
+     */
+    private static void matchUniqueIds(
+            Range range,
+            Callback cb,
+            List<Diagonal> diagonals,
+            List<Range> ranges) {
+        final Map<Long, Integer> oldPositions = uniqueIds(cb, range.oldListStart,
+                range.oldListEnd, true);
+        final Map<Long, Integer> newPositions = oldPositions.isEmpty()
+                ? Collections.<Long, Integer>emptyMap()
+                : uniqueIds(cb, range.newListStart, range.newListEnd, false);
+        // matches ordered by new position
+        final int[] matchX = new int[Math.min(oldPositions.size(), newPositions.size())];
+        final int[] matchY = new int[matchX.length];
+        int matchCount = 0;
+        if (matchX.length > 0) {
+            for (int y = range.newListStart; y < range.newListEnd; y++) {
+                final long id = cb.getNewItemId(y);
+                if (id == RecyclerView.NO_ID) {
+                    continue;
+                }
+                final Integer newPosition = newPositions.get(id);
+                if (newPosition == null || newPosition != y) {
+                    continue;
+                }
+                final Integer x = oldPositions.get(id);
+                if (x != null && x != DUPLICATE_ID && cb.areItemsTheSame(x, y)) {
+                    matchX[matchCount] = x;
+                    matchY[matchCount] = y;
+                    matchCount++;
+                }
+            }
+        }
+        if (matchCount == 0) {
+            ranges.add(range);
+            return;
+        }
+
+        // find the longest increasing sequence of old positions, with patience sorting:
+        // tails[i] is the match ending the best sequence of length i + 1 found so far.
+        final int[] tails = new int[matchCount];
+        final int[] previous = new int[matchCount];
+        int length = 0;
+        for (int i = 0; i < matchCount; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (matchX[tails[mid]] < matchX[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        // walk the sequence backwards, merging adjacent matches into diagonals
+        final int[] sequence = new int[length];
+        for (int i = length - 1, match = tails[length - 1]; i >= 0; i--) {
+            sequence[i] = match;
+            match = previous[match];
+        }
+        int x = range.oldListStart;
+        int y = range.newListStart;
+        int i = 0;
+        while (i < length) {
+            final int startX = matchX[sequence[i]];
+            final int startY = matchY[sequence[i]];
+            int size = 1;
+            while (i + size < length
+                    && matchX[sequence[i + size]] == startX + size
+                    && matchY[sequence[i + size]] == startY + size) {
+                size++;
+            }
+            addRange(ranges, x, startX, y, startY);
+            diagonals.add(new Diagonal(startX, startY, size));
+            x = startX + size;
+            y = startY + size;
+            i += size;
+        }
+        addRange(ranges, x, range.oldListEnd, y, range.newListEnd);
+    }
+
+    /**
+     * @return The position of each id in the given range of one of the lists, or
+     * {@link #DUPLICATE_ID} for the ids found more than once.
+     */
+    private static Map<Long, Integer> uniqueIds(Callback cb, int start, int end,
+            boolean oldList) {
+        Map<Long, Integer> positions = null;
+        for (int position = start; position < end; position++) {
+            final long id = oldList ? cb.getOldItemId(position) : cb.getNewItemId(position);
+            if (id == RecyclerView.NO_ID) {
+                continue;
+            }
+            if (positions == null) {
+                positions = new HashMap<>();
+            }
+            if (positions.put(id, position) != null) {
+                positions.put(id, DUPLICATE_ID);
+            }
+        }
+        return positions == null ? Collections.<Long, Integer>emptyMap() : positions;
+    }
+
+    private static void addRange(List<Range> ranges, int oldListStart, int oldListEnd,
+            int newListStart, int newListEnd) {
+        // ranges without items on one side are only additions or removals
+        if (oldListStart < oldListEnd && newListStart < newListEnd) {
+            ranges.add(new Range(oldListStart, oldListEnd, newListStart, newListEnd));
+        }
+    }
+
     /**
      * Finds a middle snake in the given range.
      */
@@ -188,10 +401,24 @@ public class DiffUtil {
             Callback cb,
             CenteredArray forward,
             CenteredArray backward) {
+        return midPoint(range, cb, forward, backward, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds a middle snake in the given range, giving up if it is more than {@code maxD}
+     * steps away from both ends of the range.
+     */
+    @Nullable
+    private static Snake midPoint(
+            Range range,
+            Callback cb,
+            CenteredArray forward,
+            CenteredArray backward,
+            int maxD) {
         if (range.oldSize() < 1 || range.newSize() < 1) {
             return null;
         }
-        int max = (range.oldSize() + range.newSize() + 1) / 2;
+        int max = Math.min((range.oldSize() + range.newSize() + 1) / 2, maxD);
         forward.set(1, range.oldListStart);
         backward.set(1, range.oldListEnd);
         for (int d = 0; d < max; d++) {
@@ -395,6 +622,39 @@ public class DiffUtil {
         public Object getChangePayload(int oldItemPosition, int newItemPosition) {
             return null;
         }
+
+        /**
+         * Returns the stable id of the item at the given position in the old list.
+         * <p>
+         * Ids let DiffUtil match items in linear time instead of calling
+         * {@link #areItemsTheSame(int, int)} for many pairs of items: when it looks for moved
+         * items, and when {@link DiffUtil#calculateDiff(Callback, boolean, Executor)} splits the
+         * lists. If you return ids, two items that both have an id must have the same id if and
+         * only if {@link #areItemsTheSame(int, int)} returns {@code true} for them. Items without
+         * an id are compared with {@link #areItemsTheSame(int, int)}.
+         * <p>
+         * Default implementation returns {@link RecyclerView#NO_ID}.
+         *
+         * @param oldItemPosition The position of the item in the old list
+         * @return The id of the item, or {@link RecyclerView#NO_ID} if it has none.
+         */
+        public long getOldItemId(int oldItemPosition) {
+            return RecyclerView.NO_ID;
+        }
+
+        /**
+         * Returns the stable id of the item at the given position in the new list.
+         * <p>
+         * See {@link #getOldItemId(int)} for how ids are used.
+         * <p>
+         * Default implementation returns {@link RecyclerView#NO_ID}.
+         *
+         * @param newItemPosition The position of the item in the new list
+         * @return The id of the item, or {@link RecyclerView#NO_ID} if it has none.
+         */
+        public long getNewItemId(int newItemPosition) {
+            return RecyclerView.NO_ID;
+        }
     }
 
     /**
@@ -714,13 +974,20 @@ public class DiffUtil {
         }
 
         private void findMoveMatches() {
+            final Map<Long, List<Integer>> additionsById = getAdditionsById();
             // for each removal, find matching addition
             int posX = 0;
             for (Diagonal diagonal : mDiagonals) {
                 while (posX < diagonal.x) {
                     if (mOldItemStatuses[posX] == 0) {
                         // there is a removal, find matching addition from the rest
-                        findMatchingAddition(posX);
+                        final long id = additionsById == null ? RecyclerView.NO_ID
+                                : mCallback.getOldItemId(posX);
+                        if (id == RecyclerView.NO_ID) {
+                            findMatchingAddition(posX);
+                        } else {
+                            findMatchingAddition(posX, additionsById.get(id));
+                        }
                     }
                     posX++;
                 }
@@ -729,6 +996,61 @@ public class DiffUtil {
             }
         }
 
+        /**
+         * @return The positions of the additions that have an id, in order, by id, or null if
+         * none of them has an id
+         */
+        @Nullable
+        private Map<Long, List<Integer>> getAdditionsById() {
+            Map<Long, List<Integer>> additionsById = null;
+            int posY = 0;
+            for (Diagonal diagonal : mDiagonals) {
+                while (posY < diagonal.y) {
+                    final long id = mCallback.getNewItemId(posY);
+                    if (id != RecyclerView.NO_ID) {
+                        if (additionsById == null) {
+                            additionsById = new HashMap<>();
+                        }
+                        List<Integer> additions = additionsById.get(id);
+                        if (additions == null) {
+                            additions = new ArrayList<>(1);
+                            additionsById.put(id, additions);
+                        }
+                        additions.add(posY);
+                    }
+                    posY++;
+                }
+                posY = diagonal.endY();
+            }
+            return additionsById;
+        }
+
+        /**
+         * Finds the addition for the given removal of position posX among the additions with the
+         * same id as the removed item
+         *
+         * @param posX      position in the old list
+         * @param additions positions of the additions with the same id, in order
+         */
+        private void findMatchingAddition(int posX, @Nullable List<Integer> additions) {
+            if (additions == null) {
+                return;
+            }
+            final Iterator<Integer> itr = additions.iterator();
+            while (itr.hasNext()) {
+                final int posY = itr.next();
+                if (mNewItemStatuses[posY] == 0 && mCallback.areItemsTheSame(posX, posY)) {
+                    itr.remove();
+                    boolean contentsMatching = mCallback.areContentsTheSame(posX, posY);
+                    final int changeFlag = contentsMatching ? FLAG_MOVED_NOT_CHANGED
+                            : FLAG_MOVED_CHANGED;
+                    mOldItemStatuses[posX] = (posY << FLAG_OFFSET) | changeFlag;
+                    mNewItemStatuses[posY] = (posX << FLAG_OFFSET) | changeFlag;
+                    return;
+                }
+            }
+        }
+
         /**
          * Search the whole list to find the addition for the given removal of position posX
          *
@@ -1025,6 +1347,150 @@ public class DiffUtil {
         }
     }
 
+    /**
+     * Solves ranges with Myers's algorithm on several threads.
+     * <p>
+     * The threads take the ranges from a shared queue. When a range is split in two by its middle
+     * snake, the parts that are large enough go back to the queue so that idle threads can pick
+     * them up, and the others are solved by the same thread, without synchronization.
+     */
+    private static class ParallelMyers {
+        // ranges smaller than this, in items of both lists, are not worth handing to another thread
+        private static final int MIN_SHARED_RANGE_SIZE = 2048;
+
+        private final Callback mCallback;
+        private final ArrayDeque<Range> mRanges;
+        private final List<Diagonal> mDiagonals;
+        // number of ranges that are queued or being solved
+        private int mPendingCount;
+        private Throwable mFailure;
+
+        ParallelMyers(Callback callback, List<Range> ranges) {
+            mCallback = callback;
+            mRanges = new ArrayDeque<>(ranges);
+            mDiagonals = new ArrayList<>();
+            mPendingCount = ranges.size();
+        }
+
+        /**
+         * Solves all the ranges, and adds the diagonals that were found to {@code diagonals}.
+         */
+        void run(Executor executor, List<Diagonal> diagonals) {
+            long totalSize = 0;
+            for (Range range : mRanges) {
+                totalSize += range.oldSize() + range.newSize();
+            }
+            if (totalSize >= 2 * MIN_SHARED_RANGE_SIZE) {
+                final int helperCount = Runtime.getRuntime().availableProcessors() - 1;
+                final Runnable helper = new Runnable() {
+                    @Override
+                    public void run() {
+                        solve();
+                    }
+                };
+                for (int i = 0; i < helperCount; i++) {
+                    executor.execute(helper);
+                }
+            }
+            // the calling thread solves ranges too, so that it never waits for the executor to
+            // start a thread
+            solve();
+            synchronized (this) {
+                if (mFailure instanceof RuntimeException) {
+                    throw (RuntimeException) mFailure;
+                } else if (mFailure instanceof Error) {
+                    throw (Error) mFailure;
+                } else if (mFailure != null) {
+                    throw new RuntimeException(mFailure);
+                }
+                diagonals.addAll(mDiagonals);
+            }
+        }
+
+        /**
+         * Solves ranges from the queue until there are none left, or another thread failed.
+         */
+        void solve() {
+            CenteredArray forward = null;
+            CenteredArray backward = null;
+            final List<Range> stack = new ArrayList<>();
+            final List<Diagonal> diagonals = new ArrayList<>();
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    final Range range;
+                    synchronized (this) {
+                        // wait until a range is queued, or all the ranges are solved
+                        while (mRanges.isEmpty() && mPendingCount > 0 && mFailure == null) {
+                            try {
+                                wait();
+                            } catch (InterruptedException e) {
+                                // the ranges that other threads are solving are still needed
+                                interrupted = true;
+                            }
+                        }
+                        if (mFailure != null || mRanges.isEmpty()) {
+                            break;
+                        }
+                        range = mRanges.poll();
+                    }
+                    stack.add(range);
+                    while (!stack.isEmpty()) {
+                        final Range current = stack.remove(stack.size() - 1);
+                        final int size = current.oldSize() + current.newSize() + 1;
+                        if (forward == null || forward.backingData().length < size) {
+                            forward = new CenteredArray(size);
+                            backward = new CenteredArray(size);
+                        }
+                        final Snake snake = midPoint(current, mCallback, forward, backward);
+                        if (snake == null) {
+                            continue;
+                        }
+                        if (snake.diagonalSize() > 0) {
+                            diagonals.add(snake.toDiagonal());
+                        }
+                        pushRange(stack, new Range(current.oldListStart, snake.startX,
+                                current.newListStart, snake.startY));
+                        pushRange(stack, new Range(snake.endX, current.oldListEnd,
+                                snake.endY, current.newListEnd));
+                    }
+                    synchronized (this) {
+                        mDiagonals.addAll(diagonals);
+                        mPendingCount--;
+                        notifyAll();
+                    }
+                    diagonals.clear();
+                }
+            } catch (Throwable t) {
+                synchronized (this) {
+                    if (mFailure == null) {
+                        mFailure = t;
+                    }
+                    notifyAll();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void pushRange(List<Range> stack, Range range) {
+            if (range.oldSize() < 1 || range.newSize() < 1) {
+                // only additions or removals
+                return;
+            }
+            if (range.oldSize() + range.newSize() < MIN_SHARED_RANGE_SIZE) {
+                stack.add(range);
+                return;
+            }
+            synchronized (this) {
+                mRanges.add(range);
+                mPendingCount++;
+                notifyAll();
+            }
+        }
+    }
+
     /**
      * Array wrapper w/ negative index support.
      * We use this array instead of a regular array so that algorithm is easier to read without
@@ -363,9 +363,24 @@ final class GapWorker implements Runnable {
         }
     }
 
+    /**
+     * Lets the pool of each visible RecyclerView create ViewHolders with the time left before the
+     * deadline.
+     */
+    private void prewarmPoolsWithDeadline(long deadlineNs) {
+        final int viewCount = mRecyclerViews.size();
+        for (int i = 0; i < viewCount; i++) {
+            RecyclerView view = mRecyclerViews.get(i);
+            if (view.getWindowVisibility() == View.VISIBLE && view.mAdapter != null) {
+                view.mRecycler.getRecycledViewPool().prewarm(view, deadlineNs);
+            }
+        }
+    }
+
     void prefetch(long deadlineNs) {
         buildTaskList();
         flushTasksWithDeadline(deadlineNs);
+        prewarmPoolsWithDeadline(deadlineNs);
     }
 
     @Override
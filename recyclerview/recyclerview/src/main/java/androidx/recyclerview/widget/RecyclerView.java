@@ -5790,6 +5790,9 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
      * and use {@link RecyclerView#setRecycledViewPool(RecycledViewPool)}.
      * <p>
      * RecyclerView automatically creates a pool for itself if you don't provide one.
+     * <p>
+     * Use a {@link BudgetedRecycledViewPool} to bound the number of Views held across all view
+     * types, and to create Views ahead of need.
      */
     public static class RecycledViewPool {
         private static final int DEFAULT_MAX_SCRAP = 5;
@@ -5938,6 +5941,19 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
             return expectedDurationNs == 0 || (approxCurrentNs + expectedDurationNs < deadlineNs);
         }
 
+        /**
+         * Called after {@code parent} created a ViewHolder of the given type for this pool.
+         */
+        void onViewHolderCreated(@NonNull RecyclerView parent, int viewType) {
+        }
+
+        /**
+         * Called by {@link GapWorker} after it prefetched the items of {@code parent}, with the
+         * time left before the next frame, so that the pool can create ViewHolders ahead of need.
+         */
+        void prewarm(@NonNull RecyclerView parent, long deadlineNs) {
+        }
+
         void attach() {
             mAttachCount++;
         }
@@ -5971,7 +5987,7 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
             }
         }
 
-        private ScrapData getScrapDataForType(int viewType) {
+        ScrapData getScrapDataForType(int viewType) {
             ScrapData scrapData = mScrap.get(viewType);
             if (scrapData == null) {
                 scrapData = new ScrapData();
@@ -6069,6 +6085,8 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
 
         private ViewCacheExtension mViewCacheExtension;
 
+        AsyncViewHolderCreator mAsyncViewHolderCreator;
+
         static final int DEFAULT_CACHE_SIZE = 2;
 
         /**
@@ -6376,6 +6394,9 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
                         Log.d(TAG, "tryGetViewHolderForPositionByDeadline("
                                 + position + ") fetching from shared pool");
                     }
+                    if (mAsyncViewHolderCreator != null) {
+                        mAsyncViewHolderCreator.collect();
+                    }
                     holder = getRecycledViewPool().getRecycledView(type);
                     if (holder != null) {
                         holder.resetInternal();
@@ -6385,23 +6406,24 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
                     }
                 }
                 if (holder == null) {
+                    if (deadlineNs != FOREVER_NS
+                            && mAdapter.isBackgroundViewHolderCreationEnabled()) {
+                        if (mAsyncViewHolderCreator == null) {
+                            mAsyncViewHolderCreator = new AsyncViewHolderCreator(
+                                    RecyclerView.this);
+                        }
+                        if (mAsyncViewHolderCreator.request(mAdapter, type)) {
+                            // abort - the holder will be in the pool for a later prefetch
+                            return null;
+                        }
+                    }
                     long start = getNanoTime();
                     if (deadlineNs != FOREVER_NS
                             && !mRecyclerPool.willCreateInTime(type, start, deadlineNs)) {
                         // abort - we have a deadline we can't meet
                         return null;
                     }
-                    holder = mAdapter.createViewHolder(RecyclerView.this, type);
-                    if (ALLOW_THREAD_GAP_WORK) {
-                        // only bother finding nested RV if prefetching
-                        RecyclerView innerView = findNestedRecyclerView(holder.itemView);
-                        if (innerView != null) {
-                            holder.mNestedRecyclerView = new WeakReference<>(innerView);
-                        }
-                    }
-
-                    long end = getNanoTime();
-                    mRecyclerPool.factorInCreateTime(type, end - start);
+                    holder = createViewHolder(type, start);
                     if (DEBUG) {
                         Log.d(TAG, "tryGetViewHolderForPositionByDeadline created new ViewHolder");
                     }
@@ -6454,6 +6476,30 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
             return holder;
         }
 
+        /**
+         * Creates a ViewHolder of the given type with the adapter, and factors in its creation
+         * time in the pool.
+         *
+         * @param type  The view type of the ViewHolder.
+         * @param start The time, relative to getNanoTime(), at which the creation started.
+         */
+        @NonNull
+        ViewHolder createViewHolder(int type, long start) {
+            ViewHolder holder = mAdapter.createViewHolder(RecyclerView.this, type);
+            if (ALLOW_THREAD_GAP_WORK) {
+                // only bother finding nested RV if prefetching
+                RecyclerView innerView = findNestedRecyclerView(holder.itemView);
+                if (innerView != null) {
+                    holder.mNestedRecyclerView = new WeakReference<>(innerView);
+                }
+            }
+
+            long end = getNanoTime();
+            mRecyclerPool.factorInCreateTime(type, end - start);
+            mRecyclerPool.onViewHolderCreated(RecyclerView.this, type);
+            return holder;
+        }
+
         private void attachAccessibilityDelegateOnBind(ViewHolder holder) {
             if (isAccessibilityEnabled()) {
                 final View itemView = holder.itemView;
@@ -6937,6 +6983,9 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
         void onAdapterChanged(Adapter oldAdapter, Adapter newAdapter,
                 boolean compatibleWithPrevious) {
             clear();
+            if (mAsyncViewHolderCreator != null) {
+                mAsyncViewHolderCreator.cancel();
+            }
             getRecycledViewPool().onAdapterChanged(oldAdapter, newAdapter, compatibleWithPrevious);
         }
 
@@ -7144,6 +7193,7 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
     public abstract static class Adapter<VH extends ViewHolder> {
         private final AdapterDataObservable mObservable = new AdapterDataObservable();
         private boolean mHasStableIds = false;
+        private boolean mBackgroundViewHolderCreationEnabled = false;
         private StateRestorationPolicy mStateRestorationPolicy = StateRestorationPolicy.ALLOW;
 
         /**
@@ -7345,6 +7395,35 @@ public class RecyclerView extends ViewGroup implements ScrollingView,
             mHasStableIds = hasStableIds;
         }
 
+        /**
+         * Indicates whether {@link #onCreateViewHolder(ViewGroup, int)} may be called on a
+         * background thread, so that prefetch can create ViewHolders ahead of need without
+         * blocking the UI thread.
+         * <p>
+         * When enabled, {@link #onCreateViewHolder(ViewGroup, int)} must only use the parent to
+         * inflate the item view, as AsyncLayoutInflater does, and must not touch any other View
+         * or state owned by the UI thread. ViewHolders that RecyclerView needs immediately, for
+         * example during layout, are still created on the UI thread. If a background creation
+         * throws, ViewHolders of that type are created on the UI thread until the adapter changes.
+         *
+         * @param enabled Whether ViewHolders can be created on a background thread.
+         * @see #isBackgroundViewHolderCreationEnabled()
+         */
+        public void setBackgroundViewHolderCreationEnabled(boolean enabled) {
+            mBackgroundViewHolderCreationEnabled = enabled;
+        }
+
+        /**
+         * Returns true if {@link #onCreateViewHolder(ViewGroup, int)} may be called on a
+         * background thread.
+         *
+         * @return true if this adapter's ViewHolders can be created on a background thread
+         * @see #setBackgroundViewHolderCreationEnabled(boolean)
+         */
+        public final boolean isBackgroundViewHolderCreationEnabled() {
+            return mBackgroundViewHolderCreationEnabled;
+        }
+
         /**
          * Return the stable ID for the item at <code>position</code>. If {@link #hasStableIds()}
          * would return false this method should return {@link #NO_ID}. The default implementation
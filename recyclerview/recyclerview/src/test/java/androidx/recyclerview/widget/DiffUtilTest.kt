@@ -20,9 +20,11 @@ import org.hamcrest.CoreMatchers.equalTo
 import org.hamcrest.CoreMatchers.not
 import org.hamcrest.CoreMatchers.nullValue
 import org.hamcrest.MatcherAssert.assertThat
+import org.junit.After
 import org.junit.Assert
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
+import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import org.junit.rules.TestWatcher
@@ -31,6 +33,8 @@ import org.junit.runner.RunWith
 import org.junit.runners.JUnit4
 import java.util.Random
 import java.util.UUID
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 @RunWith(JUnit4::class)
 class DiffUtilTest {
@@ -42,11 +46,29 @@ class DiffUtilTest {
         newList = after,
         assertCalls = true
     )
+    private val callbackWithIds = ItemListCallback(
+        oldList = before,
+        newList = after,
+        assertCalls = true,
+        provideIds = true
+    )
+
+    private lateinit var executor: ExecutorService
 
     init {
         Item.idCounter = 0
     }
 
+    @Before
+    fun createExecutor() {
+        executor = Executors.newFixedThreadPool(2)
+    }
+
+    @After
+    fun shutdownExecutor() {
+        executor.shutdownNow()
+    }
+
     @Rule
     @JvmField
     val logOnExceptionWatcher: TestWatcher =
@@ -363,6 +385,12 @@ class DiffUtilTest {
 
     private fun calculate() = DiffUtil.calculateDiff(callback, true)
 
+    @Test
+    fun testRandomLargeList() {
+        // enough changes for the items to be matched by id in parallel
+        testRandom(3000, 400)
+    }
+
     @Test
     fun duplicate() {
         before.addAll(listOf(Item(false), Item(false)))
@@ -409,7 +437,13 @@ class DiffUtilTest {
     }
 
     private fun check() {
-        val result = calculate()
+        check(calculate())
+        check(DiffUtil.calculateDiff(callbackWithIds, true))
+        check(DiffUtil.calculateDiff(callbackWithIds, true, executor))
+        check(DiffUtil.calculateDiff(callback, true, executor))
+    }
+
+    private fun check(result: DiffUtil.DiffResult) {
         log("before", before)
         log("after", after)
         // test diff dispatch
@@ -682,7 +716,8 @@ class DiffUtilTest {
     private class ItemListCallback(
         private val oldList: List<Item>,
         private val newList: List<Item>,
-        private val assertCalls: Boolean = true
+        private val assertCalls: Boolean = true,
+        private val provideIds: Boolean = false
     ) : DiffUtil.Callback() {
         override fun getOldListSize() = oldList.size
 
@@ -729,6 +764,12 @@ class DiffUtilTest {
 
             return newList[newItemIndex].payload
         }
+
+        override fun getOldItemId(oldItemPosition: Int) =
+            if (provideIds) oldList[oldItemPosition].id else RecyclerView.NO_ID
+
+        override fun getNewItemId(newItemPosition: Int) =
+            if (provideIds) newList[newItemPosition].id else RecyclerView.NO_ID
     }
 
     companion object {
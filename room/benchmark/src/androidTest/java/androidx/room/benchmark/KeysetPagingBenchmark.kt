@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.benchmark
+
+import android.os.Build
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.paging.PagingSource
+import androidx.room.Dao
+import androidx.room.Database
+import androidx.room.Entity
+import androidx.room.Insert
+import androidx.room.PagingKey
+import androidx.room.PrimaryKey
+import androidx.room.Query
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import androidx.test.filters.SdkSuppress
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+
+/**
+ * Measures loading a page [offset] rows into a table of [ROW_COUNT] rows with a LIMIT/OFFSET
+ * paging source versus a keyset paging source generated for `@PagingKey`. The keyset load should
+ * take the same time at every offset.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.JELLY_BEAN)
+class KeysetPagingBenchmark(private val offset: Int, private val keyset: Boolean) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val context = ApplicationProvider.getApplicationContext() as android.content.Context
+    private lateinit var db: TestDatabase
+
+    @Before
+    fun setup() {
+        // the table is filled once and kept between runs as it takes a while to insert
+        db = Room.databaseBuilder(context, TestDatabase::class.java, DB_NAME)
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .build()
+        val dao = db.getItemDao()
+        if (dao.count() != ROW_COUNT) {
+            db.runInTransaction {
+                dao.deleteAll()
+                for (start in 0 until ROW_COUNT step CHUNK_SIZE) {
+                    dao.insert(List(CHUNK_SIZE) { Item(start + it.toLong(), "name${start + it}") })
+                }
+            }
+        }
+    }
+
+    @After
+    fun tearDown() {
+        db.close()
+    }
+
+    @Test
+    fun loadPage() {
+        val dao = db.getItemDao()
+        benchmarkRule.measureRepeated {
+            val page = runBlocking {
+                if (keyset) {
+                    // ids are 0 based, so the item before the offset has the id offset - 1
+                    dao.keysetPaged().load(
+                        PagingSource.LoadParams.Append(offset - 1L, PAGE_SIZE, false)
+                    )
+                } else {
+                    dao.offsetPaged().load(
+                        PagingSource.LoadParams.Append(offset, PAGE_SIZE, false)
+                    )
+                }
+            } as PagingSource.LoadResult.Page
+            runWithTimingDisabled {
+                assertEquals(minOf(PAGE_SIZE, ROW_COUNT - offset), page.data.size)
+            }
+        }
+    }
+
+    companion object {
+        private const val DB_NAME = "keyset-paging-benchmark-test"
+        private const val ROW_COUNT = 1_000_000
+        private const val CHUNK_SIZE = 10_000
+        private const val PAGE_SIZE = 20
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "offset={0}, keyset={1}")
+        fun data(): List<Array<Any>> {
+            return mutableListOf<Array<Any>>().apply {
+                arrayOf(1_000, 100_000, ROW_COUNT - PAGE_SIZE).forEach { offset ->
+                    arrayOf(false, true).forEach { keyset ->
+                        add(arrayOf(offset, keyset))
+                    }
+                }
+            }
+        }
+    }
+
+    @Database(entities = [Item::class], version = 1, exportSchema = false)
+    abstract class TestDatabase : RoomDatabase() {
+        abstract fun getItemDao(): ItemDao
+    }
+
+    @Entity
+    data class Item(@PrimaryKey val id: Long, val name: String)
+
+    @Dao
+    interface ItemDao {
+        @Insert(batchSize = 100)
+        fun insert(items: List<Item>)
+
+        @Query("SELECT * FROM Item")
+        fun offsetPaged(): PagingSource<Int, Item>
+
+        @PagingKey("id")
+        @Query("SELECT * FROM Item")
+        fun keysetPaged(): PagingSource<Long, Item>
+
+        @Query("SELECT COUNT(*) FROM Item")
+        fun count(): Int
+
+        @Query("DELETE FROM Item")
+        fun deleteAll(): Int
+    }
+}
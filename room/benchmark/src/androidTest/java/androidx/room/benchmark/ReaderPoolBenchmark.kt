@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.benchmark
+
+import android.os.Build
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.room.Dao
+import androidx.room.Database
+import androidx.room.Entity
+import androidx.room.Insert
+import androidx.room.OnConflictStrategy
+import androidx.room.PrimaryKey
+import androidx.room.Query
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import androidx.test.filters.SdkSuppress
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Measures the time for [threads] threads to each run a fixed number of read queries while
+ * another thread keeps writing, with and without a pool of [readers] read-only connections.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.JELLY_BEAN)
+class ReaderPoolBenchmark(private val readers: Int, private val threads: Int) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val context = ApplicationProvider.getApplicationContext() as android.content.Context
+    private val executor = Executors.newFixedThreadPool(threads + 1)
+    private val writing = AtomicBoolean()
+    private lateinit var db: TestDatabase
+
+    @Before
+    fun setup() {
+        for (postfix in arrayOf("", "-wal", "-shm")) {
+            val dbFile = context.getDatabasePath(DB_NAME + postfix)
+            if (dbFile.exists()) {
+                assertTrue(dbFile.delete())
+            }
+        }
+        db = Room.databaseBuilder(context, TestDatabase::class.java, DB_NAME)
+            .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+            .openHelperFactory(FrameworkSQLiteOpenHelperFactory(readers))
+            .enableReadableDatabaseQueries()
+            .build()
+        db.runInTransaction {
+            for (id in 0 until ROW_COUNT) {
+                db.getItemDao().insert(Item(id, "name$id", id % 10))
+            }
+        }
+        writing.set(true)
+        executor.execute {
+            var id = ROW_COUNT
+            while (writing.get()) {
+                db.getItemDao().insert(Item(id % (ROW_COUNT * 2), "name$id", id % 10))
+                id++
+            }
+        }
+    }
+
+    @After
+    fun tearDown() {
+        writing.set(false)
+        executor.shutdown()
+        db.close()
+    }
+
+    @Test
+    fun readWhileWriting() {
+        val tasks = List(threads) { thread ->
+            Callable {
+                for (i in 0 until QUERIES_PER_THREAD) {
+                    db.getItemDao().countByGroup((i + thread) % 10)
+                }
+            }
+        }
+        benchmarkRule.measureRepeated {
+            executor.invokeAll(tasks)
+        }
+    }
+
+    companion object {
+        private const val DB_NAME = "reader-pool-benchmark-test"
+        private const val ROW_COUNT = 1000
+        private const val QUERIES_PER_THREAD = 100
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "readers={0}, threads={1}")
+        fun data(): List<Array<Any>> {
+            return mutableListOf<Array<Any>>().apply {
+                arrayOf(0, 4).forEach { readers ->
+                    arrayOf(1, 2, 4, 8).forEach { threads ->
+                        add(arrayOf(readers, threads))
+                    }
+                }
+            }
+        }
+    }
+
+    @Database(entities = [Item::class], version = 1, exportSchema = false)
+    abstract class TestDatabase : RoomDatabase() {
+        abstract fun getItemDao(): ItemDao
+    }
+
+    @Entity
+    data class Item(@PrimaryKey val id: Int, val name: String, val groupId: Int)
+
+    @Dao
+    interface ItemDao {
+        @Insert(onConflict = OnConflictStrategy.REPLACE)
+        fun insert(item: Item)
+
+        @Query("SELECT COUNT(*) FROM Item WHERE groupId = :groupId")
+        fun countByGroup(groupId: Int): Int
+    }
+}
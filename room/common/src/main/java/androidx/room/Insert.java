@@ -109,4 +109,23 @@ public @interface Insert {
      */
     @OnConflictStrategy
     int onConflict() default OnConflictStrategy.ABORT;
+
+    /**
+     * The maximum number of rows inserted by a single statement.
+     * <p>
+     * When this is greater than {@code 1}, a method that receives a collection or an array of
+     * entities and does not return the inserted row ids inserts them with multi-row
+     * {@code INSERT ... VALUES (...), (...)} statements instead of executing one statement per
+     * row, which is considerably faster for large inserts. The number of rows per statement is
+     * further limited to 500 and by the number of bind arguments SQLite allows in a single
+     * statement. Before API 16, SQLite does not support multi-row inserts and every row is
+     * inserted with its own statement.
+     * <p>
+     * A batch size greater than {@code 1} cannot be used on a method that returns row ids, since a
+     * multi-row insert does not report the id of each row.
+     *
+     * @return The maximum number of rows per insert statement. Defaults to {@code 0}, which
+     *         inserts one row per statement.
+     */
+    int batchSize() default 0;
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes a {@link Query} method that returns a {@code PagingSource} page its results by the value
+ * of a key column instead of by position.
+ * <p>
+ * By default, a {@code PagingSource} returned by Room uses {@code LIMIT} and {@code OFFSET} to
+ * load pages, so SQLite has to step over all the rows before a page to load it and loading pages
+ * deep into a large result gets slower. When the query is annotated with {@code PagingKey}, each
+ * page continues from the key of the last loaded row instead, using
+ * {@code WHERE key > ? ORDER BY key LIMIT ?}, which takes the same time for every page when the
+ * key column is indexed (e.g. it is the {@link PrimaryKey}).
+ * <pre>
+ * {@literal @}Dao
+ * public interface MessageDao {
+ *   {@literal @}PagingKey(value = "id", descending = true)
+ *   {@literal @}Query("SELECT * FROM Message WHERE threadId = :threadId")
+ *   public PagingSource&lt;Long, Message&gt; pagedMessages(long threadId);
+ * }
+ * </pre>
+ * The results are ordered by the key column, so the query should not have an {@code ORDER BY}
+ * clause. The key column must be unique and not null, and the returned type must have a field
+ * for it whose type matches the key type of the {@code PagingSource}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface PagingKey {
+    /**
+     * The name of the result column to page by.
+     *
+     * @return The key column name.
+     */
+    String value();
+
+    /**
+     * Whether the results are ordered by descending key values.
+     *
+     * @return True to order the results by descending key values, false (default) to order them by
+     *         ascending key values.
+     */
+    boolean descending() default false;
+}
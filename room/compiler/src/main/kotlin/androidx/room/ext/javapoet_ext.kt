@@ -87,10 +87,14 @@ object RoomTypeNames {
             ClassName.get("$ROOM_PACKAGE.util", "ViewInfo")
     val LIMIT_OFFSET_DATA_SOURCE: ClassName =
             ClassName.get("$ROOM_PACKAGE.paging", "LimitOffsetDataSource")
+    val KEYSET_DATA_SOURCE: ClassName =
+            ClassName.get("$ROOM_PACKAGE.paging", "KeysetDataSource")
     val DB_UTIL: ClassName =
             ClassName.get("$ROOM_PACKAGE.util", "DBUtil")
     val CURSOR_UTIL: ClassName =
             ClassName.get("$ROOM_PACKAGE.util", "CursorUtil")
+    val CURSOR_ITERATOR: ClassName =
+            ClassName.get(ROOM_PACKAGE, "CursorIterator")
 }
 
 object PagingTypeNames {
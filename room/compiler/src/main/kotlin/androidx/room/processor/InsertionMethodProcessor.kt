@@ -43,6 +43,10 @@ class InsertionMethodProcessor(
         context.checker.check(onConflict in REPLACE..IGNORE,
                 executableElement, ProcessorErrors.INVALID_ON_CONFLICT_VALUE)
 
+        val batchSize = annotation?.value?.batchSize ?: 0
+        context.checker.check(batchSize >= 0,
+                executableElement, ProcessorErrors.INVALID_INSERT_BATCH_SIZE)
+
         val returnType = delegate.extractReturnType()
         val returnTypeName = returnType.typeName()
         context.checker.notUnbound(returnTypeName, executableElement,
@@ -87,6 +91,12 @@ class InsertionMethodProcessor(
                 ProcessorErrors.CANNOT_FIND_INSERT_RESULT_ADAPTER
         )
 
+        context.checker.check(
+                batchSize <= 1 || methodBinder.adapter?.returnsIds != true,
+                executableElement,
+                ProcessorErrors.INSERT_BATCH_SIZE_WITH_RETURNED_IDS
+        )
+
         return InsertionMethod(
                 element = executableElement,
                 name = executableElement.name,
@@ -94,6 +104,7 @@ class InsertionMethodProcessor(
                 entities = entities,
                 parameters = params,
                 onConflict = onConflict,
+                batchSize = batchSize,
                 methodBinder = methodBinder
         )
     }
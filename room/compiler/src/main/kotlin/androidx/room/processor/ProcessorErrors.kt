@@ -42,6 +42,9 @@ object ProcessorErrors {
     val MISSING_RAWQUERY_ANNOTATION = "RawQuery methods must be annotated with" +
             " ${RawQuery::class.java}"
     val INVALID_ON_CONFLICT_VALUE = "On conflict value must be one of @OnConflictStrategy values."
+    val INVALID_INSERT_BATCH_SIZE = "Insert batch size cannot be negative."
+    val INSERT_BATCH_SIZE_WITH_RETURNED_IDS = "Insert methods that return row ids cannot use" +
+            " a batch size since a multi-row insert does not report the id of each row."
     val TRANSACTION_REFERENCE_DOCS = "https://developer.android.com/reference/androidx/" +
             "room/Transaction.html"
 
@@ -129,6 +132,10 @@ object ProcessorErrors {
     fun cannotFindQueryResultAdapter(returnTypeName: String) = "Not sure how to convert a " +
             "Cursor to this method's return type ($returnTypeName)."
 
+    val CURSOR_ITERATOR_WITH_RELATION = "CursorIterator cannot be used with a POJO that has " +
+            "@Relation fields since relations are queried after all the rows are read. Return " +
+            "a List instead."
+
     val INSERTION_DOES_NOT_HAVE_ANY_PARAMETERS_TO_INSERT = "Method annotated with" +
             " @Insert but does not have any parameters to insert."
 
@@ -604,6 +611,20 @@ object ProcessorErrors {
     val PAGING_SPECIFY_PAGING_SOURCE_TYPE = "For now, Room only supports PagingSource with Key of" +
             " type Int."
 
+    val PAGING_KEY_REQUIRES_PAGING_SOURCE = "@PagingKey can only be used on a @Query method that" +
+            " returns a PagingSource."
+
+    fun pagingKeyColumnNotInResult(columnName: String) = "The paging key column `$columnName` is" +
+            " not returned by the query."
+
+    fun pagingKeyFieldMissing(columnName: String, typeName: String) = "$typeName does not have a" +
+            " field for the paging key column `$columnName`. The key must be a field of the" +
+            " returned type and cannot be inside an @Embedded field."
+
+    fun pagingKeyTypeMismatch(columnName: String, fieldType: String, keyType: String) = "The" +
+            " paging key column `$columnName` is of type $fieldType but the key type of the" +
+            " PagingSource is $keyType."
+
     fun primaryKeyNull(field: String): String {
         return "You must annotate primary keys with @NonNull. \"$field\" is nullable. SQLite " +
                 "considers this a " +
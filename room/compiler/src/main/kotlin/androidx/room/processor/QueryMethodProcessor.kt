@@ -16,6 +16,7 @@
 
 package androidx.room.processor
 
+import androidx.room.PagingKey
 import androidx.room.Query
 import androidx.room.SkipQueryVerification
 import androidx.room.Transaction
@@ -26,7 +27,10 @@ import androidx.room.ext.typeName
 import androidx.room.parser.ParsedQuery
 import androidx.room.parser.QueryType
 import androidx.room.parser.SqlParser
+import androidx.room.solver.binderprovider.KeysetPagingSourceQueryResultBinderProvider
+import androidx.room.solver.query.result.InstantQueryResultBinder
 import androidx.room.solver.query.result.PojoRowAdapter
+import androidx.room.solver.query.result.QueryResultBinder
 import androidx.room.verifier.DatabaseVerificationErrors
 import androidx.room.verifier.DatabaseVerifier
 import androidx.room.vo.QueryMethod
@@ -34,6 +38,8 @@ import androidx.room.vo.QueryParameter
 import androidx.room.vo.ReadQueryMethod
 import androidx.room.vo.Warning
 import androidx.room.vo.WriteQueryMethod
+import asDeclaredType
+import isDeclared
 import isNotError
 import javax.lang.model.element.ExecutableElement
 import javax.lang.model.type.DeclaredType
@@ -201,12 +207,31 @@ private class InternalQueryProcessor(
         )
     }
 
+    private fun findKeysetPagingResultBinder(
+        returnType: TypeMirror,
+        query: ParsedQuery,
+        pagingKey: PagingKey
+    ): QueryResultBinder {
+        val provider = KeysetPagingSourceQueryResultBinderProvider(
+            context, pagingKey.value, pagingKey.descending)
+        if (returnType.isDeclared() && provider.matches(returnType.asDeclaredType())) {
+            return provider.provide(returnType.asDeclaredType(), query)
+        }
+        context.logger.e(executableElement, ProcessorErrors.PAGING_KEY_REQUIRES_PAGING_SOURCE)
+        return InstantQueryResultBinder(null)
+    }
+
     private fun getQueryMethod(
         delegate: MethodProcessorDelegate,
         returnType: TypeMirror,
         query: ParsedQuery
     ): QueryMethod {
-        val resultBinder = delegate.findResultBinder(returnType, query)
+        val pagingKey = executableElement.toAnnotationBox(PagingKey::class)?.value
+        val resultBinder = if (pagingKey != null) {
+            findKeysetPagingResultBinder(returnType, query, pagingKey)
+        } else {
+            delegate.findResultBinder(returnType, query)
+        }
         val rowAdapter = resultBinder.adapter?.rowAdapter
         context.checker.check(
             resultBinder.adapter != null,
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.solver.binderprovider
+
+import androidx.room.ext.PagingTypeNames
+import androidx.room.ext.findTypeMirror
+import androidx.room.ext.typeName
+import androidx.room.parser.ParsedQuery
+import androidx.room.processor.Context
+import androidx.room.processor.ProcessorErrors
+import androidx.room.solver.QueryResultBinderProvider
+import androidx.room.solver.query.result.EntityRowAdapter
+import androidx.room.solver.query.result.KeysetPagingSourceQueryResultBinder
+import androidx.room.solver.query.result.ListQueryResultAdapter
+import androidx.room.solver.query.result.PojoRowAdapter
+import androidx.room.solver.query.result.QueryResultBinder
+import erasure
+import isAssignableFrom
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.TypeMirror
+
+/**
+ * Provides the binder for a PagingSource query method annotated with @PagingKey. Unlike the other
+ * providers it is created for a single method since it needs the key column of the annotation.
+ */
+class KeysetPagingSourceQueryResultBinderProvider(
+    val context: Context,
+    val keyColumn: String,
+    val descending: Boolean
+) : QueryResultBinderProvider {
+    private val pagingSourceTypeMirror: TypeMirror? by lazy {
+        context.processingEnv.findTypeMirror(PagingTypeNames.PAGING_SOURCE)
+    }
+
+    override fun provide(declared: DeclaredType, query: ParsedQuery): QueryResultBinder {
+        if (query.tables.isEmpty()) {
+            context.logger.e(ProcessorErrors.OBSERVABLE_QUERY_NOTHING_TO_OBSERVE)
+        }
+        val resultColumns = query.resultInfo?.columns
+        if (resultColumns != null && resultColumns.none { it.name == keyColumn }) {
+            context.logger.e(ProcessorErrors.pagingKeyColumnNotInResult(keyColumn))
+        }
+        val keyType = declared.typeArguments.first()
+        val typeArg = declared.typeArguments.last()
+        val rowAdapter = context.typeAdapterStore.findRowAdapter(typeArg, query)
+        val fields = when (rowAdapter) {
+            is PojoRowAdapter -> rowAdapter.pojo.fields
+            is EntityRowAdapter -> rowAdapter.entity.fields
+            else -> emptyList()
+        }
+        val keyField = fields.firstOrNull { it.columnName == keyColumn && it.parent == null }
+        if (rowAdapter != null) {
+            if (keyField == null) {
+                context.logger.e(
+                    ProcessorErrors.pagingKeyFieldMissing(keyColumn, typeArg.toString()))
+            } else if (keyField.typeName.box() != keyType.typeName()) {
+                context.logger.e(ProcessorErrors.pagingKeyTypeMismatch(
+                    keyColumn, keyField.typeName.toString(), keyType.toString()))
+            }
+        }
+        val listAdapter = rowAdapter?.let { ListQueryResultAdapter(it) }
+        val tableNames = ((listAdapter?.accessedTableNames() ?: emptyList()) +
+                query.tables.map { it.name }).toSet()
+        return KeysetPagingSourceQueryResultBinder(
+            listAdapter = listAdapter,
+            keyTypeName = keyType.typeName(),
+            keyField = keyField,
+            keyColumn = keyColumn,
+            descending = descending,
+            tableNames = tableNames
+        )
+    }
+
+    override fun matches(declared: DeclaredType): Boolean {
+        if (pagingSourceTypeMirror == null || declared.typeArguments.size != 2) {
+            return false
+        }
+        val typeUtils = context.processingEnv.typeUtils
+        return pagingSourceTypeMirror!!.isAssignableFrom(typeUtils, declared.erasure(typeUtils))
+    }
+}
@@ -20,6 +20,7 @@ import androidx.room.ext.N
 import androidx.room.solver.CodeGenScope
 import androidx.room.solver.prepared.result.PreparedQueryResultAdapter
 import androidx.room.writer.DaoWriter
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 
 /**
@@ -30,7 +31,7 @@ class InstantPreparedQueryResultBinder(adapter: PreparedQueryResultAdapter?) :
 
     override fun executeAndReturn(
         prepareQueryStmtBlock: CodeGenScope.() -> String,
-        preparedStmtField: String?,
+        releaseStmtBlock: (CodeBlock.Builder.(stmtVar: String) -> Unit)?,
         dbField: FieldSpec,
         scope: CodeGenScope
     ) {
@@ -39,7 +40,7 @@ class InstantPreparedQueryResultBinder(adapter: PreparedQueryResultAdapter?) :
         }
         adapter?.executeAndReturn(
             stmtQueryVal = scope.prepareQueryStmtBlock(),
-            preparedStmtField = preparedStmtField,
+            releaseStmtBlock = releaseStmtBlock,
             dbField = dbField,
             scope = scope)
     }
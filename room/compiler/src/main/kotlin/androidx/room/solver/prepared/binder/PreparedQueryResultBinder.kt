@@ -18,6 +18,7 @@ package androidx.room.solver.prepared.binder
 
 import androidx.room.solver.CodeGenScope
 import androidx.room.solver.prepared.result.PreparedQueryResultAdapter
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 
 /**
@@ -30,11 +31,12 @@ import com.squareup.javapoet.FieldSpec
 abstract class PreparedQueryResultBinder(val adapter: PreparedQueryResultAdapter?) {
     /**
      * Receives a function that will prepare the query in a given scope to then generate the code
-     * that runs the query and returns the result.
+     * that runs the query and returns the result, and a function that generates the code that
+     * releases the statement once the query ran, or null if the statement is not released.
      */
     abstract fun executeAndReturn(
         prepareQueryStmtBlock: CodeGenScope.() -> String,
-        preparedStmtField: String?, // null when the query is not shared
+        releaseStmtBlock: (CodeBlock.Builder.(stmtVar: String) -> Unit)?,
         dbField: FieldSpec,
         scope: CodeGenScope
     )
@@ -24,6 +24,7 @@ import androidx.room.ext.typeName
 import androidx.room.parser.QueryType
 import androidx.room.solver.CodeGenScope
 import androidx.room.solver.prepared.binder.PreparedQueryResultBinder
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 import isInt
 import isKotlinUnit
@@ -65,7 +66,7 @@ class PreparedQueryResultAdapter(
 
     fun executeAndReturn(
         stmtQueryVal: String,
-        preparedStmtField: String?,
+        releaseStmtBlock: (CodeBlock.Builder.(stmtVar: String) -> Unit)?,
         dbField: FieldSpec,
         scope: CodeGenScope
     ) {
@@ -75,6 +76,10 @@ class PreparedQueryResultAdapter(
             } else {
                 "executeUpdateDelete"
             }
+            if (releaseStmtBlock != null) {
+                // release the statement even if ending the transaction throws
+                beginControlFlow("try")
+            }
             addStatement("$N.beginTransaction()", dbField)
             beginControlFlow("try").apply {
                 if (returnType.isVoid() || returnType.isVoidObject() || returnType.isKotlinUnit()) {
@@ -97,11 +102,14 @@ class PreparedQueryResultAdapter(
             }
             nextControlFlow("finally").apply {
                 addStatement("$N.endTransaction()", dbField)
-                if (preparedStmtField != null) {
-                    addStatement("$N.release($L)", preparedStmtField, stmtQueryVal)
-                }
             }
             endControlFlow()
+            if (releaseStmtBlock != null) {
+                nextControlFlow("finally").apply {
+                    releaseStmtBlock(stmtQueryVal)
+                }
+                endControlFlow()
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.solver.query.result
+
+import androidx.room.ext.AndroidTypeNames
+import androidx.room.ext.CommonTypeNames
+import androidx.room.ext.L
+import androidx.room.ext.N
+import androidx.room.ext.PagingTypeNames
+import androidx.room.ext.RoomTypeNames
+import androidx.room.ext.S
+import androidx.room.ext.typeName
+import androidx.room.solver.CodeGenScope
+import androidx.room.vo.Field
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Returns a PagingSource backed by a KeysetDataSource, which pages the query by the value of
+ * [keyColumn] instead of by position.
+ */
+class KeysetPagingSourceQueryResultBinder(
+    val listAdapter: ListQueryResultAdapter?,
+    val keyTypeName: TypeName,
+    val keyField: Field?,
+    val keyColumn: String,
+    val descending: Boolean,
+    val tableNames: Set<String>
+) : QueryResultBinder(listAdapter) {
+    val itemTypeName: TypeName = listAdapter?.rowAdapter?.out?.typeName() ?: TypeName.OBJECT
+    val typeName: ParameterizedTypeName = ParameterizedTypeName.get(
+            RoomTypeNames.KEYSET_DATA_SOURCE, keyTypeName, itemTypeName)
+
+    override fun convertAndReturn(
+        roomSQLiteQueryVar: String,
+        canReleaseQuery: Boolean,
+        dbField: FieldSpec,
+        inTransaction: Boolean,
+        scope: CodeGenScope
+    ) {
+        val factory = TypeSpec.anonymousClassBuilder("").apply {
+            superclass(ParameterizedTypeName.get(
+                    PagingTypeNames.DATA_SOURCE_FACTORY, keyTypeName, itemTypeName))
+            addMethod(createCreateMethod(roomSQLiteQueryVar, dbField, inTransaction, scope))
+        }.build()
+        scope.builder().apply {
+            addStatement("return $L.asPagingSourceFactory().invoke()", factory)
+        }
+    }
+
+    private fun createCreateMethod(
+        roomSQLiteQueryVar: String,
+        dbField: FieldSpec,
+        inTransaction: Boolean,
+        scope: CodeGenScope
+    ): MethodSpec = MethodSpec.methodBuilder("create").apply {
+        addAnnotation(Override::class.java)
+        addModifiers(Modifier.PUBLIC)
+        returns(typeName)
+        // see PositionalDataSourceQueryResultBinder, the first comma comes with the table names
+        val tableNamesList = tableNames.joinToString("") { ", \"$it\"" }
+        val spec = TypeSpec.anonymousClassBuilder("$N, $L, $S, $L, $L $L",
+                dbField, roomSQLiteQueryVar, keyColumn, descending, inTransaction,
+                tableNamesList).apply {
+            superclass(typeName)
+            addMethod(createConvertRowsMethod(scope))
+            addMethod(createGetKeyMethod(scope))
+        }.build()
+        addStatement("return $L", spec)
+    }.build()
+
+    private fun createConvertRowsMethod(scope: CodeGenScope): MethodSpec =
+            MethodSpec.methodBuilder("convertRows").apply {
+                addAnnotation(Override::class.java)
+                addModifiers(Modifier.PROTECTED)
+                returns(ParameterizedTypeName.get(CommonTypeNames.LIST, itemTypeName))
+                val cursorParam = ParameterSpec.builder(AndroidTypeNames.CURSOR, "cursor")
+                        .build()
+                addParameter(cursorParam)
+                val resultVar = scope.getTmpVar("_res")
+                val rowsScope = scope.fork()
+                listAdapter?.convert(resultVar, cursorParam.name, rowsScope)
+                addCode(rowsScope.builder().build())
+                addStatement("return $L", resultVar)
+            }.build()
+
+    private fun createGetKeyMethod(scope: CodeGenScope): MethodSpec =
+            MethodSpec.methodBuilder("getKey").apply {
+                addAnnotation(Override::class.java)
+                addModifiers(Modifier.PUBLIC)
+                returns(keyTypeName)
+                val itemParam = ParameterSpec.builder(itemTypeName, "item").build()
+                addParameter(itemParam)
+                if (keyField != null) {
+                    val keyScope = scope.fork()
+                    val keyVar = keyScope.getTmpVar("_key")
+                    keyField.getter.writeGet(itemParam.name, keyVar, keyScope.builder())
+                    addCode(keyScope.builder().build())
+                    addStatement("return $L", keyVar)
+                } else {
+                    // the missing key field is already reported by the processor
+                    addStatement("return null")
+                }
+            }.build()
+}
@@ -51,6 +51,7 @@ class CallableInsertMethodBinder(
             parameters: List<ShortcutQueryParameter>,
             insertionAdapters: Map<String, Pair<FieldSpec, TypeSpec>>,
             dbField: FieldSpec,
+            batchSize: Int,
             scope: CodeGenScope
         ) {
             val adapterScope = scope.fork()
@@ -59,6 +60,7 @@ class CallableInsertMethodBinder(
                     parameters = parameters,
                     insertionAdapters = insertionAdapters,
                     dbField = dbField,
+                    batchSize = batchSize,
                     scope = adapterScope
                 )
                 addCode(adapterScope.generate())
@@ -52,11 +52,15 @@ abstract class InsertMethodBinder(val adapter: InsertMethodAdapter?) {
      *  __db.endTransaction();
      * }
      * ```
+     *
+     * When [batchSize] is greater than 1, collections of entities whose ids are not returned are
+     * inserted with multi-row statements of up to [batchSize] rows.
      */
     abstract fun convertAndReturn(
         parameters: List<ShortcutQueryParameter>,
         insertionAdapters: Map<String, Pair<FieldSpec, TypeSpec>>,
         dbField: FieldSpec,
+        batchSize: Int,
         scope: CodeGenScope
     )
 }
\ No newline at end of file
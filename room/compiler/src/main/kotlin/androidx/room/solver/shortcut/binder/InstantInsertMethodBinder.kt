@@ -33,6 +33,7 @@ class InstantInsertMethodBinder(adapter: InsertMethodAdapter?) : InsertMethodBin
         parameters: List<ShortcutQueryParameter>,
         insertionAdapters: Map<String, Pair<FieldSpec, TypeSpec>>,
         dbField: FieldSpec,
+        batchSize: Int,
         scope: CodeGenScope
     ) {
         scope.builder().apply {
@@ -42,6 +43,7 @@ class InstantInsertMethodBinder(adapter: InsertMethodAdapter?) : InsertMethodBin
                 parameters = parameters,
                 insertionAdapters = insertionAdapters,
                 dbField = dbField,
+                batchSize = batchSize,
                 scope = scope
         )
     }
@@ -45,6 +45,9 @@ import javax.lang.model.type.TypeMirror
  */
 class InsertMethodAdapter private constructor(private val insertionType: InsertionType) {
     companion object {
+        // matches EntityInsertionAdapter#insertBatched, used when no ids are returned
+        private const val BATCHED_METHOD_NAME = "insertBatched"
+
         fun create(
             returnType: TypeMirror,
             params: List<ShortcutQueryParameter>
@@ -119,19 +122,25 @@ class InsertMethodAdapter private constructor(private val insertionType: Inserti
         }
     }
 
+    /**
+     * Whether the generated method returns the row ids of the inserted entities.
+     */
+    val returnsIds = insertionType != InsertionType.INSERT_VOID &&
+            insertionType != InsertionType.INSERT_VOID_OBJECT &&
+            insertionType != InsertionType.INSERT_UNIT
+
     fun createInsertionMethodBody(
         parameters: List<ShortcutQueryParameter>,
         insertionAdapters: Map<String, Pair<FieldSpec, TypeSpec>>,
         dbField: FieldSpec,
+        batchSize: Int,
         scope: CodeGenScope
     ) {
         scope.builder().apply {
             // TODO assert thread
             // TODO collect results
             addStatement("$N.beginTransaction()", dbField)
-            val needsResultVar = insertionType != InsertionType.INSERT_VOID &&
-                    insertionType != InsertionType.INSERT_VOID_OBJECT &&
-                    insertionType != InsertionType.INSERT_UNIT
+            val needsResultVar = returnsIds
             val resultVar = if (needsResultVar) {
                 scope.getTmpVar("_result")
             } else {
@@ -148,6 +157,9 @@ class InsertMethodAdapter private constructor(private val insertionType: Inserti
                                 insertionType.returnTypeName, resultVar,
                                 insertionAdapter, insertionType.methodName,
                                 param.name)
+                    } else if (batchSize > 1 && param.isMultiple) {
+                        addStatement("$N.$L($L, $L)", insertionAdapter, BATCHED_METHOD_NAME,
+                                param.name, batchSize)
                     } else {
                         addStatement("$N.$L($L)", insertionAdapter, insertionType.methodName,
                                 param.name)
@@ -25,6 +25,7 @@ data class InsertionMethod(
     val element: ExecutableElement,
     val name: String,
     @OnConflictStrategy val onConflict: Int,
+    val batchSize: Int,
     val entities: Map<String, ShortcutEntity>,
     val returnType: TypeMirror,
     val parameters: List<ShortcutQueryParameter>,
@@ -173,7 +173,9 @@ class DaoWriter(
                 queryWriter.bindArgs(stmtName, emptyList(), this)
                 stmtName
             },
-            preparedStmtField = preparedStmtField.name,
+            releaseStmtBlock = { stmtVar ->
+                addStatement("$N.release($L)", preparedStmtField, stmtVar)
+            },
             dbField = dbField,
             scope = scope)
         return overrideWithoutAnnotations(method.element, declaredDao)
@@ -329,6 +331,7 @@ class DaoWriter(
                 parameters = method.parameters,
                 insertionAdapters = insertionAdapters,
                 dbField = dbField,
+                batchSize = method.batchSize,
                 scope = scope
         )
         return scope.builder().build()
@@ -413,7 +416,9 @@ class DaoWriter(
                 queryWriter.bindArgs(stmtVar, listSizeArgs, this)
                 stmtVar
             },
-            preparedStmtField = null,
+            // The SQL depends on the arguments, e.g. the size of an IN list, so the statement is
+            // not kept for reuse.
+            releaseStmtBlock = null,
             dbField = dbField,
             scope = scope)
         return scope.generate()
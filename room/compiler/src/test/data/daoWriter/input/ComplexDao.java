@@ -44,6 +44,9 @@ abstract class ComplexDao {
     @Query("SELECT * FROM user where uid = :id")
     abstract public User getById(int id);
 
+    @Query("SELECT * FROM user")
+    abstract public CursorIterator<User> streamAll();
+
     @Query("SELECT * FROM user where name LIKE :name AND lastName LIKE :lastName")
     abstract public User findByName(String name, String lastName);
 
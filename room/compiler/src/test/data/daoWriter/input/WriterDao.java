@@ -28,4 +28,6 @@ abstract interface WriterDao {
     void insertUsers(User[] users);
     @Insert
     void insertUserAndBook(User user, Book book);
+    @Insert(batchSize = 100)
+    void insertUsersBatched(List<User> users);
 }
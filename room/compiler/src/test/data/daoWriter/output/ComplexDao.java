@@ -3,6 +3,7 @@ package foo.bar;
 import android.database.Cursor;
 import android.os.CancellationSignal;
 import androidx.lifecycle.LiveData;
+import androidx.room.CursorIterator;
 import androidx.room.RoomDatabase;
 import androidx.room.RoomSQLiteQuery;
 import androidx.room.guava.GuavaRoom;
@@ -13,6 +14,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import java.lang.Exception;
 import java.lang.Integer;
 import java.lang.Override;
+import java.lang.RuntimeException;
 import java.lang.String;
 import java.lang.StringBuilder;
 import java.lang.SuppressWarnings;
@@ -101,6 +103,39 @@ public final class ComplexDao_Impl extends ComplexDao {
         }
     }
 
+    @Override
+    public CursorIterator<User> streamAll() {
+        final String _sql = "SELECT * FROM user";
+        final RoomSQLiteQuery _statement = RoomSQLiteQuery.acquire(_sql, 0);
+        __db.assertNotSuspendingTransaction();
+        final Cursor _cursor = DBUtil.query(__db, _statement, false, null);
+        try {
+            final int _cursorIndexOfUid = CursorUtil.getColumnIndexOrThrow(_cursor, "uid");
+            final int _cursorIndexOfName = CursorUtil.getColumnIndexOrThrow(_cursor, "name");
+            final int _cursorIndexOfLastName = CursorUtil.getColumnIndexOrThrow(_cursor, "lastName");
+            final int _cursorIndexOfAge = CursorUtil.getColumnIndexOrThrow(_cursor, "ageColumn");
+            final CursorIterator<User> _result = new CursorIterator<User>(_cursor, _statement) {
+                @Override
+                protected User convert(Cursor cursor) {
+                    final User _item;
+                    _item = new User();
+                    _item.uid = cursor.getInt(_cursorIndexOfUid);
+                    _item.name = cursor.getString(_cursorIndexOfName);
+                    final String _tmpLastName;
+                    _tmpLastName = cursor.getString(_cursorIndexOfLastName);
+                    _item.setLastName(_tmpLastName);
+                    _item.age = cursor.getInt(_cursorIndexOfAge);
+                    return _item;
+                }
+            };
+            return _result;
+        } catch (RuntimeException _e) {
+            _cursor.close();
+            _statement.release();
+            throw _e;
+        }
+    }
+
     @Override
     public User findByName(final String name, final String lastName) {
         final String _sql = "SELECT * FROM user where name LIKE ? AND lastName LIKE ?";
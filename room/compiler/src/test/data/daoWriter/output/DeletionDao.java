@@ -274,13 +274,16 @@ public final class DeletionDao_Impl implements DeletionDao {
     final SupportSQLiteStatement _stmt = __preparedStmtOfDeleteByUid.acquire();
     int _argIndex = 1;
     _stmt.bindLong(_argIndex, uid);
-    __db.beginTransaction();
     try {
-      final int _result = _stmt.executeUpdateDelete();
-      __db.setTransactionSuccessful();
-      return _result;
+      __db.beginTransaction();
+      try {
+        final int _result = _stmt.executeUpdateDelete();
+        __db.setTransactionSuccessful();
+        return _result;
+      } finally {
+        __db.endTransaction();
+      }
     } finally {
-      __db.endTransaction();
       __preparedStmtOfDeleteByUid.release(_stmt);
     }
   }
@@ -293,13 +296,16 @@ public final class DeletionDao_Impl implements DeletionDao {
         final SupportSQLiteStatement _stmt = __preparedStmtOfDeleteByUid.acquire();
         int _argIndex = 1;
         _stmt.bindLong(_argIndex, uid);
-        __db.beginTransaction();
         try {
-          _stmt.executeUpdateDelete();
-          __db.setTransactionSuccessful();
-          return null;
+          __db.beginTransaction();
+          try {
+            _stmt.executeUpdateDelete();
+            __db.setTransactionSuccessful();
+            return null;
+          } finally {
+            __db.endTransaction();
+          }
         } finally {
-          __db.endTransaction();
           __preparedStmtOfDeleteByUid.release(_stmt);
         }
       }
@@ -314,13 +320,16 @@ public final class DeletionDao_Impl implements DeletionDao {
         final SupportSQLiteStatement _stmt = __preparedStmtOfDeleteByUid.acquire();
         int _argIndex = 1;
         _stmt.bindLong(_argIndex, uid);
-        __db.beginTransaction();
         try {
-          final java.lang.Integer _result = _stmt.executeUpdateDelete();
-          __db.setTransactionSuccessful();
-          return _result;
+          __db.beginTransaction();
+          try {
+            final java.lang.Integer _result = _stmt.executeUpdateDelete();
+            __db.setTransactionSuccessful();
+            return _result;
+          } finally {
+            __db.endTransaction();
+          }
         } finally {
-          __db.endTransaction();
           __preparedStmtOfDeleteByUid.release(_stmt);
         }
       }
@@ -335,13 +344,16 @@ public final class DeletionDao_Impl implements DeletionDao {
         final SupportSQLiteStatement _stmt = __preparedStmtOfDeleteByUid.acquire();
         int _argIndex = 1;
         _stmt.bindLong(_argIndex, uid);
-        __db.beginTransaction();
         try {
-          final java.lang.Integer _result = _stmt.executeUpdateDelete();
-          __db.setTransactionSuccessful();
-          return _result;
+          __db.beginTransaction();
+          try {
+            final java.lang.Integer _result = _stmt.executeUpdateDelete();
+            __db.setTransactionSuccessful();
+            return _result;
+          } finally {
+            __db.endTransaction();
+          }
         } finally {
-          __db.endTransaction();
           __preparedStmtOfDeleteByUid.release(_stmt);
         }
       }
@@ -352,13 +364,16 @@ public final class DeletionDao_Impl implements DeletionDao {
   public int deleteEverything() {
     __db.assertNotSuspendingTransaction();
     final SupportSQLiteStatement _stmt = __preparedStmtOfDeleteEverything.acquire();
-    __db.beginTransaction();
     try {
-      final int _result = _stmt.executeUpdateDelete();
-      __db.setTransactionSuccessful();
-      return _result;
+      __db.beginTransaction();
+      try {
+        final int _result = _stmt.executeUpdateDelete();
+        __db.setTransactionSuccessful();
+        return _result;
+      } finally {
+        __db.endTransaction();
+      }
     } finally {
-      __db.endTransaction();
       __preparedStmtOfDeleteEverything.release(_stmt);
     }
   }
@@ -311,12 +311,15 @@ public final class UpdateDao_Impl implements UpdateDao {
     } else {
       _stmt.bindString(_argIndex, uid);
     }
-    __db.beginTransaction();
     try {
-      _stmt.executeUpdateDelete();
-      __db.setTransactionSuccessful();
+      __db.beginTransaction();
+      try {
+        _stmt.executeUpdateDelete();
+        __db.setTransactionSuccessful();
+      } finally {
+        __db.endTransaction();
+      }
     } finally {
-      __db.endTransaction();
       __preparedStmtOfAgeUserByUid.release(_stmt);
     }
   }
@@ -325,12 +328,15 @@ public final class UpdateDao_Impl implements UpdateDao {
   public void ageUserAll() {
     __db.assertNotSuspendingTransaction();
     final SupportSQLiteStatement _stmt = __preparedStmtOfAgeUserAll.acquire();
-    __db.beginTransaction();
     try {
-      _stmt.executeUpdateDelete();
-      __db.setTransactionSuccessful();
+      __db.beginTransaction();
+      try {
+        _stmt.executeUpdateDelete();
+        __db.setTransactionSuccessful();
+      } finally {
+        __db.endTransaction();
+      }
     } finally {
-      __db.endTransaction();
       __preparedStmtOfAgeUserAll.release(_stmt);
     }
   }
@@ -341,13 +347,16 @@ public final class UpdateDao_Impl implements UpdateDao {
       @Override
       public Void call() throws Exception {
         final SupportSQLiteStatement _stmt = __preparedStmtOfAgeUserAll.acquire();
-        __db.beginTransaction();
         try {
-          _stmt.executeUpdateDelete();
-          __db.setTransactionSuccessful();
-          return null;
+          __db.beginTransaction();
+          try {
+            _stmt.executeUpdateDelete();
+            __db.setTransactionSuccessful();
+            return null;
+          } finally {
+            __db.endTransaction();
+          }
         } finally {
-          __db.endTransaction();
           __preparedStmtOfAgeUserAll.release(_stmt);
         }
       }
@@ -360,13 +369,16 @@ public final class UpdateDao_Impl implements UpdateDao {
       @Override
       public Integer call() throws Exception {
         final SupportSQLiteStatement _stmt = __preparedStmtOfAgeUserAll.acquire();
-        __db.beginTransaction();
         try {
-          final java.lang.Integer _result = _stmt.executeUpdateDelete();
-          __db.setTransactionSuccessful();
-          return _result;
+          __db.beginTransaction();
+          try {
+            final java.lang.Integer _result = _stmt.executeUpdateDelete();
+            __db.setTransactionSuccessful();
+            return _result;
+          } finally {
+            __db.endTransaction();
+          }
         } finally {
-          __db.endTransaction();
           __preparedStmtOfAgeUserAll.release(_stmt);
         }
       }
@@ -379,13 +391,16 @@ public final class UpdateDao_Impl implements UpdateDao {
       @Override
       public Integer call() throws Exception {
         final SupportSQLiteStatement _stmt = __preparedStmtOfAgeUserAll.acquire();
-        __db.beginTransaction();
         try {
-          final java.lang.Integer _result = _stmt.executeUpdateDelete();
-          __db.setTransactionSuccessful();
-          return _result;
+          __db.beginTransaction();
+          try {
+            final java.lang.Integer _result = _stmt.executeUpdateDelete();
+            __db.setTransactionSuccessful();
+            return _result;
+          } finally {
+            __db.endTransaction();
+          }
         } finally {
-          __db.endTransaction();
           __preparedStmtOfAgeUserAll.release(_stmt);
         }
       }
@@ -145,4 +145,16 @@ public final class WriterDao_Impl implements WriterDao {
             __db.endTransaction();
         }
     }
+
+    @Override
+    public void insertUsersBatched(final List<User> users) {
+        __db.assertNotSuspendingTransaction();
+        __db.beginTransaction();
+        try {
+            __insertionAdapterOfUser.insertBatched(users, 100);
+            __db.setTransactionSuccessful();
+        } finally {
+            __db.endTransaction();
+        }
+    }
 }
@@ -301,6 +301,49 @@ class InsertionMethodProcessorTest {
         }.failsToCompile().withErrorContaining(ProcessorErrors.INVALID_ON_CONFLICT_VALUE)
     }
 
+    @Test
+    fun batchSize_Default() {
+        singleInsertMethod(
+                """
+                @Insert
+                abstract public void foo(List<User> users);
+                """) { insertion, _ ->
+            assertThat(insertion.batchSize, `is`(0))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun batchSize() {
+        singleInsertMethod(
+                """
+                @Insert(batchSize = 100)
+                abstract public void foo(List<User> users);
+                """) { insertion, _ ->
+            assertThat(insertion.batchSize, `is`(100))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun batchSize_Invalid() {
+        singleInsertMethod(
+                """
+                @Insert(batchSize = -1)
+                abstract public void foo(List<User> users);
+                """) { _, _ ->
+        }.failsToCompile().withErrorContaining(ProcessorErrors.INVALID_INSERT_BATCH_SIZE)
+    }
+
+    @Test
+    fun batchSize_ReturnsIds() {
+        singleInsertMethod(
+                """
+                @Insert(batchSize = 100)
+                abstract public List<Long> foo(List<User> users);
+                """) { _, _ ->
+        }.failsToCompile().withErrorContaining(
+                ProcessorErrors.INSERT_BATCH_SIZE_WITH_RETURNED_IDS)
+    }
+
     @Test
     fun onConflict_EachValue() {
         listOf(
@@ -34,7 +34,10 @@ import androidx.room.ext.typeName
 import androidx.room.parser.QueryType
 import androidx.room.parser.Table
 import androidx.room.processor.ProcessorErrors.cannotFindQueryResultAdapter
+import androidx.room.solver.query.result.CursorIteratorQueryResultAdapter
+import androidx.room.solver.query.result.CursorIteratorQueryResultBinder
 import androidx.room.solver.query.result.DataSourceFactoryQueryResultBinder
+import androidx.room.solver.query.result.KeysetPagingSourceQueryResultBinder
 import androidx.room.solver.query.result.ListQueryResultAdapter
 import androidx.room.solver.query.result.LiveDataQueryResultBinder
 import androidx.room.solver.query.result.PojoRowAdapter
@@ -492,6 +495,41 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testCursorIteratorQuery() {
+        singleQueryMethod<ReadQueryMethod>(
+                """
+                @Query("select * from user")
+                abstract CursorIterator<User> streamUsers();
+                """
+        ) { parsedQuery, _ ->
+            assertThat(parsedQuery.queryResultBinder,
+                    instanceOf(CursorIteratorQueryResultBinder::class.java))
+            assertThat(parsedQuery.queryResultBinder.adapter,
+                    instanceOf(CursorIteratorQueryResultAdapter::class.java))
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testCursorIteratorWithRelation() {
+        if (!enableVerification) {
+            return
+        }
+        singleQueryMethod<ReadQueryMethod>(
+                """
+                static class Merged extends User {
+                   @Relation(parentColumn = "name", entityColumn = "lastName",
+                             entity = User.class)
+                   java.util.List<User> users;
+                }
+                @Transaction
+                @Query("select * from user")
+                abstract CursorIterator<Merged> streamUsers();
+                """
+        ) { _, _ ->
+        }.failsToCompile().withErrorContaining(ProcessorErrors.CURSOR_ITERATOR_WITH_RELATION)
+    }
+
     @Test
     fun testBadReturnForDeleteQuery() {
         singleQueryMethod<WriteQueryMethod>(
@@ -539,6 +577,63 @@ class QueryMethodProcessorTest(val enableVerification: Boolean) {
         }.compilesWithoutError()
     }
 
+    @Test
+    fun testKeysetPagingSourceQuery() {
+        singleQueryMethod<ReadQueryMethod>(
+                """
+                @PagingKey(value = "uid", descending = true)
+                @Query("select * from user")
+                abstract ${PagingTypeNames.PAGING_SOURCE}<Integer, User> pagedUsers();
+                """
+        ) { parsedQuery, _ ->
+            assertThat(parsedQuery.queryResultBinder,
+                    instanceOf(KeysetPagingSourceQueryResultBinder::class.java))
+            val binder = parsedQuery.queryResultBinder as KeysetPagingSourceQueryResultBinder
+            assertThat(binder.keyColumn, `is`("uid"))
+            assertThat(binder.descending, `is`(true))
+            assertThat(binder.keyField?.name, `is`("uid"))
+            assertEquals(setOf("user"), binder.tableNames)
+        }.compilesWithoutError()
+    }
+
+    @Test
+    fun testKeysetPagingNotPagingSource() {
+        singleQueryMethod<ReadQueryMethod>(
+                """
+                @PagingKey("uid")
+                @Query("select * from user")
+                abstract java.util.List<User> users();
+                """
+        ) { _, _ ->
+        }.failsToCompile().withErrorContaining(ProcessorErrors.PAGING_KEY_REQUIRES_PAGING_SOURCE)
+    }
+
+    @Test
+    fun testKeysetPagingMissingKeyField() {
+        singleQueryMethod<ReadQueryMethod>(
+                """
+                @PagingKey("name")
+                @Query("select uid from user")
+                abstract ${PagingTypeNames.PAGING_SOURCE}<String, Integer> pagedIds();
+                """
+        ) { _, _ ->
+        }.failsToCompile().withErrorContaining(
+                ProcessorErrors.pagingKeyFieldMissing("name", "java.lang.Integer"))
+    }
+
+    @Test
+    fun testKeysetPagingKeyTypeMismatch() {
+        singleQueryMethod<ReadQueryMethod>(
+                """
+                @PagingKey("uid")
+                @Query("select * from user")
+                abstract ${PagingTypeNames.PAGING_SOURCE}<String, User> pagedUsers();
+                """
+        ) { _, _ ->
+        }.failsToCompile().withErrorContaining(
+                ProcessorErrors.pagingKeyTypeMismatch("uid", "int", "java.lang.String"))
+    }
+
     @Test
     fun testMultiTableDataSourceFactoryQuery() {
         singleQueryMethod<ReadQueryMethod>(
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.integration.kotlintestapp.test
+
+import android.content.Context
+import androidx.paging.PagingSource
+import androidx.room.Dao
+import androidx.room.Database
+import androidx.room.Entity
+import androidx.room.Insert
+import androidx.room.PagingKey
+import androidx.room.PrimaryKey
+import androidx.room.Query
+import androidx.room.Room
+import androidx.room.RoomDatabase
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.MediumTest
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@MediumTest
+@RunWith(AndroidJUnit4::class)
+class KeysetPagingTest {
+
+    private lateinit var db: PagingDatabase
+    private lateinit var dao: MessageDao
+
+    @Before
+    fun setup() {
+        db = Room.inMemoryDatabaseBuilder(
+            ApplicationProvider.getApplicationContext<Context>(),
+            PagingDatabase::class.java
+        ).build()
+        dao = db.messageDao()
+        // ids are not contiguous so that keys cannot be confused with positions
+        dao.insert((1..100).map { Message(it * 10L, it % 2, "message$it") })
+    }
+
+    @After
+    fun teardown() {
+        db.close()
+    }
+
+    @Test
+    fun appendFromFirstPage() {
+        val pagingSource = dao.pagedMessages(0)
+        val first = pagingSource.loadPage(PagingSource.LoadParams.Refresh(null, 5, false))
+        assertThat(first.data.map { it.id }).containsExactly(20L, 40L, 60L, 80L, 100L).inOrder()
+        assertThat(first.prevKey).isEqualTo(20L)
+        assertThat(first.nextKey).isEqualTo(100L)
+
+        val second = pagingSource.loadPage(PagingSource.LoadParams.Append(100L, 3, false))
+        assertThat(second.data.map { it.id }).containsExactly(120L, 140L, 160L).inOrder()
+    }
+
+    @Test
+    fun prepend() {
+        val pagingSource = dao.pagedMessages(0)
+        val page = pagingSource.loadPage(PagingSource.LoadParams.Prepend(120L, 3, false))
+        assertThat(page.data.map { it.id }).containsExactly(60L, 80L, 100L).inOrder()
+    }
+
+    @Test
+    fun refreshFromKey() {
+        val pagingSource = dao.pagedMessages(1)
+        val page = pagingSource.loadPage(PagingSource.LoadParams.Refresh(510L, 2, false))
+        assertThat(page.data.map { it.id }).containsExactly(510L, 530L).inOrder()
+    }
+
+    @Test
+    fun descending() {
+        val pagingSource = dao.pagedMessagesDescending(0)
+        val first = pagingSource.loadPage(PagingSource.LoadParams.Refresh(null, 3, false))
+        assertThat(first.data.map { it.id }).containsExactly(1000L, 980L, 960L).inOrder()
+
+        val append = pagingSource.loadPage(PagingSource.LoadParams.Append(960L, 2, false))
+        assertThat(append.data.map { it.id }).containsExactly(940L, 920L).inOrder()
+
+        val prepend = pagingSource.loadPage(PagingSource.LoadParams.Prepend(960L, 5, false))
+        assertThat(prepend.data.map { it.id }).containsExactly(1000L, 980L).inOrder()
+    }
+
+    @Test
+    fun endOfResults() {
+        val pagingSource = dao.pagedMessages(0)
+        val page = pagingSource.loadPage(PagingSource.LoadParams.Append(960L, 10, false))
+        assertThat(page.data.map { it.id }).containsExactly(980L, 1000L).inOrder()
+
+        val last = pagingSource.loadPage(PagingSource.LoadParams.Append(1000L, 10, false))
+        assertThat(last.data).isEmpty()
+        assertThat(last.nextKey).isNull()
+    }
+
+    @Test
+    fun invalidatedOnWrite() {
+        val pagingSource = dao.pagedMessages(0)
+        pagingSource.loadPage(PagingSource.LoadParams.Refresh(null, 5, false))
+        assertThat(pagingSource.invalid).isFalse()
+        val invalidated = CountDownLatch(1)
+        pagingSource.registerInvalidatedCallback { invalidated.countDown() }
+        dao.insert(listOf(Message(1L, 0, "new")))
+        db.invalidationTracker.refreshVersionsSync()
+        assertThat(invalidated.await(5, TimeUnit.SECONDS)).isTrue()
+    }
+
+    private fun <Key : Any> PagingSource<Key, Message>.loadPage(
+        params: PagingSource.LoadParams<Key>
+    ) = runBlocking { load(params) } as PagingSource.LoadResult.Page<Key, Message>
+
+    @Database(entities = [Message::class], version = 1, exportSchema = false)
+    abstract class PagingDatabase : RoomDatabase() {
+        abstract fun messageDao(): MessageDao
+    }
+
+    @Entity
+    data class Message(@PrimaryKey val id: Long, val threadId: Int, val text: String)
+
+    @Dao
+    interface MessageDao {
+        @Insert
+        fun insert(messages: List<Message>)
+
+        @PagingKey("id")
+        @Query("SELECT * FROM Message WHERE threadId = :threadId")
+        fun pagedMessages(threadId: Int): PagingSource<Long, Message>
+
+        @PagingKey(value = "id", descending = true)
+        @Query("SELECT * FROM Message WHERE threadId = :threadId")
+        fun pagedMessagesDescending(threadId: Int): PagingSource<Long, Message>
+    }
+}
@@ -20,6 +20,7 @@ import android.database.Cursor;
 
 import androidx.lifecycle.LiveData;
 import androidx.paging.DataSource;
+import androidx.room.CursorIterator;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -90,6 +91,9 @@ public abstract class UserDao {
     @Query("select * from user")
     public abstract List<UserAndFriends> loadUserAndFriends();
 
+    @Query("select * from user order by mId")
+    public abstract CursorIterator<User> streamAll();
+
     @Insert
     public abstract void insert(User user);
 
@@ -33,6 +33,7 @@ import android.database.Cursor;
 import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteException;
 
+import androidx.room.CursorIterator;
 import androidx.room.Room;
 import androidx.room.integration.testapp.TestDatabase;
 import androidx.room.integration.testapp.dao.BlobEntityDao;
@@ -62,6 +63,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
@@ -101,6 +103,29 @@ public class SimpleEntityReadWriteTest {
         assertThat(byName.get(0), equalTo(user));
     }
 
+    @Test
+    public void streamUsers() {
+        User[] users = TestUtil.createUsersArray(3, 1, 2);
+        mUserDao.insertAll(users);
+        List<Integer> ids = new ArrayList<>();
+        try (CursorIterator<User> iterator = mUserDao.streamAll()) {
+            while (iterator.hasNext()) {
+                ids.add(iterator.next().getId());
+            }
+            assertThat(iterator.hasNext(), is(false));
+        }
+        assertThat(ids, is(Arrays.asList(1, 2, 3)));
+    }
+
+    @Test
+    public void streamUsers_closeEarly() {
+        mUserDao.insertAll(TestUtil.createUsersArray(1, 2, 3));
+        CursorIterator<User> iterator = mUserDao.streamAll();
+        assertThat(iterator.next().getId(), is(1));
+        iterator.close();
+        assertThat(iterator.hasNext(), is(false));
+    }
+
     @Test
     public void insertNull() throws Exception {
         @SuppressWarnings("ConstantConditions")
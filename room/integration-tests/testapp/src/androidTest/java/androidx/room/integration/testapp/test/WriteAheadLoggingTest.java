@@ -41,6 +41,7 @@ import androidx.room.integration.testapp.TestDatabase;
 import androidx.room.integration.testapp.dao.UserDao;
 import androidx.room.integration.testapp.vo.User;
 import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.filters.LargeTest;
@@ -189,6 +190,41 @@ public class WriteAheadLoggingTest {
         assertThat(dao.count(), is(0));
     }
 
+    @SuppressWarnings("deprecation")
+    @Test
+    public void readerPool() throws InterruptedException, ExecutionException {
+        Context context = ApplicationProvider.getApplicationContext();
+        mDatabase.close();
+        mDatabase = Room.databaseBuilder(context, TestDatabase.class, DATABASE_NAME)
+                .setJournalMode(RoomDatabase.JournalMode.WRITE_AHEAD_LOGGING)
+                .openHelperFactory(new FrameworkSQLiteOpenHelperFactory(2))
+                .enableReadableDatabaseQueries()
+                .build();
+        SupportSQLiteDatabase writable = mDatabase.getOpenHelper().getWritableDatabase();
+        SupportSQLiteDatabase reader = mDatabase.getOpenHelper().getReadableDatabase();
+        assertThat(reader, is(not(writable)));
+        assertThat(reader.isReadOnly(), is(true));
+
+        final UserDao dao = mDatabase.getUserDao();
+        final User user1 = TestUtil.createUser(1);
+        dao.insert(user1);
+        assertThat(dao.load(1), is(equalTo(user1)));
+        try {
+            mDatabase.beginTransaction();
+            dao.delete(user1);
+            // the transaction sees its own changes, readers only see committed data
+            assertThat(dao.count(), is(0));
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<?> future = executor.submit(() ->
+                    assertThat(dao.load(1), is(equalTo(user1))));
+            future.get();
+            mDatabase.setTransactionSuccessful();
+        } finally {
+            mDatabase.endTransaction();
+        }
+        assertThat(dao.count(), is(0));
+    }
+
     @SuppressWarnings("deprecation")
     @Test
     @LargeTest
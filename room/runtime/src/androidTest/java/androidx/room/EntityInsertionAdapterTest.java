@@ -0,0 +1,187 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(AndroidJUnit4.class)
+@SmallTest
+public class EntityInsertionAdapterTest {
+    private static final String ROW_SQL = "INSERT OR ABORT INTO `Item` (`id`,`name`) VALUES (?,?)";
+
+    private RoomDatabase mDb;
+    private Map<String, SupportSQLiteStatement> mStatements;
+    private EntityInsertionAdapter<Item> mAdapter;
+
+    @Before
+    public void init() {
+        mDb = mock(RoomDatabase.class);
+        mStatements = new HashMap<>();
+        Answer<SupportSQLiteStatement> statementForSql = new Answer<SupportSQLiteStatement>() {
+            @Override
+            public SupportSQLiteStatement answer(InvocationOnMock invocation) {
+                return statementFor((String) invocation.getArguments()[0]);
+            }
+        };
+        when(mDb.compileStatement(anyString())).thenAnswer(statementForSql);
+        when(mDb.acquireStatement(anyString())).thenAnswer(statementForSql);
+        mAdapter = new EntityInsertionAdapter<Item>(mDb) {
+            @Override
+            protected void bind(SupportSQLiteStatement statement, Item entity) {
+                statement.bindLong(1, entity.mId);
+                statement.bindString(2, entity.mName);
+            }
+
+            @Override
+            protected String createQuery() {
+                return ROW_SQL;
+            }
+        };
+    }
+
+    @Test
+    public void insertBatched() throws Exception {
+        mAdapter.insertBatched(items(5), 2);
+        String batchSql = ROW_SQL + ",(?,?)";
+        SupportSQLiteStatement batch = mStatements.get(batchSql);
+        verify(mDb, times(2)).acquireStatement(batchSql);
+        verify(mDb, times(2)).releaseStatement(batchSql, batch);
+        verify(batch, times(2)).executeInsert();
+        verify(batch).bindLong(1, 0);
+        verify(batch).bindString(2, "item0");
+        verify(batch).bindLong(3, 1);
+        verify(batch).bindString(4, "item1");
+        verify(batch).bindLong(1, 2);
+        verify(batch).bindLong(3, 3);
+
+        SupportSQLiteStatement remainder = mStatements.get(ROW_SQL);
+        verify(mDb).compileStatement(ROW_SQL);
+        verify(remainder).bindLong(1, 4);
+        verify(remainder).bindString(2, "item4");
+        verify(remainder).executeInsert();
+        verify(remainder).close();
+    }
+
+    @Test
+    public void insertBatched_limitedByBindArguments() {
+        mAdapter.insertBatched(items(600), 1000);
+        StringBuilder batchSql = new StringBuilder(ROW_SQL);
+        for (int i = 1; i < RoomDatabase.MAX_BIND_PARAMETER_CNT / 2; i++) {
+            batchSql.append(",(?,?)");
+        }
+        SupportSQLiteStatement batch = mStatements.get(batchSql.toString());
+        verify(batch).executeInsert();
+        verify(batch).bindLong(997, 498);
+    }
+
+    @Test
+    public void insertBatched_limitedToMaxRows() {
+        final String idSql = "INSERT OR ABORT INTO `Id` (`id`) VALUES (?)";
+        EntityInsertionAdapter<Item> idAdapter = new EntityInsertionAdapter<Item>(mDb) {
+            @Override
+            protected void bind(SupportSQLiteStatement statement, Item entity) {
+                statement.bindLong(1, entity.mId);
+            }
+
+            @Override
+            protected String createQuery() {
+                return idSql;
+            }
+        };
+        idAdapter.insertBatched(items(1200), 1000);
+        StringBuilder batchSql = new StringBuilder(idSql);
+        for (int i = 1; i < 500; i++) {
+            batchSql.append(",(?)");
+        }
+        SupportSQLiteStatement batch = mStatements.get(batchSql.toString());
+        verify(batch, times(2)).executeInsert();
+        verify(batch).bindLong(500, 499);
+        verify(batch).bindLong(500, 999);
+
+        StringBuilder remainderSql = new StringBuilder(idSql);
+        for (int i = 1; i < 200; i++) {
+            remainderSql.append(",(?)");
+        }
+        SupportSQLiteStatement remainder = mStatements.get(remainderSql.toString());
+        verify(remainder).executeInsert();
+        verify(remainder).bindLong(200, 1199);
+    }
+
+    @Test
+    public void insertBatched_array() {
+        mAdapter.insertBatched(items(2).toArray(new Item[0]), 10);
+        SupportSQLiteStatement batch = mStatements.get(ROW_SQL + ",(?,?)");
+        verify(batch).bindLong(3, 1);
+        verify(batch).executeInsert();
+    }
+
+    @Test
+    public void insertBatched_singleRowBatches() {
+        mAdapter.insertBatched(Arrays.asList(new Item(7, "seven")), 1);
+        SupportSQLiteStatement stmt = mStatements.get(ROW_SQL);
+        verify(mDb).compileStatement(ROW_SQL);
+        verify(stmt).bindLong(1, 7);
+        verify(stmt).executeInsert();
+    }
+
+    private SupportSQLiteStatement statementFor(String sql) {
+        SupportSQLiteStatement statement = mStatements.get(sql);
+        if (statement == null) {
+            statement = mock(SupportSQLiteStatement.class);
+            mStatements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private static List<Item> items(int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Item(i, "item" + i));
+        }
+        return items;
+    }
+
+    static class Item {
+        final long mId;
+        final String mName;
+
+        Item(long id, String name) {
+            mId = id;
+            mName = name;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} over the results of a query that converts each row only when it is
+ * requested, instead of loading the whole result into memory.
+ * <p>
+ * A {@link Query} method in a {@link Dao} can return a {@code CursorIterator} to stream large
+ * results:
+ * <pre>
+ * {@literal @}Dao
+ * public interface SongDao {
+ *   {@literal @}Query("SELECT * FROM song ORDER BY id")
+ *   public CursorIterator&lt;Song&gt; streamAll();
+ * }
+ * </pre>
+ * The iterator holds an open {@link Cursor}, which is closed once the last row has been read or
+ * when {@link #close()} is called. Always close an iterator that is not read until the end, for
+ * example by using it in a try-with-resources block.
+ * <p>
+ * Since rows are read from the database while iterating, the iterator should be used on the
+ * thread that created it and not while the database is being closed. Rows inserted or changed
+ * while iterating may or may not be returned. Queries whose results have {@link Relation}s cannot
+ * be streamed.
+ *
+ * @param <T> The type of the rows
+ */
+public abstract class CursorIterator<T> implements Iterator<T>, Closeable {
+    private final Cursor mCursor;
+    @Nullable
+    private final RoomSQLiteQuery mQuery;
+    private boolean mAdvanced;
+    private boolean mHasNext;
+    private boolean mClosed;
+
+    /**
+     * Creates an iterator over the rows of the given cursor.
+     *
+     * @param cursor The cursor to read the rows from
+     * @param query  The query of the cursor to release once the cursor is closed, or null if it
+     *               is not owned by the iterator
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    protected CursorIterator(@NonNull Cursor cursor, @Nullable RoomSQLiteQuery query) {
+        mCursor = cursor;
+        mQuery = query;
+    }
+
+    /**
+     * Converts the row the cursor is positioned at.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    protected abstract T convert(@NonNull Cursor cursor);
+
+    @Override
+    public boolean hasNext() {
+        if (mClosed) {
+            return false;
+        }
+        if (!mAdvanced) {
+            mHasNext = mCursor.moveToNext();
+            mAdvanced = true;
+            if (!mHasNext) {
+                close();
+            }
+        }
+        return mHasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        mAdvanced = false;
+        return convert(mCursor);
+    }
+
+    /**
+     * Unsupported, rows cannot be removed through a query result.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /**
+     * Closes the underlying cursor. The iterator has no more elements once closed.
+     */
+    @Override
+    public void close() {
+        if (mClosed) {
+            return;
+        }
+        mClosed = true;
+        mHasNext = false;
+        mCursor.close();
+        if (mQuery != null) {
+            mQuery.release();
+        }
+    }
+}
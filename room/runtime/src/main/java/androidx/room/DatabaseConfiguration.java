@@ -116,13 +116,30 @@ public class DatabaseConfiguration {
     @Nullable
     public final File copyFromFile;
 
+    /**
+     * The window over which table invalidations are merged before observers are notified, in
+     * milliseconds, or 0 if observers are notified as soon as invalidations are detected.
+     */
+    public final long invalidationCoalescingMillis;
+
+    /**
+     * The maximum number of idle compiled statements kept for reuse.
+     */
+    public final int statementCacheSize;
+
+    /**
+     * Whether queries outside of a transaction run on the readable database of the open helper
+     * when write-ahead logging is enabled.
+     */
+    public final boolean readableDatabaseQueries;
 
     /**
      * Creates a database configuration with the given values.
      *
      * @deprecated Use {@link #DatabaseConfiguration(Context, String,
      * SupportSQLiteOpenHelper.Factory, RoomDatabase.MigrationContainer, List, boolean,
-     * RoomDatabase.JournalMode, Executor, Executor, boolean, boolean, boolean, Set, String, File)}
+     * RoomDatabase.JournalMode, Executor, Executor, boolean, boolean, boolean, Set, String, File,
+     * long, int, boolean)}
      *
      * @param context The application context.
      * @param name Name of the database, can be null if it is in memory.
@@ -152,7 +169,8 @@ public class DatabaseConfiguration {
             @Nullable Set<Integer> migrationNotRequiredFrom) {
         this(context, name, sqliteOpenHelperFactory, migrationContainer, callbacks,
                 allowMainThreadQueries, journalMode, queryExecutor, queryExecutor, false,
-                requireMigration, false, migrationNotRequiredFrom, null, null);
+                requireMigration, false, migrationNotRequiredFrom, null, null, 0,
+                RoomDatabase.DEFAULT_STATEMENT_CACHE_SIZE, false);
     }
 
     /**
@@ -160,7 +178,8 @@ public class DatabaseConfiguration {
      *
      * @deprecated Use {@link #DatabaseConfiguration(Context, String,
      * SupportSQLiteOpenHelper.Factory, RoomDatabase.MigrationContainer, List, boolean,
-     * RoomDatabase.JournalMode, Executor, Executor, boolean, boolean, boolean, Set, String, File)}
+     * RoomDatabase.JournalMode, Executor, Executor, boolean, boolean, boolean, Set, String, File,
+     * long, int, boolean)}
      *
      * @param context The application context.
      * @param name Name of the database, can be null if it is in memory.
@@ -197,7 +216,8 @@ public class DatabaseConfiguration {
         this(context, name, sqliteOpenHelperFactory, migrationContainer, callbacks,
                 allowMainThreadQueries, journalMode, queryExecutor, transactionExecutor,
                 multiInstanceInvalidation, requireMigration, allowDestructiveMigrationOnDowngrade,
-                migrationNotRequiredFrom, null, null);
+                migrationNotRequiredFrom, null, null, 0,
+                RoomDatabase.DEFAULT_STATEMENT_CACHE_SIZE, false);
     }
 
     /**
@@ -221,8 +241,14 @@ public class DatabaseConfiguration {
      * @param copyFromAssetPath The assets path to the pre-packaged database.
      * @param copyFromFile The pre-packaged database file.
      *
+     * @deprecated Use {@link #DatabaseConfiguration(Context, String,
+     * SupportSQLiteOpenHelper.Factory, RoomDatabase.MigrationContainer, List, boolean,
+     * RoomDatabase.JournalMode, Executor, Executor, boolean, boolean, boolean, Set, String, File,
+     * long, int, boolean)}
+     *
      * @hide
      */
+    @Deprecated
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
     public DatabaseConfiguration(@NonNull Context context, @Nullable String name,
             @NonNull SupportSQLiteOpenHelper.Factory sqliteOpenHelperFactory,
@@ -238,6 +264,59 @@ public class DatabaseConfiguration {
             @Nullable Set<Integer> migrationNotRequiredFrom,
             @Nullable String copyFromAssetPath,
             @Nullable File copyFromFile) {
+        this(context, name, sqliteOpenHelperFactory, migrationContainer, callbacks,
+                allowMainThreadQueries, journalMode, queryExecutor, transactionExecutor,
+                multiInstanceInvalidation, requireMigration, allowDestructiveMigrationOnDowngrade,
+                migrationNotRequiredFrom, copyFromAssetPath, copyFromFile, 0,
+                RoomDatabase.DEFAULT_STATEMENT_CACHE_SIZE, false);
+    }
+
+    /**
+     * Creates a database configuration with the given values.
+     *
+     * @param context The application context.
+     * @param name Name of the database, can be null if it is in memory.
+     * @param sqliteOpenHelperFactory The open helper factory to use.
+     * @param migrationContainer The migration container for migrations.
+     * @param callbacks The list of callbacks for database events.
+     * @param allowMainThreadQueries Whether to allow main thread reads/writes or not.
+     * @param journalMode The journal mode. This has to be either TRUNCATE or WRITE_AHEAD_LOGGING.
+     * @param queryExecutor The Executor used to execute asynchronous queries.
+     * @param transactionExecutor The Executor used to execute asynchronous transactions.
+     * @param multiInstanceInvalidation True if Room should perform multi-instance invalidation.
+     * @param requireMigration True if Room should require a valid migration if version changes,
+     * @param allowDestructiveMigrationOnDowngrade True if Room should recreate tables if no
+     *                                             migration is supplied during a downgrade.
+     * @param migrationNotRequiredFrom The collection of schema versions from which migrations
+     *                                 aren't required.
+     * @param copyFromAssetPath The assets path to the pre-packaged database.
+     * @param copyFromFile The pre-packaged database file.
+     * @param invalidationCoalescingMillis The window over which table invalidations are merged,
+     *                                     or 0 to notify observers immediately.
+     * @param statementCacheSize The maximum number of idle compiled statements kept for reuse.
+     * @param readableDatabaseQueries True if queries outside of a transaction should run on the
+     *                                readable database when write-ahead logging is enabled.
+     *
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public DatabaseConfiguration(@NonNull Context context, @Nullable String name,
+            @NonNull SupportSQLiteOpenHelper.Factory sqliteOpenHelperFactory,
+            @NonNull RoomDatabase.MigrationContainer migrationContainer,
+            @Nullable List<RoomDatabase.Callback> callbacks,
+            boolean allowMainThreadQueries,
+            RoomDatabase.JournalMode journalMode,
+            @NonNull Executor queryExecutor,
+            @NonNull Executor transactionExecutor,
+            boolean multiInstanceInvalidation,
+            boolean requireMigration,
+            boolean allowDestructiveMigrationOnDowngrade,
+            @Nullable Set<Integer> migrationNotRequiredFrom,
+            @Nullable String copyFromAssetPath,
+            @Nullable File copyFromFile,
+            long invalidationCoalescingMillis,
+            int statementCacheSize,
+            boolean readableDatabaseQueries) {
         this.sqliteOpenHelperFactory = sqliteOpenHelperFactory;
         this.context = context;
         this.name = name;
@@ -253,6 +332,9 @@ public class DatabaseConfiguration {
         this.mMigrationNotRequiredFrom = migrationNotRequiredFrom;
         this.copyFromAssetPath = copyFromAssetPath;
         this.copyFromFile = copyFromFile;
+        this.invalidationCoalescingMillis = invalidationCoalescingMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.readableDatabaseQueries = readableDatabaseQueries;
     }
 
     /**
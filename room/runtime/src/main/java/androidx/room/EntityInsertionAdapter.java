@@ -16,11 +16,16 @@
 
 package androidx.room;
 
+import android.os.Build;
+
 import androidx.annotation.RestrictTo;
 import androidx.sqlite.db.SupportSQLiteStatement;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -34,6 +39,16 @@ import java.util.List;
 @SuppressWarnings({"WeakerAccess", "unused"})
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
 public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
+    // SQLite before 3.8.8 (API 22 and lower) rejects a VALUES clause with more rows than
+    // SQLITE_MAX_COMPOUND_SELECT, which defaults to 500.
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    // The "INSERT ... VALUES" prefix of the insert query and its row of bind arguments, used to
+    // build multi-row statements. Computed lazily.
+    private String mBatchPrefix;
+    private String mBatchRow;
+    private int mBatchRowArgCount;
+
     /**
      * Creates an InsertionAdapter that can insert the entity type T into the given database.
      *
@@ -101,6 +116,117 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
         }
     }
 
+    /**
+     * Inserts the given entities into the database using statements that insert up to
+     * {@code batchSize} rows at once.
+     *
+     * @param entities  Entities to insert
+     * @param batchSize The maximum number of rows per statement
+     */
+    public final void insertBatched(T[] entities, int batchSize) {
+        insertBatched(Arrays.asList(entities), batchSize);
+    }
+
+    /**
+     * Inserts the given entities into the database using statements that insert up to
+     * {@code batchSize} rows at once.
+     * <p>
+     * The number of rows per statement is further limited to 500 rows and so that a statement
+     * never has more than {@link RoomDatabase#MAX_BIND_PARAMETER_CNT} bind arguments. Statements
+     * for full batches are reused across batches and calls.
+     * <p>
+     * SQLite before 3.7.11 (API 15 and lower) does not support multi-row inserts, so the entities
+     * are inserted one row per statement there.
+     *
+     * @param entities  Entities to insert
+     * @param batchSize The maximum number of rows per statement
+     */
+    public final void insertBatched(Iterable<? extends T> entities, int batchSize) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            insert(entities);
+            return;
+        }
+        prepareBatchQuery();
+        final int rowsPerStatement = Math.max(1, Math.min(
+                Math.min(batchSize, MAX_ROWS_PER_STATEMENT),
+                RoomDatabase.MAX_BIND_PARAMETER_CNT / Math.max(1, mBatchRowArgCount)));
+        if (rowsPerStatement == 1) {
+            insert(entities);
+            return;
+        }
+        final RoomDatabase database = getDatabase();
+        final Iterator<? extends T> iterator = entities.iterator();
+        final ArrayList<T> batch = new ArrayList<>(rowsPerStatement);
+        while (iterator.hasNext()) {
+            batch.clear();
+            while (batch.size() < rowsPerStatement && iterator.hasNext()) {
+                batch.add(iterator.next());
+            }
+            final String sql = createBatchQuery(batch.size());
+            // Only full batches are cached, the last batch of a call has any size and would
+            // evict statements that are actually reused
+            final boolean fullBatch = batch.size() == rowsPerStatement;
+            final SupportSQLiteStatement stmt = fullBatch
+                    ? database.acquireStatement(sql) : database.compileStatement(sql);
+            try {
+                final OffsetStatement offsetStmt = new OffsetStatement(stmt);
+                for (int i = 0; i < batch.size(); i++) {
+                    offsetStmt.mOffset = i * mBatchRowArgCount;
+                    bind(offsetStmt, batch.get(i));
+                }
+                stmt.executeInsert();
+            } finally {
+                if (fullBatch) {
+                    database.releaseStatement(sql, stmt);
+                } else {
+                    closeQuietly(stmt);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(SupportSQLiteStatement statement) {
+        try {
+            statement.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private synchronized void prepareBatchQuery() {
+        if (mBatchRow != null) {
+            return;
+        }
+        final String query = createQuery();
+        final int valuesIndex = query.lastIndexOf(" VALUES ");
+        if (valuesIndex < 0) {
+            throw new IllegalStateException("Cannot batch insert query " + query);
+        }
+        final int rowIndex = valuesIndex + " VALUES ".length();
+        final String row = query.substring(rowIndex);
+        int argCount = 0;
+        for (int i = 0; i < row.length(); i++) {
+            if (row.charAt(i) == '?') {
+                argCount++;
+            }
+        }
+        mBatchPrefix = query.substring(0, rowIndex);
+        mBatchRowArgCount = argCount;
+        mBatchRow = row;
+    }
+
+    private String createBatchQuery(int rowCount) {
+        final StringBuilder builder = new StringBuilder(
+                mBatchPrefix.length() + (mBatchRow.length() + 1) * rowCount);
+        builder.append(mBatchPrefix);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(mBatchRow);
+        }
+        return builder.toString();
+    }
+
     /**
      * Inserts the given entity into the database and returns the row id.
      *
@@ -248,4 +374,78 @@ public abstract class EntityInsertionAdapter<T> extends SharedSQLiteStatement {
             release(stmt);
         }
     }
+
+    /**
+     * Binds the arguments of one row of a multi-row insert by shifting the indices used by
+     * {@link #bind(SupportSQLiteStatement, Object)}. Every other call is forwarded to the wrapped
+     * statement unchanged.
+     */
+    private static final class OffsetStatement implements SupportSQLiteStatement {
+        private final SupportSQLiteStatement mDelegate;
+        int mOffset;
+
+        OffsetStatement(SupportSQLiteStatement delegate) {
+            mDelegate = delegate;
+        }
+
+        @Override
+        public void bindNull(int index) {
+            mDelegate.bindNull(index + mOffset);
+        }
+
+        @Override
+        public void bindLong(int index, long value) {
+            mDelegate.bindLong(index + mOffset, value);
+        }
+
+        @Override
+        public void bindDouble(int index, double value) {
+            mDelegate.bindDouble(index + mOffset, value);
+        }
+
+        @Override
+        public void bindString(int index, String value) {
+            mDelegate.bindString(index + mOffset, value);
+        }
+
+        @Override
+        public void bindBlob(int index, byte[] value) {
+            mDelegate.bindBlob(index + mOffset, value);
+        }
+
+        @Override
+        public void clearBindings() {
+            mDelegate.clearBindings();
+        }
+
+        @Override
+        public void execute() {
+            mDelegate.execute();
+        }
+
+        @Override
+        public int executeUpdateDelete() {
+            return mDelegate.executeUpdateDelete();
+        }
+
+        @Override
+        public long executeInsert() {
+            return mDelegate.executeInsert();
+        }
+
+        @Override
+        public long simpleQueryForLong() {
+            return mDelegate.simpleQueryForLong();
+        }
+
+        @Override
+        public String simpleQueryForString() {
+            return mDelegate.simpleQueryForString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            mDelegate.close();
+        }
+    }
 }
@@ -38,11 +38,17 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -60,6 +66,9 @@ import java.util.concurrent.locks.Lock;
 // memory table table, flipping the invalidated flag ON.
 // * When multi-instance invalidation is turned on, MultiInstanceInvalidationClient will be created.
 // It works as an Observer, and notifies other instances of table invalidation.
+// * When invalidation coalescing is turned on, invalidated tables found by refreshes (and those
+// received from other instances) are merged into a pending set, and observers are notified of the
+// whole set once the coalescing window that started with the first of them elapses.
 public class InvalidationTracker {
 
     private static final String[] TRIGGERS = new String[]{"UPDATE", "DELETE", "INSERT"};
@@ -110,6 +119,25 @@ public class InvalidationTracker {
 
     private MultiInstanceInvalidationClient mMultiInstanceInvalidationClient;
 
+    // Shared by all trackers; it only hands dispatches over to each database's query executor.
+    private static ScheduledExecutorService sCoalescingScheduler;
+
+    private volatile long mCoalescingWindowMillis;
+
+    // Defaults to sCoalescingScheduler, replaced in tests.
+    private ScheduledExecutorService mCoalescingScheduler;
+
+    private final Object mCoalescingLock = new Object();
+    // Tables invalidated in this instance, awaiting dispatch. Guarded by mCoalescingLock.
+    private Set<Integer> mCoalescedTableIds;
+    // Tables invalidated by other instances, awaiting dispatch. Guarded by mCoalescingLock.
+    private Set<String> mCoalescedRemoteTableNames;
+    // Guarded by mCoalescingLock.
+    private boolean mCoalescedDispatchScheduled;
+
+    private final AtomicLong mRefreshCount = new AtomicLong();
+    private final AtomicLong mDispatchCount = new AtomicLong();
+
     /**
      * Used by the generated code.
      *
@@ -187,6 +215,19 @@ public class InvalidationTracker {
                 mDatabase.getQueryExecutor());
     }
 
+    /**
+     * Sets the window over which invalidations are merged before observers are notified, or 0 to
+     * notify observers as soon as invalidations are detected.
+     */
+    void setCoalescingWindow(long windowMillis) {
+        mCoalescingWindowMillis = windowMillis;
+    }
+
+    @VisibleForTesting
+    void setCoalescingScheduler(ScheduledExecutorService scheduler) {
+        mCoalescingScheduler = scheduler;
+    }
+
     void stopMultiInstanceInvalidation() {
         if (mMultiInstanceInvalidationClient != null) {
             mMultiInstanceInvalidationClient.stop();
@@ -401,10 +442,11 @@ public class InvalidationTracker {
                 closeLock.unlock();
             }
             if (invalidatedTableIds != null && !invalidatedTableIds.isEmpty()) {
-                synchronized (mObserverMap) {
-                    for (Map.Entry<Observer, ObserverWrapper> entry : mObserverMap) {
-                        entry.getValue().notifyByTableInvalidStatus(invalidatedTableIds);
-                    }
+                mRefreshCount.incrementAndGet();
+                if (mCoalescingWindowMillis > 0) {
+                    coalesce(invalidatedTableIds, null);
+                } else {
+                    notifyObserversByTableIds(invalidatedTableIds);
                 }
             }
         }
@@ -467,6 +509,121 @@ public class InvalidationTracker {
     @RestrictTo(RestrictTo.Scope.LIBRARY)
     @VisibleForTesting(otherwise = VisibleForTesting.PACKAGE_PRIVATE)
     public void notifyObserversByTableNames(String... tables) {
+        mRefreshCount.incrementAndGet();
+        if (mCoalescingWindowMillis > 0) {
+            coalesce(null, Arrays.asList(tables));
+        } else {
+            notifyLocalObserversByTableNames(tables);
+        }
+    }
+
+    /**
+     * Returns the number of times invalidated tables were detected, either by a refresh of this
+     * instance or by a notification from another instance.
+     * <p>
+     * Without invalidation coalescing this is equal to {@link #getDispatchCount()}.
+     *
+     * @return The number of refreshes that found invalidated tables.
+     * @see RoomDatabase.Builder#setInvalidationCoalescing(long, TimeUnit)
+     */
+    public long getRefreshCount() {
+        return mRefreshCount.get();
+    }
+
+    /**
+     * Returns the number of times observers were notified of invalidated tables.
+     *
+     * @return The number of dispatches to observers.
+     * @see RoomDatabase.Builder#setInvalidationCoalescing(long, TimeUnit)
+     */
+    public long getDispatchCount() {
+        return mDispatchCount.get();
+    }
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    void coalesce(@Nullable Set<Integer> tableIds, @Nullable List<String> remoteTableNames) {
+        synchronized (mCoalescingLock) {
+            if (tableIds != null) {
+                if (mCoalescedTableIds == null) {
+                    mCoalescedTableIds = new HashSet<>();
+                }
+                mCoalescedTableIds.addAll(tableIds);
+            }
+            if (remoteTableNames != null) {
+                if (mCoalescedRemoteTableNames == null) {
+                    mCoalescedRemoteTableNames = new HashSet<>();
+                }
+                mCoalescedRemoteTableNames.addAll(remoteTableNames);
+            }
+            if (mCoalescedDispatchScheduled) {
+                return;
+            }
+            mCoalescedDispatchScheduled = true;
+        }
+        ScheduledExecutorService scheduler = mCoalescingScheduler;
+        if (scheduler == null) {
+            scheduler = getCoalescingScheduler();
+        }
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                mDatabase.getQueryExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatchCoalesced();
+                    }
+                });
+            }
+        }, mCoalescingWindowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    void dispatchCoalesced() {
+        Set<Integer> tableIds;
+        Set<String> remoteTableNames;
+        synchronized (mCoalescingLock) {
+            tableIds = mCoalescedTableIds;
+            remoteTableNames = mCoalescedRemoteTableNames;
+            mCoalescedTableIds = null;
+            mCoalescedRemoteTableNames = null;
+            mCoalescedDispatchScheduled = false;
+        }
+        if (tableIds != null) {
+            notifyObserversByTableIds(tableIds);
+        }
+        if (remoteTableNames != null) {
+            notifyLocalObserversByTableNames(
+                    remoteTableNames.toArray(new String[remoteTableNames.size()]));
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getCoalescingScheduler() {
+        if (sCoalescingScheduler == null) {
+            sCoalescingScheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "Room Invalidation Coalescing");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return sCoalescingScheduler;
+    }
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    void notifyObserversByTableIds(Set<Integer> tableIds) {
+        mDispatchCount.incrementAndGet();
+        synchronized (mObserverMap) {
+            for (Map.Entry<Observer, ObserverWrapper> entry : mObserverMap) {
+                entry.getValue().notifyByTableInvalidStatus(tableIds);
+            }
+        }
+    }
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    void notifyLocalObserversByTableNames(String[] tables) {
+        mDispatchCount.incrementAndGet();
         synchronized (mObserverMap) {
             for (Map.Entry<Observer, ObserverWrapper> entry : mObserverMap) {
                 if (!entry.getKey().isRemote()) {
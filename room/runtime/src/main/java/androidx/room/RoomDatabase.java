@@ -53,6 +53,7 @@ import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -87,6 +88,7 @@ public abstract class RoomDatabase {
     private final InvalidationTracker mInvalidationTracker;
     private boolean mAllowMainThreadQueries;
     boolean mWriteAheadLoggingEnabled;
+    private boolean mReadableDatabaseQueries;
 
     /**
      * @deprecated Will be hidden in the next release.
@@ -97,6 +99,15 @@ public abstract class RoomDatabase {
 
     private final ReentrantReadWriteLock mCloseLock = new ReentrantReadWriteLock();
 
+    /**
+     * The default number of idle compiled statements kept for reuse.
+     *
+     * @see Builder#setStatementCacheSize(int)
+     */
+    static final int DEFAULT_STATEMENT_CACHE_SIZE = 16;
+
+    private StatementCache mStatementCache = new StatementCache(DEFAULT_STATEMENT_CACHE_SIZE);
+
     /**
      * {@link InvalidationTracker} uses this lock to prevent the database from closing while it is
      * querying database updates.
@@ -173,10 +184,13 @@ public abstract class RoomDatabase {
         mTransactionExecutor = new TransactionExecutor(configuration.transactionExecutor);
         mAllowMainThreadQueries = configuration.allowMainThreadQueries;
         mWriteAheadLoggingEnabled = wal;
+        mReadableDatabaseQueries = configuration.readableDatabaseQueries;
         if (configuration.multiInstanceInvalidation) {
             mInvalidationTracker.startMultiInstanceInvalidation(configuration.context,
                     configuration.name);
         }
+        mInvalidationTracker.setCoalescingWindow(configuration.invalidationCoalescingMillis);
+        mStatementCache = new StatementCache(configuration.statementCacheSize);
     }
 
     /**
@@ -244,6 +258,7 @@ public abstract class RoomDatabase {
             closeLock.lock();
             try {
                 mInvalidationTracker.stopMultiInstanceInvalidation();
+                mStatementCache.clear();
                 mOpenHelper.close();
             } finally {
                 closeLock.unlock();
@@ -322,13 +337,32 @@ public abstract class RoomDatabase {
     public Cursor query(@NonNull SupportSQLiteQuery query, @Nullable CancellationSignal signal) {
         assertNotMainThread();
         assertNotSuspendingTransaction();
+        final SupportSQLiteDatabase db = getQueryDatabase();
         if (signal != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
-            return mOpenHelper.getWritableDatabase().query(query, signal);
+            return db.query(query, signal);
         } else {
-            return mOpenHelper.getWritableDatabase().query(query);
+            return db.query(query);
         }
     }
 
+    /**
+     * Returns the database to run a read query on.
+     * <p>
+     * When enabled with {@link Builder#enableReadableDatabaseQueries()} and write-ahead logging,
+     * queries outside of a transaction go to {@link SupportSQLiteOpenHelper#getReadableDatabase()},
+     * which may be one of a pool of read-only connections, such as the ones kept by a
+     * {@link FrameworkSQLiteOpenHelperFactory} created with a reader connection count. Queries
+     * within a transaction must see its uncommitted changes, so they always go to the writable
+     * database.
+     */
+    private SupportSQLiteDatabase getQueryDatabase() {
+        final SupportSQLiteDatabase writable = mOpenHelper.getWritableDatabase();
+        if (mReadableDatabaseQueries && mWriteAheadLoggingEnabled && !writable.inTransaction()) {
+            return mOpenHelper.getReadableDatabase();
+        }
+        return writable;
+    }
+
     /**
      * Wrapper for {@link SupportSQLiteDatabase#compileStatement(String)}.
      *
@@ -341,6 +375,57 @@ public abstract class RoomDatabase {
         return mOpenHelper.getWritableDatabase().compileStatement(sql);
     }
 
+    /**
+     * Returns a compiled statement for the given SQL, reusing an idle one from the statement cache
+     * if possible. The statement must be passed back to
+     * {@link #releaseStatement(String, SupportSQLiteStatement)} once done and must not be used
+     * afterwards.
+     *
+     * @param sql The query to compile.
+     * @return The compiled query.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    @NonNull
+    public SupportSQLiteStatement acquireStatement(@NonNull String sql) {
+        assertNotMainThread();
+        assertNotSuspendingTransaction();
+        return mStatementCache.acquire(mOpenHelper.getWritableDatabase(), sql);
+    }
+
+    /**
+     * Returns a statement obtained from {@link #acquireStatement(String)} to the statement cache.
+     *
+     * @param sql The query the statement was compiled from.
+     * @param statement The statement to release.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+    public void releaseStatement(@NonNull String sql, @NonNull SupportSQLiteStatement statement) {
+        mStatementCache.release(mDatabase, sql, statement);
+    }
+
+    /**
+     * Returns the number of times a compiled statement was reused from the statement cache.
+     *
+     * @return The number of statement cache hits.
+     * @see Builder#setStatementCacheSize(int)
+     */
+    public int getStatementCacheHitCount() {
+        return mStatementCache.hitCount();
+    }
+
+    /**
+     * Returns the number of times a statement had to be compiled because there was no idle one
+     * for its SQL in the statement cache.
+     *
+     * @return The number of statement cache misses.
+     * @see Builder#setStatementCacheSize(int)
+     */
+    public int getStatementCacheMissCount() {
+        return mStatementCache.missCount();
+    }
+
     /**
      * Wrapper for {@link SupportSQLiteDatabase#beginTransaction()}.
      *
@@ -566,6 +651,10 @@ public abstract class RoomDatabase {
         private String mCopyFromAssetPath;
         private File mCopyFromFile;
 
+        private long mInvalidationCoalescingMillis;
+        private int mStatementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+        private boolean mReadableDatabaseQueries;
+
         Builder(@NonNull Context context, @NonNull Class<T> klass, @Nullable String name) {
             mContext = context;
             mDatabaseClass = klass;
@@ -761,6 +850,30 @@ public abstract class RoomDatabase {
             return this;
         }
 
+        /**
+         * Runs queries that are not part of a transaction on the
+         * {@link SupportSQLiteOpenHelper#getReadableDatabase()} of the open helper when write-ahead
+         * logging is enabled, instead of its writable database.
+         * <p>
+         * Use this with a {@link FrameworkSQLiteOpenHelperFactory} created with reader connections
+         * to run queries on a dedicated pool of read-only connections, in parallel with each other
+         * and with writes. Queries run within a transaction still go to the writable database, so
+         * that they see its uncommitted changes. Only enable this with a
+         * {@link SupportSQLiteOpenHelper.Factory} whose readable database sees the changes
+         * committed on its writable database.
+         * <p>
+         * This is not enabled by default.
+         *
+         * @return This {@link Builder} instance.
+         * @see #openHelperFactory(SupportSQLiteOpenHelper.Factory)
+         * @see #setJournalMode(JournalMode)
+         */
+        @NonNull
+        public Builder<T> enableReadableDatabaseQueries() {
+            mReadableDatabaseQueries = true;
+            return this;
+        }
+
         /**
          * Sets whether table invalidation in this instance of {@link RoomDatabase} should be
          * broadcast and synchronized with other instances of the same {@link RoomDatabase},
@@ -780,6 +893,65 @@ public abstract class RoomDatabase {
             return this;
         }
 
+        /**
+         * Sets a window over which table invalidations are merged before {@link
+         * InvalidationTracker.Observer}s are notified.
+         * <p>
+         * When the first invalidation is detected, observers are notified after the given duration
+         * of all the tables invalidated within it, once, instead of once per invalidating
+         * transaction. This reduces the number of re-queries performed by observers, such as
+         * {@code LiveData} returned by DAOs, when the database is written to in many small
+         * transactions, at the cost of delaying notifications by up to the given duration.
+         * <p>
+         * This is not enabled by default.
+         *
+         * @param duration The length of the window, or 0 to notify observers immediately.
+         * @param unit     The unit of {@code duration}.
+         * @return This {@link Builder} instance.
+         * @throws IllegalArgumentException If {@code duration} is negative.
+         * @see InvalidationTracker#getRefreshCount()
+         * @see InvalidationTracker#getDispatchCount()
+         */
+        @NonNull
+        public Builder<T> setInvalidationCoalescing(long duration, @NonNull TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Invalidation coalescing duration cannot be "
+                        + "negative");
+            }
+            mInvalidationCoalescingMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle compiled statements kept for reuse.
+         * <p>
+         * Generated {@link Insert}, {@link Update}, {@link Delete} and fixed SQL {@link Query}
+         * write methods reuse a single compiled statement. When that statement is already in use,
+         * for example by another thread, Room takes an idle statement for the same SQL from this
+         * cache instead of compiling a new one every time. The least recently used statements are
+         * closed once the cache is full.
+         * <p>
+         * Statements whose SQL depends on the arguments, such as {@code IN} lists, are not cached
+         * so that they do not evict the others. Read queries run through a cursor, which SQLite
+         * already compiles through the prepared statement cache of its connection.
+         * <p>
+         * The default size is 16. Setting it to 0 disables the cache.
+         *
+         * @param size The maximum number of idle statements to keep.
+         * @return This {@link Builder} instance.
+         * @throws IllegalArgumentException If {@code size} is negative.
+         * @see RoomDatabase#getStatementCacheHitCount()
+         * @see RoomDatabase#getStatementCacheMissCount()
+         */
+        @NonNull
+        public Builder<T> setStatementCacheSize(int size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Statement cache size cannot be negative");
+            }
+            mStatementCacheSize = size;
+            return this;
+        }
+
         /**
          * Allows Room to destructively recreate database tables if {@link Migration}s that would
          * migrate old database schemas to the latest schema version are not found.
@@ -948,7 +1120,10 @@ public abstract class RoomDatabase {
                             mAllowDestructiveMigrationOnDowngrade,
                             mMigrationsNotRequiredFrom,
                             mCopyFromAssetPath,
-                            mCopyFromFile);
+                            mCopyFromFile,
+                            mInvalidationCoalescingMillis,
+                            mStatementCacheSize,
+                            mReadableDatabaseQueries);
             T db = Room.getGeneratedImplementation(mDatabaseClass, DB_IMPL_SUFFIX);
             db.init(configuration);
             return db;
@@ -27,7 +27,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * it can be used by other threads.
  * <p>
  * To avoid re-entry even within the same thread, this class allows only 1 time access to the shared
- * statement until it is released.
+ * statement until it is released. While it is in use, statements are taken from the database's
+ * statement cache instead.
  *
  * @hide
  */
@@ -41,7 +42,7 @@ public abstract class SharedSQLiteStatement {
 
     /**
      * Creates an SQLite prepared statement that can be re-used across threads. If it is in use,
-     * it automatically creates a new one.
+     * it automatically acquires another one from the database's statement cache.
      *
      * @param database The database to create the statement in.
      */
@@ -56,6 +57,10 @@ public abstract class SharedSQLiteStatement {
      */
     protected abstract String createQuery();
 
+    RoomDatabase getDatabase() {
+        return mDatabase;
+    }
+
     protected void assertNotMainThread() {
         mDatabase.assertNotMainThread();
     }
@@ -73,8 +78,8 @@ public abstract class SharedSQLiteStatement {
             }
             stmt = mStmt;
         } else {
-            // it is in use, create a one off statement
-            stmt = createNewStatement();
+            // it is in use, borrow one from the statement cache
+            stmt = mDatabase.acquireStatement(createQuery());
         }
         return stmt;
     }
@@ -95,6 +100,8 @@ public abstract class SharedSQLiteStatement {
     public void release(SupportSQLiteStatement statement) {
         if (statement == mStmt) {
             mLock.set(false);
+        } else {
+            mDatabase.releaseStatement(createQuery(), statement);
         }
     }
 }
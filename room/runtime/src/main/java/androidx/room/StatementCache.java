@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A least recently used cache of idle compiled statements, keyed by their SQL.
+ * <p>
+ * A statement is removed from the cache while it is acquired so that it is never used by two
+ * threads at once, and is put back when released. Statements belong to the connection they were
+ * compiled on, so the cache is emptied whenever it is used with a different
+ * {@link SupportSQLiteDatabase}.
+ */
+final class StatementCache {
+    private final int mMaxSize;
+
+    // Guarded by this.
+    private final LinkedHashMap<String, SupportSQLiteStatement> mStatements =
+            new LinkedHashMap<>(16, 0.75f, true);
+    // Guarded by this.
+    private SupportSQLiteDatabase mDatabase;
+
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    StatementCache(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * Returns an idle statement for the given SQL, compiling a new one if there is none. The
+     * statement must be passed back to {@link #release(SupportSQLiteDatabase, String,
+     * SupportSQLiteStatement)} once done.
+     */
+    @NonNull
+    SupportSQLiteStatement acquire(@NonNull SupportSQLiteDatabase database, @NonNull String sql) {
+        List<SupportSQLiteStatement> stale = null;
+        SupportSQLiteStatement statement;
+        synchronized (this) {
+            if (mDatabase != database) {
+                stale = removeAllLocked();
+                mDatabase = database;
+            }
+            statement = mStatements.remove(sql);
+            if (statement != null) {
+                mHitCount++;
+            } else {
+                mMissCount++;
+            }
+        }
+        closeAll(stale);
+        if (statement == null) {
+            statement = database.compileStatement(sql);
+        }
+        return statement;
+    }
+
+    /**
+     * Returns a statement obtained from {@link #acquire(SupportSQLiteDatabase, String)} to the
+     * cache, closing it instead if it cannot be kept or {@code database} is no longer the one the
+     * cache is used with.
+     */
+    void release(@Nullable SupportSQLiteDatabase database, @NonNull String sql,
+            @NonNull SupportSQLiteStatement statement) {
+        statement.clearBindings();
+        List<SupportSQLiteStatement> evicted = null;
+        synchronized (this) {
+            if (mMaxSize > 0 && database != null && mDatabase == database
+                    && !mStatements.containsKey(sql)) {
+                mStatements.put(sql, statement);
+                statement = null;
+                Iterator<Map.Entry<String, SupportSQLiteStatement>> iterator =
+                        mStatements.entrySet().iterator();
+                while (mStatements.size() > mMaxSize) {
+                    if (evicted == null) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(iterator.next().getValue());
+                    iterator.remove();
+                    mEvictionCount++;
+                }
+            }
+        }
+        closeAll(evicted);
+        if (statement != null) {
+            close(statement);
+        }
+    }
+
+    /**
+     * Closes all the idle statements.
+     */
+    void clear() {
+        List<SupportSQLiteStatement> stale;
+        synchronized (this) {
+            stale = removeAllLocked();
+            mDatabase = null;
+        }
+        closeAll(stale);
+    }
+
+    synchronized int size() {
+        return mStatements.size();
+    }
+
+    int maxSize() {
+        return mMaxSize;
+    }
+
+    synchronized int hitCount() {
+        return mHitCount;
+    }
+
+    synchronized int missCount() {
+        return mMissCount;
+    }
+
+    synchronized int evictionCount() {
+        return mEvictionCount;
+    }
+
+    @Nullable
+    private List<SupportSQLiteStatement> removeAllLocked() {
+        if (mStatements.isEmpty()) {
+            return null;
+        }
+        List<SupportSQLiteStatement> statements = new ArrayList<>(mStatements.values());
+        mStatements.clear();
+        return statements;
+    }
+
+    private static void closeAll(@Nullable List<SupportSQLiteStatement> statements) {
+        if (statements != null) {
+            for (SupportSQLiteStatement statement : statements) {
+                close(statement);
+            }
+        }
+    }
+
+    private static void close(SupportSQLiteStatement statement) {
+        try {
+            statement.close();
+        } catch (IOException ignored) {
+            // Closing a statement only releases its native resources.
+        }
+    }
+}
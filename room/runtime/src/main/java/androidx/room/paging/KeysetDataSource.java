@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room.paging;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.room.InvalidationTracker;
+import androidx.room.RoomDatabase;
+import androidx.room.RoomSQLiteQuery;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A data source that pages a query by the value of a unique, ordered key column instead of by
+ * position.
+ * <p>
+ * Each page is loaded with a {@code WHERE key > ? ORDER BY key LIMIT ?} query that continues
+ * from the key of the last loaded item, so when the key column is indexed, loading a page costs
+ * the same no matter how deep into the list it is. In comparison, {@link LimitOffsetDataSource}
+ * has to count the rows and skip all the rows before the requested position.
+ * <p>
+ * The key column must be part of the query result, must not contain nulls, and must be unique so
+ * that every row has a distinct position in the ordering.
+ *
+ * @param <K> Type of the key column.
+ * @param <T> Data type returned by the data source.
+ *
+ * @hide
+ */
+@SuppressWarnings("deprecation")
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP_PREFIX)
+public abstract class KeysetDataSource<K, T> extends androidx.paging.ItemKeyedDataSource<K, T> {
+    private final RoomSQLiteQuery mSourceQuery;
+    private final String mFirstQuery;
+    private final String mFromKeyQuery;
+    private final String mAfterKeyQuery;
+    private final String mBeforeKeyQuery;
+    private final RoomDatabase mDb;
+    @SuppressWarnings("FieldCanBeLocal")
+    private final InvalidationTracker.Observer mObserver;
+    private final boolean mInTransaction;
+
+    protected KeysetDataSource(RoomDatabase db, RoomSQLiteQuery query, String keyColumn,
+            boolean descending, boolean inTransaction, String... tables) {
+        mDb = db;
+        mSourceQuery = query;
+        mInTransaction = inTransaction;
+        final String source = "SELECT * FROM ( " + mSourceQuery.getSql() + " )";
+        final String key = "`" + keyColumn + "`";
+        final String forward = descending ? " DESC" : " ASC";
+        final String backward = descending ? " ASC" : " DESC";
+        mFirstQuery = source + " ORDER BY " + key + forward + " LIMIT ?";
+        mFromKeyQuery = source + " WHERE " + key + (descending ? " <= ?" : " >= ?")
+                + " ORDER BY " + key + forward + " LIMIT ?";
+        mAfterKeyQuery = source + " WHERE " + key + (descending ? " < ?" : " > ?")
+                + " ORDER BY " + key + forward + " LIMIT ?";
+        mBeforeKeyQuery = source + " WHERE " + key + (descending ? " > ?" : " < ?")
+                + " ORDER BY " + key + backward + " LIMIT ?";
+        mObserver = new InvalidationTracker.Observer(tables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        db.getInvalidationTracker().addWeakObserver(mObserver);
+    }
+
+    @Override
+    public boolean isInvalid() {
+        mDb.getInvalidationTracker().refreshVersionsSync();
+        return super.isInvalid();
+    }
+
+    @SuppressWarnings("WeakerAccess")
+    protected abstract List<T> convertRows(Cursor cursor);
+
+    @Override
+    public void loadInitial(@NonNull LoadInitialParams<K> params,
+            @NonNull LoadInitialCallback<T> callback) {
+        final RoomSQLiteQuery sqLiteQuery;
+        if (params.requestedInitialKey == null) {
+            sqLiteQuery = RoomSQLiteQuery.acquire(mFirstQuery, mSourceQuery.getArgCount() + 1);
+            sqLiteQuery.copyArgumentsFrom(mSourceQuery);
+            sqLiteQuery.bindLong(sqLiteQuery.getArgCount(), params.requestedLoadSize);
+        } else {
+            sqLiteQuery = getSQLiteQuery(mFromKeyQuery, params.requestedInitialKey,
+                    params.requestedLoadSize);
+        }
+        callback.onResult(loadRows(sqLiteQuery));
+    }
+
+    @Override
+    public void loadAfter(@NonNull LoadParams<K> params, @NonNull LoadCallback<T> callback) {
+        callback.onResult(loadRows(
+                getSQLiteQuery(mAfterKeyQuery, params.key, params.requestedLoadSize)));
+    }
+
+    @Override
+    public void loadBefore(@NonNull LoadParams<K> params, @NonNull LoadCallback<T> callback) {
+        // rows are read in the reverse order, starting next to the key
+        List<T> rows = loadRows(
+                getSQLiteQuery(mBeforeKeyQuery, params.key, params.requestedLoadSize));
+        Collections.reverse(rows);
+        callback.onResult(rows);
+    }
+
+    private List<T> loadRows(RoomSQLiteQuery sqLiteQuery) {
+        if (mInTransaction) {
+            mDb.beginTransaction();
+            Cursor cursor = null;
+            //noinspection TryFinallyCanBeTryWithResources
+            try {
+                cursor = mDb.query(sqLiteQuery);
+                List<T> rows = convertRows(cursor);
+                mDb.setTransactionSuccessful();
+                return rows;
+            } finally {
+                if (cursor != null) {
+                    cursor.close();
+                }
+                mDb.endTransaction();
+                sqLiteQuery.release();
+            }
+        } else {
+            Cursor cursor = mDb.query(sqLiteQuery);
+            //noinspection TryFinallyCanBeTryWithResources
+            try {
+                return convertRows(cursor);
+            } finally {
+                cursor.close();
+                sqLiteQuery.release();
+            }
+        }
+    }
+
+    private RoomSQLiteQuery getSQLiteQuery(String sql, @Nullable K key, int loadCount) {
+        final RoomSQLiteQuery sqLiteQuery = RoomSQLiteQuery.acquire(sql,
+                mSourceQuery.getArgCount() + 2);
+        sqLiteQuery.copyArgumentsFrom(mSourceQuery);
+        bindKey(sqLiteQuery, sqLiteQuery.getArgCount() - 1, key);
+        sqLiteQuery.bindLong(sqLiteQuery.getArgCount(), loadCount);
+        return sqLiteQuery;
+    }
+
+    private static void bindKey(RoomSQLiteQuery query, int index, @Nullable Object key) {
+        if (key == null) {
+            query.bindNull(index);
+        } else if (key instanceof Long || key instanceof Integer || key instanceof Short
+                || key instanceof Byte) {
+            query.bindLong(index, ((Number) key).longValue());
+        } else if (key instanceof Double || key instanceof Float) {
+            query.bindDouble(index, ((Number) key).doubleValue());
+        } else if (key instanceof String) {
+            query.bindString(index, (String) key);
+        } else if (key instanceof byte[]) {
+            query.bindBlob(index, (byte[]) key);
+        } else {
+            throw new IllegalArgumentException("Cannot bind paging key " + key);
+        }
+    }
+}
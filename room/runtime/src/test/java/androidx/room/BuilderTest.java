@@ -178,6 +178,40 @@ public class BuilderTest {
         assertThat(config.requireMigration, is(false));
     }
 
+    @Test
+    public void statementCacheSize() {
+        Context context = mock(Context.class);
+
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .setStatementCacheSize(4)
+                .build();
+
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.statementCacheSize, is(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void statementCacheSize_negative() {
+        Room.inMemoryDatabaseBuilder(mock(Context.class), TestDatabase.class)
+                .setStatementCacheSize(-1);
+    }
+
+    @Test
+    public void readableDatabaseQueries() {
+        Context context = mock(Context.class);
+
+        TestDatabase db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .build();
+        DatabaseConfiguration config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.readableDatabaseQueries, is(false));
+
+        db = Room.inMemoryDatabaseBuilder(context, TestDatabase.class)
+                .enableReadableDatabaseQueries()
+                .build();
+        config = ((BuilderTest_TestDatabase_Impl) db).mConfig;
+        assertThat(config.readableDatabaseQueries, is(true));
+    }
+
     @Test
     public void fallbackToDestructiveMigrationFrom_calledOnce_migrationsNotRequiredForValues() {
         Context context = mock(Context.class);
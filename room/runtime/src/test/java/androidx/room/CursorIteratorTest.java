@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RunWith(JUnit4.class)
+public class CursorIteratorTest {
+    private Cursor mCursor;
+    private RoomSQLiteQuery mQuery;
+
+    @Before
+    public void init() {
+        mCursor = mock(Cursor.class);
+        mQuery = mock(RoomSQLiteQuery.class);
+    }
+
+    @Test
+    public void iterateAll() {
+        when(mCursor.moveToNext()).thenReturn(true, true, false);
+        when(mCursor.getInt(0)).thenReturn(1, 2);
+        IntIterator iterator = new IntIterator(mCursor, mQuery);
+        List<Integer> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        assertThat(result.size(), is(2));
+        assertThat(result.get(0), is(1));
+        assertThat(result.get(1), is(2));
+        verify(mCursor).close();
+        verify(mQuery).release();
+    }
+
+    @Test
+    public void hasNextDoesNotSkipRows() {
+        when(mCursor.moveToNext()).thenReturn(true, false);
+        when(mCursor.getInt(0)).thenReturn(5);
+        IntIterator iterator = new IntIterator(mCursor, mQuery);
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.next(), is(5));
+        assertThat(iterator.hasNext(), is(false));
+        verify(mCursor, times(2)).moveToNext();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextAfterEnd() {
+        when(mCursor.moveToNext()).thenReturn(false);
+        new IntIterator(mCursor, mQuery).next();
+    }
+
+    @Test
+    public void closeEarly() {
+        when(mCursor.moveToNext()).thenReturn(true);
+        IntIterator iterator = new IntIterator(mCursor, mQuery);
+        iterator.next();
+        iterator.close();
+        iterator.close();
+        assertThat(iterator.hasNext(), is(false));
+        verify(mCursor).close();
+        verify(mQuery).release();
+    }
+
+    @Test
+    public void queryNotOwned() {
+        when(mCursor.moveToNext()).thenReturn(false);
+        IntIterator iterator = new IntIterator(mCursor, null);
+        assertThat(iterator.hasNext(), is(false));
+        verify(mCursor).close();
+        verify(mQuery, never()).release();
+    }
+
+    private static class IntIterator extends CursorIterator<Integer> {
+        IntIterator(Cursor cursor, RoomSQLiteQuery query) {
+            super(cursor, query);
+        }
+
+        @Override
+        protected Integer convert(@NonNull Cursor cursor) {
+            return cursor.getInt(0);
+        }
+    }
+}
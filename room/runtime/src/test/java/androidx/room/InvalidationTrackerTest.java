@@ -22,6 +22,7 @@ import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
@@ -67,6 +68,7 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
@@ -250,6 +252,87 @@ public class InvalidationTrackerTest {
         assertThat(observer.await(), is(false));
     }
 
+    @Test
+    public void coalesceInvalidations() throws Exception {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        mTracker.setCoalescingScheduler(scheduler);
+        mTracker.setCoalescingWindow(500);
+        LatchObserver observer = new LatchObserver(1, "A", "B");
+        mTracker.addObserver(observer);
+        setInvalidatedTables(0);
+        refreshSync();
+        setInvalidatedTables(1);
+        refreshSync();
+        assertThat(mTracker.getDispatchCount(), is(0L));
+
+        runScheduledDispatches(scheduler, 1);
+        assertThat(observer.await(), is(true));
+        assertThat(observer.getInvalidatedTables().size(), is(2));
+        assertThat(observer.getInvalidatedTables(), hasItems("A", "B"));
+        assertThat(mTracker.getRefreshCount(), is(2L));
+        assertThat(mTracker.getDispatchCount(), is(1L));
+
+        mTracker.setCoalescingWindow(0);
+        setInvalidatedTables(0);
+        observer.reset(1);
+        refreshSync();
+        assertThat(observer.await(), is(true));
+        assertThat(observer.getInvalidatedTables().size(), is(1));
+        assertThat(mTracker.getRefreshCount(), is(3L));
+        assertThat(mTracker.getDispatchCount(), is(2L));
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void coalesceInvalidations_perTracker() throws Exception {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(SupportSQLiteStatement.class)).when(mSqliteDb)
+                .compileStatement(eq(InvalidationTracker.RESET_UPDATED_TABLES_SQL));
+        InvalidationTracker other = new InvalidationTracker(mRoomDatabase, "a", "B");
+        other.internalInit(mSqliteDb);
+        mTracker.setCoalescingScheduler(scheduler);
+        mTracker.setCoalescingWindow(500);
+        other.setCoalescingScheduler(scheduler);
+        other.setCoalescingWindow(500);
+        LatchObserver observer = new LatchObserver(1, "A", "B");
+        LatchObserver otherObserver = new LatchObserver(1, "A", "B");
+        mTracker.addObserver(observer);
+        other.addObserver(otherObserver);
+
+        // Both databases see a write to each table within the same window.
+        for (int tableId = 0; tableId < 2; tableId++) {
+            setInvalidatedTables(tableId);
+            refreshSync();
+            setInvalidatedTables(tableId);
+            other.refreshVersionsAsync();
+            drainTasks();
+        }
+
+        runScheduledDispatches(scheduler, 2);
+        assertThat(observer.await(), is(true));
+        assertThat(observer.getInvalidatedTables(), hasItems("A", "B"));
+        assertThat(otherObserver.await(), is(true));
+        assertThat(otherObserver.getInvalidatedTables(), hasItems("A", "B"));
+        assertThat(mTracker.getRefreshCount(), is(2L));
+        assertThat(mTracker.getDispatchCount(), is(1L));
+        assertThat(other.getRefreshCount(), is(2L));
+        assertThat(other.getDispatchCount(), is(1L));
+    }
+
+    /**
+     * Runs the dispatches handed to the given scheduler as if their window had elapsed.
+     */
+    private void runScheduledDispatches(ScheduledExecutorService scheduler, int count)
+            throws InterruptedException {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(count)).schedule(captor.capture(), eq(500L),
+                eq(TimeUnit.MILLISECONDS));
+        for (Runnable runnable : captor.getAllValues()) {
+            runnable.run();
+        }
+        drainTasks();
+    }
+
     @Test
     public void locale() {
         LatchObserver observer = new LatchObserver(1, "I");
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.room;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+@RunWith(JUnit4.class)
+public class StatementCacheTest {
+    private SupportSQLiteDatabase mDb;
+
+    @Before
+    public void init() {
+        mDb = mockDatabase();
+    }
+
+    @Test
+    public void reuseReleasedStatement() throws Exception {
+        StatementCache cache = new StatementCache(2);
+        SupportSQLiteStatement stmt1 = cache.acquire(mDb, "foo");
+        cache.release(mDb, "foo", stmt1);
+        SupportSQLiteStatement stmt2 = cache.acquire(mDb, "foo");
+        assertThat(stmt2, is(stmt1));
+        verify(stmt1).clearBindings();
+        verify(stmt1, never()).close();
+        assertThat(cache.hitCount(), is(1));
+        assertThat(cache.missCount(), is(1));
+    }
+
+    @Test
+    public void acquiredStatementIsNotShared() {
+        StatementCache cache = new StatementCache(2);
+        SupportSQLiteStatement stmt1 = cache.acquire(mDb, "foo");
+        SupportSQLiteStatement stmt2 = cache.acquire(mDb, "foo");
+        assertThat(stmt2, is(not(stmt1)));
+        assertThat(cache.missCount(), is(2));
+    }
+
+    @Test
+    public void closeDuplicateOnRelease() throws Exception {
+        StatementCache cache = new StatementCache(2);
+        SupportSQLiteStatement stmt1 = cache.acquire(mDb, "foo");
+        SupportSQLiteStatement stmt2 = cache.acquire(mDb, "foo");
+        cache.release(mDb, "foo", stmt1);
+        cache.release(mDb, "foo", stmt2);
+        verify(stmt1, never()).close();
+        verify(stmt2).close();
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() throws Exception {
+        StatementCache cache = new StatementCache(2);
+        SupportSQLiteStatement foo = cache.acquire(mDb, "foo");
+        SupportSQLiteStatement bar = cache.acquire(mDb, "bar");
+        SupportSQLiteStatement baz = cache.acquire(mDb, "baz");
+        cache.release(mDb, "foo", foo);
+        cache.release(mDb, "bar", bar);
+        cache.release(mDb, "foo", cache.acquire(mDb, "foo"));
+        cache.release(mDb, "baz", baz);
+        verify(bar).close();
+        verify(foo, never()).close();
+        verify(baz, never()).close();
+        assertThat(cache.size(), is(2));
+        assertThat(cache.evictionCount(), is(1));
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        StatementCache cache = new StatementCache(0);
+        SupportSQLiteStatement stmt = cache.acquire(mDb, "foo");
+        cache.release(mDb, "foo", stmt);
+        verify(stmt).close();
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void clearOnDatabaseChange() throws Exception {
+        StatementCache cache = new StatementCache(2);
+        SupportSQLiteStatement stmt1 = cache.acquire(mDb, "foo");
+        cache.release(mDb, "foo", stmt1);
+        SupportSQLiteDatabase otherDb = mockDatabase();
+        SupportSQLiteStatement stmt2 = cache.acquire(otherDb, "foo");
+        assertThat(stmt2, is(not(stmt1)));
+        verify(stmt1).close();
+        // statements of the previous database are not taken back
+        SupportSQLiteStatement stmt3 = mDb.compileStatement("foo");
+        cache.release(mDb, "foo", stmt3);
+        verify(stmt3).close();
+    }
+
+    @Test
+    public void clear() throws Exception {
+        StatementCache cache = new StatementCache(2);
+        SupportSQLiteStatement stmt1 = cache.acquire(mDb, "foo");
+        SupportSQLiteStatement stmt2 = cache.acquire(mDb, "bar");
+        cache.release(mDb, "foo", stmt1);
+        cache.clear();
+        verify(stmt1).close();
+        cache.release(mDb, "bar", stmt2);
+        verify(stmt2).close();
+        assertThat(cache.size(), is(0));
+    }
+
+    private static SupportSQLiteDatabase mockDatabase() {
+        SupportSQLiteDatabase db = mock(SupportSQLiteDatabase.class);
+        when(db.compileStatement(anyString())).thenAnswer(new Answer<SupportSQLiteStatement>() {
+            @Override
+            public SupportSQLiteStatement answer(InvocationOnMock invocation) {
+                return mock(SupportSQLiteStatement.class);
+            }
+        });
+        return db;
+    }
+}
@@ -166,7 +166,10 @@ public class MigrationTestHelper extends TestWatcher {
                 false,
                 Collections.<Integer>emptySet(),
                 null,
-                null);
+                null,
+                0,
+                0,
+                false);
         RoomOpenHelper roomOpenHelper = new RoomOpenHelper(configuration,
                 new CreatingDelegate(schemaBundle.getDatabase()),
                 schemaBundle.getDatabase().getIdentityHash(),
@@ -226,7 +229,10 @@ public class MigrationTestHelper extends TestWatcher {
                 false,
                 Collections.<Integer>emptySet(),
                 null,
-                null);
+                null,
+                0,
+                0,
+                false);
         RoomOpenHelper roomOpenHelper = new RoomOpenHelper(configuration,
                 new MigratingDelegate(schemaBundle.getDatabase(), validateDroppedTables),
                 // we pass the same hash twice since an old schema does not necessarily have
@@ -26,6 +26,8 @@ import androidx.sqlite.db.SupportSQLiteDatabase;
 import androidx.sqlite.db.SupportSQLiteOpenHelper;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
 
@@ -33,12 +35,18 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
     private final String mName;
     private final Callback mCallback;
     private final boolean mUseNoBackupDirectory;
+    private final int mReaderConnectionCount;
     private final Object mLock;
 
     // Delegate is created lazily
     private OpenHelper mDelegate;
     private boolean mWriteAheadLoggingEnabled;
 
+    // Read-only connections, opened lazily once the writable database is open. Guarded by mLock
+    // for writes.
+    private volatile FrameworkSQLiteDatabase[] mReaders;
+    private final AtomicInteger mNextReader = new AtomicInteger();
+
     FrameworkSQLiteOpenHelper(
             Context context,
             String name,
@@ -51,10 +59,20 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
             String name,
             Callback callback,
             boolean useNoBackupDirectory) {
+        this(context, name, callback, useNoBackupDirectory, 0);
+    }
+
+    FrameworkSQLiteOpenHelper(
+            Context context,
+            String name,
+            Callback callback,
+            boolean useNoBackupDirectory,
+            int readerConnectionCount) {
         mContext = context;
         mName = name;
         mCallback = callback;
         mUseNoBackupDirectory = useNoBackupDirectory;
+        mReaderConnectionCount = readerConnectionCount;
         mLock = new Object();
     }
 
@@ -98,6 +116,9 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
                 mDelegate.setWriteAheadLoggingEnabled(enabled);
             }
             mWriteAheadLoggingEnabled = enabled;
+            if (!enabled) {
+                closeReaders();
+            }
         }
     }
 
@@ -108,12 +129,79 @@ class FrameworkSQLiteOpenHelper implements SupportSQLiteOpenHelper {
 
     @Override
     public SupportSQLiteDatabase getReadableDatabase() {
+        if (mReaderConnectionCount > 0) {
+            FrameworkSQLiteDatabase[] readers = getReaders();
+            if (readers != null) {
+                int next = mNextReader.getAndIncrement() & Integer.MAX_VALUE;
+                return readers[next % readers.length];
+            }
+        }
         return getDelegate().getReadableSupportDatabase();
     }
 
     @Override
     public void close() {
-        getDelegate().close();
+        synchronized (mLock) {
+            closeReaders();
+            getDelegate().close();
+        }
+    }
+
+    /**
+     * Returns the read-only connections, opening them if needed, or null if they cannot be used
+     * for this database.
+     */
+    private FrameworkSQLiteDatabase[] getReaders() {
+        FrameworkSQLiteDatabase[] readers = mReaders;
+        if (readers != null) {
+            return readers;
+        }
+        if (mName == null) {
+            return null;
+        }
+        // Open (and create or migrate) the database through the writable connection first so
+        // that readers never see a stale schema.
+        String path = getWritableDatabase().getPath();
+        synchronized (mLock) {
+            if (mReaders == null) {
+                if (!mWriteAheadLoggingEnabled) {
+                    return null;
+                }
+                readers = new FrameworkSQLiteDatabase[mReaderConnectionCount];
+                try {
+                    for (int i = 0; i < readers.length; i++) {
+                        readers[i] = new FrameworkSQLiteDatabase(SQLiteDatabase.openDatabase(path,
+                                null, SQLiteDatabase.OPEN_READONLY));
+                    }
+                } catch (RuntimeException e) {
+                    closeAll(readers);
+                    throw e;
+                }
+                mReaders = readers;
+            }
+            return mReaders;
+        }
+    }
+
+    private void closeReaders() {
+        FrameworkSQLiteDatabase[] readers = mReaders;
+        if (readers != null) {
+            mReaders = null;
+            closeAll(readers);
+        }
+    }
+
+    private static void closeAll(FrameworkSQLiteDatabase[] readers) {
+        for (FrameworkSQLiteDatabase reader : readers) {
+            if (reader == null) {
+                continue;
+            }
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // Closing a read-only connection cannot lose any data.
+            }
+        }
     }
 
     static class OpenHelper extends SQLiteOpenHelper {
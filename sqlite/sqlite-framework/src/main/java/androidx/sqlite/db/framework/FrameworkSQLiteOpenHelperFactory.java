@@ -25,6 +25,47 @@ import androidx.sqlite.db.SupportSQLiteOpenHelper;
  */
 @SuppressWarnings("unused")
 public final class FrameworkSQLiteOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+    private final int mReaderConnectionCount;
+
+    /**
+     * Creates a factory whose open helpers use a single database connection, or the framework's
+     * own connection pool when write-ahead logging is enabled.
+     */
+    public FrameworkSQLiteOpenHelperFactory() {
+        this(0);
+    }
+
+    /**
+     * Creates a factory whose open helpers keep a pool of read-only connections next to the
+     * writable one.
+     * <p>
+     * When write-ahead logging is enabled on a database that is not in memory,
+     * {@link SupportSQLiteOpenHelper#getReadableDatabase()} returns one of
+     * {@code readerConnectionCount} read-only connections, in turn, instead of the writable
+     * database. Queries on different reader connections run in parallel with each other and with
+     * writes, and only see committed data. Otherwise, the open helpers behave as if created by
+     * {@link #FrameworkSQLiteOpenHelperFactory()}.
+     *
+     * @param readerConnectionCount The number of read-only connections to open, or 0 to not use
+     *                              a reader pool.
+     * @throws IllegalArgumentException If {@code readerConnectionCount} is negative.
+     */
+    public FrameworkSQLiteOpenHelperFactory(int readerConnectionCount) {
+        if (readerConnectionCount < 0) {
+            throw new IllegalArgumentException("Reader connection count cannot be negative");
+        }
+        mReaderConnectionCount = readerConnectionCount;
+    }
+
+    /**
+     * Returns the number of read-only connections kept by the open helpers of this factory.
+     *
+     * @return The number of reader connections, or 0 if readers are not pooled.
+     */
+    public int getReaderConnectionCount() {
+        return mReaderConnectionCount;
+    }
+
     @NonNull
     @Override
     public SupportSQLiteOpenHelper create(
@@ -33,6 +74,7 @@ public final class FrameworkSQLiteOpenHelperFactory implements SupportSQLiteOpen
                 configuration.context,
                 configuration.name,
                 configuration.callback,
-                configuration.useNoBackupDirectory);
+                configuration.useNoBackupDirectory,
+                mReaderConnectionCount);
     }
 }
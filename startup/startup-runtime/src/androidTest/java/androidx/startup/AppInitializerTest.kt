@@ -22,12 +22,14 @@ import androidx.test.ext.junit.runners.AndroidJUnit4
 import androidx.test.filters.MediumTest
 import org.hamcrest.CoreMatchers.`is`
 import org.hamcrest.CoreMatchers.containsString
+import org.hamcrest.CoreMatchers.sameInstance
 import org.junit.Assert.assertThat
 import org.junit.Assert.assertTrue
 import org.junit.Assert.fail
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
+import java.util.concurrent.Executors
 
 @RunWith(AndroidJUnit4::class)
 @MediumTest
@@ -66,4 +68,112 @@ class AppInitializerTest {
             assertThat(exception.localizedMessage, containsString("Cycle detected."))
         }
     }
+
+    @Test
+    fun parallelInitialization() {
+        val executor = Executors.newFixedThreadPool(2)
+        try {
+            appInitializer.initializeComponents(
+                listOf<Class<out Initializer<*>>>(
+                    BackgroundInitializerWithDependency::class.java,
+                    InitializerWithDependency::class.java
+                ),
+                executor
+            )
+        } finally {
+            executor.shutdown()
+        }
+        assertThat(appInitializer.mInitialized.size, `is`(4))
+        assertTrue(appInitializer.mInitialized.containsKey(InitializerNoDependencies::class.java))
+        assertTrue(appInitializer.mInitialized.containsKey(InitializerWithDependency::class.java))
+        assertTrue(
+            appInitializer.mInitialized[BackgroundInitializerNoDependencies::class.java] !==
+                Thread.currentThread()
+        )
+        assertTrue(
+            appInitializer.mInitialized[BackgroundInitializerWithDependency::class.java] !==
+                Thread.currentThread()
+        )
+    }
+
+    @Test
+    fun concurrentInitializationCreatesOnce() {
+        CountingBackgroundInitializer.createCount.set(0)
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val components = listOf<Class<out Initializer<*>>>(
+                CountingBackgroundInitializer::class.java
+            )
+            val futures = List(2) {
+                executor.submit { appInitializer.initializeComponents(components, executor) }
+            }
+            futures.forEach { it.get() }
+        } finally {
+            executor.shutdown()
+        }
+        assertThat(CountingBackgroundInitializer.createCount.get(), `is`(1))
+        assertThat(
+            appInitializer.mInitialized[CountingBackgroundInitializer::class.java] as Int,
+            `is`(1)
+        )
+    }
+
+    @Test
+    fun parallelInitializationRunsDependenciesOnCallingThread() {
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            appInitializer.initializeComponents(
+                listOf<Class<out Initializer<*>>>(
+                    BackgroundInitializerWithThreadDependency::class.java
+                ),
+                executor
+            )
+        } finally {
+            executor.shutdown()
+        }
+        assertThat(
+            appInitializer.mInitialized[ThreadInitializer::class.java] as Thread,
+            sameInstance(Thread.currentThread())
+        )
+        assertTrue(
+            appInitializer.mInitialized[BackgroundInitializerWithThreadDependency::class.java] !==
+                Thread.currentThread()
+        )
+    }
+
+    @Test
+    fun parallelInitializationSkipsInitialized() {
+        appInitializer.initializeComponent(InitializerNoDependencies::class.java)
+        val initialized = appInitializer.mInitialized[InitializerNoDependencies::class.java]
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            appInitializer.initializeComponents(
+                listOf<Class<out Initializer<*>>>(BackgroundInitializerWithDependency::class.java),
+                executor
+            )
+        } finally {
+            executor.shutdown()
+        }
+        assertThat(appInitializer.mInitialized.size, `is`(3))
+        assertThat(
+            appInitializer.mInitialized[InitializerNoDependencies::class.java],
+            sameInstance(initialized)
+        )
+    }
+
+    @Test
+    fun parallelInitializationWithCyclicDependencies() {
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            appInitializer.initializeComponents(
+                listOf<Class<out Initializer<*>>>(CyclicDependencyInitializer::class.java),
+                executor
+            )
+            fail()
+        } catch (exception: StartupException) {
+            assertThat(exception.localizedMessage, containsString("Cycle detected."))
+        } finally {
+            executor.shutdown()
+        }
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup
+
+import android.content.Context
+
+/**
+ * Background initializer with dependencies on [InitializerNoDependencies] and
+ * [BackgroundInitializerNoDependencies], which returns the thread it was created on.
+ */
+class BackgroundInitializerWithDependency : BackgroundInitializer<Thread> {
+    override fun create(context: Context): Thread = Thread.currentThread()
+
+    override fun dependencies(): List<Class<out Initializer<*>>> {
+        return listOf(
+            InitializerNoDependencies::class.java,
+            BackgroundInitializerNoDependencies::class.java
+        )
+    }
+}
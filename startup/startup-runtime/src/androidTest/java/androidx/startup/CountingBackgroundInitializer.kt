@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup
+
+import android.content.Context
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Background initializer with no dependencies, which counts how many times it was created.
+ */
+class CountingBackgroundInitializer : BackgroundInitializer<Int> {
+    override fun create(context: Context): Int {
+        // Give other threads time to reach this initializer while it is being created
+        Thread.sleep(50)
+        return createCount.incrementAndGet()
+    }
+
+    override fun dependencies(): List<Class<out Initializer<*>>> = emptyList()
+
+    companion object {
+        val createCount = AtomicInteger()
+    }
+}
@@ -27,16 +27,31 @@ import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.tracing.Trace;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An {@link AppInitializer} can be used to initialize all discovered [ComponentInitializer]s.
  * <br/>
  * The discovery mechanism is via `<meta-data>` entries in the merged `AndroidManifest.xml`.
+ * <br/>
+ * The discovered {@link Initializer}s are initialized in parallel, as with
+ * {@link #initializeComponents(List, Executor)}, when the `<meta-data>` entry
+ * `androidx.startup.PARALLEL` is set to `true`.
  */
 @SuppressWarnings("WeakerAccess")
 public final class AppInitializer {
@@ -44,6 +59,15 @@ public final class AppInitializer {
     // Tracing
     private static final String SECTION_NAME = "Startup";
 
+    /**
+     * The `<meta-data>` entry that enables parallel initialization of the discovered
+     * {@link Initializer}s, when set to `true`.
+     */
+    private static final String PARALLEL_INITIALIZATION = "androidx.startup.PARALLEL";
+
+    // The maximum number of threads for parallel initialization of the discovered Initializers
+    private static final int MAX_THREAD_COUNT = 4;
+
     /**
      * The {@link AppInitializer} instance.
      */
@@ -57,6 +81,14 @@ public final class AppInitializer {
     @NonNull
     final Map<Class<?>, Object> mInitialized;
 
+    /**
+     * The {@link Initializer}s that are initialized or being initialized by
+     * {@link #initializeComponents(List, Executor)}, each claimed by the first thread that
+     * reaches it.
+     */
+    @NonNull
+    private final ConcurrentHashMap<Class<?>, FutureTask<Object>> mClaims;
+
     @NonNull
     final Context mContext;
 
@@ -68,6 +100,7 @@ public final class AppInitializer {
     AppInitializer(@NonNull Context context) {
         mContext = context.getApplicationContext();
         mInitialized = new HashMap<>();
+        mClaims = new ConcurrentHashMap<>();
     }
 
     /**
@@ -100,6 +133,97 @@ public final class AppInitializer {
         return doInitialize(component, new HashSet<Class<?>>());
     }
 
+    /**
+     * Initializes {@link Initializer} class types and their dependencies in parallel.
+     * <br/>
+     * Each {@link Initializer} is initialized as soon as its dependencies are initialized.
+     * {@link BackgroundInitializer}s run concurrently on the given {@link Executor}, and all the
+     * other {@link Initializer}s on the calling thread. This method returns once all of them are
+     * initialized.
+     *
+     * @param components The {@link Class}es of {@link Initializer}s to initialize.
+     * @param executor   The {@link Executor} that runs the {@link BackgroundInitializer}s.
+     */
+    public void initializeComponents(
+            @NonNull List<Class<? extends Initializer<?>>> components,
+            @NonNull Executor executor) {
+        InitializerGraph graph = new InitializerGraph(this, executor);
+        for (Class<? extends Initializer<?>> component : components) {
+            graph.add(component);
+        }
+        graph.initialize();
+    }
+
+    boolean isInitialized(@NonNull Class<?> component) {
+        synchronized (sLock) {
+            return mInitialized.containsKey(component);
+        }
+    }
+
+    void setInitialized(@NonNull Class<?> component, @NonNull Object result) {
+        synchronized (sLock) {
+            mInitialized.put(component, result);
+        }
+    }
+
+    /**
+     * Creates the given {@link Initializer} for {@link InitializerGraph} unless it was already
+     * created, and returns its result.
+     * <br/>
+     * The first thread that reaches a component claims it and calls
+     * {@link Initializer#create(Context)}, and any other thread of a parallel initialization waits
+     * for that call, so that each {@link Initializer} is created once. A component whose creation
+     * failed can be initialized again.
+     */
+    @NonNull
+    Object create(
+            @NonNull final Class<?> component,
+            @NonNull final Initializer<?> initializer) {
+        FutureTask<Object> task = new FutureTask<>(new Callable<Object>() {
+            @Override
+            public Object call() {
+                synchronized (sLock) {
+                    // Initialized in the meantime by initializeComponent()
+                    if (mInitialized.containsKey(component)) {
+                        return mInitialized.get(component);
+                    }
+                }
+                Object result = initializer.create(mContext);
+                setInitialized(component, result);
+                return result;
+            }
+        });
+        FutureTask<Object> claim = mClaims.putIfAbsent(component, task);
+        if (claim == null) {
+            claim = task;
+            task.run();
+        }
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return claim.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            mClaims.remove(component, claim);
+            // Rethrow what create() threw, as if it had been called on this thread
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new StartupException(cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @NonNull
     @SuppressWarnings({"unchecked", "TypeParameterUnusedInFormals"})
     <T> T doInitialize(
@@ -156,6 +280,30 @@ public final class AppInitializer {
         }
     }
 
+    /**
+     * Creates the {@link Executor} for parallel initialization of the discovered
+     * {@link Initializer}s, whose threads stop once they are idle.
+     */
+    @NonNull
+    private static Executor createExecutor() {
+        int threadCount = Math.max(1,
+                Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_THREAD_COUNT));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount,
+                1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger mThreadId = new AtomicInteger(0);
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r);
+                        t.setName(String.format("%s-%d", SECTION_NAME,
+                                mThreadId.getAndIncrement()));
+                        return t;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @SuppressWarnings("unchecked")
     void discoverAndInitialize() {
         try {
@@ -167,9 +315,14 @@ public final class AppInitializer {
             Bundle metadata = providerInfo.metaData;
             String startup = mContext.getString(R.string.androidx_startup);
             if (metadata != null) {
+                boolean parallel = metadata.getBoolean(PARALLEL_INITIALIZATION, false);
+                List<Class<? extends Initializer<?>>> components = new ArrayList<>();
                 Set<Class<?>> initializing = new HashSet<>();
                 Set<String> keys = metadata.keySet();
                 for (String key : keys) {
+                    if (PARALLEL_INITIALIZATION.equals(key)) {
+                        continue;
+                    }
                     String value = metadata.getString(key, null);
                     if (startup.equals(value)) {
                         Class<?> clazz = Class.forName(key);
@@ -179,10 +332,17 @@ public final class AppInitializer {
                             if (StartupLogger.DEBUG) {
                                 StartupLogger.i(String.format("Discovered %s", key));
                             }
-                            doInitialize(component, initializing);
+                            if (parallel) {
+                                components.add(component);
+                            } else {
+                                doInitialize(component, initializing);
+                            }
                         }
                     }
                 }
+                if (!components.isEmpty()) {
+                    initializeComponents(components, createExecutor());
+                }
             }
         } catch (PackageManager.NameNotFoundException | ClassNotFoundException exception) {
             throw new StartupException(exception);
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup;
+
+/**
+ * An {@link Initializer} that does not need to be created on the main thread.
+ * <br/>
+ * When {@link Initializer}s are initialized in parallel, with
+ * {@link AppInitializer#initializeComponents(java.util.List, java.util.concurrent.Executor)} or
+ * by enabling parallel initialization in the `AndroidManifest.xml`, a
+ * {@link BackgroundInitializer} is created on a background thread as soon as its dependencies are
+ * initialized, concurrently with the other {@link Initializer}s. All the other
+ * {@link Initializer}s are created on the calling thread.
+ * <br/>
+ * A {@link BackgroundInitializer} must list all the {@link Initializer}s it uses in
+ * {@link #dependencies()}.
+ *
+ * @param <T> The instance type being initialized
+ */
+public interface BackgroundInitializer<T> extends Initializer<T> {
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.startup;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.tracing.Trace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The dependency graph of a set of {@link Initializer}s, which initializes each of them as soon
+ * as its dependencies are initialized.
+ * <br/>
+ * {@link BackgroundInitializer}s run on an {@link Executor}, and all the other
+ * {@link Initializer}s on the thread that calls {@link #initialize()}, which waits until all of
+ * them are initialized.
+ */
+final class InitializerGraph {
+
+    /**
+     * Wakes up the calling thread when all the {@link Initializer}s are initialized, or one of
+     * them failed.
+     */
+    private static final Node DONE = new Node(null, null);
+
+    @NonNull
+    private final AppInitializer mAppInitializer;
+
+    @NonNull
+    private final Executor mExecutor;
+
+    @NonNull
+    private final Map<Class<?>, Node> mNodes;
+
+    @NonNull
+    private final BlockingQueue<Node> mCallingThreadQueue;
+
+    @NonNull
+    private final AtomicInteger mRemaining;
+
+    @Nullable
+    private volatile Throwable mFailure;
+
+    InitializerGraph(@NonNull AppInitializer appInitializer, @NonNull Executor executor) {
+        mAppInitializer = appInitializer;
+        mExecutor = executor;
+        mNodes = new HashMap<>();
+        mCallingThreadQueue = new LinkedBlockingQueue<>();
+        mRemaining = new AtomicInteger();
+    }
+
+    /**
+     * Adds an {@link Initializer} and its dependencies that are not initialized yet to the graph.
+     */
+    void add(@NonNull Class<? extends Initializer<?>> component) {
+        try {
+            addNode(component, new HashSet<Class<?>>());
+        } catch (Throwable throwable) {
+            throw new StartupException(throwable);
+        }
+    }
+
+    @Nullable
+    private Node addNode(
+            @NonNull Class<? extends Initializer<?>> component,
+            @NonNull Set<Class<?>> initializing) throws Exception {
+        if (initializing.contains(component)) {
+            String message = String.format(
+                    "Cannot initialize %s. Cycle detected.", component.getName()
+            );
+            throw new IllegalStateException(message);
+        }
+        Node node = mNodes.get(component);
+        if (node != null || mAppInitializer.isInitialized(component)) {
+            return node;
+        }
+        initializing.add(component);
+        Object instance = component.getDeclaredConstructor().newInstance();
+        node = new Node(component, (Initializer<?>) instance);
+        for (Class<? extends Initializer<?>> clazz : node.mInitializer.dependencies()) {
+            Node dependency = addNode(clazz, initializing);
+            if (dependency != null) {
+                dependency.mDependents.add(node);
+                node.mPendingDependencies.incrementAndGet();
+            }
+        }
+        initializing.remove(component);
+        mNodes.put(component, node);
+        return node;
+    }
+
+    /**
+     * Initializes all the {@link Initializer}s of the graph, and returns once they are
+     * initialized.
+     */
+    void initialize() {
+        if (mNodes.isEmpty()) {
+            return;
+        }
+        mRemaining.set(mNodes.size());
+        for (Node node : mNodes.values()) {
+            if (node.mPendingDependencies.get() == 0) {
+                schedule(node);
+            }
+        }
+        boolean interrupted = false;
+        try {
+            while (true) {
+                Node node;
+                try {
+                    node = mCallingThreadQueue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    continue;
+                }
+                if (node == DONE) {
+                    break;
+                }
+                initialize(node);
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Throwable failure = mFailure;
+        if (failure != null) {
+            throw new StartupException(failure);
+        }
+    }
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    void schedule(@NonNull final Node node) {
+        if (node.mInitializer instanceof BackgroundInitializer) {
+            try {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        initialize(node);
+                    }
+                });
+            } catch (Throwable throwable) {
+                fail(throwable);
+            }
+        } else {
+            mCallingThreadQueue.add(node);
+        }
+    }
+
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    void initialize(@NonNull Node node) {
+        if (mFailure != null) {
+            // Do not initialize anything else once an Initializer failed
+            return;
+        }
+        boolean isTracingEnabled = Trace.isEnabled();
+        try {
+            if (isTracingEnabled) {
+                // Use the simpleName here because section names would get too big otherwise.
+                Trace.beginSection(node.mComponent.getSimpleName());
+            }
+            long startTime = 0;
+            if (StartupLogger.DEBUG) {
+                StartupLogger.i(String.format("Initializing %s on %s",
+                        node.mComponent.getName(), Thread.currentThread().getName()));
+                startTime = SystemClock.uptimeMillis();
+            }
+            // Another parallel initialization may reach the same component, AppInitializer only
+            // lets one of them create it
+            mAppInitializer.create(node.mComponent, node.mInitializer);
+            if (StartupLogger.DEBUG) {
+                StartupLogger.i(String.format("Initialized %s in %d ms",
+                        node.mComponent.getName(), SystemClock.uptimeMillis() - startTime));
+            }
+        } catch (Throwable throwable) {
+            fail(throwable);
+            return;
+        } finally {
+            if (isTracingEnabled) {
+                Trace.endSection();
+            }
+        }
+        for (Node dependent : node.mDependents) {
+            if (dependent.mPendingDependencies.decrementAndGet() == 0) {
+                schedule(dependent);
+            }
+        }
+        if (mRemaining.decrementAndGet() == 0) {
+            mCallingThreadQueue.add(DONE);
+        }
+    }
+
+    private void fail(@NonNull Throwable throwable) {
+        synchronized (this) {
+            if (mFailure != null) {
+                return;
+            }
+            mFailure = throwable;
+        }
+        mCallingThreadQueue.add(DONE);
+    }
+
+    /**
+     * An {@link Initializer} of the graph.
+     */
+    private static final class Node {
+        final Class<? extends Initializer<?>> mComponent;
+        final Initializer<?> mInitializer;
+        /**
+         * The {@link Initializer}s that depend on this one.
+         */
+        final List<Node> mDependents = new ArrayList<>();
+        /**
+         * The number of dependencies that are not initialized yet.
+         */
+        final AtomicInteger mPendingDependencies = new AtomicInteger();
+
+        Node(Class<? extends Initializer<?>> component, Initializer<?> initializer) {
+            mComponent = component;
+            mInitializer = initializer;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
@@ -73,10 +74,15 @@ public class VersionedParcelProcessor extends AbstractProcessor {
     private static final ClassName RESTRICT_TO_SCOPE = RESTRICT_TO.nestedClass("Scope");
     private static final ClassName VERSIONED_PARCEL =
             ClassName.get("androidx.versionedparcelable", "VersionedParcel");
+    private static final ClassName VERSIONED_PARCELIZER =
+            ClassName.get("androidx.versionedparcelable", "VersionedParcelizer");
+    private static final String VERSIONED_PARCELABLE =
+            "androidx.versionedparcelable.VersionedParcelable";
 
     private static final String GEN_SUFFIX = "Parcelizer";
     private static final String READ = "read";
     private static final String WRITE = "write";
+    private static final String PARCELIZER = "PARCELIZER";
 
     private Messager mMessager;
     private ProcessingEnvironment mEnv;
@@ -306,6 +312,9 @@ public class VersionedParcelProcessor extends AbstractProcessor {
         readBuilder.addStatement("return obj");
         genClass.addMethod(readBuilder.build());
         genClass.addMethod(writeBuilder.build());
+        if (canGenerateParcelizer(versionedParcelable)) {
+            genClass.addField(generateParcelizer(versionedParcelable, type));
+        }
         try {
             TypeSpec typeSpec = genClass.build();
             String pkg = getPkg(versionedParcelable);
@@ -346,6 +355,54 @@ public class VersionedParcelProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Generates the VersionedParcelizer that calls the read and write methods directly, which
+     * VersionedParcel uses instead of calling them through reflection.
+     */
+    private FieldSpec generateParcelizer(Element versionedParcelable, TypeName type) {
+        ClassName genClass = ClassName.get(getPkg(versionedParcelable),
+                versionedParcelable.getSimpleName() + GEN_SUFFIX);
+        TypeName parcelizerType = ParameterizedTypeName.get(VERSIONED_PARCELIZER, type);
+        TypeSpec parcelizer = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(parcelizerType)
+                .addMethod(MethodSpec
+                        .methodBuilder(READ)
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(type)
+                        .addParameter(VERSIONED_PARCEL, "parcel")
+                        .addStatement("return $T.$L(parcel)", genClass, READ)
+                        .build())
+                .addMethod(MethodSpec
+                        .methodBuilder(WRITE)
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(type, "obj")
+                        .addParameter(VERSIONED_PARCEL, "parcel")
+                        .addStatement("$T.$L(obj, parcel)", genClass, WRITE)
+                        .build())
+                .build();
+        return FieldSpec.builder(parcelizerType, PARCELIZER)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", parcelizer)
+                .build();
+    }
+
+    /**
+     * Whether the VersionedParcelizer can be generated, which requires a version of
+     * VersionedParcelable that has it, otherwise VersionedParcel falls back to reflection.
+     */
+    private boolean canGenerateParcelizer(Element element) {
+        if (mEnv.getElementUtils().getTypeElement(VERSIONED_PARCELIZER.toString()) == null) {
+            return false;
+        }
+        TypeElement versionedParcelable = mEnv.getElementUtils()
+                .getTypeElement(VERSIONED_PARCELABLE);
+        return versionedParcelable != null && mEnv.getTypeUtils().isAssignable(
+                mEnv.getTypeUtils().erasure(element.asType()),
+                versionedParcelable.asType());
+    }
+
     private String strip(String s) {
         if (!s.startsWith("\"")) return s;
         return s.substring(1, s.length() - 1);
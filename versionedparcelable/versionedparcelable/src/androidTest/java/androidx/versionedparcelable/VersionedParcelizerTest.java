@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.versionedparcelable;
+
+import static androidx.versionedparcelable.ParcelUtils.fromByteBuffer;
+import static androidx.versionedparcelable.ParcelUtils.toByteBuffer;
+import static androidx.versionedparcelable.ParcelUtils.toOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import androidx.test.filters.SmallTest;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+@SmallTest
+public class VersionedParcelizerTest {
+
+    @Test
+    public void testGeneratedParcelizer() {
+        assertNotNull(SimpleParcelImplParcelizer.PARCELIZER);
+
+        SimpleParcelImpl obj = new SimpleParcelImpl();
+        obj.mInt = 42;
+        obj.mString = "My string";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        VersionedParcelStream outputParcel = new VersionedParcelStream(null, output);
+        SimpleParcelImplParcelizer.PARCELIZER.write(obj, outputParcel);
+        outputParcel.closeField();
+
+        VersionedParcelStream inputParcel = new VersionedParcelStream(
+                new ByteArrayInputStream(output.toByteArray()), null);
+        SimpleParcelImpl other = SimpleParcelImplParcelizer.PARCELIZER.read(inputParcel);
+        assertEquals(obj.mInt, other.mInt);
+        assertEquals(obj.mString, other.mString);
+    }
+
+    @Test
+    public void testToByteBuffer() {
+        SimpleParcelImpl obj = new SimpleParcelImpl();
+        obj.mInt = 42;
+        obj.mString = "My string";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        toOutputStream(obj, output);
+        byte[] expected = output.toByteArray();
+
+        ByteBuffer buffer = toByteBuffer(obj);
+        byte[] actual = new byte[buffer.remaining()];
+        buffer.get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testFromByteBuffer() {
+        SimpleParcelImpl obj = new SimpleParcelImpl();
+        obj.mInt = 42;
+        obj.mString = "My string";
+        ByteBuffer serialized = toByteBuffer(obj);
+
+        // Read from the middle of a direct buffer
+        ByteBuffer buffer = ByteBuffer.allocateDirect(serialized.remaining() + 8);
+        buffer.position(4);
+        buffer.put(serialized);
+        buffer.position(4);
+        SimpleParcelImpl other = fromByteBuffer(buffer);
+        assertEquals(obj.mInt, other.mInt);
+        assertEquals(obj.mString, other.mString);
+    }
+
+    @VersionedParcelize(allowSerialization = true)
+    public static class SimpleParcelImpl implements VersionedParcelable {
+
+        @ParcelField(1)
+        public int mInt;
+
+        @ParcelField(2)
+        public String mString;
+    }
+}
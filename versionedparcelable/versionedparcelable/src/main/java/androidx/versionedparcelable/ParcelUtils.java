@@ -27,6 +27,7 @@ import androidx.annotation.RestrictTo;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -83,6 +84,31 @@ public class ParcelUtils {
         return stream.readVersionedParcelable();
     }
 
+    /**
+     * Write a VersionedParcelable into a ByteBuffer, which wraps the written bytes without
+     * copying them.
+     * @hide
+     */
+    @RestrictTo(LIBRARY_GROUP_PREFIX)
+    public static ByteBuffer toByteBuffer(VersionedParcelable obj) {
+        VersionedParcelStream.ByteBufferOutputStream output =
+                new VersionedParcelStream.ByteBufferOutputStream();
+        toOutputStream(obj, output);
+        return output.toByteBuffer();
+    }
+
+    /**
+     * Read a VersionedParcelable from a ByteBuffer, from its position to its limit, without
+     * copying it.
+     * @hide
+     */
+    @SuppressWarnings("TypeParameterUnusedInFormals")
+    @RestrictTo(LIBRARY_GROUP_PREFIX)
+    public static <T extends VersionedParcelable> T fromByteBuffer(ByteBuffer input) {
+        VersionedParcelStream stream = new VersionedParcelStream(input);
+        return stream.readVersionedParcelable();
+    }
+
     /**
      * Add a VersionedParcelable to an existing Bundle.
      */
@@ -78,16 +78,20 @@ public abstract class VersionedParcel {
     private static final int TYPE_INTEGER = 7;
     private static final int TYPE_FLOAT = 8;
 
-    final SimpleArrayMap<String, Method> mReadCache;
-    final SimpleArrayMap<String, Method> mWriteCache;
-    final SimpleArrayMap<String, Class<?>> mParcelizerCache;
+    // The field of the generated Parcelizers that holds their VersionedParcelizer
+    private static final String PARCELIZER_FIELD = "PARCELIZER";
 
-    VersionedParcel(SimpleArrayMap<String, Method> readCache,
-            SimpleArrayMap<String, Method> writeCache,
-            SimpleArrayMap<String, Class<?>> parcelizerCache) {
-        mReadCache = readCache;
-        mWriteCache = writeCache;
-        mParcelizerCache = parcelizerCache;
+    // Shared by all the VersionedParcels, so that each Parcelizer is only looked up once per
+    // process. Guarded by sCacheLock.
+    private static final Object sCacheLock = new Object();
+    private static final SimpleArrayMap<String, VersionedParcelizer<?>> sReadCache =
+            new SimpleArrayMap<>();
+    private static final SimpleArrayMap<Class<?>, VersionedParcelizer<?>> sWriteCache =
+            new SimpleArrayMap<>();
+    private static final SimpleArrayMap<Class<?>, Class<?>> sParcelizerCache =
+            new SimpleArrayMap<>();
+
+    VersionedParcel() {
     }
 
     /**
@@ -1562,84 +1566,132 @@ public abstract class VersionedParcel {
     @SuppressWarnings({"unchecked", "TypeParameterUnusedInFormals"})
     protected <T extends VersionedParcelable> T readFromParcel(
             String parcelCls, VersionedParcel versionedParcel) {
+        VersionedParcelizer<T> parcelizer;
         try {
-            Method m = getReadMethod(parcelCls);
-            return (T) m.invoke(null, versionedParcel);
+            parcelizer = (VersionedParcelizer<T>) getReadParcelizer(parcelCls);
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof RuntimeException) {
-                throw (RuntimeException) cause;
-            }
-            if (cause instanceof Error) {
-                throw (Error) cause;
-            }
-            throw new RuntimeException(e);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
+        return parcelizer.read(versionedParcel);
     }
 
     /**
      */
+    @SuppressWarnings("unchecked")
     protected <T extends VersionedParcelable> void writeToParcel(T val,
             VersionedParcel versionedParcel) {
+        VersionedParcelizer<T> parcelizer;
         try {
-            Method m = getWriteMethod(val.getClass());
-            m.invoke(null, val, versionedParcel);
+            parcelizer = (VersionedParcelizer<T>) getWriteParcelizer(val.getClass());
         } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof RuntimeException) {
-                throw (RuntimeException) cause;
-            }
-            if (cause instanceof Error) {
-                throw (Error) cause;
-            }
-            throw new RuntimeException(e);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
         } catch (ClassNotFoundException e) {
             throw new RuntimeException(e);
         }
+        parcelizer.write(val, versionedParcel);
     }
 
-    private Method getReadMethod(String parcelCls) throws IllegalAccessException,
-            NoSuchMethodException, ClassNotFoundException {
-        Method m = mReadCache.get(parcelCls);
-        if (m == null) {
-            Class<?> cls = Class.forName(parcelCls, true, VersionedParcel.class.getClassLoader());
-            m = cls.getDeclaredMethod("read", VersionedParcel.class);
-            mReadCache.put(parcelCls, m);
+    private static VersionedParcelizer<?> getReadParcelizer(String parcelCls)
+            throws IllegalAccessException, NoSuchMethodException, ClassNotFoundException {
+        synchronized (sCacheLock) {
+            VersionedParcelizer<?> parcelizer = sReadCache.get(parcelCls);
+            if (parcelizer == null) {
+                Class<?> cls = Class.forName(parcelCls, true,
+                        VersionedParcel.class.getClassLoader());
+                parcelizer = createParcelizer(cls);
+                sReadCache.put(parcelCls, parcelizer);
+            }
+            return parcelizer;
+        }
+    }
+
+    private static VersionedParcelizer<?> getWriteParcelizer(Class<?> baseCls)
+            throws IllegalAccessException, NoSuchMethodException, ClassNotFoundException {
+        synchronized (sCacheLock) {
+            VersionedParcelizer<?> parcelizer = sWriteCache.get(baseCls);
+            if (parcelizer == null) {
+                parcelizer = createParcelizer(findParcelClass(baseCls));
+                sWriteCache.put(baseCls, parcelizer);
+            }
+            return parcelizer;
         }
-        return m;
     }
 
-    private Method getWriteMethod(Class<?> baseCls) throws IllegalAccessException,
-            NoSuchMethodException, ClassNotFoundException {
-        Method m = mWriteCache.get(baseCls.getName());
-        if (m == null) {
-            Class<?> cls = findParcelClass(baseCls);
-            m = cls.getDeclaredMethod("write", baseCls, VersionedParcel.class);
-            mWriteCache.put(baseCls.getName(), m);
+    private static VersionedParcelizer<?> createParcelizer(Class<?> parcelizerCls)
+            throws IllegalAccessException, NoSuchMethodException {
+        try {
+            return (VersionedParcelizer<?>) parcelizerCls.getField(PARCELIZER_FIELD).get(null);
+        } catch (NoSuchFieldException e) {
+            // Generated by an older version of the compiler, which only has static methods
+            return new ReflectiveParcelizer(parcelizerCls);
         }
-        return m;
     }
 
-    private Class<?> findParcelClass(Class<?> cls)
+    private static Class<?> findParcelClass(Class<?> cls)
             throws ClassNotFoundException {
-        Class<?> ret = mParcelizerCache.get(cls.getName());
-        if (ret == null) {
-            String pkg = cls.getPackage().getName();
-            String c = String.format("%s.%sParcelizer", pkg, cls.getSimpleName());
-            ret = Class.forName(c, false, cls.getClassLoader());
-            mParcelizerCache.put(cls.getName(), ret);
-        }
-        return ret;
+        synchronized (sCacheLock) {
+            Class<?> ret = sParcelizerCache.get(cls);
+            if (ret == null) {
+                String pkg = cls.getPackage().getName();
+                String c = String.format("%s.%sParcelizer", pkg, cls.getSimpleName());
+                ret = Class.forName(c, false, cls.getClassLoader());
+                sParcelizerCache.put(cls, ret);
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * Calls the static read and write methods of a Parcelizer through reflection.
+     */
+    private static class ReflectiveParcelizer implements VersionedParcelizer<VersionedParcelable> {
+        private final Method mReadMethod;
+        private final Method mWriteMethod;
+
+        ReflectiveParcelizer(Class<?> parcelizerCls) throws NoSuchMethodException {
+            mReadMethod = parcelizerCls.getDeclaredMethod("read", VersionedParcel.class);
+            mWriteMethod = parcelizerCls.getDeclaredMethod("write", mReadMethod.getReturnType(),
+                    VersionedParcel.class);
+        }
+
+        @Override
+        public VersionedParcelable read(VersionedParcel parcel) {
+            try {
+                return (VersionedParcelable) mReadMethod.invoke(null, parcel);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            } catch (InvocationTargetException e) {
+                throw rethrowCause(e);
+            }
+        }
+
+        @Override
+        public void write(VersionedParcelable obj, VersionedParcel parcel) {
+            try {
+                mWriteMethod.invoke(null, obj, parcel);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            } catch (InvocationTargetException e) {
+                throw rethrowCause(e);
+            }
+        }
+
+        private static RuntimeException rethrowCause(InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(e);
+        }
     }
 
     /**
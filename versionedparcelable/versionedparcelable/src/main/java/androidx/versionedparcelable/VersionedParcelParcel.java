@@ -26,9 +26,6 @@ import android.util.Log;
 import android.util.SparseIntArray;
 
 import androidx.annotation.RestrictTo;
-import androidx.collection.SimpleArrayMap;
-
-import java.lang.reflect.Method;
 
 /**
  * @hide
@@ -48,16 +45,10 @@ class VersionedParcelParcel extends VersionedParcel {
     private int mFieldId = -1;
 
     VersionedParcelParcel(Parcel p) {
-        this(p, p.dataPosition(), p.dataSize(), "", new SimpleArrayMap<String, Method>(),
-                new SimpleArrayMap<String, Method>(),
-                new SimpleArrayMap<String, Class<?>>());
+        this(p, p.dataPosition(), p.dataSize(), "");
     }
 
-    private VersionedParcelParcel(Parcel p, int offset, int end, String prefix,
-            SimpleArrayMap<String, Method> readCache,
-            SimpleArrayMap<String, Method> writeCache,
-            SimpleArrayMap<String, Class<?>> parcelizerCache) {
-        super(readCache, writeCache, parcelizerCache);
+    private VersionedParcelParcel(Parcel p, int offset, int end, String prefix) {
         mParcel = p;
         mOffset = offset;
         mEnd = end;
@@ -117,8 +108,7 @@ class VersionedParcelParcel extends VersionedParcel {
                     + mParcel.dataPosition() + " - " + (mNextRead == mOffset ? mEnd : mNextRead));
         }
         return new VersionedParcelParcel(mParcel, mParcel.dataPosition(),
-                mNextRead == mOffset ? mEnd : mNextRead, mPrefix + "  ", mReadCache, mWriteCache,
-                mParcelizerCache);
+                mNextRead == mOffset ? mEnd : mNextRead, mPrefix + "  ");
     }
 
     @Override
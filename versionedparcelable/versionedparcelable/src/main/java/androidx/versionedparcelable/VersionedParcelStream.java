@@ -22,7 +22,6 @@ import android.os.IInterface;
 import android.os.Parcelable;
 
 import androidx.annotation.RestrictTo;
-import androidx.collection.SimpleArrayMap;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
@@ -31,7 +30,7 @@ import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Set;
 
@@ -73,15 +72,6 @@ class VersionedParcelStream extends VersionedParcel {
     int mFieldSize = -1;
 
     public VersionedParcelStream(InputStream input, OutputStream output) {
-        this(input, output, new SimpleArrayMap<String, Method>(),
-                new SimpleArrayMap<String, Method>(), new SimpleArrayMap<String, Class<?>>());
-    }
-
-    private VersionedParcelStream(InputStream input, OutputStream output,
-            SimpleArrayMap<String, Method> readCache,
-            SimpleArrayMap<String, Method> writeCache,
-            SimpleArrayMap<String, Class<?>> parcelizerCache) {
-        super(readCache, writeCache, parcelizerCache);
         mMasterInput = input != null ? new DataInputStream(new FilterInputStream(input) {
             @Override
             public int read() throws IOException {
@@ -122,6 +112,14 @@ class VersionedParcelStream extends VersionedParcel {
         mCurrentOutput = mMasterOutput;
     }
 
+    /**
+     * Creates a VersionedParcelStream that reads from the given buffer, from its position to its
+     * limit, without copying it.
+     */
+    public VersionedParcelStream(ByteBuffer input) {
+        this(new ByteBufferInputStream(input), null);
+    }
+
     @Override
     public boolean isStream() {
         return true;
@@ -153,8 +151,7 @@ class VersionedParcelStream extends VersionedParcel {
 
     @Override
     protected VersionedParcel createSubParcel() {
-        return new VersionedParcelStream(mCurrentInput, mCurrentOutput, mReadCache, mWriteCache,
-                mParcelizerCache);
+        return new VersionedParcelStream(mCurrentInput, mCurrentOutput);
     }
 
     @Override
@@ -563,4 +560,58 @@ class VersionedParcelStream extends VersionedParcel {
         }
     }
 
+    /**
+     * Reads from a ByteBuffer, starting at its position.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer mBuffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            mBuffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!mBuffer.hasRemaining()) {
+                return -1;
+            }
+            return mBuffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!mBuffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, mBuffer.remaining());
+            mBuffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skip = (int) Math.max(0, Math.min(n, mBuffer.remaining()));
+            mBuffer.position(mBuffer.position() + skip);
+            return skip;
+        }
+
+        @Override
+        public int available() {
+            return mBuffer.remaining();
+        }
+    }
+
+    /**
+     * Collects the written bytes, and wraps them in a ByteBuffer without copying them.
+     */
+    static class ByteBufferOutputStream extends ByteArrayOutputStream {
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
 }
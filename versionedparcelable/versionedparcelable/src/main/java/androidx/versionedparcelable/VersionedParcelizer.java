@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.versionedparcelable;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP_PREFIX;
+
+import androidx.annotation.RestrictTo;
+
+/**
+ * Reads and writes a {@link VersionedParcelable} without reflection.
+ * <p>
+ * Each generated Parcelizer exposes one in its {@code PARCELIZER} field, which
+ * {@link VersionedParcel} looks up once per class.
+ *
+ * @param <T> The type of VersionedParcelable.
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP_PREFIX)
+public interface VersionedParcelizer<T extends VersionedParcelable> {
+
+    /**
+     * Reads an object from the given parcel.
+     */
+    T read(VersionedParcel parcel);
+
+    /**
+     * Writes the given object to the given parcel.
+     */
+    void write(T obj, VersionedParcel parcel);
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.benchmark
+
+import android.util.Log
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import androidx.work.Data
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Compares the current [Data] encoding against the legacy `ObjectOutputStream` encoding. The
+ * encoded sizes of both are logged once per run.
+ */
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class DataSerializationBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private lateinit var data: Data
+    private lateinit var bytes: ByteArray
+    private lateinit var legacyBytes: ByteArray
+
+    @Before
+    fun setUp() {
+        val builder = Data.Builder()
+        for (i in 0 until 10) {
+            builder.putString("string$i", "https://example.com/upload/$i")
+            builder.putLong("long$i", i * 1_000_000_007L)
+            builder.putBoolean("boolean$i", i % 2 == 0)
+        }
+        builder.putIntArray("ints", IntArray(64) { it * 31 })
+        builder.putStringArray("tags", Array(16) { "tag${it % 4}" })
+        data = builder.build()
+        bytes = Data.toByteArrayInternal(data)
+        legacyBytes = Data.toByteArrayLegacy(data)
+        Log.i(TAG, "Encoded size: ${bytes.size} bytes, legacy: ${legacyBytes.size} bytes")
+    }
+
+    @Test
+    fun encode() {
+        benchmarkRule.measureRepeated {
+            Data.toByteArrayInternal(data)
+        }
+    }
+
+    @Test
+    fun encodeLegacy() {
+        benchmarkRule.measureRepeated {
+            Data.toByteArrayLegacy(data)
+        }
+    }
+
+    @Test
+    fun decode() {
+        benchmarkRule.measureRepeated {
+            Data.fromByteArray(bytes)
+        }
+    }
+
+    @Test
+    fun decodeLegacy() {
+        benchmarkRule.measureRepeated {
+            Data.fromByteArray(legacyBytes)
+        }
+    }
+
+    companion object {
+        private const val TAG = "DataSerialization"
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.benchmark
+
+import android.content.Context
+import android.util.Log
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import androidx.work.Configuration
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.impl.Processor
+import androidx.work.impl.Scheduler
+import androidx.work.impl.WorkDatabase
+import androidx.work.impl.WorkDatabasePathHelper
+import androidx.work.impl.WorkManagerImpl
+import androidx.work.impl.model.WorkSpec
+import androidx.work.impl.utils.SerialExecutor
+import androidx.work.impl.utils.taskexecutor.TaskExecutor
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.concurrent.Executor
+
+/**
+ * Measures enqueuing [requestCount] requests with one [WorkManagerImpl.enqueue] call per request
+ * versus a single [WorkManagerImpl.enqueueBatch] call. Requests per second is `requestCount`
+ * divided by the reported time.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class EnqueueBenchmark(private val requestCount: Int, private val batched: Boolean) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+    private lateinit var databasePath: String
+    private lateinit var context: Context
+    private lateinit var executor: DispatchingExecutor
+    private lateinit var database: WorkDatabase
+    private lateinit var workManager: WorkManagerImpl
+
+    @Before
+    fun setUp() {
+        context = ApplicationProvider.getApplicationContext()
+        databasePath = WorkDatabasePathHelper.getDatabasePath(context).path
+        context.deleteDatabase(databasePath)
+
+        executor = DispatchingExecutor()
+        val serialExecutor = SerialExecutor(executor)
+
+        val taskExecutor = object : TaskExecutor {
+            override fun postToMainThread(runnable: Runnable) {
+                serialExecutor.execute(runnable)
+            }
+
+            override fun getMainThreadExecutor(): Executor {
+                return serialExecutor
+            }
+
+            override fun executeOnBackgroundThread(runnable: Runnable) {
+                serialExecutor.execute(runnable)
+            }
+
+            override fun getBackgroundExecutor(): SerialExecutor {
+                return serialExecutor
+            }
+        }
+
+        val configuration = Configuration.Builder()
+            .setTaskExecutor(executor)
+            .setExecutor(executor)
+            .setMinimumLoggingLevel(Log.DEBUG)
+            .build()
+
+        database = WorkDatabase.create(context, configuration.taskExecutor, false)
+        // Work is marked as scheduled as usual, but never handed to the platform.
+        val schedulers = listOf<Scheduler>(NoOpScheduler())
+        val processor = Processor(context, configuration, taskExecutor, database, schedulers)
+        workManager = WorkManagerImpl(
+            context, configuration, taskExecutor, database, schedulers, processor
+        )
+    }
+
+    @After
+    fun tearDown() {
+        executor.runAllCommands()
+        database.close()
+        context.deleteDatabase(databasePath)
+    }
+
+    @Test
+    fun enqueue() {
+        benchmarkRule.measureRepeated {
+            val requests = runWithTimingDisabled {
+                List(requestCount) { OneTimeWorkRequestBuilder<NoOpWorker>().build() }
+            }
+            if (batched) {
+                workManager.enqueueBatch(requests.map { workManager.beginWith(it) })
+                    .result.get()
+            } else {
+                requests.map { workManager.enqueue(it) }.last().result.get()
+            }
+            runWithTimingDisabled {
+                assertEquals(requestCount, database.workSpecDao().allWorkSpecIds.size)
+                database.clearAllTables()
+            }
+        }
+    }
+
+    private class NoOpScheduler : Scheduler {
+        override fun schedule(vararg workSpecs: WorkSpec) {
+        }
+
+        override fun cancel(workSpecId: String) {
+        }
+
+        override fun hasLimitedSchedulingSlots(): Boolean {
+            return true
+        }
+    }
+
+    companion object {
+        @JvmStatic
+        @Parameterized.Parameters(name = "requestCount={0}, batched={1}")
+        fun data(): List<Array<Any>> {
+            return mutableListOf<Array<Any>>().apply {
+                arrayOf(100, 1_000, 10_000).forEach { requestCount ->
+                    arrayOf(false, true).forEach { batched ->
+                        add(arrayOf(requestCount, batched))
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.benchmark
+
+import android.content.Context
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.core.app.ApplicationProvider
+import androidx.test.filters.LargeTest
+import androidx.work.OneTimeWorkRequestBuilder
+import androidx.work.WorkInfo
+import androidx.work.impl.WorkDatabase
+import androidx.work.impl.model.WorkSpec
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.junit.runners.Parameterized
+import java.util.concurrent.Executors
+
+/**
+ * Measures the scheduling queries of `WorkSpecDao` on a database holding [FINISHED_COUNT] rows of
+ * finished work that has not been pruned yet, with the current indices of `WorkSpec` and with the
+ * indices of database version 11, which make these queries scan the whole table.
+ */
+@LargeTest
+@RunWith(Parameterized::class)
+class SchedulingQueryBenchmark(private val indexed: Boolean) {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+    private lateinit var database: WorkDatabase
+
+    @Before
+    fun setUp() {
+        val context = ApplicationProvider.getApplicationContext<Context>()
+        database = WorkDatabase.create(context, Executors.newSingleThreadExecutor(), true)
+        val workSpecs = List(FINISHED_COUNT + ENQUEUED_COUNT) { index ->
+            val request = OneTimeWorkRequestBuilder<NoOpWorker>()
+            if (index < FINISHED_COUNT) {
+                request.setInitialState(WorkInfo.State.SUCCEEDED)
+            }
+            request.build().workSpec.apply { periodStartTime = index.toLong() }
+        }
+        database.runInTransaction {
+            workSpecs.chunked(1_000).forEach { database.workSpecDao().insertWorkSpecs(it) }
+        }
+        if (!indexed) {
+            with(database.openHelper.writableDatabase) {
+                execSQL(
+                    "DROP INDEX " +
+                        "`index_WorkSpec_state_schedule_requested_at_period_start_time`"
+                )
+                execSQL(
+                    "CREATE INDEX `index_WorkSpec_schedule_requested_at` ON `WorkSpec` " +
+                        "(`schedule_requested_at`)"
+                )
+            }
+        }
+    }
+
+    @After
+    fun tearDown() {
+        database.close()
+    }
+
+    @Test
+    fun getEligibleWorkForScheduling() {
+        val workSpecDao = database.workSpecDao()
+        benchmarkRule.measureRepeated {
+            val eligible: List<WorkSpec> = workSpecDao.getEligibleWorkForScheduling(SLOTS)
+            assertEquals(SLOTS, eligible.size)
+        }
+    }
+
+    @Test
+    fun hasUnfinishedWork() {
+        val workSpecDao = database.workSpecDao()
+        benchmarkRule.measureRepeated {
+            assertTrue(workSpecDao.hasUnfinishedWork())
+        }
+    }
+
+    @Test
+    fun getRunningWork() {
+        val workSpecDao = database.workSpecDao()
+        benchmarkRule.measureRepeated {
+            assertTrue(workSpecDao.runningWork.isEmpty())
+        }
+    }
+
+    companion object {
+        private const val FINISHED_COUNT = 100_000
+        private const val ENQUEUED_COUNT = 1_000
+        private const val SLOTS = 20
+
+        @JvmStatic
+        @Parameterized.Parameters(name = "indexed={0}")
+        fun data(): List<Array<Any>> {
+            return listOf(arrayOf<Any>(false), arrayOf<Any>(true))
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+@RunWith(AndroidJUnit4.class)
+public class PriorityDispatcherTest {
+
+    private static final String UPLOAD = "upload";
+    private static final String SYNC = "sync";
+
+    private RecordingExecutor mExecutor;
+    private FakeClock mClock;
+
+    @Before
+    public void setUp() {
+        mExecutor = new RecordingExecutor();
+        mClock = new FakeClock();
+    }
+
+    @Test
+    @SmallTest
+    public void testDispatch_withoutLimits_runsImmediately() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Collections.<PriorityGroup>emptyList(), Integer.MAX_VALUE, mExecutor, mClock);
+        assertThat(dispatcher.hasPriorityGroups(), is(false));
+        dispatch(dispatcher, "a");
+        dispatch(dispatcher, "b");
+        assertThat(mExecutor.mIds, contains("a", "b"));
+        assertThat(dispatcher.getRunningCount(null), is(2));
+    }
+
+    @Test
+    @SmallTest
+    public void testDispatch_waitsForFreeSlot() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Collections.<PriorityGroup>emptyList(), 1, mExecutor, mClock);
+        dispatch(dispatcher, "a");
+        dispatch(dispatcher, "b");
+        assertThat(mExecutor.mIds, contains("a"));
+        assertThat(dispatcher.getQueuedCount(null), is(1));
+
+        dispatcher.onFinished("a");
+        assertThat(mExecutor.mIds, contains("a", "b"));
+        assertThat(dispatcher.getQueuedCount(null), is(0));
+    }
+
+    @Test
+    @SmallTest
+    public void testDispatch_respectsGroupLimit() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Collections.singletonList(new PriorityGroup(SYNC, 1, 1)),
+                Integer.MAX_VALUE, mExecutor, mClock);
+        dispatch(dispatcher, "sync1", SYNC);
+        dispatch(dispatcher, "sync2", SYNC);
+        dispatch(dispatcher, "other");
+        assertThat(mExecutor.mIds, contains("sync1", "other"));
+        assertThat(dispatcher.getRunningCount(SYNC), is(1));
+        assertThat(dispatcher.getQueuedCount(SYNC), is(1));
+
+        dispatcher.onFinished("sync1");
+        assertThat(mExecutor.mIds, contains("sync1", "other", "sync2"));
+    }
+
+    @Test
+    @SmallTest
+    public void testDispatch_sharesSlotsByWeight() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Arrays.asList(new PriorityGroup(UPLOAD, 3, 10), new PriorityGroup(SYNC, 1, 10)),
+                1, mExecutor, mClock);
+        dispatch(dispatcher, "first");
+        for (int i = 0; i < 4; i++) {
+            dispatch(dispatcher, "sync" + i, SYNC);
+        }
+        for (int i = 0; i < 4; i++) {
+            dispatch(dispatcher, "upload" + i, UPLOAD);
+        }
+        for (int i = 0; i < 8; i++) {
+            dispatcher.onFinished(mExecutor.mIds.get(i));
+        }
+        // Uploads get three of every four slots even though the syncs were queued first.
+        assertThat(mExecutor.mIds, contains("first", "upload0", "upload1", "sync0", "upload2",
+                "upload3", "sync1", "sync2", "sync3"));
+    }
+
+    @Test
+    @SmallTest
+    public void testDispatch_usesFirstMatchingGroup() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Arrays.asList(new PriorityGroup(UPLOAD, 1, 1), new PriorityGroup(SYNC, 1, 1)),
+                Integer.MAX_VALUE, mExecutor, mClock);
+        dispatch(dispatcher, "a", SYNC, UPLOAD);
+        assertThat(dispatcher.getRunningCount(UPLOAD), is(1));
+        assertThat(dispatcher.getRunningCount(SYNC), is(0));
+    }
+
+    @Test
+    @SmallTest
+    public void testOnFinished_removesQueuedWork() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Collections.<PriorityGroup>emptyList(), 1, mExecutor, mClock);
+        dispatch(dispatcher, "a");
+        dispatch(dispatcher, "b");
+        dispatch(dispatcher, "c");
+        // b is stopped before it runs.
+        dispatcher.onFinished("b");
+        assertThat(dispatcher.getQueuedCount(null), is(1));
+        dispatcher.onFinished("a");
+        assertThat(mExecutor.mIds, contains("a", "c"));
+    }
+
+    @Test
+    @SmallTest
+    public void testMetrics_recordQueueWaitTime() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(
+                Collections.singletonList(new PriorityGroup(UPLOAD, 1, 1)),
+                Integer.MAX_VALUE, mExecutor, mClock);
+        dispatch(dispatcher, "a", UPLOAD);
+        dispatch(dispatcher, "b", UPLOAD);
+        mClock.mTime += 100;
+        dispatch(dispatcher, "c", UPLOAD);
+        mClock.mTime += 50;
+        dispatcher.onFinished("a");
+        mClock.mTime += 20;
+        dispatcher.onFinished("b");
+
+        assertThat(dispatcher.getDispatchedCount(UPLOAD), is(3));
+        // a waited 0 ms, b 150 ms and c 70 ms.
+        assertThat(dispatcher.getTotalQueueWaitMillis(UPLOAD), is(220L));
+        assertThat(dispatcher.getMaxQueueWaitMillis(UPLOAD), is(150L));
+        assertThat(dispatcher.getDispatchedCount(null), is(0));
+    }
+
+    private static void dispatch(PriorityDispatcher dispatcher, String id, String... tags) {
+        dispatcher.dispatch(id, Arrays.asList(tags), new IdRunnable(id));
+    }
+
+    private static class IdRunnable implements Runnable {
+        final String mId;
+
+        IdRunnable(String id) {
+            mId = id;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+
+    /**
+     * Records the work it is asked to run, without running it.
+     */
+    private static class RecordingExecutor implements Executor {
+        final List<String> mIds = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mIds.add(((IdRunnable) command).mId);
+        }
+    }
+
+    private static class FakeClock implements PriorityDispatcher.Clock {
+        long mTime;
+
+        @Override
+        public long elapsedRealtime() {
+            return mTime;
+        }
+    }
+}
@@ -290,6 +290,49 @@ public class WorkManagerImplTest {
         assertThat(prerequisites, containsInAnyOrder(work2.getStringId()));
     }
 
+    @Test
+    @MediumTest
+    public void testEnqueueBatch_insertsAllContinuations()
+            throws ExecutionException, InterruptedException {
+
+        OneTimeWorkRequest work1 = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        OneTimeWorkRequest work2 = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+        OneTimeWorkRequest work3 = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .addTag("tag")
+                .build();
+        OneTimeWorkRequest work4 = new OneTimeWorkRequest.Builder(TestWorker.class).build();
+
+        WorkContinuation parent = mWorkManagerImpl.beginWith(work1);
+        mWorkManagerImpl.enqueueBatch(Arrays.asList(
+                parent.then(work2),
+                parent.then(work3),
+                mWorkManagerImpl.beginUniqueWork("name", REPLACE, work4)))
+                .getResult()
+                .get();
+
+        WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+        assertThat(workSpecDao.getWorkSpec(work1.getStringId()), is(notNullValue()));
+        assertThat(workSpecDao.getWorkSpec(work2.getStringId()), is(notNullValue()));
+        assertThat(workSpecDao.getWorkSpec(work3.getStringId()), is(notNullValue()));
+        assertThat(workSpecDao.getWorkSpec(work4.getStringId()), is(notNullValue()));
+
+        DependencyDao dependencyDao = mDatabase.dependencyDao();
+        assertThat(dependencyDao.getPrerequisites(work2.getStringId()),
+                containsInAnyOrder(work1.getStringId()));
+        assertThat(dependencyDao.getPrerequisites(work3.getStringId()),
+                containsInAnyOrder(work1.getStringId()));
+        assertThat(mDatabase.workTagDao().getWorkSpecIdsWithTag("tag"),
+                contains(work3.getStringId()));
+        assertThat(mDatabase.workNameDao().getWorkSpecIdsWithName("name"),
+                contains(work4.getStringId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @SmallTest
+    public void testEnqueueBatch_throwsWhenEmpty() {
+        mWorkManagerImpl.enqueueBatch(Collections.<WorkContinuation>emptyList());
+    }
+
     @Test
     @MediumTest
     public void testEnqueue_insertWithCompletedDependencies_isNotStatusBlocked()
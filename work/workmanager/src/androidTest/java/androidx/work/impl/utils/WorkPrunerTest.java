@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl.utils;
+
+import static androidx.work.WorkInfo.State.ENQUEUED;
+import static androidx.work.WorkInfo.State.SUCCEEDED;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.MediumTest;
+import androidx.work.Configuration;
+import androidx.work.Data;
+import androidx.work.DatabaseTest;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.impl.model.Dependency;
+import androidx.work.impl.model.SystemIdInfo;
+import androidx.work.impl.model.WorkProgress;
+import androidx.work.impl.model.WorkSpecDao;
+import androidx.work.impl.utils.taskexecutor.InstantWorkTaskExecutor;
+import androidx.work.worker.TestWorker;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+@RunWith(AndroidJUnit4.class)
+@MediumTest
+public class WorkPrunerTest extends DatabaseTest {
+
+    private static final long OLD = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2);
+    private static final long RECENT = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void testPrune_deletesOldFinishedWork() {
+        OneTimeWorkRequest old = insertWork(SUCCEEDED, OLD);
+        OneTimeWorkRequest recent = insertWork(SUCCEEDED, RECENT);
+        OneTimeWorkRequest unfinished = insertWork(ENQUEUED, OLD);
+
+        WorkPruner pruner = createPruner(new Configuration.Builder()
+                .setMaxFinishedWorkAge(1, TimeUnit.DAYS));
+        pruner.prune();
+
+        WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+        assertThat(workSpecDao.getWorkSpec(old.getStringId()), is(nullValue()));
+        assertThat(workSpecDao.getWorkSpec(recent.getStringId()), is(not(nullValue())));
+        assertThat(workSpecDao.getWorkSpec(unfinished.getStringId()), is(not(nullValue())));
+        assertThat(pruner.getStatistics().getPrunedWorkCount(), is(1));
+        assertThat(pruner.getStatistics().getPassCount(), is(1));
+    }
+
+    @Test
+    public void testPrune_deletesRelatedRows() {
+        OneTimeWorkRequest prerequisite = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInitialState(SUCCEEDED)
+                .setPeriodStartTime(OLD, TimeUnit.MILLISECONDS)
+                .addTag("tag")
+                .build();
+        insertWork(prerequisite);
+        insertTags(prerequisite);
+        insertName("name", prerequisite);
+        OneTimeWorkRequest dependent = insertWork(SUCCEEDED, OLD);
+        mDatabase.dependencyDao().insertDependency(
+                new Dependency(dependent.getStringId(), prerequisite.getStringId()));
+        mDatabase.workProgressDao().insert(
+                new WorkProgress(prerequisite.getStringId(), Data.EMPTY));
+        mDatabase.systemIdInfoDao().insertSystemIdInfo(
+                new SystemIdInfo(prerequisite.getStringId(), 1));
+
+        WorkPruner pruner = createPruner(new Configuration.Builder()
+                .setMaxFinishedWorkAge(1, TimeUnit.DAYS));
+        pruner.prune();
+
+        String id = prerequisite.getStringId();
+        assertThat(mDatabase.workTagDao().getTagsForWorkSpecId(id).isEmpty(), is(true));
+        assertThat(mDatabase.workNameDao().getNamesForWorkSpecId(id).isEmpty(), is(true));
+        assertThat(mDatabase.dependencyDao().hasDependents(id), is(false));
+        assertThat(mDatabase.workProgressDao().getProgressForWorkSpecId(id), is(nullValue()));
+        assertThat(mDatabase.systemIdInfoDao().getSystemIdInfo(id), is(nullValue()));
+        assertThat(pruner.getStatistics().getPrunedWorkCount(), is(2));
+    }
+
+    @Test
+    public void testPrune_keepsWorkWithinMinimumRetention() {
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInitialState(SUCCEEDED)
+                .setPeriodStartTime(OLD, TimeUnit.MILLISECONDS)
+                .keepResultsForAtLeast(7, TimeUnit.DAYS)
+                .build();
+        insertWork(work);
+
+        createPruner(new Configuration.Builder()
+                .setMaxFinishedWorkAge(1, TimeUnit.DAYS)
+                .setMaxFinishedWorkCount(1)).prune();
+
+        assertThat(mDatabase.workSpecDao().getWorkSpec(work.getStringId()), is(not(nullValue())));
+    }
+
+    @Test
+    public void testPrune_keepsWorkWithUnfinishedDependents() {
+        OneTimeWorkRequest prerequisite = insertWork(SUCCEEDED, OLD);
+        OneTimeWorkRequest dependent = insertWork(ENQUEUED, OLD);
+        mDatabase.dependencyDao().insertDependency(
+                new Dependency(dependent.getStringId(), prerequisite.getStringId()));
+
+        createPruner(new Configuration.Builder()
+                .setMaxFinishedWorkAge(1, TimeUnit.DAYS)).prune();
+
+        assertThat(mDatabase.workSpecDao().getWorkSpec(prerequisite.getStringId()),
+                is(not(nullValue())));
+    }
+
+    @Test
+    public void testPrune_keepsMostRecentFinishedWork() {
+        OneTimeWorkRequest[] works = new OneTimeWorkRequest[5];
+        for (int i = 0; i < works.length; i++) {
+            works[i] = insertWork(SUCCEEDED, RECENT + i);
+        }
+
+        WorkPruner pruner = createPruner(new Configuration.Builder().setMaxFinishedWorkCount(2));
+        pruner.prune();
+
+        WorkSpecDao workSpecDao = mDatabase.workSpecDao();
+        for (int i = 0; i < works.length; i++) {
+            assertThat(workSpecDao.getWorkSpec(works[i].getStringId()) != null, is(i >= 3));
+        }
+        assertThat(pruner.getStatistics().getPrunedWorkCount(), is(3));
+    }
+
+    @Test
+    public void testPrune_splitsPassInSlices() {
+        int count = WorkPruner.BATCH_SIZE + 1;
+        for (int i = 0; i < count; i++) {
+            insertWork(SUCCEEDED, OLD);
+        }
+
+        WorkPruner pruner = createPruner(new Configuration.Builder()
+                .setMaxFinishedWorkAge(1, TimeUnit.DAYS)
+                .setPruneTimeSlice(0, TimeUnit.MILLISECONDS));
+        pruner.prune();
+
+        assertThat(mDatabase.workSpecDao().getAllWorkSpecIds().isEmpty(), is(true));
+        assertThat(pruner.getStatistics().getPrunedWorkCount(), is(count));
+        assertThat(pruner.getStatistics().getSliceCount(), is(greaterThan(1)));
+        assertThat(pruner.getStatistics().getPassCount(), is(1));
+    }
+
+    private WorkPruner createPruner(Configuration.Builder builder) {
+        return new WorkPruner(mDatabase, builder.build(), new InstantWorkTaskExecutor());
+    }
+
+    private OneTimeWorkRequest insertWork(WorkInfo.State state, long periodStartTime) {
+        OneTimeWorkRequest work = new OneTimeWorkRequest.Builder(TestWorker.class)
+                .setInitialState(state)
+                .setPeriodStartTime(periodStartTime, TimeUnit.MILLISECONDS)
+                .build();
+        insertWork(work);
+        return work;
+    }
+}
@@ -28,11 +28,16 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.work.impl.DefaultRunnableScheduler;
+import androidx.work.impl.PriorityGroup;
 import androidx.work.impl.Scheduler;
 import androidx.work.impl.utils.IdGenerator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The Configuration object used to customize {@link WorkManager} upon initialization.
@@ -73,6 +78,16 @@ public final class Configuration {
     final int mMaxJobSchedulerId;
     @SuppressWarnings("WeakerAccess")
     final int mMaxSchedulerLimit;
+    @SuppressWarnings("WeakerAccess")
+    final int mMaxConcurrentWorkers;
+    @SuppressWarnings("WeakerAccess")
+    final @NonNull List<PriorityGroup> mPriorityGroups;
+    @SuppressWarnings("WeakerAccess")
+    final long mMaxFinishedWorkAgeMillis;
+    @SuppressWarnings("WeakerAccess")
+    final int mMaxFinishedWorkCount;
+    @SuppressWarnings("WeakerAccess")
+    final long mPruneTimeSliceMillis;
     private final boolean mIsUsingDefaultTaskExecutor;
 
     Configuration(@NonNull Configuration.Builder builder) {
@@ -115,6 +130,12 @@ public final class Configuration {
         mMinJobSchedulerId = builder.mMinJobSchedulerId;
         mMaxJobSchedulerId = builder.mMaxJobSchedulerId;
         mMaxSchedulerLimit = builder.mMaxSchedulerLimit;
+        mMaxConcurrentWorkers = builder.mMaxConcurrentWorkers;
+        mPriorityGroups = Collections.unmodifiableList(
+                new ArrayList<>(builder.mPriorityGroups));
+        mMaxFinishedWorkAgeMillis = builder.mMaxFinishedWorkAgeMillis;
+        mMaxFinishedWorkCount = builder.mMaxFinishedWorkCount;
+        mPruneTimeSliceMillis = builder.mPruneTimeSliceMillis;
         mExceptionHandler = builder.mExceptionHandler;
     }
 
@@ -224,6 +245,57 @@ public final class Configuration {
         }
     }
 
+    /**
+     * Gets the maximum number of {@link ListenableWorker}s that {@link WorkManager} runs at the
+     * same time in this process.
+     *
+     * @return The maximum number of {@link ListenableWorker}s that can run at the same time
+     */
+    public int getMaxConcurrentWorkers() {
+        return mMaxConcurrentWorkers;
+    }
+
+    /**
+     * Gets how long finished work is kept before {@link WorkManager} prunes it in the background.
+     *
+     * @return The time in milliseconds after which finished work is pruned
+     */
+    public long getMaxFinishedWorkAgeMillis() {
+        return mMaxFinishedWorkAgeMillis;
+    }
+
+    /**
+     * Gets the number of most recent finished work that {@link WorkManager} keeps when it prunes
+     * work in the background.
+     *
+     * @return The maximum number of finished work that is kept
+     */
+    public int getMaxFinishedWorkCount() {
+        return mMaxFinishedWorkCount;
+    }
+
+    /**
+     * Gets the longest time {@link WorkManager} prunes finished work at once in the background
+     * before it lets its other internal tasks, such as enqueuing work, run.
+     *
+     * @return The time in milliseconds of a slice of pruning
+     */
+    public long getPruneTimeSliceMillis() {
+        return mPruneTimeSliceMillis;
+    }
+
+    /**
+     * @return The {@link PriorityGroup}s added with
+     * {@link Configuration.Builder#addPriorityGroup(String, int, int)}, in the order they were
+     * added
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @NonNull
+    public List<PriorityGroup> getPriorityGroups() {
+        return mPriorityGroups;
+    }
+
     /**
      * @return {@code true} If the default task {@link Executor} is being used
      * @hide
@@ -255,6 +327,9 @@ public final class Configuration {
      */
     public static final class Builder {
 
+        private static final long DEFAULT_MAX_FINISHED_WORK_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+        private static final long DEFAULT_PRUNE_TIME_SLICE_MILLIS = 20;
+
         Executor mExecutor;
         WorkerFactory mWorkerFactory;
         InputMergerFactory mInputMergerFactory;
@@ -266,6 +341,11 @@ public final class Configuration {
         int mMinJobSchedulerId;
         int mMaxJobSchedulerId;
         int mMaxSchedulerLimit;
+        int mMaxConcurrentWorkers;
+        List<PriorityGroup> mPriorityGroups;
+        long mMaxFinishedWorkAgeMillis;
+        int mMaxFinishedWorkCount;
+        long mPruneTimeSliceMillis;
 
         /**
          * Creates a new {@link Configuration.Builder}.
@@ -275,6 +355,11 @@ public final class Configuration {
             mMinJobSchedulerId = IdGenerator.INITIAL_ID;
             mMaxJobSchedulerId = Integer.MAX_VALUE;
             mMaxSchedulerLimit = MIN_SCHEDULER_LIMIT;
+            mMaxConcurrentWorkers = Integer.MAX_VALUE;
+            mPriorityGroups = new ArrayList<>();
+            mMaxFinishedWorkAgeMillis = DEFAULT_MAX_FINISHED_WORK_AGE_MILLIS;
+            mMaxFinishedWorkCount = Integer.MAX_VALUE;
+            mPruneTimeSliceMillis = DEFAULT_PRUNE_TIME_SLICE_MILLIS;
         }
 
         /**
@@ -296,6 +381,11 @@ public final class Configuration {
             mMinJobSchedulerId = configuration.mMinJobSchedulerId;
             mMaxJobSchedulerId = configuration.mMaxJobSchedulerId;
             mMaxSchedulerLimit = configuration.mMaxSchedulerLimit;
+            mMaxConcurrentWorkers = configuration.mMaxConcurrentWorkers;
+            mPriorityGroups = new ArrayList<>(configuration.mPriorityGroups);
+            mMaxFinishedWorkAgeMillis = configuration.mMaxFinishedWorkAgeMillis;
+            mMaxFinishedWorkCount = configuration.mMaxFinishedWorkCount;
+            mPruneTimeSliceMillis = configuration.mPruneTimeSliceMillis;
             mRunnableScheduler = configuration.mRunnableScheduler;
             mExceptionHandler = configuration.mExceptionHandler;
         }
@@ -413,6 +503,143 @@ public final class Configuration {
             return this;
         }
 
+        /**
+         * Specifies the maximum number of {@link ListenableWorker}s that {@link WorkManager} runs
+         * at the same time in this process.
+         * <p>
+         * Once this many workers are running, work that is ready to run waits until a running
+         * worker finishes, and the next work to run is picked among the priority groups added
+         * with {@link #addPriorityGroup(String, int, int)} according to their weights.
+         * <p>
+         * By default, the number of workers is not limited.
+         *
+         * @param maxConcurrentWorkers The maximum number of workers that can run at the same time
+         * @return This {@link Builder} instance
+         * @throws IllegalArgumentException if {@code maxConcurrentWorkers} is less than {@code 1}
+         */
+        @NonNull
+        public Builder setMaxConcurrentWorkers(@IntRange(from = 1) int maxConcurrentWorkers) {
+            if (maxConcurrentWorkers < 1) {
+                throw new IllegalArgumentException(
+                        "WorkManager needs to be able to run at least one worker.");
+            }
+            mMaxConcurrentWorkers = maxConcurrentWorkers;
+            return this;
+        }
+
+        /**
+         * Adds a priority group for the work tagged with {@code tag}.
+         * <p>
+         * When the number of running workers reaches the limit set with
+         * {@link #setMaxConcurrentWorkers(int)}, work waits to run in the queue of its group,
+         * and the free worker slots are shared among the groups with waiting work in proportion
+         * to their {@code weight}. Work that does not belong to any group is in a default group
+         * with a weight of {@code 1} and no limit of its own. For example, a group of
+         * latency-sensitive uploads with a weight of {@code 4} gets four times as many slots as
+         * work in the default group, and a group of low-priority syncs can be limited to one
+         * worker at a time so that it never occupies all the slots.
+         * <p>
+         * Work that has the tags of several groups belongs to the group that was added first.
+         *
+         * @param tag                  The tag of the work in the group
+         * @param weight               The share of the worker slots of the group
+         * @param maxConcurrentWorkers The maximum number of workers of the group that can run at
+         *                             the same time
+         * @return This {@link Builder} instance
+         * @throws IllegalArgumentException if {@code weight} or {@code maxConcurrentWorkers} is
+         *                                  less than {@code 1}, or a group with the same
+         *                                  {@code tag} was already added
+         */
+        @NonNull
+        public Builder addPriorityGroup(
+                @NonNull String tag,
+                @IntRange(from = 1) int weight,
+                @IntRange(from = 1) int maxConcurrentWorkers) {
+            if (weight < 1 || maxConcurrentWorkers < 1) {
+                throw new IllegalArgumentException(
+                        "A priority group needs a positive weight and worker limit.");
+            }
+            for (PriorityGroup group : mPriorityGroups) {
+                if (group.getTag().equals(tag)) {
+                    throw new IllegalArgumentException(
+                            "A priority group for " + tag + " was already added.");
+                }
+            }
+            mPriorityGroups.add(new PriorityGroup(tag, weight, maxConcurrentWorkers));
+            return this;
+        }
+
+        /**
+         * Specifies how long finished work is kept before {@link WorkManager} prunes it.
+         * <p>
+         * WorkManager prunes finished work in the background, in small batches, once in a while
+         * after work runs. Work is only pruned once its minimum retention time set with
+         * {@link WorkRequest.Builder#keepResultsForAtLeast(long, TimeUnit)} expired, and
+         * when all the work that depends on it is finished too.
+         * <p>
+         * The default value is {@code 7} days.
+         *
+         * @param duration The time after which finished work is pruned
+         * @param timeUnit The {@link TimeUnit} for {@code duration}
+         * @return This {@link Builder} instance
+         * @throws IllegalArgumentException if {@code duration} is negative
+         */
+        @NonNull
+        public Builder setMaxFinishedWorkAge(long duration, @NonNull TimeUnit timeUnit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("The age of finished work cannot be negative.");
+            }
+            mMaxFinishedWorkAgeMillis = timeUnit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Specifies the number of most recent finished work that {@link WorkManager} keeps.
+         * <p>
+         * When there is more finished work than this, the oldest finished work is pruned in the
+         * background even if it is more recent than the age set with
+         * {@link #setMaxFinishedWorkAge(long, TimeUnit)}, as long as its minimum retention time
+         * expired and all the work that depends on it is finished.
+         * <p>
+         * By default, the number of finished work is not limited.
+         *
+         * @param maxFinishedWorkCount The maximum number of finished work that is kept
+         * @return This {@link Builder} instance
+         * @throws IllegalArgumentException if {@code maxFinishedWorkCount} is less than {@code 1}
+         */
+        @NonNull
+        public Builder setMaxFinishedWorkCount(@IntRange(from = 1) int maxFinishedWorkCount) {
+            if (maxFinishedWorkCount < 1) {
+                throw new IllegalArgumentException(
+                        "WorkManager needs to keep at least one finished work.");
+            }
+            mMaxFinishedWorkCount = maxFinishedWorkCount;
+            return this;
+        }
+
+        /**
+         * Specifies the longest time {@link WorkManager} prunes finished work at once.
+         * <p>
+         * Pruning shares the background thread of WorkManager with its other internal tasks, such
+         * as enqueuing or cancelling work. After each slice of pruning, the tasks that are
+         * waiting run before pruning resumes, so they are delayed by at most this much.
+         * <p>
+         * The default value is {@code 20} milliseconds.
+         *
+         * @param duration The time of a slice of pruning
+         * @param timeUnit The {@link TimeUnit} for {@code duration}
+         * @return This {@link Builder} instance
+         * @throws IllegalArgumentException if {@code duration} is negative
+         */
+        @NonNull
+        public Builder setPruneTimeSlice(long duration, @NonNull TimeUnit timeUnit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("The prune time slice cannot be negative.");
+            }
+            mPruneTimeSliceMillis = timeUnit.toMillis(duration);
+            return this;
+        }
+
         /**
          * Specifies the minimum logging level, corresponding to the constants found in
          * {@link android.util.Log}.  For example, specifying {@link android.util.Log#VERBOSE} will
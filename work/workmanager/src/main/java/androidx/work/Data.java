@@ -384,6 +384,30 @@ public final class Data {
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     @TypeConverter
     public static @NonNull byte[] toByteArrayInternal(@NonNull Data data) {
+        byte[] bytes = DataSerializer.serialize(data.mValues);
+        if (bytes == null) {
+            // The values contain something only the legacy encoding can represent.
+            bytes = toByteArrayLegacy(data);
+        }
+        if (bytes.length > MAX_DATA_BYTES) {
+            throw new IllegalStateException(
+                    "Data cannot occupy more than " + MAX_DATA_BYTES
+                            + " bytes when serialized");
+        }
+        return bytes;
+    }
+
+    /**
+     * Converts {@link Data} to a byte array with {@link ObjectOutputStream}, which is how
+     * all versions of WorkManager before the current encoding existed persisted it.
+     *
+     * @param data The {@link Data} object to convert
+     * @return The byte array representation of the input
+     * @hide
+     */
+    @VisibleForTesting
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static @NonNull byte[] toByteArrayLegacy(@NonNull Data data) {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         ObjectOutputStream objectOutputStream = null;
         try {
@@ -412,12 +436,6 @@ public final class Data {
                 Log.e(TAG, "Error in Data#toByteArray: ", e);
             }
         }
-
-        if (outputStream.size() > MAX_DATA_BYTES) {
-            throw new IllegalStateException(
-                    "Data cannot occupy more than " + MAX_DATA_BYTES
-                            + " bytes when serialized");
-        }
         return outputStream.toByteArray();
     }
 
@@ -435,6 +453,16 @@ public final class Data {
                     "Data cannot occupy more than " + MAX_DATA_BYTES + " bytes when serialized");
         }
 
+        if (DataSerializer.isSerialized(bytes)) {
+            try {
+                return new Data(DataSerializer.deserialize(bytes));
+            } catch (IllegalArgumentException e) {
+                Log.e(TAG, "Error in Data#fromByteArray: ", e);
+                return new Data(new HashMap<String, Object>());
+            }
+        }
+
+        // Payloads persisted before DataSerializer existed were written by ObjectOutputStream.
         Map<String, Object> map = new HashMap<>();
         ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
         ObjectInputStream objectInputStream = null;
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, tagged binary encoding for the contents of {@link Data}.
+ * <p>
+ * The encoding starts with {@link #MAGIC} and a version byte, which can never be confused with
+ * the {@code 0xACED} header that {@link java.io.ObjectOutputStream} writes, so payloads
+ * persisted by older versions of WorkManager are still recognized and decoded through the legacy
+ * path in {@link Data#fromByteArray(byte[])}.
+ * <p>
+ * After the header come the number of entries and then, for each entry, its key, a one byte
+ * type tag and its value. Integral values are zig-zag varints, floating point values are written
+ * as their raw bits and arrays are written as a length followed by their raw elements. Every
+ * string, key or value, is written once and later occurrences refer back to it by index.
+ */
+final class DataSerializer {
+
+    static final byte MAGIC = (byte) 0xAB;
+    static final byte VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_BYTE = 2;
+    private static final byte TYPE_INT = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_FLOAT = 5;
+    private static final byte TYPE_DOUBLE = 6;
+    private static final byte TYPE_STRING = 7;
+    private static final byte TYPE_BOOLEAN_ARRAY = 8;
+    private static final byte TYPE_BYTE_ARRAY = 9;
+    private static final byte TYPE_INT_ARRAY = 10;
+    private static final byte TYPE_LONG_ARRAY = 11;
+    private static final byte TYPE_FLOAT_ARRAY = 12;
+    private static final byte TYPE_DOUBLE_ARRAY = 13;
+    private static final byte TYPE_STRING_ARRAY = 14;
+
+    // String references: 0 is null, 1 introduces a new string and n >= 2 refers to the
+    // (n - 2)th string written so far.
+    private static final int STRING_NULL = 0;
+    private static final int STRING_NEW = 1;
+    private static final int STRING_REFERENCE_OFFSET = 2;
+
+    private DataSerializer() {
+    }
+
+    /**
+     * Returns {@code true} if {@code bytes} were produced by {@link #serialize(Map)}.
+     */
+    static boolean isSerialized(@NonNull byte[] bytes) {
+        return bytes.length >= 2 && bytes[0] == MAGIC;
+    }
+
+    /**
+     * Encodes {@code values}, or returns {@code null} if they hold something this encoding cannot
+     * represent (a {@code null} element inside a numeric array), in which case the caller should
+     * fall back to the legacy encoding.
+     */
+    @Nullable
+    static byte[] serialize(@NonNull Map<String, Object> values) {
+        Writer writer = new Writer();
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeVarInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            writer.writeString(entry.getKey());
+            if (!writer.writeValue(entry.getValue())) {
+                return null;
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes bytes for which {@link #isSerialized(byte[])} returned {@code true}.
+     *
+     * @throws IllegalArgumentException if the payload is malformed or of an unknown version
+     */
+    @NonNull
+    static Map<String, Object> deserialize(@NonNull byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        reader.readByte(); // MAGIC
+        byte version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown Data encoding version " + version);
+        }
+        int size = reader.readVarInt();
+        Map<String, Object> values = new HashMap<>(Math.max(size * 4 / 3 + 1, 16));
+        for (int i = 0; i < size; i++) {
+            String key = reader.readString();
+            values.put(key, reader.readValue());
+        }
+        return values;
+    }
+
+    private static final class Writer {
+        private byte[] mBuffer = new byte[128];
+        private int mPosition;
+        private final Map<String, Integer> mStrings = new HashMap<>();
+
+        boolean writeValue(@Nullable Object value) {
+            if (value == null) {
+                writeByte(TYPE_NULL);
+            } else if (value instanceof String) {
+                writeByte(TYPE_STRING);
+                writeString((String) value);
+            } else if (value instanceof Integer) {
+                writeByte(TYPE_INT);
+                writeVarLong((Integer) value);
+            } else if (value instanceof Long) {
+                writeByte(TYPE_LONG);
+                writeVarLong((Long) value);
+            } else if (value instanceof Boolean) {
+                writeByte(TYPE_BOOLEAN);
+                writeByte((byte) ((Boolean) value ? 1 : 0));
+            } else if (value instanceof Byte) {
+                writeByte(TYPE_BYTE);
+                writeByte((Byte) value);
+            } else if (value instanceof Float) {
+                writeByte(TYPE_FLOAT);
+                writeFixedInt(Float.floatToIntBits((Float) value));
+            } else if (value instanceof Double) {
+                writeByte(TYPE_DOUBLE);
+                writeFixedLong(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof String[]) {
+                String[] array = (String[]) value;
+                writeByte(TYPE_STRING_ARRAY);
+                writeVarInt(array.length);
+                for (String element : array) {
+                    writeString(element);
+                }
+            } else {
+                return writeNumericArray(value);
+            }
+            return true;
+        }
+
+        private boolean writeNumericArray(Object value) {
+            Object[] array = (Object[]) value;
+            if (Arrays.asList(array).contains(null)) {
+                return false;
+            }
+            if (value instanceof Boolean[]) {
+                writeByte(TYPE_BOOLEAN_ARRAY);
+                writeVarInt(array.length);
+                ensureCapacity(array.length);
+                for (Object element : array) {
+                    mBuffer[mPosition++] = (byte) ((Boolean) element ? 1 : 0);
+                }
+            } else if (value instanceof Byte[]) {
+                writeByte(TYPE_BYTE_ARRAY);
+                writeVarInt(array.length);
+                ensureCapacity(array.length);
+                for (Object element : array) {
+                    mBuffer[mPosition++] = (Byte) element;
+                }
+            } else if (value instanceof Integer[]) {
+                writeByte(TYPE_INT_ARRAY);
+                writeVarInt(array.length);
+                ensureCapacity(array.length * 4);
+                for (Object element : array) {
+                    writeFixedInt((Integer) element);
+                }
+            } else if (value instanceof Long[]) {
+                writeByte(TYPE_LONG_ARRAY);
+                writeVarInt(array.length);
+                ensureCapacity(array.length * 8);
+                for (Object element : array) {
+                    writeFixedLong((Long) element);
+                }
+            } else if (value instanceof Float[]) {
+                writeByte(TYPE_FLOAT_ARRAY);
+                writeVarInt(array.length);
+                ensureCapacity(array.length * 4);
+                for (Object element : array) {
+                    writeFixedInt(Float.floatToIntBits((Float) element));
+                }
+            } else if (value instanceof Double[]) {
+                writeByte(TYPE_DOUBLE_ARRAY);
+                writeVarInt(array.length);
+                ensureCapacity(array.length * 8);
+                for (Object element : array) {
+                    writeFixedLong(Double.doubleToLongBits((Double) element));
+                }
+            } else {
+                throw new IllegalArgumentException(
+                        "Unsupported Data value type " + value.getClass());
+            }
+            return true;
+        }
+
+        void writeString(@Nullable String value) {
+            if (value == null) {
+                writeVarInt(STRING_NULL);
+                return;
+            }
+            Integer index = mStrings.get(value);
+            if (index != null) {
+                writeVarInt(index + STRING_REFERENCE_OFFSET);
+                return;
+            }
+            mStrings.put(value, mStrings.size());
+            byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(STRING_NEW);
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, mBuffer, mPosition, bytes.length);
+            mPosition += bytes.length;
+        }
+
+        void writeByte(byte value) {
+            ensureCapacity(1);
+            mBuffer[mPosition++] = value;
+        }
+
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                mBuffer[mPosition++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            mBuffer[mPosition++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            long zigZag = (value << 1) ^ (value >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                mBuffer[mPosition++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            mBuffer[mPosition++] = (byte) zigZag;
+        }
+
+        void writeFixedInt(int value) {
+            ensureCapacity(4);
+            mBuffer[mPosition++] = (byte) (value >>> 24);
+            mBuffer[mPosition++] = (byte) (value >>> 16);
+            mBuffer[mPosition++] = (byte) (value >>> 8);
+            mBuffer[mPosition++] = (byte) value;
+        }
+
+        void writeFixedLong(long value) {
+            writeFixedInt((int) (value >>> 32));
+            writeFixedInt((int) value);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(mBuffer, mPosition);
+        }
+
+        private void ensureCapacity(int extra) {
+            int needed = mPosition + extra;
+            if (needed > mBuffer.length) {
+                mBuffer = Arrays.copyOf(mBuffer, Math.max(needed, mBuffer.length * 2));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] mBuffer;
+        private int mPosition;
+        private final List<String> mStrings = new ArrayList<>();
+
+        Reader(byte[] buffer) {
+            mBuffer = buffer;
+        }
+
+        Object readValue() {
+            byte type = readByte();
+            switch (type) {
+                case TYPE_NULL:
+                    return null;
+                case TYPE_BOOLEAN:
+                    return readByte() != 0;
+                case TYPE_BYTE:
+                    return readByte();
+                case TYPE_INT:
+                    return (int) readVarLong();
+                case TYPE_LONG:
+                    return readVarLong();
+                case TYPE_FLOAT:
+                    return Float.intBitsToFloat(readFixedInt());
+                case TYPE_DOUBLE:
+                    return Double.longBitsToDouble(readFixedLong());
+                case TYPE_STRING:
+                    return readString();
+                case TYPE_BOOLEAN_ARRAY: {
+                    Boolean[] array = new Boolean[readLength(1)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = mBuffer[mPosition++] != 0;
+                    }
+                    return array;
+                }
+                case TYPE_BYTE_ARRAY: {
+                    Byte[] array = new Byte[readLength(1)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = mBuffer[mPosition++];
+                    }
+                    return array;
+                }
+                case TYPE_INT_ARRAY: {
+                    Integer[] array = new Integer[readLength(4)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readFixedInt();
+                    }
+                    return array;
+                }
+                case TYPE_LONG_ARRAY: {
+                    Long[] array = new Long[readLength(8)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readFixedLong();
+                    }
+                    return array;
+                }
+                case TYPE_FLOAT_ARRAY: {
+                    Float[] array = new Float[readLength(4)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = Float.intBitsToFloat(readFixedInt());
+                    }
+                    return array;
+                }
+                case TYPE_DOUBLE_ARRAY: {
+                    Double[] array = new Double[readLength(8)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = Double.longBitsToDouble(readFixedLong());
+                    }
+                    return array;
+                }
+                case TYPE_STRING_ARRAY: {
+                    String[] array = new String[readLength(1)];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readString();
+                    }
+                    return array;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown Data value type " + type);
+            }
+        }
+
+        String readString() {
+            int reference = readVarInt();
+            if (reference == STRING_NULL) {
+                return null;
+            } else if (reference == STRING_NEW) {
+                int length = readLength(1);
+                String value = new String(mBuffer, mPosition, length, UTF_8);
+                mPosition += length;
+                mStrings.add(value);
+                return value;
+            }
+            int index = reference - STRING_REFERENCE_OFFSET;
+            if (index >= mStrings.size()) {
+                throw new IllegalArgumentException("Invalid string reference " + reference);
+            }
+            return mStrings.get(index);
+        }
+
+        byte readByte() {
+            require(1);
+            return mBuffer[mPosition++];
+        }
+
+        // Reads an element count and checks that the payload is long enough to hold that many
+        // elements of the given minimum size, so that corrupt input cannot trigger huge
+        // allocations.
+        int readLength(int elementSize) {
+            int length = readVarInt();
+            if (length < 0) {
+                throw new IllegalArgumentException("Negative length " + length);
+            }
+            require((long) length * elementSize);
+            return length;
+        }
+
+        int readVarInt() {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long readVarLong() {
+            long zigZag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                zigZag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        int readFixedInt() {
+            require(4);
+            return (mBuffer[mPosition++] & 0xFF) << 24
+                    | (mBuffer[mPosition++] & 0xFF) << 16
+                    | (mBuffer[mPosition++] & 0xFF) << 8
+                    | (mBuffer[mPosition++] & 0xFF);
+        }
+
+        long readFixedLong() {
+            long high = readFixedInt();
+            long low = readFixedInt() & 0xFFFFFFFFL;
+            return (high << 32) | low;
+        }
+
+        private void require(long bytes) {
+            if (mPosition + bytes > mBuffer.length) {
+                throw new IllegalArgumentException("Truncated Data payload");
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics about the pruning of finished work that {@link WorkManager} does in the background,
+ * according to {@link Configuration#getMaxFinishedWorkAgeMillis()} and
+ * {@link Configuration#getMaxFinishedWorkCount()}, since it was initialized.
+ * <p>
+ * This does not include work pruned with {@link WorkManager#pruneWork()}.
+ */
+public final class PruneStatistics {
+
+    private final int mPassCount;
+    private final int mSliceCount;
+    private final int mPrunedWorkCount;
+    private final int mVacuumedPageCount;
+    private final long mLastPassDurationMillis;
+    private final long mMaxSliceDurationMillis;
+
+    /**
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public PruneStatistics(
+            int passCount,
+            int sliceCount,
+            int prunedWorkCount,
+            int vacuumedPageCount,
+            long lastPassDurationMillis,
+            long maxSliceDurationMillis) {
+        mPassCount = passCount;
+        mSliceCount = sliceCount;
+        mPrunedWorkCount = prunedWorkCount;
+        mVacuumedPageCount = vacuumedPageCount;
+        mLastPassDurationMillis = lastPassDurationMillis;
+        mMaxSliceDurationMillis = maxSliceDurationMillis;
+    }
+
+    /**
+     * @return The number of pruning passes that ran to completion
+     */
+    public int getPassCount() {
+        return mPassCount;
+    }
+
+    /**
+     * Gets the number of slices that ran, across all the passes. A pass is split in slices of at
+     * most {@link Configuration#getPruneTimeSliceMillis()}, so that other internal tasks of
+     * {@link WorkManager}, such as enqueuing work, can run in between.
+     *
+     * @return The number of slices that ran
+     */
+    public int getSliceCount() {
+        return mSliceCount;
+    }
+
+    /**
+     * @return The number of finished {@link WorkRequest}s that were pruned
+     */
+    public int getPrunedWorkCount() {
+        return mPrunedWorkCount;
+    }
+
+    /**
+     * @return The number of pages of the internal database that were given back to the file system
+     */
+    public int getVacuumedPageCount() {
+        return mVacuumedPageCount;
+    }
+
+    /**
+     * @return The time in milliseconds from the start to the end of the last pass, including the
+     * time spent waiting between its slices
+     */
+    public long getLastPassDurationMillis() {
+        return mLastPassDurationMillis;
+    }
+
+    /**
+     * Gets the longest time a slice kept the background thread of {@link WorkManager} busy. This
+     * can exceed {@link Configuration#getPruneTimeSliceMillis()} by the time it takes to prune a
+     * single batch of work.
+     *
+     * @return The duration of the longest slice, in milliseconds
+     * @see Configuration.Builder#setPruneTimeSlice(long, TimeUnit)
+     */
+    public long getMaxSliceDurationMillis() {
+        return mMaxSliceDurationMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PruneStatistics that = (PruneStatistics) o;
+
+        if (mPassCount != that.mPassCount) return false;
+        if (mSliceCount != that.mSliceCount) return false;
+        if (mPrunedWorkCount != that.mPrunedWorkCount) return false;
+        if (mVacuumedPageCount != that.mVacuumedPageCount) return false;
+        if (mLastPassDurationMillis != that.mLastPassDurationMillis) return false;
+        return mMaxSliceDurationMillis == that.mMaxSliceDurationMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mPassCount;
+        result = 31 * result + mSliceCount;
+        result = 31 * result + mPrunedWorkCount;
+        result = 31 * result + mVacuumedPageCount;
+        result = 31 * result + (int) (mLastPassDurationMillis ^ (mLastPassDurationMillis >>> 32));
+        result = 31 * result + (int) (mMaxSliceDurationMillis ^ (mMaxSliceDurationMillis >>> 32));
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PruneStatistics{"
+                + "mPassCount=" + mPassCount
+                + ", mSliceCount=" + mSliceCount
+                + ", mPrunedWorkCount=" + mPrunedWorkCount
+                + ", mVacuumedPageCount=" + mVacuumedPageCount
+                + ", mLastPassDurationMillis=" + mLastPassDurationMillis
+                + ", mMaxSliceDurationMillis=" + mMaxSliceDurationMillis
+                + '}';
+    }
+}
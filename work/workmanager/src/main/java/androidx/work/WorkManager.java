@@ -230,6 +230,26 @@ public abstract class WorkManager {
     @NonNull
     public abstract Operation enqueue(@NonNull List<? extends WorkRequest> requests);
 
+    /**
+     * Enqueues several {@link WorkContinuation}s together.
+     * <p>
+     * Enqueuing each continuation separately adds its work to the database in its own transaction
+     * and then schedules all eligible work again. This method instead adds the work of all the
+     * {@code continuations} in a single transaction and schedules it once, which is considerably
+     * faster when enqueuing a large number of chains or unique work sequences at the same time,
+     * for example when the app starts.
+     * <p>
+     * Each continuation behaves exactly as if {@link WorkContinuation#enqueue()} had been called
+     * on it, in the order of {@code continuations}. Continuations that were already enqueued are
+     * ignored.
+     *
+     * @param continuations One or more {@link WorkContinuation}s created by this
+     *                      {@link WorkManager} to enqueue
+     * @return An {@link Operation} that can be used to determine when the enqueue has completed
+     */
+    @NonNull
+    public abstract Operation enqueueBatch(@NonNull List<WorkContinuation> continuations);
+
     /**
      * Begins a chain with one or more {@link OneTimeWorkRequest}s, which can be enqueued together
      * in the future using {@link WorkContinuation#enqueue()}.
@@ -472,6 +492,14 @@ public abstract class WorkManager {
      */
     public abstract @NonNull Operation pruneWork();
 
+    /**
+     * Gets statistics about the pruning of finished work that {@link WorkManager} does in the
+     * background, according to the retention policy of its {@link Configuration}.
+     *
+     * @return The {@link PruneStatistics} since this {@link WorkManager} was initialized
+     */
+    public abstract @NonNull PruneStatistics getPruneStatistics();
+
     /**
      * Gets a {@link LiveData} of the last time all work was cancelled.  This method is intended for
      * use by library and module developers who have dependent data in their own repository that
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.work.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Decides when the work started by the {@link Processor} gets to run.
+ * <p>
+ * Work is put into the first {@link PriorityGroup} whose tag it has, or into a default group
+ * otherwise. Each group has a queue of pending work and may run up to its own number of workers
+ * at a time, while the number of workers running across all the groups is limited as well.
+ * Whenever a worker slot is free, the next work comes from one of the groups that have pending
+ * work and can run more of it, picked with a smooth weighted round robin: over time, each of
+ * these groups gets a number of slots proportional to its weight, so a large amount of work in
+ * one group cannot starve the others.
+ * <p>
+ * The time each work spends in the queue is recorded per group.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class PriorityDispatcher {
+
+    private static final String TAG = Logger.tagWithPrefix("PriorityDispatcher");
+
+    /**
+     * The source of time used to measure how long work stays in the queue.
+     */
+    public interface Clock {
+        /**
+         * @return The current time in milliseconds, from an arbitrary but monotonic origin
+         */
+        long elapsedRealtime();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long elapsedRealtime() {
+            return SystemClock.elapsedRealtime();
+        }
+    };
+
+    private final Executor mExecutor;
+    private final Clock mClock;
+    private final int mMaxConcurrentWorkers;
+    private final List<Group> mGroups;
+    private final Group mDefaultGroup;
+    private final Object mLock;
+
+    // Guarded by mLock.
+    private final Map<String, Group> mRunning;
+    // Guarded by mLock.
+    private int mRunningCount;
+
+    public PriorityDispatcher(
+            @NonNull List<PriorityGroup> groups,
+            int maxConcurrentWorkers,
+            @NonNull Executor executor) {
+        this(groups, maxConcurrentWorkers, executor, SYSTEM_CLOCK);
+    }
+
+    @VisibleForTesting
+    public PriorityDispatcher(
+            @NonNull List<PriorityGroup> groups,
+            int maxConcurrentWorkers,
+            @NonNull Executor executor,
+            @NonNull Clock clock) {
+        mExecutor = executor;
+        mClock = clock;
+        mMaxConcurrentWorkers = maxConcurrentWorkers;
+        mGroups = new ArrayList<>(groups.size() + 1);
+        for (PriorityGroup group : groups) {
+            mGroups.add(new Group(group.getTag(), group.getWeight(),
+                    group.getMaxConcurrentWorkers()));
+        }
+        mDefaultGroup = new Group(null, 1, Integer.MAX_VALUE);
+        mGroups.add(mDefaultGroup);
+        mRunning = new HashMap<>();
+        mLock = new Object();
+    }
+
+    /**
+     * @return {@code true} if any {@link PriorityGroup}s are defined, in which case the tags of
+     * the work are needed to dispatch it
+     */
+    public boolean hasPriorityGroups() {
+        return mGroups.size() > 1;
+    }
+
+    /**
+     * Queues work, and runs it on the {@link Executor} once it is its turn.
+     * {@link #onFinished(String)} must be called when the work is done or stopped.
+     *
+     * @param workSpecId The id of the work
+     * @param tags       The tags of the work
+     * @param runnable   The {@link Runnable} that runs the work
+     */
+    public void dispatch(
+            @NonNull String workSpecId,
+            @NonNull Collection<String> tags,
+            @NonNull Runnable runnable) {
+        List<Runnable> runnables;
+        synchronized (mLock) {
+            Group group = findGroup(tags);
+            group.mQueue.add(new Entry(workSpecId, runnable, mClock.elapsedRealtime()));
+            runnables = pollRunnablesLocked();
+        }
+        executeAll(runnables);
+    }
+
+    /**
+     * Releases the worker slot of work that is done, or removes it from the queue if it was
+     * stopped before it could run, and runs the next pending work if there is any.
+     *
+     * @param workSpecId The id of the work
+     */
+    public void onFinished(@NonNull String workSpecId) {
+        List<Runnable> runnables;
+        synchronized (mLock) {
+            Group group = mRunning.remove(workSpecId);
+            if (group != null) {
+                group.mRunningCount--;
+                mRunningCount--;
+            } else {
+                removeQueuedLocked(workSpecId);
+            }
+            runnables = pollRunnablesLocked();
+        }
+        executeAll(runnables);
+    }
+
+    /**
+     * @param tag The tag of a {@link PriorityGroup}, or {@code null} for the default group
+     * @return The number of work waiting in the queue of the group
+     */
+    public int getQueuedCount(@Nullable String tag) {
+        synchronized (mLock) {
+            return getGroup(tag).mQueue.size();
+        }
+    }
+
+    /**
+     * @param tag The tag of a {@link PriorityGroup}, or {@code null} for the default group
+     * @return The number of workers of the group that are running
+     */
+    public int getRunningCount(@Nullable String tag) {
+        synchronized (mLock) {
+            return getGroup(tag).mRunningCount;
+        }
+    }
+
+    /**
+     * @param tag The tag of a {@link PriorityGroup}, or {@code null} for the default group
+     * @return The number of work of the group that left the queue to run
+     */
+    public int getDispatchedCount(@Nullable String tag) {
+        synchronized (mLock) {
+            return getGroup(tag).mDispatchedCount;
+        }
+    }
+
+    /**
+     * @param tag The tag of a {@link PriorityGroup}, or {@code null} for the default group
+     * @return The total time in milliseconds the dispatched work of the group spent in the queue
+     */
+    public long getTotalQueueWaitMillis(@Nullable String tag) {
+        synchronized (mLock) {
+            return getGroup(tag).mTotalWaitMillis;
+        }
+    }
+
+    /**
+     * @param tag The tag of a {@link PriorityGroup}, or {@code null} for the default group
+     * @return The longest time in milliseconds dispatched work of the group spent in the queue
+     */
+    public long getMaxQueueWaitMillis(@Nullable String tag) {
+        synchronized (mLock) {
+            return getGroup(tag).mMaxWaitMillis;
+        }
+    }
+
+    private @NonNull Group findGroup(@NonNull Collection<String> tags) {
+        if (!tags.isEmpty()) {
+            // The default group is always last, and has no tag.
+            for (int i = 0; i < mGroups.size() - 1; i++) {
+                Group group = mGroups.get(i);
+                if (tags.contains(group.mTag)) {
+                    return group;
+                }
+            }
+        }
+        return mDefaultGroup;
+    }
+
+    private @NonNull Group getGroup(@Nullable String tag) {
+        if (tag != null) {
+            for (Group group : mGroups) {
+                if (tag.equals(group.mTag)) {
+                    return group;
+                }
+            }
+            throw new IllegalArgumentException("No priority group for tag " + tag);
+        }
+        return mDefaultGroup;
+    }
+
+    private void removeQueuedLocked(@NonNull String workSpecId) {
+        for (Group group : mGroups) {
+            Iterator<Entry> iterator = group.mQueue.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().mWorkSpecId.equals(workSpecId)) {
+                    iterator.remove();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private List<Runnable> pollRunnablesLocked() {
+        List<Runnable> runnables = null;
+        while (mRunningCount < mMaxConcurrentWorkers) {
+            Group next = null;
+            int totalWeight = 0;
+            for (Group group : mGroups) {
+                if (!group.mQueue.isEmpty() && group.mRunningCount < group.mMaxConcurrentWorkers) {
+                    group.mCurrentWeight += group.mWeight;
+                    totalWeight += group.mWeight;
+                    if (next == null || group.mCurrentWeight > next.mCurrentWeight) {
+                        next = group;
+                    }
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            next.mCurrentWeight -= totalWeight;
+
+            Entry entry = next.mQueue.poll();
+            long waitMillis = mClock.elapsedRealtime() - entry.mEnqueueTime;
+            next.mDispatchedCount++;
+            next.mTotalWaitMillis += waitMillis;
+            next.mMaxWaitMillis = Math.max(next.mMaxWaitMillis, waitMillis);
+            next.mRunningCount++;
+            mRunningCount++;
+            mRunning.put(entry.mWorkSpecId, next);
+            Logger.get().debug(TAG, String.format("Dispatching %s (group %s) after %s ms",
+                    entry.mWorkSpecId, next.mTag, waitMillis));
+            if (runnables == null) {
+                runnables = new ArrayList<>();
+            }
+            runnables.add(entry.mRunnable);
+        }
+        return runnables;
+    }
+
+    private void executeAll(@Nullable List<Runnable> runnables) {
+        if (runnables != null) {
+            for (Runnable runnable : runnables) {
+                mExecutor.execute(runnable);
+            }
+        }
+    }
+
+    private static class Group {
+        final @Nullable String mTag;
+        final int mWeight;
+        final int mMaxConcurrentWorkers;
+        final ArrayDeque<Entry> mQueue;
+
+        int mCurrentWeight;
+        int mRunningCount;
+        int mDispatchedCount;
+        long mTotalWaitMillis;
+        long mMaxWaitMillis;
+
+        Group(@Nullable String tag, int weight, int maxConcurrentWorkers) {
+            mTag = tag;
+            mWeight = weight;
+            mMaxConcurrentWorkers = maxConcurrentWorkers;
+            mQueue = new ArrayDeque<>();
+        }
+    }
+
+    private static class Entry {
+        final @NonNull String mWorkSpecId;
+        final @NonNull Runnable mRunnable;
+        final long mEnqueueTime;
+
+        Entry(@NonNull String workSpecId, @NonNull Runnable runnable, long enqueueTime) {
+            mWorkSpecId = workSpecId;
+            mRunnable = runnable;
+            mEnqueueTime = enqueueTime;
+        }
+    }
+}
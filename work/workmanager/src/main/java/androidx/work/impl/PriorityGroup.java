@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * The configuration of a group of work, identified by a tag, that shares a weight and a
+ * concurrency limit when the {@link PriorityDispatcher} decides which work to start next.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public final class PriorityGroup {
+    private final @NonNull String mTag;
+    private final int mWeight;
+    private final int mMaxConcurrentWorkers;
+
+    public PriorityGroup(@NonNull String tag, int weight, int maxConcurrentWorkers) {
+        mTag = tag;
+        mWeight = weight;
+        mMaxConcurrentWorkers = maxConcurrentWorkers;
+    }
+
+    /**
+     * @return The tag of the work that belongs to this group
+     */
+    public @NonNull String getTag() {
+        return mTag;
+    }
+
+    /**
+     * @return The share of the available worker slots this group gets relative to the other
+     * groups with pending work
+     */
+    public int getWeight() {
+        return mWeight;
+    }
+
+    /**
+     * @return The maximum number of workers of this group that can run at the same time
+     */
+    public int getMaxConcurrentWorkers() {
+        return mMaxConcurrentWorkers;
+    }
+}
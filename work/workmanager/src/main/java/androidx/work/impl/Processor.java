@@ -37,6 +37,7 @@ import androidx.work.impl.utils.taskexecutor.TaskExecutor;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -64,6 +65,7 @@ public class Processor implements ExecutionListener, ForegroundProcessor {
     private Map<String, WorkerWrapper> mForegroundWorkMap;
     private Map<String, WorkerWrapper> mEnqueuedWorkMap;
     private List<Scheduler> mSchedulers;
+    private PriorityDispatcher mDispatcher;
 
     private Set<String> mCancelledIds;
 
@@ -87,6 +89,10 @@ public class Processor implements ExecutionListener, ForegroundProcessor {
         mOuterListeners = new ArrayList<>();
         mForegroundLock = null;
         mLock = new Object();
+        mDispatcher = new PriorityDispatcher(
+                configuration.getPriorityGroups(),
+                configuration.getMaxConcurrentWorkers(),
+                workTaskExecutor.getBackgroundExecutor());
     }
 
     /**
@@ -138,7 +144,11 @@ public class Processor implements ExecutionListener, ForegroundProcessor {
                     mWorkTaskExecutor.getMainThreadExecutor());
             mEnqueuedWorkMap.put(id, workWrapper);
         }
-        mWorkTaskExecutor.getBackgroundExecutor().execute(workWrapper);
+        List<String> tags = Collections.emptyList();
+        if (mDispatcher.hasPriorityGroups()) {
+            tags = mWorkDatabase.workTagDao().getTagsForWorkSpecId(id);
+        }
+        mDispatcher.dispatch(id, tags, workWrapper);
         Logger.get().debug(TAG, String.format("%s: processing %s", getClass().getSimpleName(), id));
         return true;
     }
@@ -288,11 +298,20 @@ public class Processor implements ExecutionListener, ForegroundProcessor {
         }
     }
 
+    /**
+     * @return The {@link PriorityDispatcher} which decides when work starts running
+     */
+    @NonNull
+    public PriorityDispatcher getDispatcher() {
+        return mDispatcher;
+    }
+
     @Override
     public void onExecuted(
             @NonNull final String workSpecId,
             boolean needsReschedule) {
 
+        mDispatcher.onFinished(workSpecId);
         synchronized (mLock) {
             mEnqueuedWorkMap.remove(workSpecId);
             Logger.get().debug(TAG, String.format("%s %s executed; reschedule = %s",
@@ -33,6 +33,7 @@ import androidx.work.impl.background.systemjob.SystemJobService;
 import androidx.work.impl.model.WorkSpec;
 import androidx.work.impl.model.WorkSpecDao;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -63,9 +64,14 @@ public class Schedulers {
             return;
         }
 
+        boolean hasUnlimitedSchedulers = false;
+        for (Scheduler scheduler : schedulers) {
+            hasUnlimitedSchedulers |= !scheduler.hasLimitedSchedulingSlots();
+        }
+
         WorkSpecDao workSpecDao = workDatabase.workSpecDao();
         List<WorkSpec> eligibleWorkSpecsForLimitedSlots;
-        List<WorkSpec> allEligibleWorkSpecs;
+        List<WorkSpec> allEligibleWorkSpecs = null;
 
         workDatabase.beginTransaction();
         try {
@@ -74,18 +80,23 @@ public class Schedulers {
                     configuration.getMaxSchedulerLimit());
 
             // Enqueued workSpecs when scheduling limits are NOT applicable.
-            allEligibleWorkSpecs = workSpecDao.getAllEligibleWorkSpecsForScheduling();
+            if (hasUnlimitedSchedulers) {
+                allEligibleWorkSpecs = workSpecDao.getAllEligibleWorkSpecsForScheduling();
+            }
 
             if (eligibleWorkSpecsForLimitedSlots != null
                     && eligibleWorkSpecsForLimitedSlots.size() > 0) {
                 long now = System.currentTimeMillis();
 
-                // Mark all the WorkSpecs as scheduled.
+                // Mark all the WorkSpecs as scheduled. Scheduled WorkSpecs are not eligible
+                // anymore, so the next call continues with the WorkSpecs that come after them.
                 // Calls to Scheduler#schedule() could potentially result in more schedules
                 // on a separate thread. Therefore, this needs to be done first.
+                List<String> ids = new ArrayList<>(eligibleWorkSpecsForLimitedSlots.size());
                 for (WorkSpec workSpec : eligibleWorkSpecsForLimitedSlots) {
-                    workSpecDao.markWorkSpecScheduled(workSpec.id, now);
+                    ids.add(workSpec.id);
                 }
+                workSpecDao.markWorkSpecsScheduled(ids, now);
             }
             workDatabase.setTransactionSuccessful();
         } finally {
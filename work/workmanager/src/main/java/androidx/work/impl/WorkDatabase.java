@@ -16,6 +16,7 @@
 
 package androidx.work.impl;
 
+import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_11_12;
 import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_3_4;
 import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_4_5;
 import static androidx.work.impl.WorkDatabaseMigrations.MIGRATION_6_7;
@@ -75,7 +76,7 @@ import java.util.concurrent.TimeUnit;
         WorkName.class,
         WorkProgress.class,
         Preference.class},
-        version = 11)
+        version = 12)
 @TypeConverters(value = {Data.class, WorkTypeConverters.class})
 public abstract class WorkDatabase extends RoomDatabase {
     // Delete rows in the workspec table that...
@@ -123,7 +124,7 @@ public abstract class WorkDatabase extends RoomDatabase {
                     SupportSQLiteOpenHelper.Configuration.Builder configBuilder =
                             SupportSQLiteOpenHelper.Configuration.builder(context);
                     configBuilder.name(configuration.name)
-                            .callback(configuration.callback)
+                            .callback(new IncrementalVacuumCallback(configuration.callback))
                             .noBackupDirectory(true);
                     FrameworkSQLiteOpenHelperFactory factory =
                             new FrameworkSQLiteOpenHelperFactory();
@@ -150,6 +151,7 @@ public abstract class WorkDatabase extends RoomDatabase {
                 .addMigrations(
                         new WorkDatabaseMigrations.RescheduleMigration(context, VERSION_10,
                                 VERSION_11))
+                .addMigrations(MIGRATION_11_12)
                 .fallbackToDestructiveMigration()
                 .build();
     }
@@ -172,6 +174,54 @@ public abstract class WorkDatabase extends RoomDatabase {
         };
     }
 
+    /**
+     * Enables incremental auto-vacuum on new databases, so that the
+     * {@link androidx.work.impl.utils.WorkPruner} can give the pages of pruned work back to the
+     * file system without rewriting the whole file.
+     * Existing databases are unaffected.
+     */
+    private static class IncrementalVacuumCallback extends SupportSQLiteOpenHelper.Callback {
+        private final SupportSQLiteOpenHelper.Callback mDelegate;
+
+        IncrementalVacuumCallback(@NonNull SupportSQLiteOpenHelper.Callback delegate) {
+            super(delegate.version);
+            mDelegate = delegate;
+        }
+
+        @Override
+        public void onConfigure(@NonNull SupportSQLiteDatabase db) {
+            // This only takes effect before the first table is created.
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            mDelegate.onConfigure(db);
+        }
+
+        @Override
+        public void onCreate(@NonNull SupportSQLiteDatabase db) {
+            mDelegate.onCreate(db);
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+            mDelegate.onUpgrade(db, oldVersion, newVersion);
+        }
+
+        @Override
+        public void onDowngrade(
+                @NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+            mDelegate.onDowngrade(db, oldVersion, newVersion);
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            mDelegate.onOpen(db);
+        }
+
+        @Override
+        public void onCorruption(@NonNull SupportSQLiteDatabase db) {
+            mDelegate.onCorruption(db);
+        }
+    }
+
     @SuppressWarnings("WeakerAccess") /* synthetic access */
     @NonNull
     static String getPruneSQL() {
@@ -38,6 +38,7 @@ import androidx.work.Logger;
 import androidx.work.OneTimeWorkRequest;
 import androidx.work.Operation;
 import androidx.work.PeriodicWorkRequest;
+import androidx.work.PruneStatistics;
 import androidx.work.R;
 import androidx.work.WorkContinuation;
 import androidx.work.WorkInfo;
@@ -51,6 +52,7 @@ import androidx.work.impl.model.RawWorkInfoDao;
 import androidx.work.impl.model.WorkSpec;
 import androidx.work.impl.model.WorkSpecDao;
 import androidx.work.impl.utils.CancelWorkRunnable;
+import androidx.work.impl.utils.EnqueueRunnable;
 import androidx.work.impl.utils.ForceStopRunnable;
 import androidx.work.impl.utils.LiveDataUtils;
 import androidx.work.impl.utils.PreferenceUtils;
@@ -59,12 +61,14 @@ import androidx.work.impl.utils.RawQueries;
 import androidx.work.impl.utils.StartWorkRunnable;
 import androidx.work.impl.utils.StatusRunnable;
 import androidx.work.impl.utils.StopWorkRunnable;
+import androidx.work.impl.utils.WorkPruner;
 import androidx.work.impl.utils.futures.SettableFuture;
 import androidx.work.impl.utils.taskexecutor.TaskExecutor;
 import androidx.work.impl.utils.taskexecutor.WorkManagerTaskExecutor;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -89,6 +93,7 @@ public class WorkManagerImpl extends WorkManager {
     private Processor mProcessor;
     private PreferenceUtils mPreferenceUtils;
     private boolean mForceStopRunnableCompleted;
+    private WorkPruner mWorkPruner;
     private BroadcastReceiver.PendingResult mRescheduleReceiverResult;
 
     private static WorkManagerImpl sDelegatedInstance = null;
@@ -349,6 +354,15 @@ public class WorkManagerImpl extends WorkManager {
         return mWorkTaskExecutor;
     }
 
+    /**
+     * @return the {@link WorkPruner} that prunes finished work in the background.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public @NonNull WorkPruner getWorkPruner() {
+        return mWorkPruner;
+    }
+
     /**
      * @return the {@link PreferenceUtils} used by the instance of {@link WorkManager}.
      * @hide
@@ -372,6 +386,22 @@ public class WorkManagerImpl extends WorkManager {
         return new WorkContinuationImpl(this, workRequests).enqueue();
     }
 
+    @Override
+    @NonNull
+    public Operation enqueueBatch(@NonNull List<WorkContinuation> continuations) {
+        if (continuations.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "enqueueBatch needs at least one WorkContinuation.");
+        }
+        List<WorkContinuationImpl> workContinuations = new ArrayList<>(continuations.size());
+        for (WorkContinuation continuation : continuations) {
+            workContinuations.add((WorkContinuationImpl) continuation);
+        }
+        EnqueueRunnable runnable = new EnqueueRunnable(workContinuations);
+        mWorkTaskExecutor.executeOnBackgroundThread(runnable);
+        return runnable.getOperation();
+    }
+
     @Override
     public @NonNull WorkContinuation beginWith(@NonNull List<OneTimeWorkRequest> work) {
         if (work.isEmpty()) {
@@ -498,6 +528,11 @@ public class WorkManagerImpl extends WorkManager {
         return runnable.getOperation();
     }
 
+    @Override
+    public @NonNull PruneStatistics getPruneStatistics() {
+        return mWorkPruner.getStatistics();
+    }
+
     @Override
     public @NonNull LiveData<WorkInfo> getWorkInfoByIdLiveData(@NonNull UUID id) {
         WorkSpecDao dao = mWorkDatabase.workSpecDao();
@@ -729,6 +764,11 @@ public class WorkManagerImpl extends WorkManager {
 
         // Checks for app force stops.
         mWorkTaskExecutor.executeOnBackgroundThread(new ForceStopRunnable(context, this));
+
+        // Prunes finished work now, and then once in a while after work runs.
+        mWorkPruner = new WorkPruner(workDatabase, configuration, workTaskExecutor);
+        mProcessor.addExecutionListener(mWorkPruner);
+        mWorkPruner.requestPrune();
     }
 
     /**
@@ -432,8 +432,7 @@ public class WorkerWrapper implements Runnable {
             // Check to see if there is more work to be done. If there is no more work, then
             // disable RescheduleReceiver. Using a transaction here, as there could be more than
             // one thread looking at the list of eligible WorkSpecs.
-            List<String> unfinishedWork = mWorkDatabase.workSpecDao().getAllUnfinishedWork();
-            boolean noMoreWork = unfinishedWork == null || unfinishedWork.isEmpty();
+            boolean noMoreWork = !mWorkDatabase.workSpecDao().hasUnfinishedWork();
             if (noMoreWork) {
                 PackageManagerHelper.setComponentEnabled(
                         mAppContext, RescheduleReceiver.class, false);
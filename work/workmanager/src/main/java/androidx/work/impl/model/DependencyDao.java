@@ -37,6 +37,14 @@ public interface DependencyDao {
     @Insert(onConflict = IGNORE)
     void insertDependency(Dependency dependency);
 
+    /**
+     * Attempts to insert {@link Dependency}s into the database.
+     *
+     * @param dependencies The {@link Dependency}s to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insertDependencies(List<Dependency> dependencies);
+
     /**
      * Determines if a {@link WorkSpec} has completed all prerequisites.
      *
@@ -74,4 +82,13 @@ public interface DependencyDao {
      */
     @Query("SELECT COUNT(*)>0 FROM dependency WHERE prerequisite_id=:id")
     boolean hasDependents(String id);
+
+    /**
+     * Deletes the {@link Dependency}s in which {@link WorkSpec}s are either the dependent or the
+     * prerequisite.
+     *
+     * @param ids The {@link WorkSpec} identifiers
+     */
+    @Query("DELETE FROM dependency WHERE work_spec_id IN (:ids) OR prerequisite_id IN (:ids)")
+    void deleteForWorkSpecIds(List<String> ids);
 }
@@ -24,6 +24,8 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
 
+import java.util.List;
+
 /**
  * A Data Access Object for {@link SystemIdInfo}.
  */
@@ -52,4 +54,12 @@ public interface SystemIdInfoDao {
      */
     @Query("DELETE FROM SystemIdInfo where work_spec_id=:workSpecId")
     void removeSystemIdInfo(@NonNull String workSpecId);
+
+    /**
+     * Removes the {@link SystemIdInfo}s corresponding to the {@link WorkSpec} identifiers.
+     *
+     * @param workSpecIds The {@link WorkSpec} identifiers.
+     */
+    @Query("DELETE FROM SystemIdInfo WHERE work_spec_id IN (:workSpecIds)")
+    void removeSystemIdInfos(@NonNull List<String> workSpecIds);
 }
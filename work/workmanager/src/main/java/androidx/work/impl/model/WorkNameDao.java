@@ -39,6 +39,14 @@ public interface WorkNameDao {
     @Insert(onConflict = IGNORE)
     void insert(WorkName workName);
 
+    /**
+     * Inserts {@link WorkName}s into the table.
+     *
+     * @param workNames The {@link WorkName}s to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insertAll(List<WorkName> workNames);
+
     /**
      * Retrieves all {@link WorkSpec} ids in the given named graph.
      *
@@ -55,4 +63,12 @@ public interface WorkNameDao {
     @Query("SELECT name FROM workname WHERE work_spec_id=:workSpecId")
     @NonNull
     List<String> getNamesForWorkSpecId(@NonNull String workSpecId);
+
+    /**
+     * Deletes the names of {@link WorkSpec}s.
+     *
+     * @param workSpecIds The ids of the {@link WorkSpec}s
+     */
+    @Query("DELETE FROM workname WHERE work_spec_id IN (:workSpecIds)")
+    void deleteForWorkSpecIds(@NonNull List<String> workSpecIds);
 }
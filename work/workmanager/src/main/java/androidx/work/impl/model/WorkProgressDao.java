@@ -73,4 +73,12 @@ public interface WorkProgressDao {
     @NonNull
     @Query("SELECT progress FROM WorkProgress WHERE work_spec_id IN (:workSpecIds)")
     List<Data> getProgressForWorkSpecIds(@NonNull List<String> workSpecIds);
+
+    /**
+     * Deletes the {@link WorkProgress} of {@link WorkSpec}s from the database.
+     *
+     * @param workSpecIds The {@link List} of workSpec ids
+     */
+    @Query("DELETE FROM WorkProgress WHERE work_spec_id IN (:workSpecIds)")
+    void deleteForWorkSpecIds(@NonNull List<String> workSpecIds);
 }
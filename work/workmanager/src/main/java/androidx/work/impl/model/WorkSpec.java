@@ -51,7 +51,7 @@ import java.util.UUID;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 @Entity(
         indices = {
-                @Index(value = {"schedule_requested_at"}),
+                @Index(value = {"state", "schedule_requested_at", "period_start_time"}),
                 @Index(value = {"period_start_time"})
         }
 )
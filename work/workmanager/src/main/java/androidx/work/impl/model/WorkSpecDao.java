@@ -18,6 +18,7 @@ package androidx.work.impl.model;
 
 import static androidx.room.OnConflictStrategy.IGNORE;
 import static androidx.work.impl.model.WorkTypeConverters.StateIds.COMPLETED_STATES;
+import static androidx.work.impl.model.WorkTypeConverters.StateIds.UNFINISHED_STATES;
 
 import android.annotation.SuppressLint;
 
@@ -46,6 +47,14 @@ public interface WorkSpecDao {
     @Insert(onConflict = IGNORE)
     void insertWorkSpec(WorkSpec workSpec);
 
+    /**
+     * Attempts to insert {@link WorkSpec}s into the database.
+     *
+     * @param workSpecs The WorkSpecs to insert.
+     */
+    @Insert(onConflict = IGNORE)
+    void insertWorkSpecs(List<WorkSpec> workSpecs);
+
     /**
      * Deletes {@link WorkSpec}s from the database.
      *
@@ -242,7 +251,7 @@ public interface WorkSpecDao {
      * @param tag The tag used to identify the work
      * @return A list of work ids
      */
-    @Query("SELECT id FROM workspec WHERE state NOT IN " + COMPLETED_STATES
+    @Query("SELECT id FROM workspec WHERE state IN " + UNFINISHED_STATES
             + " AND id IN (SELECT work_spec_id FROM worktag WHERE tag=:tag)")
     List<String> getUnfinishedWorkWithTag(@NonNull String tag);
 
@@ -252,7 +261,7 @@ public interface WorkSpecDao {
      * @param name THe tag used to identify the work
      * @return A list of work ids
      */
-    @Query("SELECT id FROM workspec WHERE state NOT IN " + COMPLETED_STATES
+    @Query("SELECT id FROM workspec WHERE state IN " + UNFINISHED_STATES
             + " AND id IN (SELECT work_spec_id FROM workname WHERE name=:name)")
     List<String> getUnfinishedWorkWithName(@NonNull String name);
 
@@ -261,9 +270,15 @@ public interface WorkSpecDao {
      *
      * @return A list of work ids
      */
-    @Query("SELECT id FROM workspec WHERE state NOT IN " + COMPLETED_STATES)
+    @Query("SELECT id FROM workspec WHERE state IN " + UNFINISHED_STATES)
     List<String> getAllUnfinishedWork();
 
+    /**
+     * @return {@code true} if there is any unfinished work.
+     */
+    @Query("SELECT EXISTS(SELECT 1 FROM workspec WHERE state IN " + UNFINISHED_STATES + ")")
+    boolean hasUnfinishedWork();
+
     /**
      * Marks a {@link WorkSpec} as scheduled.
      *
@@ -274,6 +289,16 @@ public interface WorkSpecDao {
     @Query("UPDATE workspec SET schedule_requested_at=:startTime WHERE id=:id")
     int markWorkSpecScheduled(@NonNull String id, long startTime);
 
+    /**
+     * Marks {@link WorkSpec}s as scheduled.
+     *
+     * @param ids       The identifiers for the {@link WorkSpec}s
+     * @param startTime The time at which the {@link WorkSpec}s were scheduled.
+     * @return The number of rows that were updated
+     */
+    @Query("UPDATE workspec SET schedule_requested_at=:startTime WHERE id IN (:ids)")
+    int markWorkSpecsScheduled(@NonNull List<String> ids, long startTime);
+
     /**
      * @return The time at which the {@link WorkSpec} was scheduled.
      */
@@ -285,7 +310,7 @@ public interface WorkSpecDao {
      * @return The number of rows that were updated
      */
     @Query("UPDATE workspec SET schedule_requested_at=" + WorkSpec.SCHEDULE_NOT_REQUESTED_YET
-            + " WHERE state NOT IN " + COMPLETED_STATES)
+            + " WHERE state IN " + UNFINISHED_STATES)
     int resetScheduledState();
 
     /**
@@ -300,7 +325,7 @@ public interface WorkSpecDao {
             + " LIMIT "
                 + "(SELECT MAX(:schedulerLimit" + "-COUNT(*), 0) FROM workspec WHERE"
                     + " schedule_requested_at<>" + WorkSpec.SCHEDULE_NOT_REQUESTED_YET
-                    + " AND state NOT IN " + COMPLETED_STATES
+                    + " AND state IN " + UNFINISHED_STATES
                 + ")"
     )
     List<WorkSpec> getEligibleWorkForScheduling(int schedulerLimit);
@@ -358,4 +383,45 @@ public interface WorkSpecDao {
             + "    work_spec_id NOT IN "
             + "        (SELECT id FROM workspec WHERE state IN " + COMPLETED_STATES + "))")
     void pruneFinishedWorkWithZeroDependentsIgnoringKeepForAtLeast();
+
+    /**
+     * Gets the ids of the oldest work that can be pruned, meeting the following criteria:
+     * - Is finished (succeeded, failed, or cancelled)
+     * - Has a retention time that expired before {@code prunedBefore}
+     * - Has zero unfinished dependents
+     *
+     * @param prunedBefore The time before which the retention time of the work must expire
+     * @param limit        The maximum number of ids to return
+     * @return The ids of the work, oldest first
+     */
+    @Query("SELECT id FROM workspec WHERE "
+            // The unary + keeps SQLite from looking up the state, which matches most of the rows
+            // and would have to be sorted, so that the oldest rows are read in order from the
+            // period_start_time index instead. The retention duration is never negative.
+            + "+state IN " + COMPLETED_STATES
+            + " AND period_start_time < :prunedBefore"
+            + " AND (period_start_time + minimum_retention_duration) < :prunedBefore"
+            + " AND NOT EXISTS (SELECT 1 FROM dependency"
+            + "     JOIN workspec AS dependent ON dependent.id=dependency.work_spec_id"
+            + "     WHERE dependency.prerequisite_id=workspec.id"
+            + "     AND dependent.state IN " + UNFINISHED_STATES + ")"
+            + " ORDER BY period_start_time"
+            + " LIMIT :limit")
+    List<String> getPrunableWorkSpecIds(long prunedBefore, int limit);
+
+    /**
+     * @return The number of {@link WorkSpec}s that are finished (succeeded, failed, or cancelled)
+     */
+    @Query("SELECT COUNT(*) FROM workspec WHERE state IN " + COMPLETED_STATES)
+    int getFinishedWorkCount();
+
+    /**
+     * Deletes {@link WorkSpec}s. Their tags, names, dependencies, progress and system ids are
+     * deleted by the foreign key cascades, unless they were deleted first.
+     *
+     * @param ids The ids of the {@link WorkSpec}s to delete
+     * @return The number of deleted {@link WorkSpec}s
+     */
+    @Query("DELETE FROM workspec WHERE id IN (:ids)")
+    int deleteWorkSpecs(List<String> ids);
 }
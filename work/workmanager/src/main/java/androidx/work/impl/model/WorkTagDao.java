@@ -38,6 +38,14 @@ public interface WorkTagDao {
     @Insert(onConflict = IGNORE)
     void insert(WorkTag workTag);
 
+    /**
+     * Inserts {@link WorkTag}s into the table.
+     *
+     * @param workTags The {@link WorkTag}s to insert
+     */
+    @Insert(onConflict = IGNORE)
+    void insertAll(List<WorkTag> workTags);
+
     /**
      * Retrieves all {@link WorkSpec} ids with the given tag.
      *
@@ -55,4 +63,12 @@ public interface WorkTagDao {
      */
     @Query("SELECT DISTINCT tag FROM worktag WHERE work_spec_id=:id")
     List<String> getTagsForWorkSpecId(String id);
+
+    /**
+     * Deletes the tags of {@link WorkSpec}s.
+     *
+     * @param workSpecIds The ids of the {@link WorkSpec}s
+     */
+    @Query("DELETE FROM worktag WHERE work_spec_id IN (:workSpecIds)")
+    void deleteForWorkSpecIds(List<String> workSpecIds);
 }
@@ -57,6 +57,10 @@ public class WorkTypeConverters {
         int CANCELLED = 5;
 
         String COMPLETED_STATES = "(" + SUCCEEDED + ", " + FAILED + ", " + CANCELLED + ")";
+
+        // The complement of COMPLETED_STATES. Unlike NOT IN COMPLETED_STATES, it can be looked
+        // up in an index on the state.
+        String UNFINISHED_STATES = "(" + ENQUEUED + ", " + RUNNING + ", " + BLOCKED + ")";
     }
 
     /**
@@ -62,7 +62,10 @@ import java.util.List;
 import java.util.Set;
 
 /**
- * Manages the enqueuing of a {@link WorkContinuationImpl}.
+ * Manages the enqueuing of one or more {@link WorkContinuationImpl}s.
+ * <p>
+ * All the continuations are added to the database in a single transaction, and scheduled with a
+ * single pass over the {@link Scheduler}s once the transaction is committed.
  *
  * @hide
  */
@@ -71,26 +74,35 @@ public class EnqueueRunnable implements Runnable {
 
     private static final String TAG = Logger.tagWithPrefix("EnqueueRunnable");
 
-    private final WorkContinuationImpl mWorkContinuation;
+    private final List<WorkContinuationImpl> mWorkContinuations;
     private final OperationImpl mOperation;
 
     public EnqueueRunnable(@NonNull WorkContinuationImpl workContinuation) {
-        mWorkContinuation = workContinuation;
+        this(Collections.singletonList(workContinuation));
+    }
+
+    /**
+     * @param workContinuations The {@link WorkContinuationImpl}s to enqueue, all of which must
+     *                          belong to the same {@link WorkManagerImpl}
+     */
+    public EnqueueRunnable(@NonNull List<WorkContinuationImpl> workContinuations) {
+        mWorkContinuations = workContinuations;
         mOperation = new OperationImpl();
     }
 
     @Override
     public void run() {
         try {
-            if (mWorkContinuation.hasCycles()) {
-                throw new IllegalStateException(
-                        String.format("WorkContinuation has cycles (%s)", mWorkContinuation));
+            for (WorkContinuationImpl workContinuation : mWorkContinuations) {
+                if (workContinuation.hasCycles()) {
+                    throw new IllegalStateException(
+                            String.format("WorkContinuation has cycles (%s)", workContinuation));
+                }
             }
             boolean needsScheduling = addToDatabase();
             if (needsScheduling) {
                 // Enable RescheduleReceiver, only when there are Worker's that need scheduling.
-                final Context context =
-                        mWorkContinuation.getWorkManagerImpl().getApplicationContext();
+                final Context context = getWorkManagerImpl().getApplicationContext();
                 PackageManagerHelper.setComponentEnabled(context, RescheduleReceiver.class, true);
                 scheduleWorkInBackground();
             }
@@ -113,11 +125,20 @@ public class EnqueueRunnable implements Runnable {
      */
     @VisibleForTesting
     public boolean addToDatabase() {
-        WorkManagerImpl workManagerImpl = mWorkContinuation.getWorkManagerImpl();
+        WorkManagerImpl workManagerImpl = getWorkManagerImpl();
         WorkDatabase workDatabase = workManagerImpl.getWorkDatabase();
         workDatabase.beginTransaction();
         try {
-            boolean needsScheduling = processContinuation(mWorkContinuation);
+            boolean needsScheduling = false;
+            for (WorkContinuationImpl workContinuation : mWorkContinuations) {
+                // Continuations in a batch may share parents, which are only added once.
+                if (!workContinuation.isEnqueued()) {
+                    needsScheduling |= processContinuation(workContinuation);
+                } else {
+                    Logger.get().warning(TAG, String.format("Already enqueued work ids (%s).",
+                            TextUtils.join(", ", workContinuation.getIds())));
+                }
+            }
             workDatabase.setTransactionSuccessful();
             return needsScheduling;
         } finally {
@@ -130,13 +151,17 @@ public class EnqueueRunnable implements Runnable {
      */
     @VisibleForTesting
     public void scheduleWorkInBackground() {
-        WorkManagerImpl workManager = mWorkContinuation.getWorkManagerImpl();
+        WorkManagerImpl workManager = getWorkManagerImpl();
         Schedulers.schedule(
                 workManager.getConfiguration(),
                 workManager.getWorkDatabase(),
                 workManager.getSchedulers());
     }
 
+    private WorkManagerImpl getWorkManagerImpl() {
+        return mWorkContinuations.get(0).getWorkManagerImpl();
+    }
+
     private static boolean processContinuation(@NonNull WorkContinuationImpl workContinuation) {
         boolean needsScheduling = false;
         List<WorkContinuationImpl> parents = workContinuation.getParents();
@@ -288,6 +313,11 @@ public class EnqueueRunnable implements Runnable {
             }
         }
 
+        // Rows are collected and inserted in bulk, which reuses one compiled statement per table.
+        List<WorkSpec> workSpecs = new ArrayList<>(workList.size());
+        List<Dependency> dependencies = new ArrayList<>();
+        List<WorkTag> workTags = new ArrayList<>();
+        List<WorkName> workNames = new ArrayList<>();
         for (WorkRequest work : workList) {
             WorkSpec workSpec = work.getWorkSpec();
 
@@ -323,23 +353,33 @@ public class EnqueueRunnable implements Runnable {
                 needsScheduling = true;
             }
 
-            workDatabase.workSpecDao().insertWorkSpec(workSpec);
+            workSpecs.add(workSpec);
 
             if (hasPrerequisite) {
                 for (String prerequisiteId : prerequisiteIds) {
-                    Dependency dep = new Dependency(work.getStringId(), prerequisiteId);
-                    workDatabase.dependencyDao().insertDependency(dep);
+                    dependencies.add(new Dependency(work.getStringId(), prerequisiteId));
                 }
             }
 
             for (String tag : work.getTags()) {
-                workDatabase.workTagDao().insert(new WorkTag(tag, work.getStringId()));
+                workTags.add(new WorkTag(tag, work.getStringId()));
             }
 
             if (isNamed) {
-                workDatabase.workNameDao().insert(new WorkName(name, work.getStringId()));
+                workNames.add(new WorkName(name, work.getStringId()));
             }
         }
+
+        workDatabase.workSpecDao().insertWorkSpecs(workSpecs);
+        if (!dependencies.isEmpty()) {
+            workDatabase.dependencyDao().insertDependencies(dependencies);
+        }
+        if (!workTags.isEmpty()) {
+            workDatabase.workTagDao().insertAll(workTags);
+        }
+        if (!workNames.isEmpty()) {
+            workDatabase.workNameDao().insertAll(workNames);
+        }
         return needsScheduling;
     }
 
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2020 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.work.impl.utils;
+
+import android.database.Cursor;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.work.Configuration;
+import androidx.work.Logger;
+import androidx.work.PruneStatistics;
+import androidx.work.impl.ExecutionListener;
+import androidx.work.impl.WorkDatabase;
+import androidx.work.impl.model.WorkSpecDao;
+import androidx.work.impl.utils.taskexecutor.TaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prunes finished work in the background, according to the retention policy of the
+ * {@link Configuration}. Pruned work meets the following criteria:
+ * - Is finished (succeeded, failed, or cancelled)
+ * - Has a retention time that expired, and is older than
+ *   {@link Configuration#getMaxFinishedWorkAgeMillis()} or beyond the
+ *   {@link Configuration#getMaxFinishedWorkCount()} most recent finished work
+ * - Has zero unfinished dependents
+ * <p>
+ * Work is deleted in small batches, each in its own transaction, and a pass is split in slices
+ * of {@link Configuration#getPruneTimeSliceMillis()} that run one after the other on the
+ * background thread of the {@link TaskExecutor}, so that work enqueued in the meantime never
+ * waits for more than a slice. Once everything is pruned, the free pages of the database file
+ * are given back to the file system, a few at a time, if the database uses incremental
+ * auto-vacuum.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class WorkPruner implements ExecutionListener {
+
+    private static final String TAG = Logger.tagWithPrefix("WorkPruner");
+
+    @VisibleForTesting
+    static final int BATCH_SIZE = 100;
+    @VisibleForTesting
+    static final int VACUUM_PAGE_COUNT = 128;
+    private static final long PRUNE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private final WorkDatabase mWorkDatabase;
+    private final TaskExecutor mTaskExecutor;
+    private final long mMaxFinishedWorkAgeMillis;
+    private final int mMaxFinishedWorkCount;
+    private final long mTimeSliceMillis;
+    private final Object mLock;
+
+    // Guarded by mLock.
+    private boolean mIsPruning;
+    // Guarded by mLock.
+    private long mLastPassEndTime;
+    // Guarded by mLock.
+    private int mPassCount;
+    // Guarded by mLock.
+    private int mSliceCount;
+    // Guarded by mLock.
+    private int mPrunedWorkCount;
+    // Guarded by mLock.
+    private int mVacuumedPageCount;
+    // Guarded by mLock.
+    private long mLastPassDurationMillis;
+    // Guarded by mLock.
+    private long mMaxSliceDurationMillis;
+
+    public WorkPruner(
+            @NonNull WorkDatabase workDatabase,
+            @NonNull Configuration configuration,
+            @NonNull TaskExecutor taskExecutor) {
+        mWorkDatabase = workDatabase;
+        mTaskExecutor = taskExecutor;
+        mMaxFinishedWorkAgeMillis = configuration.getMaxFinishedWorkAgeMillis();
+        mMaxFinishedWorkCount = configuration.getMaxFinishedWorkCount();
+        mTimeSliceMillis = configuration.getPruneTimeSliceMillis();
+        mLock = new Object();
+        mLastPassEndTime = -1;
+    }
+
+    @Override
+    public void onExecuted(@NonNull String workSpecId, boolean needsReschedule) {
+        requestPrune();
+    }
+
+    /**
+     * Starts a pass unless one is running or the last pass ended less than an hour ago.
+     */
+    public void requestPrune() {
+        synchronized (mLock) {
+            if (mLastPassEndTime >= 0
+                    && SystemClock.elapsedRealtime() - mLastPassEndTime < PRUNE_INTERVAL_MILLIS) {
+                return;
+            }
+        }
+        prune();
+    }
+
+    /**
+     * Starts a pass unless one is running.
+     */
+    public void prune() {
+        synchronized (mLock) {
+            if (mIsPruning) {
+                return;
+            }
+            mIsPruning = true;
+        }
+        long now = System.currentTimeMillis();
+        PruneSlice slice = new PruneSlice(
+                now - mMaxFinishedWorkAgeMillis, now, SystemClock.elapsedRealtime());
+        mTaskExecutor.executeOnBackgroundThread(slice);
+    }
+
+    /**
+     * @return The {@link PruneStatistics} of the passes that ran so far
+     */
+    @NonNull
+    public PruneStatistics getStatistics() {
+        synchronized (mLock) {
+            return new PruneStatistics(mPassCount, mSliceCount, mPrunedWorkCount,
+                    mVacuumedPageCount, mLastPassDurationMillis, mMaxSliceDurationMillis);
+        }
+    }
+
+    /**
+     * Deletes a batch of work.
+     *
+     * @return The number of deleted work, {@code 0} once there is nothing left to prune
+     */
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    int pruneBatch(long agePrunedBefore, long countPrunedBefore) {
+        WorkSpecDao workSpecDao = mWorkDatabase.workSpecDao();
+        mWorkDatabase.beginTransaction();
+        try {
+            List<String> ids = workSpecDao.getPrunableWorkSpecIds(agePrunedBefore, BATCH_SIZE);
+            if (ids.isEmpty() && mMaxFinishedWorkCount != Integer.MAX_VALUE) {
+                int excess = workSpecDao.getFinishedWorkCount() - mMaxFinishedWorkCount;
+                if (excess > 0) {
+                    ids = workSpecDao.getPrunableWorkSpecIds(
+                            countPrunedBefore, Math.min(excess, BATCH_SIZE));
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            // Deleting the related rows of the whole batch first leaves nothing for the foreign
+            // key cascades to delete, which would otherwise look them up row by row.
+            mWorkDatabase.workTagDao().deleteForWorkSpecIds(ids);
+            mWorkDatabase.workNameDao().deleteForWorkSpecIds(ids);
+            mWorkDatabase.dependencyDao().deleteForWorkSpecIds(ids);
+            mWorkDatabase.workProgressDao().deleteForWorkSpecIds(ids);
+            mWorkDatabase.systemIdInfoDao().removeSystemIdInfos(ids);
+            int deleted = workSpecDao.deleteWorkSpecs(ids);
+            mWorkDatabase.setTransactionSuccessful();
+            return deleted;
+        } finally {
+            mWorkDatabase.endTransaction();
+        }
+    }
+
+    /**
+     * Gives back up to {@link #VACUUM_PAGE_COUNT} free pages to the file system.
+     *
+     * @return The number of pages given back, {@code 0} once there are none left or when none
+     * could be given back
+     */
+    @SuppressWarnings("WeakerAccess") /* synthetic access */
+    int vacuumPages() {
+        if (queryInt("PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            // The database was created before incremental auto-vacuum was enabled. Its free pages
+            // are reused for new work instead.
+            return 0;
+        }
+        int freePageCount = queryInt("PRAGMA freelist_count");
+        if (freePageCount == 0) {
+            return 0;
+        }
+        Cursor cursor = mWorkDatabase.query(
+                "PRAGMA incremental_vacuum(" + VACUUM_PAGE_COUNT + ")", null);
+        try {
+            // A page is freed for every step.
+            while (cursor.moveToNext()) {
+                // Nothing to read.
+            }
+        } finally {
+            cursor.close();
+        }
+        // The free list does not shrink when the file cannot be truncated, for instance while
+        // another connection reads from it, in which case the pass stops until the next one.
+        return Math.max(freePageCount - queryInt("PRAGMA freelist_count"), 0);
+    }
+
+    private int queryInt(@NonNull String sql) {
+        Cursor cursor = mWorkDatabase.query(sql, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * A slice of a pass, which posts the next slice when it runs out of time.
+     */
+    private class PruneSlice implements Runnable {
+        private final long mAgePrunedBefore;
+        private final long mCountPrunedBefore;
+        private final long mPassStartTime;
+        private boolean mIsVacuuming;
+        private int mPassPrunedCount;
+
+        PruneSlice(long agePrunedBefore, long countPrunedBefore, long passStartTime) {
+            mAgePrunedBefore = agePrunedBefore;
+            mCountPrunedBefore = countPrunedBefore;
+            mPassStartTime = passStartTime;
+        }
+
+        @Override
+        public void run() {
+            long start = SystemClock.elapsedRealtime();
+            int pruned = 0;
+            int vacuumed = 0;
+            boolean isDone = false;
+            try {
+                do {
+                    if (!mIsVacuuming) {
+                        int deleted = pruneBatch(mAgePrunedBefore, mCountPrunedBefore);
+                        pruned += deleted;
+                        mIsVacuuming = deleted == 0;
+                    } else {
+                        int pages = vacuumPages();
+                        vacuumed += pages;
+                        isDone = pages == 0;
+                    }
+                } while (!isDone && SystemClock.elapsedRealtime() - start < mTimeSliceMillis);
+            } catch (RuntimeException exception) {
+                // Pruning is retried in the next pass.
+                Logger.get().error(TAG, "Unable to prune finished work", exception);
+                isDone = true;
+            }
+
+            long end = SystemClock.elapsedRealtime();
+            synchronized (mLock) {
+                mSliceCount++;
+                mPrunedWorkCount += pruned;
+                mVacuumedPageCount += vacuumed;
+                mMaxSliceDurationMillis = Math.max(mMaxSliceDurationMillis, end - start);
+                if (isDone) {
+                    mIsPruning = false;
+                    mPassCount++;
+                    mLastPassEndTime = end;
+                    mLastPassDurationMillis = end - mPassStartTime;
+                }
+            }
+            mPassPrunedCount += pruned;
+            if (!isDone) {
+                // Let anything that was posted in the meantime, like enqueued work, run first.
+                mTaskExecutor.executeOnBackgroundThread(this);
+            } else {
+                Logger.get().debug(TAG, String.format("Pruned %s work in %s ms", mPassPrunedCount,
+                        end - mPassStartTime));
+            }
+        }
+    }
+}
@@ -89,6 +89,65 @@ public class DataTest {
         assertThat(restoredData.getIntArray(KEY2), is(equalTo(expectedValue2)));
     }
 
+    @Test
+    public void testSerializeAllTypes() {
+        Data data = new Data.Builder()
+                .putAll(createData())
+                .putBoolean("boolean", true)
+                .putBooleanArray("boolean array", new boolean[] { true, false })
+                .putInt("negative int", Integer.MIN_VALUE)
+                .putIntArray("int array", new int[] { -1, 0, Integer.MAX_VALUE })
+                .putLong("long", Long.MIN_VALUE)
+                .putFloatArray("float array", new float[] { Float.NaN, -0f })
+                .putDouble("double", Math.PI)
+                .putDoubleArray("double array", new double[] { Double.MAX_VALUE })
+                .putStringArray("String array", new String[] { "two", null, "three", "two" })
+                .build();
+
+        byte[] byteArray = data.toByteArray();
+
+        assertThat(byteArray[0], is(DataSerializer.MAGIC));
+        assertThat(Data.fromByteArray(byteArray), is(data));
+    }
+
+    @Test
+    public void testDeserializeLegacyFormat() {
+        Data data = createData();
+
+        byte[] byteArray = Data.toByteArrayLegacy(data);
+
+        assertThat(DataSerializer.isSerialized(byteArray), is(false));
+        assertThat(Data.fromByteArray(byteArray), is(data));
+    }
+
+    @Test
+    public void testSerializeNullArrayElementUsesLegacyFormat() {
+        Data data = new Data.Builder()
+                .put(KEY1, new Integer[] { 1, null })
+                .build();
+
+        byte[] byteArray = data.toByteArray();
+
+        assertThat(DataSerializer.isSerialized(byteArray), is(false));
+        assertThat(Data.fromByteArray(byteArray), is(data));
+    }
+
+    @Test
+    public void testSerializeIsSmallerThanLegacyFormat() {
+        Data.Builder builder = new Data.Builder();
+        for (int i = 0; i < 20; i++) {
+            builder.putLong("key" + i, i);
+        }
+        int[] array = new int[100];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i * 1000;
+        }
+        Data data = builder.putIntArray(KEY1, array).build();
+
+        assertThat(data.toByteArray().length * 2 < Data.toByteArrayLegacy(data).length,
+                is(true));
+    }
+
     @Test
     public void testSerializePastMaxSize() {
         int[] payload = new int[Data.MAX_DATA_BYTES + 1];